@@ -0,0 +1,79 @@
+package com.github.bogdanromanx.web.server.benchmarks;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.framing.FramingStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.bogdanromanx.web.server.benchmarks.Requests.CONFIG;
+
+/**
+ * Benchmarks of a {@link FramingStage} materialized on a connection worth of reads: it includes the cost of the
+ * stream materialization and of the back pressure protocol that drives the state machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FramingStageBenchmark {
+
+    private static final int PIPELINED = 16;
+
+    @Param({"BROWSER", "API", "MINIMAL"})
+    public String request;
+
+    /**
+     * The size of the reads: "1" and "1460" (a single segment) split {@link #PIPELINED} requests, "pipelined" reads
+     * them all at once.
+     */
+    @Param({"1", "1460", "pipelined"})
+    public String reads;
+
+    private ActorSystem system;
+    private Materializer materializer;
+    private List<ByteString> chunks;
+
+    @Setup
+    public void setup() throws Exception {
+        system = ActorSystem.create("benchmarks");
+        materializer = ActorMaterializer.create(system);
+        ByteString bytes = Requests.pipelined((String) Requests.class.getField(request).get(null), PIPELINED);
+        chunks = Requests.fragment(bytes, "pipelined".equals(reads) ? bytes.length() : Integer.parseInt(reads));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    @Benchmark
+    public int frames() throws Exception {
+        return Source.from(chunks)
+                .via(new FramingStage(CONFIG))
+                .runFold(0, (count, frame) -> count + 1, materializer)
+                .toCompletableFuture()
+                .get();
+    }
+}
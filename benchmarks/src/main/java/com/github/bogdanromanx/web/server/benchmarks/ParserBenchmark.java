@@ -0,0 +1,144 @@
+package com.github.bogdanromanx.web.server.benchmarks;
+
+import akka.NotUsed;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.parsing.EmptyLineParser;
+import com.github.bogdanromanx.web.server.parsing.HeaderParser;
+import com.github.bogdanromanx.web.server.parsing.ParsingException;
+import com.github.bogdanromanx.web.server.parsing.RequestLineParser;
+import com.github.bogdanromanx.web.server.parsing.Result;
+import com.github.bogdanromanx.web.server.types.RequestLine;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.github.bogdanromanx.web.server.benchmarks.Requests.CONFIG;
+
+/**
+ * Benchmarks of the individual parsers applied to complete inputs, to incomplete inputs (the parse is attempted again
+ * once more bytes arrive) and to malformed or oversized inputs (the parse fails with a {@link ParsingException}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"BROWSER", "API", "MINIMAL"})
+    public String request;
+
+    private final RequestLineParser requestLineParser =
+            new RequestLineParser(CONFIG.methodLength(), CONFIG.uriLength(), CONFIG.protocolLength());
+    private final HeaderParser headerParser = new HeaderParser(CONFIG.headerNameLength(), CONFIG.headerValueLength());
+    private final EmptyLineParser emptyLineParser = new EmptyLineParser();
+
+    private ByteString requestLine;
+    private ByteString incompleteRequestLine;
+    private ByteString headers;
+    private ByteString incompleteHeader;
+    private int headerCount;
+    private ByteString emptyLine;
+
+    private ByteString malformedProtocol;
+    private ByteString oversizedURI;
+    private ByteString malformedHeader;
+    private ByteString oversizedHeader;
+
+    @Setup
+    public void setup() throws Exception {
+        String raw = (String) Requests.class.getField(request).get(null);
+        ByteString bytes = Requests.bytes(raw);
+        int headersStart = bytes.indexOfSlice(ByteString.fromString("\r\n")) + 2;
+        int headersEnd = bytes.indexOfSlice(ByteString.fromString("\r\n\r\n")) + 2;
+        requestLine = bytes;
+        incompleteRequestLine = bytes.take(headersStart / 2).compact();
+        headers = bytes.slice(headersStart, headersEnd).compact();
+        incompleteHeader = headers.take(headers.indexOfSlice(ByteString.fromString("\r\n")) - 1).compact();
+        headerCount = raw.substring(headersStart, headersEnd).split("\r\n").length;
+        emptyLine = bytes.drop(headersEnd).compact();
+
+        malformedProtocol = Requests.bytes(Requests.MALFORMED_PROTOCOL);
+        oversizedURI = Requests.bytes(Requests.OVERSIZED_URI);
+        malformedHeader = header(Requests.MALFORMED_HEADER, ":");
+        oversizedHeader = header(Requests.OVERSIZED_HEADER, "Cookie");
+    }
+
+    @Benchmark
+    public Result<RequestLine> requestLine() {
+        return requestLineParser.apply(requestLine);
+    }
+
+    @Benchmark
+    public Result<RequestLine> incompleteRequestLine() {
+        return requestLineParser.apply(incompleteRequestLine);
+    }
+
+    @Benchmark
+    public void headers(Blackhole blackhole) {
+        ByteString remaining = headers;
+        for (int i = 0; i < headerCount; i++) {
+            Result<RawHeader> result = headerParser.apply(remaining);
+            blackhole.consume(result.value());
+            remaining = result.remaining();
+        }
+        blackhole.consume(remaining);
+    }
+
+    @Benchmark
+    public Result<RawHeader> incompleteHeader() {
+        return headerParser.apply(incompleteHeader);
+    }
+
+    @Benchmark
+    public Result<NotUsed> emptyLine() {
+        return emptyLineParser.apply(emptyLine);
+    }
+
+    @Benchmark
+    public Object malformedProtocol() {
+        return fail(() -> requestLineParser.apply(malformedProtocol));
+    }
+
+    @Benchmark
+    public Object oversizedURI() {
+        return fail(() -> requestLineParser.apply(oversizedURI));
+    }
+
+    @Benchmark
+    public Object malformedHeader() {
+        return fail(() -> headerParser.apply(malformedHeader));
+    }
+
+    @Benchmark
+    public Object oversizedHeader() {
+        return fail(() -> headerParser.apply(oversizedHeader));
+    }
+
+    private static ByteString header(String request, String from) {
+        ByteString bytes = Requests.bytes(request);
+        return bytes.drop(bytes.indexOfSlice(ByteString.fromString(from))).compact();
+    }
+
+    private static Object fail(Supplier<Result<?>> parse) {
+        try {
+            return parse.get();
+        } catch (ParsingException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.bogdanromanx.web.server.framing;
+
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.benchmarks.Requests;
+import com.github.bogdanromanx.web.server.parsing.ParsingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.bogdanromanx.web.server.benchmarks.Requests.CONFIG;
+
+/**
+ * Benchmarks of the {@link FramingStage} state machine driven directly, without the stream materialization: the reads
+ * of a connection are fed to the states one after the other and every produced {@link RequestFrame} is consumed, the
+ * way {@link FramingStage} does.  It lives in the framing package to reach the package private states.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FramingStateBenchmark {
+
+    /**
+     * The number of requests written at once by a pipelining client.
+     */
+    static final int PIPELINED = 16;
+
+    @Param({"BROWSER", "API", "MINIMAL"})
+    public String request;
+
+    /**
+     * The size of the reads: "1" and "1460" (a single segment) split {@link #PIPELINED} requests, "pipelined" reads
+     * them all at once.
+     */
+    @Param({"1", "1460", "pipelined"})
+    public String reads;
+
+    private List<ByteString> chunks;
+    private List<ByteString> malformedProtocol;
+    private List<ByteString> malformedHeader;
+    private List<ByteString> oversizedHeader;
+
+    @Setup
+    public void setup() throws Exception {
+        chunks = chunks((String) Requests.class.getField(request).get(null), PIPELINED);
+        malformedProtocol = chunks(Requests.MALFORMED_PROTOCOL, 1);
+        malformedHeader = chunks(Requests.MALFORMED_HEADER, 1);
+        oversizedHeader = chunks(Requests.OVERSIZED_HEADER, 1);
+    }
+
+    private List<ByteString> chunks(String request, int count) {
+        ByteString bytes = Requests.pipelined(request, count);
+        return Requests.fragment(bytes, "pipelined".equals(reads) ? bytes.length() : Integer.parseInt(reads));
+    }
+
+    @Benchmark
+    public int frames(Blackhole blackhole) {
+        return frame(chunks, blackhole);
+    }
+
+    @Benchmark
+    public Object malformedProtocol(Blackhole blackhole) {
+        return fail(malformedProtocol, blackhole);
+    }
+
+    @Benchmark
+    public Object malformedHeader(Blackhole blackhole) {
+        return fail(malformedHeader, blackhole);
+    }
+
+    @Benchmark
+    public Object oversizedHeader(Blackhole blackhole) {
+        return fail(oversizedHeader, blackhole);
+    }
+
+    private static Object fail(List<ByteString> chunks, Blackhole blackhole) {
+        try {
+            return frame(chunks, blackhole);
+        } catch (ParsingException e) {
+            return e;
+        }
+    }
+
+    private static int frame(List<ByteString> chunks, Blackhole blackhole) {
+        int frames = 0;
+        FramingStageState state = new ExpectingRequestLine(CONFIG, ByteString.empty());
+        for (ByteString chunk : chunks) {
+            state = state.next(chunk);
+            Optional<RequestFrame> frame = state.frame();
+            while (frame.isPresent()) {
+                blackhole.consume(frame.get());
+                frames++;
+                state = state.next();
+                frame = state.frame();
+            }
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Histogram of non negative long values (i.e.: latencies in nanoseconds) with a fixed relative precision, in the style
+ * of HdrHistogram: values up to 127 are counted exactly, larger values are counted in buckets that keep their 7 most
+ * significant bits, so that the recorded values are off by less than 1.6% across the whole long range.  The bucket
+ * counts are held in a fixed array of about 3800 counters, recording never allocates.
+ * </p>
+ * <p>
+ * The instances are not thread safe: each load generator thread records into its own histograms, which are merged
+ * with {@link Histogram#add(Histogram)} once the threads are done.
+ * </p>
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records the argument 'value'.
+     *
+     * @param value the value to record
+     * @throws IllegalArgumentException for negative values
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("The histogram values cannot be negative");
+        }
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values recorded by the argument 'other' histogram to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return the smallest recorded value, 0 if none was recorded
+     */
+    public long min() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the largest recorded value, 0 if none was recorded
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if none was recorded
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value below which the argument 'percentile' of the recorded values fall, as the highest value
+     * equivalent to the values of its bucket (capped to the largest recorded value).
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the argument 'percentile', 0 if none was recorded
+     * @throws IllegalArgumentException for percentiles outside of [0, 100]
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalent(int index) {
+        int shift = Math.max(0, index / SUB_BUCKET_HALF - 1);
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Histogram{" +
+                "count=" + count +
+                ", min=" + min() +
+                ", mean=" + mean() +
+                ", p50=" + percentile(50) +
+                ", p99=" + percentile(99) +
+                ", max=" + max +
+                ", buckets=" + Arrays.stream(counts).filter(c -> c > 0).count() +
+                '}';
+    }
+}
@@ -0,0 +1,257 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import com.typesafe.config.Config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of a {@link LoadGenerator} run.
+ */
+public final class LoadConfig {
+
+    private final String host;
+    private final int port;
+    private final int connections;
+    private final int threads;
+    private final int pipelining;
+    private final int requestsPerConnection;
+    private final Duration warmUp;
+    private final Duration duration;
+    private final RequestMix mix;
+    private final String report;
+
+    /**
+     * Constructs a new {@link LoadConfig} instance from the arguments.
+     *
+     * @param host                  the host of the server
+     * @param port                  the port of the server
+     * @param connections           the number of concurrent connections
+     * @param threads               the number of threads that drive the connections
+     * @param pipelining            the maximum number of requests in flight on a connection
+     * @param requestsPerConnection the number of requests after which a connection is closed and replaced, 0 keeps the
+     *                              connections open for the whole run
+     * @param warmUp                the duration of the initial load that is not part of the report
+     * @param duration              the duration of the measured load
+     * @param mix                   the requests issued
+     * @param report                the file the report is written to, empty for the standard output
+     * @throws NullPointerException     for null host, warmUp, duration, mix or report arguments
+     * @throws IllegalArgumentException for non positive connections, threads or pipelining, a negative number of
+     *                                  requests per connection or negative durations
+     */
+    private LoadConfig(String host, int port, int connections, int threads, int pipelining,
+                       int requestsPerConnection, Duration warmUp, Duration duration, RequestMix mix, String report) {
+        this.host = requireNonNull(host, "The load generator host cannot be null");
+        this.port = port;
+        this.connections = connections;
+        this.threads = threads;
+        this.pipelining = pipelining;
+        this.requestsPerConnection = requestsPerConnection;
+        this.warmUp = requireNonNull(warmUp, "The load generator warm-up cannot be null");
+        this.duration = requireNonNull(duration, "The load generator duration cannot be null");
+        this.mix = requireNonNull(mix, "The load generator request mix cannot be null");
+        this.report = requireNonNull(report, "The load generator report cannot be null");
+        if (connections < 1 || threads < 1 || pipelining < 1) {
+            throw new IllegalArgumentException(
+                    "The load generator connections, threads and pipelining must be positive");
+        }
+        if (requestsPerConnection < 0) {
+            throw new IllegalArgumentException("The load generator requests per connection cannot be negative");
+        }
+        if (warmUp.isNegative() || duration.isNegative()) {
+            throw new IllegalArgumentException("The load generator durations cannot be negative");
+        }
+    }
+
+    /**
+     * @return the host of the server
+     */
+    public String host() {
+        return host;
+    }
+
+    /**
+     * @return the port of the server
+     */
+    public int port() {
+        return port;
+    }
+
+    /**
+     * @return the number of concurrent connections
+     */
+    public int connections() {
+        return connections;
+    }
+
+    /**
+     * @return the number of threads that drive the connections
+     */
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * @return the maximum number of requests in flight on a connection
+     */
+    public int pipelining() {
+        return pipelining;
+    }
+
+    /**
+     * @return the number of requests after which a connection is closed and replaced, 0 keeps the connections open for
+     * the whole run
+     */
+    public int requestsPerConnection() {
+        return requestsPerConnection;
+    }
+
+    /**
+     * @return the duration of the initial load that is not part of the report
+     */
+    public Duration warmUp() {
+        return warmUp;
+    }
+
+    /**
+     * @return the duration of the measured load
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * @return the requests issued
+     */
+    public RequestMix mix() {
+        return mix;
+    }
+
+    /**
+     * @return the file the report is written to, empty for the standard output
+     */
+    public String report() {
+        return report;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoadConfig that = (LoadConfig) o;
+        if (port != that.port) return false;
+        if (connections != that.connections) return false;
+        if (threads != that.threads) return false;
+        if (pipelining != that.pipelining) return false;
+        if (requestsPerConnection != that.requestsPerConnection) return false;
+        if (!host.equals(that.host)) return false;
+        if (!warmUp.equals(that.warmUp)) return false;
+        if (!duration.equals(that.duration)) return false;
+        if (!mix.equals(that.mix)) return false;
+        return report.equals(that.report);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = host.hashCode();
+        result = 31 * result + port;
+        result = 31 * result + connections;
+        result = 31 * result + threads;
+        result = 31 * result + pipelining;
+        result = 31 * result + requestsPerConnection;
+        result = 31 * result + warmUp.hashCode();
+        result = 31 * result + duration.hashCode();
+        result = 31 * result + mix.hashCode();
+        result = 31 * result + report.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "LoadConfig{" +
+                "host='" + host + '\'' +
+                ", port=" + port +
+                ", connections=" + connections +
+                ", threads=" + threads +
+                ", pipelining=" + pipelining +
+                ", requestsPerConnection=" + requestsPerConnection +
+                ", warmUp=" + warmUp +
+                ", duration=" + duration +
+                ", mix=" + mix +
+                ", report='" + report + '\'' +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link LoadConfig} instance from the arguments.
+     *
+     * @param host                  the host of the server
+     * @param port                  the port of the server
+     * @param connections           the number of concurrent connections
+     * @param threads               the number of threads that drive the connections
+     * @param pipelining            the maximum number of requests in flight on a connection
+     * @param requestsPerConnection the number of requests after which a connection is closed and replaced, 0 keeps the
+     *                              connections open for the whole run
+     * @param warmUp                the duration of the initial load that is not part of the report
+     * @param duration              the duration of the measured load
+     * @param mix                   the requests issued
+     * @param report                the file the report is written to, empty for the standard output
+     * @return a new {@link LoadConfig} instance from the arguments
+     * @throws NullPointerException     for null host, warmUp, duration, mix or report arguments
+     * @throws IllegalArgumentException for non positive connections, threads or pipelining, a negative number of
+     *                                  requests per connection or negative durations
+     */
+    public static LoadConfig of(String host, int port, int connections, int threads, int pipelining,
+                                int requestsPerConnection, Duration warmUp, Duration duration, RequestMix mix,
+                                String report) {
+        return new LoadConfig(host, port, connections, threads, pipelining, requestsPerConnection, warmUp, duration,
+                mix, report);
+    }
+
+    /**
+     * Constructs a new {@link LoadConfig} instance from the argument 'config', which holds the content of the
+     * 'web.server.load-generator' block; the 'mix-defaults' are applied to every entry of the 'mix' collection.
+     *
+     * @param config the load generator configuration block
+     * @return a new {@link LoadConfig} instance from the argument 'config'
+     * @throws com.typesafe.config.ConfigException for missing or mistyped settings
+     */
+    public static LoadConfig of(Config config) {
+        Config mixDefaults = config.getConfig("mix-defaults");
+        List<RequestMix.Entry> entries = config.getConfigList("mix").stream()
+                .map(entry -> entry.withFallback(mixDefaults))
+                .map(entry -> RequestMix.Entry.of(
+                        entry.getString("name"),
+                        entry.getInt("weight"),
+                        entry.getString("method"),
+                        entry.getString("path"),
+                        entry.getStringList("headers"),
+                        (int) entry.getBytes("body-size").longValue()))
+                .collect(Collectors.toList());
+        return new LoadConfig(
+                config.getString("host"),
+                config.getInt("port"),
+                config.getInt("connections"),
+                config.getInt("threads"),
+                config.getInt("pipelining"),
+                config.getInt("requests-per-connection"),
+                Duration.ofMillis(config.getDuration("warm-up", TimeUnit.MILLISECONDS)),
+                Duration.ofMillis(config.getDuration("duration", TimeUnit.MILLISECONDS)),
+                RequestMix.of(entries),
+                config.getString("report"));
+    }
+}
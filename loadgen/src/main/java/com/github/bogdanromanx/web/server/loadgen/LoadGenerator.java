@@ -0,0 +1,307 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import com.github.bogdanromanx.web.server.Bootstrap;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * HTTP/1.1 load generator built on the JDK non-blocking sockets, for comparing transports, dispatcher settings and
+ * handler changes on a single machine.  The configured connections are spread over a number of threads, each driving
+ * its connections with its own {@link Selector}: every connection keeps up to 'pipelining' requests in flight, picked
+ * from the {@link RequestMix}, and is replaced after 'requests-per-connection' requests (connection churn) or when the
+ * server closes it.
+ * </p>
+ * <p>
+ * The load is applied for the warm-up duration first, then for the measured duration; only the requests sent during
+ * the latter make the {@link LoadReport}.  Run it from the jar of the <code>loadgen</code> module against a running
+ * server, configured through the 'web.server.load-generator' block (system properties take precedence):
+ * </p>
+ * <pre>
+ * java -Dweb.server.load-generator.connections=256 -jar loadgen.jar
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private final LoadConfig config;
+    private final List<byte[]> requests = new ArrayList<>();
+
+    /**
+     * Constructs a new {@link LoadGenerator} from the argument 'config'.
+     *
+     * @param config the load generator configuration
+     */
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+        String host = config.host() + ":" + config.port();
+        for (RequestMix.Entry entry : config.mix().entries()) {
+            requests.add(entry.render(host));
+        }
+    }
+
+    /**
+     * Applies the load, blocking until the warm-up and the measured durations elapse.
+     *
+     * @return the report of the measured load
+     * @throws InterruptedException if interrupted while waiting for the load generator threads
+     */
+    public LoadReport run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + config.warmUp().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < config.threads(); i++) {
+            int connections = config.connections() / config.threads()
+                    + (i < config.connections() % config.threads() ? 1 : 0);
+            Worker worker = new Worker(connections, measureStart, end, new Random(i));
+            Thread thread = new Thread(worker, "load-generator-" + i);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LoadReport.Stats stats = new LoadReport.Stats(requests.size());
+        workers.forEach(worker -> stats.add(worker.stats));
+        return new LoadReport(config, Math.max(0, System.nanoTime() - measureStart), stats);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.of(Bootstrap.loadConfig().getConfig("web.server.load-generator"));
+        String report = new LoadGenerator(config).run().toJson();
+        if (config.report().isEmpty()) {
+            System.out.print(report);
+        } else {
+            Files.write(Paths.get(config.report()), report.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Drives a share of the connections from a single thread.
+     */
+    private final class Worker implements Runnable {
+
+        private final int connections;
+        private final long measureStart;
+        private final long end;
+        private final Random random;
+        private final InetSocketAddress address = new InetSocketAddress(config.host(), config.port());
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+        private final LoadReport.Stats stats = new LoadReport.Stats(requests.size());
+
+        private Selector selector;
+        private int reopen;
+
+        Worker(int connections, long measureStart, long end, Random random) {
+            this.connections = connections;
+            this.measureStart = measureStart;
+            this.end = end;
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            try (Selector selector = Selector.open()) {
+                this.selector = selector;
+                reopen = connections;
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    int pending = reopen;
+                    reopen = 0;
+                    for (int i = 0; i < pending; i++) {
+                        open(now);
+                    }
+                    selector.select(Math.max(1, Math.min(100, TimeUnit.NANOSECONDS.toMillis(end - now))));
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                }
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to drive the load generator connections", e);
+            }
+        }
+
+        private void open(long now) {
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection();
+                SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT, connection);
+                if (now >= measureStart) {
+                    stats.connections++;
+                }
+                if (channel.connect(address)) {
+                    connected(key, connection);
+                }
+            } catch (IOException e) {
+                error();
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                        // the connection is replaced on the next iteration regardless
+                    }
+                }
+                reopen++;
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isConnectable()) {
+                    ((SocketChannel) key.channel()).finishConnect();
+                    connected(key, connection);
+                } else {
+                    if (key.isReadable()) {
+                        read(key, connection);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        write(key, connection);
+                    }
+                }
+            } catch (IOException e) {
+                error();
+                replace(key, connection);
+            }
+        }
+
+        private void connected(SelectionKey key, Connection connection) throws IOException {
+            key.interestOps(SelectionKey.OP_READ);
+            send(key, connection);
+        }
+
+        private void read(SelectionKey key, Connection connection) throws IOException {
+            readBuffer.clear();
+            int read = ((SocketChannel) key.channel()).read(readBuffer);
+            if (read < 0) {
+                replace(key, connection);
+                return;
+            }
+            if (System.nanoTime() >= measureStart) {
+                stats.bytesRead += read;
+            }
+            readBuffer.flip();
+            connection.reader.read(readBuffer, connection);
+            if (connection.closing || connection.exhausted() && connection.inFlight == 0) {
+                replace(key, connection);
+            } else {
+                send(key, connection);
+            }
+        }
+
+        private void send(SelectionKey key, Connection connection) throws IOException {
+            if (connection.out.hasRemaining()) {
+                return;
+            }
+            connection.out.clear();
+            long now = System.nanoTime();
+            while (connection.inFlight < config.pipelining() && !connection.exhausted()) {
+                int request = config.mix().next(random);
+                connection.enqueue(request, now);
+            }
+            connection.out.flip();
+            write(key, connection);
+        }
+
+        private void write(SelectionKey key, Connection connection) throws IOException {
+            ((SocketChannel) key.channel()).write(connection.out);
+            key.interestOps(connection.out.hasRemaining()
+                    ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                    : SelectionKey.OP_READ);
+        }
+
+        private void error() {
+            if (System.nanoTime() >= measureStart) {
+                stats.errors++;
+            }
+        }
+
+        private void replace(SelectionKey key, Connection connection) {
+            if (connection.inFlight > 0 && connection.sentAt[connection.head] >= measureStart) {
+                stats.dropped += connection.inFlight;
+            }
+            closeQuietly(key);
+            reopen++;
+        }
+
+        private void closeQuietly(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+                // the connection is discarded regardless
+            }
+        }
+
+        /**
+         * The state of a connection: the requests in flight, in a ring of 'pipelining' slots, the pending writes and
+         * the response reader.
+         */
+        private final class Connection implements ResponseReader.Listener {
+
+            private final ResponseReader reader = new ResponseReader();
+            private final int[] requestAt = new int[config.pipelining()];
+            private final long[] sentAt = new long[config.pipelining()];
+            private ByteBuffer out = ByteBuffer.allocate(0);
+            private int head;
+            private int inFlight;
+            private int sent;
+            private boolean closing;
+
+            private boolean exhausted() {
+                return closing || config.requestsPerConnection() > 0 && sent >= config.requestsPerConnection();
+            }
+
+            private void enqueue(int request, long now) {
+                byte[] bytes = requests.get(request);
+                if (out.remaining() < bytes.length) {
+                    ByteBuffer grown = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes.length));
+                    out.flip();
+                    out = grown.put(out);
+                }
+                out.put(bytes);
+                int slot = (head + inFlight) % requestAt.length;
+                requestAt[slot] = request;
+                sentAt[slot] = now;
+                inFlight++;
+                sent++;
+            }
+
+            @Override
+            public void response(int status, boolean close) {
+                if (inFlight == 0) {
+                    return;
+                }
+                long sent = sentAt[head];
+                if (sent >= measureStart) {
+                    stats.response(requestAt[head], status, System.nanoTime() - sent);
+                }
+                head = (head + 1) % requestAt.length;
+                inFlight--;
+                closing |= close;
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The results of a {@link LoadGenerator} run, limited to the requests sent after the warm-up.  The latencies are
+ * measured from the moment a request is written until its response is completely read, so with pipelining they include
+ * the time spent waiting for the responses of the previous requests.  {@link LoadReport#toJson()} renders the report
+ * in a stable, machine readable form, for comparing builds.
+ */
+public final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final LoadConfig config;
+    private final long durationNanos;
+    private final Histogram latency;
+    private final Map<String, Histogram> latencyByRequest;
+    private final Map<Integer, Long> statuses;
+    private final long connections;
+    private final long errors;
+    private final long dropped;
+    private final long bytesRead;
+
+    /**
+     * Constructs a new {@link LoadReport} from the argument 'config' and the merged 'stats' of the load generator
+     * threads.
+     *
+     * @param config        the configuration of the run
+     * @param durationNanos the measured duration, in nanoseconds
+     * @param stats         the merged statistics of the load generator threads
+     */
+    LoadReport(LoadConfig config, long durationNanos, Stats stats) {
+        this.config = config;
+        this.durationNanos = durationNanos;
+        this.latency = stats.latency;
+        Map<String, Histogram> byRequest = new LinkedHashMap<>();
+        List<RequestMix.Entry> entries = config.mix().entries();
+        for (int i = 0; i < entries.size(); i++) {
+            byRequest.put(entries.get(i).name(), stats.latencyByRequest[i]);
+        }
+        this.latencyByRequest = Collections.unmodifiableMap(byRequest);
+        Map<Integer, Long> statuses = new TreeMap<>();
+        for (int i = 0; i < stats.statuses.length; i++) {
+            if (stats.statuses[i] > 0) {
+                statuses.put(i, stats.statuses[i]);
+            }
+        }
+        this.statuses = Collections.unmodifiableMap(statuses);
+        this.connections = stats.connections;
+        this.errors = stats.errors;
+        this.dropped = stats.dropped;
+        this.bytesRead = stats.bytesRead;
+    }
+
+    /**
+     * @return the configuration of the run
+     */
+    public LoadConfig config() {
+        return config;
+    }
+
+    /**
+     * @return the number of responses received
+     */
+    public long requests() {
+        return latency.count();
+    }
+
+    /**
+     * @return the number of responses received per second
+     */
+    public double throughput() {
+        return durationNanos == 0 ? 0 : requests() * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+    }
+
+    /**
+     * @return the latencies of all the requests, in nanoseconds
+     */
+    public Histogram latency() {
+        return latency;
+    }
+
+    /**
+     * @return the latencies of the requests by entry name of the request mix, in nanoseconds
+     */
+    public Map<String, Histogram> latencyByRequest() {
+        return latencyByRequest;
+    }
+
+    /**
+     * @return the number of responses by status code
+     */
+    public Map<Integer, Long> statuses() {
+        return statuses;
+    }
+
+    /**
+     * @return the number of connections opened
+     */
+    public long connections() {
+        return connections;
+    }
+
+    /**
+     * @return the number of failed connection attempts, reads or writes
+     */
+    public long errors() {
+        return errors;
+    }
+
+    /**
+     * @return the number of requests left unanswered because the server closed the connection
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * @return the number of bytes read from the connections
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return the report as a JSON document
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"config\": {")
+                .append("\"host\": ").append(quote(config.host()))
+                .append(", \"port\": ").append(config.port())
+                .append(", \"connections\": ").append(config.connections())
+                .append(", \"threads\": ").append(config.threads())
+                .append(", \"pipelining\": ").append(config.pipelining())
+                .append(", \"requestsPerConnection\": ").append(config.requestsPerConnection())
+                .append(", \"warmUpMillis\": ").append(config.warmUp().toMillis())
+                .append(", \"durationMillis\": ").append(config.duration().toMillis())
+                .append("},\n");
+        json.append("  \"durationMillis\": ").append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append(",\n");
+        json.append("  \"requests\": ").append(requests()).append(",\n");
+        json.append("  \"throughput\": ").append(String.format(Locale.ROOT, "%.1f", throughput())).append(",\n");
+        json.append("  \"bytesRead\": ").append(bytesRead).append(",\n");
+        json.append("  \"connections\": ").append(connections).append(",\n");
+        json.append("  \"errors\": ").append(errors).append(",\n");
+        json.append("  \"dropped\": ").append(dropped).append(",\n");
+        json.append("  \"statuses\": {");
+        String separator = "";
+        for (Map.Entry<Integer, Long> status : statuses.entrySet()) {
+            json.append(separator).append(quote(status.getKey().toString())).append(": ").append(status.getValue());
+            separator = ", ";
+        }
+        json.append("},\n");
+        json.append("  \"latencyMicros\": ").append(json(latency)).append(",\n");
+        json.append("  \"requestsByName\": {");
+        separator = "\n";
+        for (Map.Entry<String, Histogram> request : latencyByRequest.entrySet()) {
+            json.append(separator).append("    ").append(quote(request.getKey())).append(": {")
+                    .append("\"requests\": ").append(request.getValue().count())
+                    .append(", \"latencyMicros\": ").append(json(request.getValue())).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    private static String json(Histogram histogram) {
+        StringBuilder json = new StringBuilder("{")
+                .append("\"min\": ").append(micros(histogram.min()))
+                .append(", \"mean\": ").append(micros(histogram.mean()));
+        for (double percentile : PERCENTILES) {
+            String name = ("p" + percentile).replace(".0", "").replace(".", "");
+            json.append(", \"").append(name).append("\": ").append(micros(histogram.percentile(percentile)));
+        }
+        return json.append(", \"max\": ").append(micros(histogram.max())).append("}").toString();
+    }
+
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "LoadReport{" +
+                "requests=" + requests() +
+                ", throughput=" + String.format(Locale.ROOT, "%.1f", throughput()) +
+                ", statuses=" + statuses +
+                ", connections=" + connections +
+                ", errors=" + errors +
+                ", dropped=" + dropped +
+                ", latency=" + latency +
+                '}';
+    }
+
+    /**
+     * Mutable statistics recorded by a single load generator thread.
+     */
+    static final class Stats {
+
+        final Histogram latency = new Histogram();
+        final Histogram[] latencyByRequest;
+        final long[] statuses = new long[600];
+        long connections;
+        long errors;
+        long dropped;
+        long bytesRead;
+
+        Stats(int requests) {
+            latencyByRequest = new Histogram[requests];
+            for (int i = 0; i < requests; i++) {
+                latencyByRequest[i] = new Histogram();
+            }
+        }
+
+        void response(int request, int status, long latencyNanos) {
+            latency.record(latencyNanos);
+            latencyByRequest[request].record(latencyNanos);
+            if (status >= 0 && status < statuses.length) {
+                statuses[status]++;
+            }
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            for (int i = 0; i < latencyByRequest.length; i++) {
+                latencyByRequest[i].add(other.latencyByRequest[i]);
+            }
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] += other.statuses[i];
+            }
+            connections += other.connections;
+            errors += other.errors;
+            dropped += other.dropped;
+            bytesRead += other.bytesRead;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Weighted collection of the raw requests issued by the {@link LoadGenerator}: each request sent picks an entry with
+ * a probability proportional to its weight (i.e.: 10 pings for each large file download).
+ */
+public final class RequestMix {
+
+    private final List<Entry> entries;
+    private final int[] cumulativeWeights;
+
+    /**
+     * Constructs a new {@link RequestMix} instance from the argument 'entries'.
+     *
+     * @param entries the entries of the mix
+     * @throws NullPointerException     for null entries argument
+     * @throws IllegalArgumentException for an empty collection of entries or entries with duplicate names
+     */
+    private RequestMix(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(
+                requireNonNull(entries, "The request mix entries cannot be null")));
+        if (this.entries.isEmpty()) {
+            throw new IllegalArgumentException("The request mix cannot be empty");
+        }
+        if (this.entries.stream().map(Entry::name).distinct().count() != this.entries.size()) {
+            throw new IllegalArgumentException("The request mix entry names must be unique");
+        }
+        this.cumulativeWeights = new int[this.entries.size()];
+        int total = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            total += this.entries.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * @return the entries of the mix, in order
+     */
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Picks the index of an entry, with a probability proportional to its weight.
+     *
+     * @param random the source of randomness
+     * @return the index of the picked entry in {@link RequestMix#entries()}
+     */
+    public int next(Random random) {
+        if (cumulativeWeights.length == 1) {
+            return 0;
+        }
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int idx = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return entries.equals(((RequestMix) o).entries);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return entries.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "RequestMix{" +
+                "entries=" + entries +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link RequestMix} instance from the argument 'entries'.
+     *
+     * @param entries the entries of the mix
+     * @return a new {@link RequestMix} instance from the argument 'entries'
+     * @throws NullPointerException     for null entries argument
+     * @throws IllegalArgumentException for an empty collection of entries or entries with duplicate names
+     */
+    public static RequestMix of(List<Entry> entries) {
+        return new RequestMix(entries);
+    }
+
+    /**
+     * A request of the mix: a request line, optional additional headers and an optional entity of filler bytes (for
+     * uploads), rendered once into the raw bytes written on the connections.
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final int weight;
+        private final String method;
+        private final String path;
+        private final List<String> headers;
+        private final int bodySize;
+
+        private Entry(String name, int weight, String method, String path, List<String> headers, int bodySize) {
+            this.name = requireNonNull(name, "The request mix entry name cannot be null");
+            this.weight = weight;
+            this.method = requireNonNull(method, "The request mix entry method cannot be null");
+            this.path = requireNonNull(path, "The request mix entry path cannot be null");
+            this.headers = Collections.unmodifiableList(new ArrayList<>(
+                    requireNonNull(headers, "The request mix entry headers cannot be null")));
+            this.bodySize = bodySize;
+            if (weight < 1) {
+                throw new IllegalArgumentException("The request mix entry weight must be positive");
+            }
+            if (bodySize < 0) {
+                throw new IllegalArgumentException("The request mix entry body size cannot be negative");
+            }
+        }
+
+        /**
+         * @return the name of the entry, under which its results are reported
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return the relative frequency of the entry in the mix
+         */
+        public int weight() {
+            return weight;
+        }
+
+        /**
+         * @return the http method of the request
+         */
+        public String method() {
+            return method;
+        }
+
+        /**
+         * @return the path of the request
+         */
+        public String path() {
+            return path;
+        }
+
+        /**
+         * @return the additional headers of the request, i.e.: "Accept-Encoding: gzip"
+         */
+        public List<String> headers() {
+            return headers;
+        }
+
+        /**
+         * @return the size of the request entity, 0 for requests without entity
+         */
+        public int bodySize() {
+            return bodySize;
+        }
+
+        /**
+         * Renders the raw bytes of the request.
+         *
+         * @param host the value of the 'Host' header
+         * @return the raw bytes of the request
+         */
+        public byte[] render(String host) {
+            StringBuilder head = new StringBuilder()
+                    .append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                    .append("Host: ").append(host).append("\r\n");
+            for (String header : headers) {
+                head.append(header).append("\r\n");
+            }
+            if (bodySize > 0) {
+                head.append("Content-Type: application/octet-stream\r\n")
+                        .append("Content-Length: ").append(bodySize).append("\r\n");
+            }
+            byte[] headBytes = head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+            byte[] request = Arrays.copyOf(headBytes, headBytes.length + bodySize);
+            Arrays.fill(request, headBytes.length, request.length, (byte) 'x');
+            return request;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @SuppressWarnings("SimplifiableIfStatement")
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry) o;
+            if (weight != entry.weight) return false;
+            if (bodySize != entry.bodySize) return false;
+            if (!name.equals(entry.name)) return false;
+            if (!method.equals(entry.method)) return false;
+            if (!path.equals(entry.path)) return false;
+            return headers.equals(entry.headers);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + weight;
+            result = 31 * result + method.hashCode();
+            result = 31 * result + path.hashCode();
+            result = 31 * result + headers.hashCode();
+            result = 31 * result + bodySize;
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "name='" + name + '\'' +
+                    ", weight=" + weight +
+                    ", method='" + method + '\'' +
+                    ", path='" + path + '\'' +
+                    ", headers=" + headers +
+                    ", bodySize=" + bodySize +
+                    '}';
+        }
+
+        /**
+         * Constructs a new {@link Entry} instance from the argument 'name', 'weight', 'method', 'path', 'headers' and
+         * 'bodySize'.
+         *
+         * @param name     the name of the entry, under which its results are reported
+         * @param weight   the relative frequency of the entry in the mix
+         * @param method   the http method of the request
+         * @param path     the path of the request
+         * @param headers  the additional headers of the request, i.e.: "Accept-Encoding: gzip"
+         * @param bodySize the size of the request entity, 0 for requests without entity
+         * @return a new {@link Entry} instance from the arguments
+         * @throws NullPointerException     for null name, method, path or headers arguments
+         * @throws IllegalArgumentException for a weight lower than 1 or a negative body size
+         */
+        public static Entry of(String name, int weight, String method, String path, List<String> headers,
+                               int bodySize) {
+            return new Entry(name, weight, method, path, headers, bodySize);
+        }
+    }
+}
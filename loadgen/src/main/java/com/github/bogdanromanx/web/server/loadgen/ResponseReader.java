@@ -0,0 +1,106 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Incremental reader of the responses received on a connection: it accumulates the bytes of a response head until the
+ * empty line, extracts the status code, the 'Content-Length' and whether the server closes the connection, then skips
+ * the entity bytes without copying them.  Responses without 'Content-Length' have no entity (the server always sets
+ * it for the responses that have one).
+ */
+final class ResponseReader {
+
+    /**
+     * Callback for the responses completed by a {@link ResponseReader#read(ByteBuffer, Listener)} call.
+     */
+    interface Listener {
+
+        /**
+         * @param status the status code of the response
+         * @param close  whether the server closes the connection after the response
+         */
+        void response(int status, boolean close);
+    }
+
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+    private static final String CONTENT_LENGTH = "content-length:";
+    private static final String CONNECTION = "connection:";
+
+    private byte[] head = new byte[512];
+    private int headLength;
+    private long entityRemaining;
+    private int status;
+    private boolean close;
+
+    /**
+     * Consumes the argument 'bytes', notifying the argument 'listener' of every response completed.
+     *
+     * @param bytes    the bytes read from the connection
+     * @param listener the callback of the completed responses
+     * @return the number of responses completed
+     * @throws IOException for malformed or oversized response heads
+     */
+    int read(ByteBuffer bytes, Listener listener) throws IOException {
+        int responses = 0;
+        while (bytes.hasRemaining()) {
+            if (entityRemaining > 0) {
+                int skipped = (int) Math.min(entityRemaining, bytes.remaining());
+                bytes.position(bytes.position() + skipped);
+                entityRemaining -= skipped;
+                if (entityRemaining == 0) {
+                    listener.response(status, close);
+                    responses++;
+                }
+                continue;
+            }
+            if (headLength == head.length) {
+                if (headLength == MAX_HEAD_SIZE) {
+                    throw new IOException("The response head exceeds " + MAX_HEAD_SIZE + " bytes");
+                }
+                head = Arrays.copyOf(head, Math.min(MAX_HEAD_SIZE, head.length * 2));
+            }
+            head[headLength++] = bytes.get();
+            if (headLength >= 4 && head[headLength - 1] == '\n' && head[headLength - 2] == '\r'
+                    && head[headLength - 3] == '\n' && head[headLength - 4] == '\r') {
+                parseHead();
+                headLength = 0;
+                if (entityRemaining == 0) {
+                    listener.response(status, close);
+                    responses++;
+                }
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * @return true if a response was partially read, false otherwise
+     */
+    boolean inProgress() {
+        return headLength > 0 || entityRemaining > 0;
+    }
+
+    private void parseHead() throws IOException {
+        String[] lines = new String(head, 0, headLength - 4, StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] statusLine = lines[0].split(" ", 3);
+        try {
+            status = Integer.parseInt(statusLine[1]);
+            entityRemaining = 0;
+            close = statusLine[0].equals("HTTP/1.0");
+            for (int i = 1; i < lines.length; i++) {
+                String line = lines[i].toLowerCase();
+                if (line.startsWith(CONTENT_LENGTH)) {
+                    entityRemaining = Long.parseLong(line.substring(CONTENT_LENGTH.length()).trim());
+                } else if (line.startsWith(CONNECTION)) {
+                    String value = line.substring(CONNECTION.length()).trim();
+                    close = value.equals("close") || (close && !value.equals("keep-alive"));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IOException("Malformed response head: " + lines[0], e);
+        }
+    }
+}
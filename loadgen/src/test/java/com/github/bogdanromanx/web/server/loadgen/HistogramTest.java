@@ -0,0 +1,68 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        Histogram histogram = new Histogram();
+        assertThat(histogram.count(), equalTo(0L));
+        assertThat(histogram.min(), equalTo(0L));
+        assertThat(histogram.max(), equalTo(0L));
+        assertThat(histogram.percentile(99), equalTo(0L));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertThat(histogram.count(), equalTo(100L));
+        assertThat(histogram.min(), equalTo(1L));
+        assertThat(histogram.max(), equalTo(100L));
+        assertThat(histogram.mean(), equalTo(50.5));
+        assertThat(histogram.percentile(50), equalTo(50L));
+        assertThat(histogram.percentile(99), equalTo(99L));
+        assertThat(histogram.percentile(100), equalTo(100L));
+    }
+
+    @Test
+    public void largeValuesKeepTheirRelativePrecision() {
+        long[] values = {1_000L, 123_456L, 10_000_000L, 987_654_321L, Long.MAX_VALUE / 3};
+        for (long value : values) {
+            Histogram histogram = new Histogram();
+            histogram.record(1);
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+            assertThat(histogram.percentile(50),
+                    both(greaterThanOrEqualTo(value)).and(lessThanOrEqualTo(value + value / 64)));
+        }
+    }
+
+    @Test
+    public void mergesHistograms() {
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+        first.record(10);
+        second.record(5_000);
+        second.record(20);
+        first.add(second);
+        assertThat(first.count(), equalTo(3L));
+        assertThat(first.min(), equalTo(10L));
+        assertThat(first.max(), equalTo(5_000L));
+        assertThat(first.percentile(50), equalTo(20L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeValues() {
+        new Histogram().record(-1);
+    }
+}
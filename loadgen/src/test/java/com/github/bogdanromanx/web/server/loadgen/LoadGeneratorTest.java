@@ -0,0 +1,92 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import akka.actor.ActorSystem;
+import com.github.bogdanromanx.web.server.Bootstrap;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import com.github.bogdanromanx.web.server.vhost.AkkaTcpHandler;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class LoadGeneratorTest {
+
+    private static final RequestMix MIX = RequestMix.of(Arrays.asList(
+            RequestMix.Entry.of("ping", 3, "GET", "/ping", Collections.emptyList(), 0),
+            RequestMix.Entry.of("missing", 1, "GET", "/missing-file", Collections.singletonList("Accept: */*"), 0),
+            RequestMix.Entry.of("upload", 1, "POST", "/upload", Collections.emptyList(), 1024)));
+
+    private static ActorSystem system;
+    private static AkkaTcpHandler handler;
+    private static int port;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        system = ActorSystem.create();
+        VHostConfig config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+        handler = new AkkaTcpHandler(system, VHostConfig.of(config.host(), port, config.path(), config.dispatcher(),
+                "akka", Collections.emptyList(), 1));
+        handler.start();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        handler.terminate();
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static LoadReport run(int pipelining, int requestsPerConnection) throws Exception {
+        // the warm-up covers the asynchronous binding of the vhost
+        return new LoadGenerator(LoadConfig.of("127.0.0.1", port, 8, 2, pipelining, requestsPerConnection,
+                java.time.Duration.ofMillis(1000), java.time.Duration.ofMillis(1000), MIX, "")).run();
+    }
+
+    @Test
+    public void appliesPipelinedLoadOnKeptAliveConnections() throws Exception {
+        LoadReport report = run(4, 0);
+        assertThat(report.requests(), greaterThan(0L));
+        assertThat(report.errors(), equalTo(0L));
+        assertThat(report.dropped(), equalTo(0L));
+        assertThat(report.connections(), equalTo(0L));
+        assertThat(report.statuses().keySet(), hasItems(200, 404));
+        assertThat(report.statuses().values().stream().mapToLong(Long::longValue).sum(), equalTo(report.requests()));
+        assertThat(report.latencyByRequest().keySet(), contains("ping", "missing", "upload"));
+        assertThat(report.latencyByRequest().values().stream().mapToLong(Histogram::count).sum(),
+                equalTo(report.requests()));
+        assertThat(report.latencyByRequest().get("upload").count(), greaterThan(0L));
+    }
+
+    @Test
+    public void replacesConnectionsAfterTheConfiguredRequests() throws Exception {
+        LoadReport report = run(1, 2);
+        assertThat(report.requests(), greaterThan(0L));
+        assertThat(report.errors(), equalTo(0L));
+        assertThat(report.connections(), greaterThanOrEqualTo(report.requests() / 2 - 8));
+    }
+
+    @Test
+    public void rendersAMachineReadableReport() throws Exception {
+        LoadConfig config = LoadConfig.of(Bootstrap.loadConfig().getConfig("web.server.load-generator"));
+        assertThat(config.mix().entries().get(0).method(), equalTo("GET"));
+        String json = new LoadGenerator(LoadConfig.of("127.0.0.1", port, 1, 1, 1, 0, java.time.Duration.ofMillis(200),
+                java.time.Duration.ofMillis(200), config.mix(), "")).run().toJson();
+        assertThat(json, startsWith("{\n"));
+        assertThat(json, containsString("\"statuses\": {\"200\": "));
+        assertThat(json, containsString("\"ping\": {\"requests\": "));
+        assertThat(json, containsString("\"p99\": "));
+        assertThat(json, endsWith("}\n"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.bogdanromanx.web.server.loadgen;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class ResponseReaderTest {
+
+    private static final String RESPONSES = "HTTP/1.1 200 OK\r\nContent-Length: 4\r\n\r\npong"
+            + "HTTP/1.1 304 Not Modified\r\nETag: \"abc\"\r\n\r\n"
+            + "HTTP/1.1 404 Not Found\r\ncontent-length: 9\r\nConnection: close\r\n\r\nnot found";
+
+    private static List<String> read(int chunkSize) throws IOException {
+        byte[] bytes = RESPONSES.getBytes(StandardCharsets.ISO_8859_1);
+        ResponseReader reader = new ResponseReader();
+        List<String> responses = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            ByteBuffer chunk = ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+            reader.read(chunk, (status, close) -> responses.add(status + (close ? " close" : "")));
+            assertThat(chunk.hasRemaining(), equalTo(false));
+        }
+        assertThat(reader.inProgress(), equalTo(false));
+        return responses;
+    }
+
+    @Test
+    public void readsPipelinedResponses() throws Exception {
+        List<String> expected = Arrays.asList("200", "304", "404 close");
+        for (int chunkSize = 1; chunkSize <= RESPONSES.length(); chunkSize++) {
+            assertThat(read(chunkSize), equalTo(expected));
+        }
+    }
+
+    @Test
+    public void http10ResponsesCloseUnlessKeptAlive() throws Exception {
+        ResponseReader reader = new ResponseReader();
+        List<Boolean> closes = new ArrayList<>();
+        byte[] bytes = ("HTTP/1.0 200 OK\r\n\r\nHTTP/1.0 200 OK\r\nConnection: keep-alive\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+        reader.read(ByteBuffer.wrap(bytes), (status, close) -> closes.add(close));
+        assertThat(closes, equalTo(Arrays.asList(true, false)));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedStatusLines() throws Exception {
+        new ResponseReader().read(ByteBuffer.wrap("HTTP/1.1 OK\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)),
+                (status, close) -> {
+                });
+    }
+}
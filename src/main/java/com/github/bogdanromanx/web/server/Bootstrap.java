@@ -19,8 +19,10 @@ public class Bootstrap {
      * <li>application.conf files found on the classpath</li>
      * <li>reference.conf files found on the classpath</li>
      * </ol>
+     * It's shared with the tools that run next to the server, i.e.: the load generator (the <code>loadgen</code>
+     * module).
      */
-    private static Config loadConfig() {
+    public static Config loadConfig() {
         return ConfigFactory.systemProperties()
                 .withFallback(ConfigFactory.defaultApplication())
                 .withFallback(ConfigFactory.defaultReference())
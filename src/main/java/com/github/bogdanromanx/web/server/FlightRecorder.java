@@ -0,0 +1,31 @@
+package com.github.bogdanromanx.web.server;
+
+/**
+ * Holder of the availability of the JDK Flight Recorder API (<code>jdk.jfr</code>, 8u262+ or 11+) in the running JVM,
+ * checked once.  The custom events of the server extend <code>jdk.jfr.Event</code>: every emission site checks
+ * {@link FlightRecorder#available()} before it touches an event class, so that on a JVM without the API the events are
+ * skipped instead of failing the connections with a {@link NoClassDefFoundError}.
+ */
+public final class FlightRecorder {
+
+    private static final boolean AVAILABLE = available(FlightRecorder.class.getClassLoader());
+
+    private FlightRecorder() {
+    }
+
+    /**
+     * @return true if the JDK Flight Recorder API is available, in which case the events can be checked and emitted
+     */
+    public static boolean available() {
+        return AVAILABLE;
+    }
+
+    private static boolean available(ClassLoader loader) {
+        try {
+            Class.forName("jdk.jfr.Event", false, loader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
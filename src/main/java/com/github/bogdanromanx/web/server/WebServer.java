@@ -3,12 +3,16 @@ package com.github.bogdanromanx.web.server;
 import akka.actor.ActorSystem;
 import com.github.bogdanromanx.web.server.settings.Settings;
 import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
 import com.github.bogdanromanx.web.server.vhost.AkkaTcpHandler;
+import com.github.bogdanromanx.web.server.vhost.InMemoryHandler;
+import com.github.bogdanromanx.web.server.vhost.NioTcpHandler;
 import com.github.bogdanromanx.web.server.vhost.VHostHandler;
 import com.typesafe.config.Config;
 import scala.concurrent.Await;
 import scala.concurrent.duration.Duration;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,7 +36,9 @@ public final class WebServer {
     }
 
     /**
-     * Starts up the 'WebServer', binding all vhosts to their interface:port configuration.
+     * Starts up the 'WebServer', binding all vhosts to their interface:port configuration.  Each vhost is warmed up
+     * before being bound: its configured files are loaded in memory and, if enabled, the configured corpus of requests
+     * is replayed through its processing flow (see {@link com.github.bogdanromanx.web.server.vhost.JitWarmUp}).
      */
     public void start() {
         system = ActorSystem.create("http-server", config);
@@ -41,7 +47,7 @@ public final class WebServer {
 
         vHostHandlers = settings.vHostConfigs()
                 .stream()
-                .map(vc -> new AkkaTcpHandler(system, vc))
+                .map(this::vHostHandler)
                 .collect(Collectors.toList());
 
         vHostHandlers.forEach(VHostHandler::start);
@@ -49,6 +55,32 @@ public final class WebServer {
         Runtime.getRuntime().addShutdownHook(new Thread(this::terminate));
     }
 
+    /**
+     * Constructs the {@link VHostHandler} of the transport selected by the argument 'vHostConfig'.
+     *
+     * @throws IllegalArgumentException for unknown transports
+     */
+    private VHostHandler vHostHandler(VHostConfig vHostConfig) {
+        switch (vHostConfig.transport()) {
+            case "akka":
+                return new AkkaTcpHandler(system, vHostConfig);
+            case "nio":
+                return new NioTcpHandler(system, vHostConfig);
+            case "memory":
+                return new InMemoryHandler(system, vHostConfig);
+            default:
+                throw new IllegalArgumentException("Unknown vhost transport: " + vHostConfig.transport());
+        }
+    }
+
+    /**
+     * @return the handlers of the configured vhosts, i.e.: to open connections to the in memory ones (see
+     * {@link InMemoryHandler#client()}); empty until the server is started
+     */
+    public List<VHostHandler> vHostHandlers() {
+        return vHostHandlers == null ? Collections.emptyList() : Collections.unmodifiableList(vHostHandlers);
+    }
+
     /**
      * Terminates the 'WebServer', shutting down all {@link VHostHandler}s and freeing up the resources.
      */
@@ -0,0 +1,251 @@
+package com.github.bogdanromanx.web.server.accesslog;
+
+import akka.actor.Extension;
+import akka.event.LoggingAdapter;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.settings.AccessLogConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * The access log of the server, shared by all the vhosts of an {@link akka.actor.ActorSystem} (see
+ * {@link AccessLogExtension}).  The requests are recorded by the processing flows into a preallocated ring buffer
+ * (see {@link AccessLogBuffer}) without blocking or allocating; a single background writer drains the buffer in
+ * batches and writes them to the configured file through a {@link FileChannel}, rotating the file by size.  The
+ * entries recorded while the buffer is full are dropped and counted, so that a slow disk never stalls the connections.
+ * </p>
+ * <p>
+ * The entries are written in the Apache 'vhost_combined' layout, without the referer and user agent and with the
+ * latency in microseconds: <code>vhost remote - - [timestamp] "method path protocol" status bytes latency</code>, i.e.:
+ * <code>127.0.0.1:8080 127.0.0.1 - - [19/Oct/2026:12:04:15 +0000] "GET /index.html HTTP/1.1" 200 5120 412</code>.
+ * </p>
+ */
+public final class AccessLog implements Extension {
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final AccessLogConfig config;
+    private final Counter dropped;
+    private final LoggingAdapter log;
+    private final AccessLogBuffer buffer;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // state of the writer thread
+    private ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private long size;
+    private long second = Long.MIN_VALUE;
+    private String timestamp;
+
+    /**
+     * Constructs the access log for the argument 'config', starting its writer if enabled.
+     *
+     * @param config  the access log configuration
+     * @param dropped the counter of the entries dropped because the buffer was full
+     * @param log     the log of the failures to write the entries
+     */
+    public AccessLog(AccessLogConfig config, Counter dropped, LoggingAdapter log) {
+        this.config = config;
+        this.dropped = dropped;
+        this.log = log;
+        this.buffer = new AccessLogBuffer(config.bufferSize());
+        this.writer = new Thread(this::write, "access-log-writer");
+        writer.setDaemon(true);
+        if (config.enabled()) {
+            writer.start();
+        }
+    }
+
+    /**
+     * @return whether the requests are logged
+     */
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    /**
+     * Records a handled request, or drops it if the buffer is full.  It never blocks.
+     *
+     * @param remote       the address of the client, "-" if unknown
+     * @param vhost        the vhost that handled the request
+     * @param method       the request method
+     * @param path         the raw request path
+     * @param protocol     the request protocol
+     * @param status       the response status code
+     * @param bytes        the length of the response entity
+     * @param latencyNanos the nanoseconds between the request being parsed and its response being ready to write
+     */
+    public void record(String remote, String vhost, String method, String path, String protocol, int status,
+                       long bytes, long latencyNanos) {
+        if (!buffer.offer(System.currentTimeMillis(), remote, vhost, method, path, protocol, status, bytes,
+                latencyNanos)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return the number of entries dropped because the buffer was full
+     */
+    public long dropped() {
+        return dropped.value();
+    }
+
+    /**
+     * Stops the writer once it wrote the recorded entries and closes the file.
+     */
+    public void close() {
+        running = false;
+        if (writer.isAlive()) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The loop of the writer thread: drains the buffer in batches, parking while it is empty.
+     */
+    private void write() {
+        while (true) {
+            boolean stopping = !running;
+            int drained = buffer.drain(this::append, config.batchSize());
+            if (drained > 0) {
+                flush();
+            } else if (stopping) {
+                break;
+            } else {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            }
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warning("Unable to close the access log {}: {}", config.file(), e);
+        }
+    }
+
+    /**
+     * Renders the argument 'entry' at the end of the current batch.
+     */
+    private void append(AccessLogBuffer.Entry entry) {
+        ensureRemaining(64 + entry.remote.length() + entry.vhost.length() + entry.method.length()
+                + entry.path.length() + entry.protocol.length());
+        put(entry.vhost).put(' ').put(entry.remote).put(" - - [").put(timestamp(entry.timestamp)).put("] \"")
+                .put(entry.method).put(' ').put(entry.path).put(' ').put(entry.protocol).put("\" ")
+                .put(Integer.toString(entry.status)).put(' ').put(Long.toString(entry.bytes)).put(' ')
+                .put(Long.toString(TimeUnit.NANOSECONDS.toMicros(entry.latencyNanos))).put('\n');
+    }
+
+    private void ensureRemaining(int length) {
+        if (batch.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + length));
+            batch.flip();
+            batch = larger.put(batch);
+        }
+    }
+
+    private AccessLog put(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            batch.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+        return this;
+    }
+
+    private AccessLog put(char c) {
+        batch.put((byte) c);
+        return this;
+    }
+
+    /**
+     * The timestamps are rendered with a second precision, once per second.
+     */
+    private String timestamp(long millis) {
+        long current = millis / 1000;
+        if (current != second) {
+            second = current;
+            timestamp = TIMESTAMP.format(Instant.ofEpochSecond(current));
+        }
+        return timestamp;
+    }
+
+    /**
+     * Writes the current batch to the file, rotating it first if the batch would take it over the maximum size.  The
+     * batch is dropped if it cannot be written; the file is opened again for the next batch.
+     */
+    private void flush() {
+        batch.flip();
+        try {
+            if (channel != null && size > 0 && size + batch.remaining() > config.maxFileSize()) {
+                rotate();
+            }
+            if (channel == null) {
+                channel = FileChannel.open(config.file(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                size = channel.size();
+            }
+            while (batch.hasRemaining()) {
+                size += channel.write(batch);
+            }
+        } catch (IOException e) {
+            log.warning("Unable to write the access log {}: {}", config.file(), e);
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException ignored) {
+                // the channel is opened again for the next batch
+            }
+            channel = null;
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Closes the current file and shifts the rotated files by one ('file' to 'file.1', 'file.1' to 'file.2' and so
+     * on), deleting the oldest one; without rotated files the current file is truncated.
+     */
+    private void rotate() throws IOException {
+        channel.close();
+        channel = null;
+        Path file = config.file();
+        if (config.maxFiles() == 0) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.deleteIfExists(rotated(file, config.maxFiles()));
+        for (int i = config.maxFiles() - 1; i > 0; i--) {
+            Path from = rotated(file, i);
+            if (Files.exists(from)) {
+                Files.move(from, rotated(file, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(file, 1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path rotated(Path file, int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
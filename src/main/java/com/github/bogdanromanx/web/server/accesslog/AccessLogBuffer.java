@@ -0,0 +1,122 @@
+package com.github.bogdanromanx.web.server.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Bounded ring buffer of access log entries with multiple producers and a single consumer.  The entries are
+ * preallocated and reused, so recording a request allocates nothing; the producers claim a slot by advancing the
+ * shared tail sequence with a compare and set and publish it through the sequence of the slot, which the consumer
+ * releases back once the entry was read.  A producer never waits for the consumer: when the slot at the tail was not
+ * yet released the buffer is full and the entry is rejected.
+ * </p>
+ * <p>
+ * {@link AccessLogBuffer#offer} is thread safe, {@link AccessLogBuffer#drain} must only be called by a single thread.
+ * </p>
+ */
+final class AccessLogBuffer {
+
+    /**
+     * A preallocated slot of the buffer; its fields are written by the producer that claimed it and read by the
+     * consumer once published.
+     */
+    static final class Entry {
+        private volatile long sequence;
+        long timestamp;
+        String remote;
+        String vhost;
+        String method;
+        String path;
+        String protocol;
+        int status;
+        long bytes;
+        long latencyNanos;
+
+        private Entry(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    /**
+     * @param capacity the number of entries of the buffer, a power of two
+     * @throws IllegalArgumentException for a capacity that is not a positive power of two
+     */
+    AccessLogBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a positive power of two");
+        }
+        entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry(i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Records an entry, unless the buffer is full.
+     *
+     * @return true if the entry was recorded, false if the buffer is full
+     */
+    boolean offer(long timestamp, String remote, String vhost, String method, String path, String protocol,
+                  int status, long bytes, long latencyNanos) {
+        long position = tail.get();
+        while (true) {
+            Entry entry = entries[(int) position & mask];
+            long available = entry.sequence - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entry.timestamp = timestamp;
+                    entry.remote = remote;
+                    entry.vhost = vhost;
+                    entry.method = method;
+                    entry.path = path;
+                    entry.protocol = protocol;
+                    entry.status = status;
+                    entry.bytes = bytes;
+                    entry.latencyNanos = latencyNanos;
+                    entry.sequence = position + 1;
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands up to 'max' of the published entries over to the argument 'consumer', in the order they were claimed,
+     * releasing their slots afterwards.  The entries must not be retained by the consumer.
+     *
+     * @return the number of entries consumed
+     */
+    int drain(Consumer<Entry> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            Entry entry = entries[(int) head & mask];
+            if (entry.sequence != head + 1) {
+                break;
+            }
+            consumer.accept(entry);
+            entry.sequence = head + entries.length;
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return the number of entries of the buffer
+     */
+    int capacity() {
+        return entries.length;
+    }
+}
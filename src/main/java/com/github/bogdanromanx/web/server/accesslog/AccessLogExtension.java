@@ -0,0 +1,44 @@
+package com.github.bogdanromanx.web.server.accesslog;
+
+import akka.actor.AbstractExtensionId;
+import akka.actor.ExtendedActorSystem;
+import akka.actor.ExtensionIdProvider;
+import akka.event.Logging;
+import com.github.bogdanromanx.web.server.metrics.MetricsExtension;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+
+/**
+ * Provider for the {@link AccessLog} extension, ensuring a single access log, and a single writer, across the entire
+ * {@link akka.actor.ActorSystem}.  The writer is stopped when the actor system terminates.
+ *
+ * @see ExtensionIdProvider
+ */
+public class AccessLogExtension extends AbstractExtensionId<AccessLog> implements ExtensionIdProvider {
+    public final static AccessLogExtension AccessLogExtensionProvider = new AccessLogExtension();
+
+    private AccessLogExtension() {
+    }
+
+    @Override
+    public AccessLogExtension lookup() {
+        return AccessLogExtensionProvider;
+    }
+
+    /**
+     * Constructs the {@link AccessLog} of the argument {@link ExtendedActorSystem} from its settings, counting the
+     * dropped entries in its {@link com.github.bogdanromanx.web.server.metrics.MetricsRegistry}.
+     *
+     * @param system the target actor system for this extension
+     * @return the {@link AccessLog} of the actor system
+     */
+    @Override
+    public AccessLog createExtension(ExtendedActorSystem system) {
+        AccessLog accessLog = new AccessLog(
+                SettingsExtension.SettingsExtensionProvider.get(system).accessLogConfig(),
+                MetricsExtension.MetricsExtensionProvider.get(system).counter("web_server_access_log_dropped_total",
+                        "The number of access log entries dropped because the buffer was full"),
+                Logging.getLogger(system, AccessLog.class));
+        system.registerOnTermination(accessLog::close);
+        return accessLog;
+    }
+}
@@ -0,0 +1,235 @@
+package com.github.bogdanromanx.web.server.capture;
+
+import akka.util.ByteString;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The binary format of the traffic captures (see {@link TrafficCapture}), with big endian numbers: a header made of
+ * the magic number 0x57534350 ("WSCP") and the format version (a short), followed by the records of all the captured
+ * connections, interleaved as they were written.  Every record starts with its type (a byte), the id of its connection
+ * (a long) and its timestamp, in nanoseconds since the capture started (a long):
+ * </p>
+ * <ul>
+ * <li>open ({@link CaptureFile#OPEN}): the connection was accepted; followed by the vhost and the client address,
+ * as modified UTF-8 strings</li>
+ * <li>data ({@link CaptureFile#DATA}): a chunk of bytes was read from the connection; followed by its length (an int)
+ * and its bytes</li>
+ * <li>close ({@link CaptureFile#CLOSE}): the connection was closed</li>
+ * </ul>
+ * <p>
+ * A connection without a close record stopped being recorded before it was closed (because of the size limits or a
+ * full writer queue), or the capture itself was stopped.
+ * </p>
+ */
+public final class CaptureFile {
+
+    static final int MAGIC = 0x57534350;
+    static final short VERSION = 1;
+
+    static final byte OPEN = 0;
+    static final byte DATA = 1;
+    static final byte CLOSE = 2;
+
+    private CaptureFile() {
+    }
+
+    /**
+     * Writes the header of a capture to the argument 'out'.
+     */
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    /**
+     * Reads the capture from the argument 'file'.
+     *
+     * @param file the capture file
+     * @return the captured connections, in the order they were opened
+     * @throws IOException if the file cannot be read or it is not a capture
+     */
+    public static List<Connection> read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a capture from the argument 'input'.
+     *
+     * @param input the capture bytes
+     * @return the captured connections, in the order they were opened
+     * @throws IOException if the input cannot be read or it is not a capture
+     */
+    public static List<Connection> read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a traffic capture");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported traffic capture version " + version);
+        }
+        Map<Long, Connection> connections = new LinkedHashMap<>();
+        while (true) {
+            int type = in.read();
+            if (type < 0) {
+                break;
+            }
+            try {
+                long id = in.readLong();
+                long at = in.readLong();
+                if (type == OPEN) {
+                    connections.put(id, new Connection(id, in.readUTF(), in.readUTF(), at));
+                } else if (type == DATA) {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    Connection connection = connections.get(id);
+                    if (connection != null) {
+                        connection.chunks.add(new Chunk(at, ByteString.fromArray(bytes)));
+                    }
+                } else if (type == CLOSE) {
+                    Connection connection = connections.get(id);
+                    if (connection != null) {
+                        connection.closedAt = at;
+                    }
+                } else {
+                    throw new IOException("Unknown traffic capture record type " + type);
+                }
+            } catch (EOFException e) {
+                // the last record was cut short, i.e.: the server was stopped while writing it
+                break;
+            }
+        }
+        return new ArrayList<>(connections.values());
+    }
+
+    /**
+     * A captured connection: the chunks of bytes read from it, as they were read.
+     */
+    public static final class Connection {
+        private final long id;
+        private final String vhost;
+        private final String remote;
+        private final long openedAt;
+        private final List<Chunk> chunks = new ArrayList<>();
+        private long closedAt = -1;
+
+        private Connection(long id, String vhost, String remote, long openedAt) {
+            this.id = id;
+            this.vhost = vhost;
+            this.remote = remote;
+            this.openedAt = openedAt;
+        }
+
+        /**
+         * @return the id of the connection, unique within the capture
+         */
+        public long id() {
+            return id;
+        }
+
+        /**
+         * @return the vhost that accepted the connection, i.e.: "127.0.0.1:8080"
+         */
+        public String vhost() {
+            return vhost;
+        }
+
+        /**
+         * @return the address of the client
+         */
+        public String remote() {
+            return remote;
+        }
+
+        /**
+         * @return the timestamp at which the connection was accepted, in nanoseconds since the capture started
+         */
+        public long openedAt() {
+            return openedAt;
+        }
+
+        /**
+         * @return the timestamp at which the connection was closed, in nanoseconds since the capture started, -1 if the
+         * capture does not record it
+         */
+        public long closedAt() {
+            return closedAt;
+        }
+
+        /**
+         * @return the chunks of bytes read from the connection, in order
+         */
+        public List<Chunk> chunks() {
+            return Collections.unmodifiableList(chunks);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "Connection{" +
+                    "id=" + id +
+                    ", vhost='" + vhost + '\'' +
+                    ", remote='" + remote + '\'' +
+                    ", openedAt=" + openedAt +
+                    ", closedAt=" + closedAt +
+                    ", chunks=" + chunks.size() +
+                    '}';
+        }
+    }
+
+    /**
+     * A chunk of bytes read from a captured connection.
+     */
+    public static final class Chunk {
+        private final long at;
+        private final ByteString bytes;
+
+        private Chunk(long at, ByteString bytes) {
+            this.at = at;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the timestamp at which the chunk was read, in nanoseconds since the capture started
+         */
+        public long at() {
+            return at;
+        }
+
+        /**
+         * @return the bytes of the chunk
+         */
+        public ByteString bytes() {
+            return bytes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "Chunk{" +
+                    "at=" + at +
+                    ", bytes=" + bytes.length() +
+                    '}';
+        }
+    }
+}
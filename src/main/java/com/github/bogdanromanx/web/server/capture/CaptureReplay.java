@@ -0,0 +1,181 @@
+package com.github.bogdanromanx.web.server.capture;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.FlowShape;
+import akka.stream.Graph;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.Tcp;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.Bootstrap;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.vhost.InMemoryHandler;
+import com.typesafe.config.Config;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Replays the connections of a traffic capture (see {@link TrafficCapture}) with the exact chunks the clients sent:
+ * every captured connection is opened again and fed its chunks at their original offsets, divided by the replay speed
+ * (1 replays the capture in real time, 10 ten times faster, 0 as fast as possible).  The connections are opened
+ * through a factory of connection flows, i.e.: the processing flow of an {@link InMemoryHandler}, or an outgoing TCP
+ * connection to a live server; the response bytes of every connection are folded by a sink of choice.
+ * </p>
+ * <p>
+ * Run it from the server jar, configured through the 'web.server.replay' block (system properties take precedence):
+ * </p>
+ * <pre>
+ * java -Dweb.server.replay.file=capture.bin -Dweb.server.replay.speed=10 -cp web-server.jar \
+ *     com.github.bogdanromanx.web.server.capture.CaptureReplay
+ * </pre>
+ */
+public final class CaptureReplay {
+
+    private final ActorSystem system;
+    private final Materializer materializer;
+    private final List<CaptureFile.Connection> connections;
+    private final double speed;
+
+    /**
+     * Constructs a new {@link CaptureReplay} of the argument 'connections'.
+     *
+     * @param system       the actor system that schedules the chunks
+     * @param materializer the materializer of the replayed connections
+     * @param connections  the captured connections (see {@link CaptureFile#read(java.nio.file.Path)})
+     * @param speed        the replay speed: 1 for real time, 0 for as fast as possible
+     * @throws IllegalArgumentException for a negative speed
+     */
+    public CaptureReplay(ActorSystem system, Materializer materializer, List<CaptureFile.Connection> connections,
+                         double speed) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("The replay speed cannot be negative");
+        }
+        this.system = system;
+        this.materializer = materializer;
+        this.connections = connections;
+        this.speed = speed;
+    }
+
+    /**
+     * Replays the captured connections, each through a new flow built by the argument 'target'.
+     *
+     * @param target    builds the flow of a new connection: it takes the request bytes in and gives the response
+     *                  bytes out
+     * @param responses folds the response bytes of a connection
+     * @param <T>       the type of the folded responses
+     * @return the folded responses of the connections, in the order of the capture, once all were replayed
+     */
+    public <T> CompletionStage<List<T>> replay(Supplier<? extends Graph<FlowShape<ByteString, ByteString>, ?>> target,
+                                               Sink<ByteString, CompletionStage<T>> responses) {
+        long origin = connections.stream().mapToLong(CaptureFile.Connection::openedAt).min().orElse(0);
+        long start = System.nanoTime();
+        List<CompletableFuture<T>> results = new ArrayList<>();
+        for (CaptureFile.Connection connection : connections) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            results.add(result);
+            delayed(connection, start, connection.openedAt() - origin).thenAccept(c -> {
+                try {
+                    requests(c, start, origin)
+                            .via(target.get())
+                            .runWith(responses, materializer)
+                            .whenComplete((value, th) -> {
+                                if (th != null) {
+                                    result.completeExceptionally(th);
+                                } else {
+                                    result.complete(value);
+                                }
+                            });
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /**
+     * The chunks of the argument 'connection', each emitted at its offset from the start of the replay; the source
+     * completes when the connection was closed, if the capture recorded it, or after its last chunk.
+     */
+    private Source<ByteString, NotUsed> requests(CaptureFile.Connection connection, long start, long origin) {
+        Source<ByteString, NotUsed> chunks = Source.from(connection.chunks())
+                .mapAsync(1, chunk -> delayed(chunk.bytes(), start, chunk.at() - origin));
+        if (connection.closedAt() < 0) {
+            return chunks;
+        }
+        return chunks.concat(Source.single(ByteString.empty())
+                .mapAsync(1, empty -> delayed(empty, start, connection.closedAt() - origin))
+                .filter(empty -> false));
+    }
+
+    /**
+     * @return a stage completed with the argument 'value' once the argument 'offset' (scaled by the replay speed)
+     * elapsed from the argument 'start'
+     */
+    private <V> CompletionStage<V> delayed(V value, long start, long offset) {
+        long delay = speed == 0 ? 0 : start + (long) (offset / speed) - System.nanoTime();
+        if (delay <= 0) {
+            return CompletableFuture.completedFuture(value);
+        }
+        CompletableFuture<V> result = new CompletableFuture<>();
+        system.scheduler().scheduleOnce(FiniteDuration.create(delay, TimeUnit.NANOSECONDS),
+                () -> result.complete(value), system.dispatcher());
+        return result;
+    }
+
+    /**
+     * Replays the configured capture against the configured target, either "memory" (the processing flow of the first
+     * configured vhost, in process) or the "host:port" of a live server, then prints a summary.
+     */
+    public static void main(String[] args) throws Exception {
+        Config config = Bootstrap.loadConfig();
+        Config replayConfig = config.getConfig("web.server.replay");
+        List<CaptureFile.Connection> connections = CaptureFile.read(Paths.get(replayConfig.getString("file")));
+        ActorSystem system = ActorSystem.create("replay", config);
+        try {
+            String target = replayConfig.getString("target");
+            Supplier<? extends Graph<FlowShape<ByteString, ByteString>, ?>> flow;
+            if ("memory".equals(target)) {
+                InMemoryHandler handler = new InMemoryHandler(system,
+                        SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0));
+                handler.start();
+                flow = handler::connection;
+            } else {
+                String host = target.substring(0, target.lastIndexOf(':'));
+                int port = Integer.parseInt(target.substring(target.lastIndexOf(':') + 1));
+                flow = () -> Tcp.get(system).outgoingConnection(host, port);
+            }
+            CaptureReplay replay = new CaptureReplay(system, ActorMaterializer.create(system), connections,
+                    replayConfig.getDouble("speed"));
+            long start = System.nanoTime();
+            List<Long> responses = replay.replay(flow, Sink.fold(0L, (bytes, chunk) -> bytes + chunk.length()))
+                    .toCompletableFuture()
+                    .get();
+            long requestBytes = connections.stream()
+                    .flatMap(c -> c.chunks().stream())
+                    .mapToLong(chunk -> chunk.bytes().length())
+                    .sum();
+            System.out.printf("Replayed %d connections (%d request bytes, %d response bytes) in %d ms%n",
+                    connections.size(), requestBytes, responses.stream().mapToLong(Long::longValue).sum(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            system.terminate();
+            Await.result(system.whenTerminated(), Duration.Inf());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.github.bogdanromanx.web.server.capture;
+
+import akka.NotUsed;
+import akka.actor.Extension;
+import akka.event.LoggingAdapter;
+import akka.stream.javadsl.Flow;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.settings.CaptureConfig;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * The traffic capture of the server, shared by all the vhosts of an {@link akka.actor.ActorSystem} (see
+ * {@link TrafficCaptureExtension}): the inbound bytes of a sample of the connections are recorded as they were read,
+ * chunk by chunk, with their timestamps, so that the exact fragmentation and pipelining of the clients can be replayed
+ * later (see {@link CaptureReplay}).  The chunks are handed over to a background writer through a bounded queue and
+ * written to the configured file (see {@link CaptureFile} for the format); the connection flows never wait for the
+ * disk.  A connection is no longer recorded once its chunk finds the queue full (counted as truncated) or once it
+ * exceeds the connection size limit; nothing more is recorded once the capture exceeds the file size limit.
+ * </p>
+ * <p>
+ * The capture is opt-in (<code>web.server.capture.enabled</code>) and only the "akka" transport taps its connections
+ * (see {@link TrafficCapture#tap(String, SocketAddress)}).
+ * </p>
+ */
+public final class TrafficCapture implements Extension {
+
+    private final CaptureConfig config;
+    private final Counter truncated;
+    private final LoggingAdapter log;
+    private final BlockingQueue<Record> queue;
+    private final AtomicLong connections = new AtomicLong();
+    private final long start = System.nanoTime();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean full;
+
+    /**
+     * Constructs the traffic capture for the argument 'config', starting its writer if enabled.
+     *
+     * @param config    the traffic capture configuration
+     * @param truncated the counter of the connections no longer recorded because the writer queue was full
+     * @param log       the log of the capture failures and limits
+     */
+    public TrafficCapture(CaptureConfig config, Counter truncated, LoggingAdapter log) {
+        this.config = config;
+        this.truncated = truncated;
+        this.log = log;
+        this.queue = new ArrayBlockingQueue<>(config.bufferSize());
+        this.writer = new Thread(this::write, "traffic-capture-writer");
+        writer.setDaemon(true);
+        if (config.enabled()) {
+            writer.start();
+        }
+    }
+
+    /**
+     * @return whether the connections are captured
+     */
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    /**
+     * Decides whether a new connection is captured, based on the sample rate and the size of the capture so far.
+     *
+     * @param vhost  the vhost that accepted the connection
+     * @param remote the address of the client
+     * @return a flow that records the inbound bytes of the connection, to be placed ahead of its processing flow,
+     * empty if the connection is not captured
+     */
+    public Optional<Flow<ByteString, ByteString, NotUsed>> tap(String vhost, SocketAddress remote) {
+        if (!config.enabled() || full || ThreadLocalRandom.current().nextDouble() >= config.sampleRate()) {
+            return Optional.empty();
+        }
+        Tap tap = new Tap(connections.incrementAndGet());
+        if (!tap.offer(new Record(CaptureFile.OPEN, tap.id, now(), vhost, address(remote), null))) {
+            return Optional.empty();
+        }
+        return Optional.of(Flow.of(ByteString.class)
+                .map(bytes -> {
+                    tap.data(bytes);
+                    return bytes;
+                })
+                .watchTermination((mat, done) -> {
+                    done.thenRun(tap::close);
+                    return mat;
+                }));
+    }
+
+    /**
+     * Stops the writer once it wrote the queued records and closes the file.
+     */
+    public void close() {
+        running = false;
+        if (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - start;
+    }
+
+    private static String address(SocketAddress remote) {
+        if (remote instanceof InetSocketAddress && ((InetSocketAddress) remote).getAddress() != null) {
+            InetSocketAddress inet = (InetSocketAddress) remote;
+            return inet.getAddress().getHostAddress() + ":" + inet.getPort();
+        }
+        return String.valueOf(remote);
+    }
+
+    /**
+     * The loop of the writer thread: writes the queued records, flushing them whenever the queue runs empty.
+     */
+    private void write() {
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(config.file(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                     64 * 1024))) {
+            CaptureFile.writeHeader(out);
+            while (running || !queue.isEmpty()) {
+                Record record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    written += record.write(out);
+                    if (!full && written >= config.maxFileSize()) {
+                        full = true;
+                        log.warning("The traffic capture {} reached its maximum size, no more bytes are recorded",
+                                config.file());
+                    }
+                }
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            full = true;
+            queue.clear();
+            log.warning("Unable to write the traffic capture {}, no more bytes are recorded: {}", config.file(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The recording of a captured connection; its chunks are recorded one at a time, by the stage of the tap.
+     */
+    private final class Tap {
+        private final long id;
+        private long bytes;
+        private volatile boolean recording = true;
+
+        private Tap(long id) {
+            this.id = id;
+        }
+
+        private void data(ByteString chunk) {
+            if (!recording) {
+                return;
+            }
+            bytes += chunk.length();
+            if (full || bytes > config.maxConnectionSize()) {
+                recording = false;
+                return;
+            }
+            recording = offer(new Record(CaptureFile.DATA, id, now(), null, null, chunk));
+        }
+
+        private void close() {
+            if (recording) {
+                recording = offer(new Record(CaptureFile.CLOSE, id, now(), null, null, null));
+            }
+        }
+
+        private boolean offer(Record record) {
+            if (queue.offer(record)) {
+                return true;
+            }
+            truncated.increment();
+            return false;
+        }
+    }
+
+    /**
+     * A record waiting to be written.
+     */
+    private static final class Record {
+        private final byte type;
+        private final long connection;
+        private final long at;
+        private final String vhost;
+        private final String remote;
+        private final ByteString bytes;
+
+        private Record(byte type, long connection, long at, String vhost, String remote, ByteString bytes) {
+            this.type = type;
+            this.connection = connection;
+            this.at = at;
+            this.vhost = vhost;
+            this.remote = remote;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the (approximate, for the strings) number of bytes written
+         */
+        private long write(DataOutputStream out) throws IOException {
+            out.writeByte(type);
+            out.writeLong(connection);
+            out.writeLong(at);
+            if (type == CaptureFile.OPEN) {
+                out.writeUTF(vhost);
+                out.writeUTF(remote);
+                return 21 + vhost.length() + remote.length();
+            }
+            if (type == CaptureFile.DATA) {
+                out.writeInt(bytes.length());
+                out.write(bytes.toArray());
+                return 21 + bytes.length();
+            }
+            return 17;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.bogdanromanx.web.server.capture;
+
+import akka.actor.AbstractExtensionId;
+import akka.actor.ExtendedActorSystem;
+import akka.actor.ExtensionIdProvider;
+import akka.event.Logging;
+import com.github.bogdanromanx.web.server.metrics.MetricsExtension;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+
+/**
+ * Provider for the {@link TrafficCapture} extension, ensuring a single capture file, and a single writer, across the
+ * entire {@link akka.actor.ActorSystem}.  The writer is stopped when the actor system terminates.
+ *
+ * @see ExtensionIdProvider
+ */
+public class TrafficCaptureExtension extends AbstractExtensionId<TrafficCapture> implements ExtensionIdProvider {
+    public final static TrafficCaptureExtension TrafficCaptureExtensionProvider = new TrafficCaptureExtension();
+
+    private TrafficCaptureExtension() {
+    }
+
+    @Override
+    public TrafficCaptureExtension lookup() {
+        return TrafficCaptureExtensionProvider;
+    }
+
+    /**
+     * Constructs the {@link TrafficCapture} of the argument {@link ExtendedActorSystem} from its settings, counting the
+     * truncated connections in its {@link com.github.bogdanromanx.web.server.metrics.MetricsRegistry}.
+     *
+     * @param system the target actor system for this extension
+     * @return the {@link TrafficCapture} of the actor system
+     */
+    @Override
+    public TrafficCapture createExtension(ExtendedActorSystem system) {
+        TrafficCapture capture = new TrafficCapture(
+                SettingsExtension.SettingsExtensionProvider.get(system).captureConfig(),
+                MetricsExtension.MetricsExtensionProvider.get(system).counter("web_server_capture_truncated_total",
+                        "The number of captured connections no longer recorded because the writer queue was full"),
+                Logging.getLogger(system, TrafficCapture.class));
+        system.registerOnTermination(capture::close);
+        return capture;
+    }
+}
@@ -0,0 +1,306 @@
+package com.github.bogdanromanx.web.server.compression;
+
+import akka.util.ByteString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Bounded cache of the compressed variants of responses, used by the {@link ResponseCompression} for not compressing
+ * the same representation twice.  The variants are keyed by the request target, the entity tag of the representation
+ * and the content coding, so a new version of a file is a new entry; the stale entries are evicted in least recently
+ * used order when the cache runs out of room.
+ * </p>
+ * <p>
+ * When a directory is configured the variants are also persisted there, under the SHA-256 digest of their key, and
+ * survive restarts.  The disk reads and writes are performed on the argument executor.  The persisted variants are
+ * bounded by size as well: the modification time of a file is bumped when it's read, and the least recently used files
+ * are deleted when a write takes the directory over its maximum size.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CompressedVariants {
+
+    private long maxTotalSize;
+    private final Path directory;
+    private final long maxDiskSize;
+    private final Executor executor;
+    private final Object disk = new Object();
+    private long diskSize = -1;
+
+    private final LinkedHashMap<String, ByteString> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new {@link CompressedVariants} cache.
+     *
+     * @param maxTotalSize the maximum number of bytes held in memory; a value of 0 disables the in memory cache
+     * @param directory    the directory in which the variants are persisted, if any
+     * @param maxDiskSize  the maximum number of bytes persisted in the 'directory'
+     * @param executor     the executor for the blocking disk operations
+     * @throws IllegalArgumentException for a negative 'maxTotalSize' or 'maxDiskSize'
+     */
+    public CompressedVariants(long maxTotalSize, Optional<Path> directory, long maxDiskSize, Executor executor) {
+        if (maxTotalSize < 0 || maxDiskSize < 0) {
+            throw new IllegalArgumentException("The CompressedVariants size must be a positive value");
+        }
+        this.maxTotalSize = maxTotalSize;
+        this.directory = directory.orElse(null);
+        this.maxDiskSize = maxDiskSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Looks up the variant for the argument 'key', in memory first and on disk afterwards.  Variants found on disk are
+     * added to the in memory cache.
+     *
+     * @param key the key of the variant
+     * @return a {@link CompletionStage} of an {@link Optional} inhabited by the cached variant, uninhabited otherwise
+     */
+    public CompletionStage<Optional<ByteString>> get(String key) {
+        Optional<ByteString> cached = memory(key);
+        if (cached.isPresent() || directory == null) {
+            (cached.isPresent() ? hits : misses).increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<ByteString> persisted = read(key);
+            (persisted.isPresent() ? hits : misses).increment();
+            persisted.ifPresent(bytes -> admit(key, bytes));
+            return persisted;
+        }, executor);
+    }
+
+    /**
+     * Adds the argument 'bytes' as the variant for the argument 'key', persisting it in the background if a directory
+     * is configured.
+     *
+     * @param key   the key of the variant
+     * @param bytes the compressed representation
+     */
+    public void put(String key, ByteString bytes) {
+        admit(key, bytes);
+        if (directory != null && bytes.length() <= maxDiskSize) {
+            CompletableFuture.runAsync(() -> write(key, bytes), executor);
+        }
+    }
+
+    private synchronized Optional<ByteString> memory(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    private synchronized void admit(String key, ByteString bytes) {
+        long size = bytes.length();
+        if (size > maxTotalSize) {
+            return;
+        }
+        ByteString previous = entries.remove(key);
+        if (previous != null) {
+            totalSize -= previous.length();
+        }
+        Iterator<Map.Entry<String, ByteString>> it = entries.entrySet().iterator();
+        while (totalSize + size > maxTotalSize && it.hasNext()) {
+            totalSize -= it.next().getValue().length();
+            it.remove();
+        }
+        entries.put(key, bytes);
+        totalSize += size;
+    }
+
+    private Optional<ByteString> read(String key) {
+        Path file = directory.resolve(fileName(key));
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            ByteString bytes = ByteString.fromArray(Files.readAllBytes(file));
+            // the modification time orders the persisted variants by their last use
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(bytes);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void write(String key, ByteString bytes) {
+        String name = fileName(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, name, ".tmp");
+            Files.write(tmp, bytes.toArray());
+            Path file = directory.resolve(name);
+            long replaced = Files.isRegularFile(file) ? Files.size(file) : 0;
+            // readers never observe partially written variants
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            persisted(bytes.length() - replaced);
+        } catch (IOException e) {
+            // persistence is best effort, the variant is still held in memory
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // nothing left to do
+                }
+            }
+        }
+    }
+
+    /**
+     * Accounts for the argument 'delta' bytes persisted, deleting the least recently used variants when the directory
+     * exceeds its maximum size; its size is computed on the first write.
+     */
+    private void persisted(long delta) throws IOException {
+        synchronized (disk) {
+            if (diskSize < 0) {
+                diskSize = persistedFiles().stream().mapToLong(PersistedFile::size).sum();
+            } else {
+                diskSize += delta;
+            }
+            if (diskSize <= maxDiskSize) {
+                return;
+            }
+            List<PersistedFile> files = persistedFiles();
+            files.sort(Comparator.comparing(PersistedFile::lastModified));
+            diskSize = files.stream().mapToLong(PersistedFile::size).sum();
+            for (PersistedFile file : files) {
+                if (diskSize <= maxDiskSize) {
+                    break;
+                }
+                if (Files.deleteIfExists(file.path)) {
+                    diskSize -= file.size;
+                }
+            }
+        }
+    }
+
+    private List<PersistedFile> persistedFiles() throws IOException {
+        List<PersistedFile> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (entry.getFileName().toString().endsWith(".tmp")) {
+                    continue;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        files.add(new PersistedFile(entry, attributes.size(), attributes.lastModifiedTime()));
+                    }
+                } catch (IOException e) {
+                    // deleted concurrently
+                }
+            }
+        }
+        return files;
+    }
+
+    private static final class PersistedFile {
+        private final Path path;
+        private final long size;
+        private final FileTime lastModified;
+
+        private PersistedFile(Path path, long size, FileTime lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private long size() {
+            return size;
+        }
+
+        private FileTime lastModified() {
+            return lastModified;
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is a required MessageDigest algorithm", e);
+        }
+    }
+
+    /**
+     * @return the number of lookups that found a variant, in memory or on disk
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that did not find a variant
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of variants held in memory
+     */
+    public synchronized int entries() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of bytes held in memory
+     */
+    public synchronized long totalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return the maximum number of bytes held in memory
+     */
+    public synchronized long maxTotalSize() {
+        return maxTotalSize;
+    }
+
+    /**
+     * Changes the maximum number of bytes held in memory, evicting the least recently used variants until the cache
+     * fits the new limit; the persisted variants are kept.
+     *
+     * @param maxTotalSize the maximum number of bytes held in memory; a value of 0 disables the in memory cache
+     * @throws IllegalArgumentException for a negative 'maxTotalSize'
+     */
+    public synchronized void maxTotalSize(long maxTotalSize) {
+        if (maxTotalSize < 0) {
+            throw new IllegalArgumentException("The CompressedVariants size must be a positive value");
+        }
+        this.maxTotalSize = maxTotalSize;
+        Iterator<Map.Entry<String, ByteString>> it = entries.entrySet().iterator();
+        while (totalSize > maxTotalSize && it.hasNext()) {
+            totalSize -= it.next().getValue().length();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.bogdanromanx.web.server.compression;
+
+import akka.util.ByteString;
+import akka.util.ByteStringBuilder;
+import com.github.bogdanromanx.web.server.types.headers.ContentEncoding;
+
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Incremental {@link Deflater} based encoder for the 'gzip' (RFC 1952) and 'deflate' (zlib, RFC 1950) content
+ * codings.  The input is fed with {@link Compressor#update(ByteString)} and the encoding is completed with
+ * {@link Compressor#finish()}, after which the compressor cannot be reused.  Instances are not thread safe and hold
+ * native memory until {@link Compressor#end()} is called.
+ */
+final class Compressor {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Minimal gzip member header: deflate method, no flags, no modification time, unknown OS.
+     */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final boolean gzip;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private boolean started;
+
+    /**
+     * Constructs a new {@link Compressor} for the argument content 'coding'.
+     *
+     * @param coding the content coding, either 'gzip' or 'deflate'
+     * @param level  the compression level, from 1 (fastest) to 9 (smallest)
+     * @throws IllegalArgumentException for unsupported content codings
+     */
+    Compressor(String coding, int level) {
+        requireSupported(coding);
+        gzip = ContentEncoding.GZIP.value().equals(coding);
+        deflater = new Deflater(level, gzip);
+    }
+
+    /**
+     * Compresses the argument 'bytes'.
+     *
+     * @return the compressed bytes produced so far, possibly empty as the deflater buffers its input
+     */
+    ByteString update(ByteString bytes) {
+        ByteStringBuilder out = ByteString.createBuilder();
+        start(out);
+        byte[] input = bytes.toArray();
+        if (gzip) {
+            crc.update(input);
+        }
+        deflater.setInput(input);
+        int n;
+        while (!deflater.needsInput() && (n = deflater.deflate(buffer)) > 0) {
+            out.putBytes(buffer, 0, n);
+        }
+        return out.result();
+    }
+
+    /**
+     * Completes the encoding.
+     *
+     * @return the remaining compressed bytes, including the gzip trailer
+     */
+    ByteString finish() {
+        ByteStringBuilder out = ByteString.createBuilder();
+        start(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.putBytes(buffer, 0, deflater.deflate(buffer));
+        }
+        if (gzip) {
+            out.putInt((int) crc.getValue(), ByteOrder.LITTLE_ENDIAN);
+            out.putInt((int) deflater.getBytesRead(), ByteOrder.LITTLE_ENDIAN);
+        }
+        return out.result();
+    }
+
+    /**
+     * Frees the native memory held by the deflater.  Subsequent calls have no effect.
+     */
+    void end() {
+        deflater.end();
+    }
+
+    private void start(ByteStringBuilder out) {
+        if (!started) {
+            started = true;
+            if (gzip) {
+                out.putBytes(GZIP_HEADER);
+            }
+        }
+    }
+
+    /**
+     * @param coding a content coding
+     * @throws IllegalArgumentException if the argument 'coding' is neither 'gzip' nor 'deflate'
+     */
+    static void requireSupported(String coding) {
+        if (!ContentEncoding.GZIP.value().equals(coding) && !ContentEncoding.DEFLATE.value().equals(coding)) {
+            throw new IllegalArgumentException("Unsupported compression coding: " + coding);
+        }
+    }
+
+    /**
+     * Compresses the argument 'bytes' in one go.
+     *
+     * @param bytes  the bytes to compress
+     * @param coding the content coding, either 'gzip' or 'deflate'
+     * @param level  the compression level, from 1 (fastest) to 9 (smallest)
+     * @return the encoded bytes
+     */
+    static ByteString compress(ByteString bytes, String coding, int level) {
+        Compressor compressor = new Compressor(coding, level);
+        try {
+            return compressor.update(bytes).concat(compressor.finish());
+        } finally {
+            compressor.end();
+        }
+    }
+}
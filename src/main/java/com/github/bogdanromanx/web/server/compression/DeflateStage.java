@@ -0,0 +1,84 @@
+package com.github.bogdanromanx.web.server.compression;
+
+import akka.stream.Attributes;
+import akka.stream.FlowShape;
+import akka.stream.Inlet;
+import akka.stream.Outlet;
+import akka.stream.stage.AbstractInHandler;
+import akka.stream.stage.AbstractOutHandler;
+import akka.stream.stage.GraphStage;
+import akka.stream.stage.GraphStageLogic;
+import akka.util.ByteString;
+
+/**
+ * {@link GraphStage} implementation that compresses a stream of {@link ByteString}s with the 'gzip' or 'deflate'
+ * content coding.  Chunks are compressed as they arrive; the deflater is completed when the upstream completes and its
+ * native memory is freed when the stage stops, regardless of the reason.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DeflateStage extends GraphStage<FlowShape<ByteString, ByteString>> {
+
+    private final Inlet<ByteString> in = Inlet.create("DeflateStage.in");
+    private final Outlet<ByteString> out = Outlet.create("DeflateStage.out");
+    private final FlowShape<ByteString, ByteString> shape = FlowShape.of(in, out);
+
+    private final String coding;
+    private final int level;
+
+    /**
+     * Constructs a new {@link DeflateStage} for the argument content 'coding'.
+     *
+     * @param coding the content coding, either 'gzip' or 'deflate'
+     * @param level  the compression level, from 1 (fastest) to 9 (smallest)
+     * @throws IllegalArgumentException for unsupported content codings
+     */
+    public DeflateStage(String coding, int level) {
+        Compressor.requireSupported(coding);
+        this.coding = coding;
+        this.level = level;
+    }
+
+    @Override
+    public FlowShape<ByteString, ByteString> shape() {
+        return shape;
+    }
+
+    @Override
+    public GraphStageLogic createLogic(Attributes inheritedAttributes) {
+        return new GraphStageLogic(shape) {
+
+            private final Compressor compressor = new Compressor(coding, level);
+
+            {
+                setHandler(in, new AbstractInHandler() {
+                    @Override
+                    public void onPush() throws Exception {
+                        ByteString compressed = compressor.update(grab(in));
+                        if (compressed.isEmpty()) {
+                            pull(in);
+                        } else {
+                            push(out, compressed);
+                        }
+                    }
+
+                    @Override
+                    public void onUpstreamFinish() throws Exception {
+                        emit(out, compressor.finish(), () -> completeStage());
+                    }
+                });
+
+                setHandler(out, new AbstractOutHandler() {
+                    @Override
+                    public void onPull() throws Exception {
+                        pull(in);
+                    }
+                });
+            }
+
+            @Override
+            public void postStop() {
+                compressor.end();
+            }
+        };
+    }
+}
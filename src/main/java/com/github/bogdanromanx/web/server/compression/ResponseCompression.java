@@ -0,0 +1,216 @@
+package com.github.bogdanromanx.web.server.compression;
+
+import akka.stream.Materializer;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.CompressionConfig;
+import com.github.bogdanromanx.web.server.types.HttpEntity;
+import com.github.bogdanromanx.web.server.types.HttpRequest;
+import com.github.bogdanromanx.web.server.types.HttpResponse;
+import com.github.bogdanromanx.web.server.types.StatusCode;
+import com.github.bogdanromanx.web.server.types.headers.AcceptEncoding;
+import com.github.bogdanromanx.web.server.types.headers.ContentEncoding;
+import com.github.bogdanromanx.web.server.types.headers.ContentLength;
+import com.github.bogdanromanx.web.server.types.headers.ContentType;
+import com.github.bogdanromanx.web.server.types.headers.ETag;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * On the fly compression of the {@link HttpResponse}s, applied by the vhosts after the request handlers and before
+ * writing.  A response is eligible for compression when:
+ * </p>
+ * <ul>
+ * <li>its status is 200 OK and it has no content coding already (i.e.: a precompressed sibling file)</li>
+ * <li>its content type matches one of the configured prefixes</li>
+ * <li>its entity size is within the configured bounds</li>
+ * </ul>
+ * <p>
+ * Eligible responses get a 'Vary: Accept-Encoding' header and are compressed with the coding preferred by the client
+ * among 'gzip' and 'deflate'.  Since chunked transfer coding is not supported, the compressed entity is buffered for
+ * computing its 'Content-Length'.  The entity tag of a compressed response is made weak: it still validates
+ * conditional requests, but no longer matches 'If-Range' headers, as the bytes differ from those of the
+ * representation.  The compressed variants of the responses that carry an entity tag are cached (see
+ * {@link CompressedVariants}).
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ResponseCompression {
+
+    /**
+     * The supported content codings, in order of preference.
+     */
+    private static final List<String> CODINGS =
+            Arrays.asList(ContentEncoding.GZIP.value(), ContentEncoding.DEFLATE.value());
+
+    private static final RawHeader VARY = RawHeader.of("Vary", AcceptEncoding.NAME);
+
+    private final CompressionConfig config;
+    private final String scope;
+    private final Materializer materializer;
+    private final CompressedVariants variants;
+
+    /**
+     * Constructs a new {@link ResponseCompression} from the argument values.
+     *
+     * @param config       the compression configuration
+     * @param scope        the scope of the cached variants, i.e.: the vhost address; variants persisted in a shared
+     *                     directory are distinguished by their scope
+     * @param executor     the executor for the blocking disk operations of the variant cache
+     * @param materializer the materializer used for compressing streamed entities
+     */
+    public ResponseCompression(CompressionConfig config, String scope, Executor executor, Materializer materializer) {
+        this.config = config;
+        this.scope = scope;
+        this.materializer = materializer;
+        this.variants = new CompressedVariants(config.cacheMaxTotalSize(), config.cacheDirectory(),
+                config.cacheDirectoryMaxSize(), executor);
+    }
+
+    /**
+     * @return the cache of compressed variants
+     */
+    public CompressedVariants variants() {
+        return variants;
+    }
+
+    /**
+     * Compresses the argument 'response' if it's eligible for compression and the argument 'request' accepts one of
+     * the supported content codings.
+     *
+     * @param request  the request the 'response' responds to
+     * @param response the response produced by the request handler
+     * @return a {@link CompletionStage} of the response to write
+     */
+    public CompletionStage<HttpResponse> apply(HttpRequest request, HttpResponse response) {
+        if (!eligible(response)) {
+            return CompletableFuture.completedFuture(response);
+        }
+        Optional<String> coding = coding(request);
+        if (!coding.isPresent()) {
+            return CompletableFuture.completedFuture(vary(response));
+        }
+        Optional<RawHeader> etag = header(response.headers(), ETag.LOWERCASE_NAME);
+        if (!etag.isPresent()) {
+            return compress(response.entity(), coding.get())
+                    .thenApply(bytes -> compressed(response, coding.get(), bytes));
+        }
+        String key = scope + " " + request.requestLine().uri() + " " + etag.get().value() + " " + coding.get();
+        return variants.get(key)
+                .thenCompose(cached -> cached.isPresent()
+                        ? CompletableFuture.completedFuture(cached.get())
+                        : compress(response.entity(), coding.get()).thenApply(bytes -> {
+                    variants.put(key, bytes);
+                    return bytes;
+                }))
+                .thenApply(bytes -> compressed(response, coding.get(), bytes));
+    }
+
+    private boolean eligible(HttpResponse response) {
+        long length = response.entity().length();
+        if (!config.enabled()
+                || response.statusCode() != StatusCode.OK
+                || length <= 0 || length < config.minSize() || length > config.maxSize()
+                || header(response.headers(), ContentEncoding.LOWERCASE_NAME).isPresent()) {
+            return false;
+        }
+        return header(response.headers(), ContentType.LOWERCASE_NAME)
+                .map(h -> h.value().trim().toLowerCase(Locale.ENGLISH))
+                .map(ct -> config.contentTypes().stream().anyMatch(ct::startsWith))
+                .orElse(false);
+    }
+
+    /**
+     * Selects the coding preferred by the client: the one with the highest quality value, the first one in order of
+     * preference on ties.  A coding is not selected when the client prefers the unencoded representation.
+     */
+    private static Optional<String> coding(HttpRequest request) {
+        Optional<AcceptEncoding> acceptEncoding = request.headers().stream()
+                .flatMap(h -> AcceptEncoding.of(h).map(Stream::of).orElse(Stream.empty()))
+                .findFirst();
+        if (!acceptEncoding.isPresent()) {
+            return Optional.empty();
+        }
+        AcceptEncoding header = acceptEncoding.get();
+        String selected = null;
+        float best = 0f;
+        for (String coding : CODINGS) {
+            float q = header.quality(coding);
+            if (q > best) {
+                best = q;
+                selected = coding;
+            }
+        }
+        return selected != null && best >= header.quality(AcceptEncoding.IDENTITY)
+                ? Optional.of(selected)
+                : Optional.empty();
+    }
+
+    private CompletionStage<ByteString> compress(HttpEntity entity, String coding) {
+        if (entity instanceof HttpEntity.Strict) {
+            return CompletableFuture.completedFuture(
+                    Compressor.compress(((HttpEntity.Strict) entity).bytes(), coding, config.level()));
+        }
+        return (entity instanceof HttpEntity.FileRegion
+                ? ((HttpEntity.FileRegion) entity).source()
+                : ((HttpEntity.Streaming) entity).source())
+                .via(new DeflateStage(coding, config.level()))
+                .runFold(ByteString.empty(), ByteString::concat, materializer);
+    }
+
+    /**
+     * Constructs the compressed version of the argument 'response': the 'Content-Length' is replaced, the 'ETag' is
+     * made weak, the 'Content-Encoding' and 'Vary' headers are added.
+     */
+    private static HttpResponse compressed(HttpResponse response, String coding, ByteString bytes) {
+        List<RawHeader> headers = new ArrayList<>(response.headers().size() + 2);
+        for (RawHeader h : response.headers()) {
+            if (h.lowerCaseName().equals(ContentLength.LOWERCASE_NAME)) {
+                headers.add(ContentLength.of(bytes.length()).raw());
+            } else if (h.lowerCaseName().equals(ETag.LOWERCASE_NAME)) {
+                headers.add(weak(h));
+            } else {
+                headers.add(h);
+            }
+        }
+        headers.add(ContentEncoding.of(coding).raw());
+        if (!varies(response)) {
+            headers.add(VARY);
+        }
+        return HttpResponse.of(response.statusCode(), headers, HttpEntity.strict(bytes));
+    }
+
+    private static HttpResponse vary(HttpResponse response) {
+        if (varies(response)) {
+            return response;
+        }
+        List<RawHeader> headers = new ArrayList<>(response.headers());
+        headers.add(VARY);
+        return HttpResponse.of(response.statusCode(), headers, response.entity());
+    }
+
+    private static boolean varies(HttpResponse response) {
+        return response.headers().stream()
+                .filter(h -> h.lowerCaseName().equals("vary"))
+                .flatMap(h -> Arrays.stream(h.value().split(",")))
+                .map(String::trim)
+                .anyMatch(v -> v.equals("*") || v.equalsIgnoreCase(AcceptEncoding.NAME));
+    }
+
+    private static RawHeader weak(RawHeader etag) {
+        return ETag.of(etag).map(e -> e.weak().raw()).orElse(etag);
+    }
+
+    private static Optional<RawHeader> header(List<RawHeader> headers, String lowerCaseName) {
+        return headers.stream().filter(h -> h.lowerCaseName().equals(lowerCaseName)).findFirst();
+    }
+}
@@ -9,16 +9,30 @@ import akka.stream.stage.AbstractOutHandler;
 import akka.stream.stage.GraphStage;
 import akka.stream.stage.GraphStageLogic;
 import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.FlightRecorder;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.metrics.MetricsRegistry;
+import com.github.bogdanromanx.web.server.parsing.ParsingException;
 import com.github.bogdanromanx.web.server.settings.ParsingConfig;
+import com.github.bogdanromanx.web.server.types.RequestLine;
+import com.github.bogdanromanx.web.server.types.RequestTiming;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * {@link GraphStage} implementation of a {@link FlowShape} that converts inbound {@link ByteString} instances into
  * well formed {@link RequestFrame} instances.  It uses a state machine to mutate the inbound bytes expectations based
- * on previously emitted {@link RequestFrame} instances.
+ * on previously emitted {@link RequestFrame} instances.  The inbound bytes and the parsing failures, by
+ * {@link ParsingException} type, are counted in a {@link MetricsRegistry}.  A sample of the requests is timed from
+ * their first bytes (see {@link RequestTiming}).  The request heads and the parsing failures are recorded as
+ * {@link RequestHeadEvent}s and {@link ParseFailureEvent}s when enabled in a flight recording.
  */
 public class FramingStage extends GraphStage<FlowShape<ByteString, RequestFrame>> {
 
@@ -26,16 +40,55 @@ public class FramingStage extends GraphStage<FlowShape<ByteString, RequestFrame>
     private Outlet<RequestFrame> out = Outlet.create("FramingStage.out");
     private FlowShape<ByteString, RequestFrame> shape = FlowShape.of(in, out);
 
+    private static final List<Class<? extends ParsingException>> PARSING_EXCEPTIONS = Arrays.asList(
+            ParsingException.IllegalHttpMethod.class,
+            ParsingException.IllegalURI.class,
+            ParsingException.IllegalHttpProtocol.class,
+            ParsingException.ExpectingEmptyLine.class,
+            ParsingException.IllegalFormat.class,
+            ParsingException.IllegalHttpHeader.class);
+
     private ParsingConfig parsingConfig;
+    private final double timingSampleRate;
+    private final String vhost;
+    private final Counter bytesIn;
+    private final Map<Class<?>, Counter> parseErrors = new HashMap<>();
 
     /**
-     * Constructs a new {@link FramingStage} from the argument 'parsingConfig'.
+     * Constructs a new {@link FramingStage} from the argument 'parsingConfig', counting its metrics in a registry of
+     * its own.
      *
      * @param parsingConfig the request parsing configuration
      * @throws NullPointerException for null parsingConfig argument
      */
     public FramingStage(ParsingConfig parsingConfig) {
+        this(parsingConfig, new MetricsRegistry(), "", 0);
+    }
+
+    /**
+     * Constructs a new {@link FramingStage} from the argument 'parsingConfig', counting its metrics in the argument
+     * 'registry' under the argument 'vhost' label.  The argument 'timingSampleRate' fraction of the requests is timed:
+     * their {@link RequestFrame.RequestLineFrame}s carry a {@link RequestTiming} with the moments the first and the
+     * last bytes of their heads were read.
+     *
+     * @param parsingConfig    the request parsing configuration
+     * @param registry         the registry of the metrics
+     * @param vhost            the value of the 'vhost' label of the metrics, i.e.: "127.0.0.1:8080"
+     * @param timingSampleRate the fraction of the requests that are timed, between 0 and 1
+     * @throws NullPointerException for null parsingConfig, registry or vhost arguments
+     */
+    public FramingStage(ParsingConfig parsingConfig, MetricsRegistry registry, String vhost,
+                        double timingSampleRate) {
         this.parsingConfig = requireNonNull(parsingConfig);
+        this.timingSampleRate = timingSampleRate;
+        this.vhost = requireNonNull(vhost);
+        this.bytesIn = registry.counter("web_server_bytes_in_total",
+                "The number of bytes read from the connections", "vhost", vhost);
+        for (Class<? extends ParsingException> type : PARSING_EXCEPTIONS) {
+            parseErrors.put(type, registry.counter("web_server_parse_errors_total",
+                    "The number of requests rejected by the parser, by failure type",
+                    "vhost", vhost, "type", type.getSimpleName()));
+        }
     }
 
     @Override
@@ -48,6 +101,16 @@ public class FramingStage extends GraphStage<FlowShape<ByteString, RequestFrame>
         return new GraphStageLogic(shape) {
             private FramingStageState state = new ExpectingRequestLine(parsingConfig, ByteString.empty());
 
+            // the moments the last bytes and the first bytes of the next request were read, when sampling
+            private long readAt;
+            private long pendingSince;
+            private boolean pending;
+            private boolean inRequest;
+            // the timing of the request whose head is being framed, if sampled
+            private RequestTiming timing;
+            // the flight recorder event of the request head being framed, if enabled
+            private RequestHeadEvent headEvent;
+
             {
                 setHandler(out, new AbstractOutHandler() {
                     @Override
@@ -59,13 +122,24 @@ public class FramingStage extends GraphStage<FlowShape<ByteString, RequestFrame>
                 setHandler(in, new AbstractInHandler() {
                     @Override
                     public void onPush() throws Exception {
-                        state = state.next(grab(in));
+                        ByteString bytes = grab(in);
+                        bytesIn.add(bytes.length());
+                        if (timingSampleRate > 0) {
+                            read();
+                        }
+                        try {
+                            state = state.next(bytes);
+                        } catch (ParsingException e) {
+                            parseError(e);
+                            throw e;
+                        }
                         emitFrame();
                     }
 
                     @Override
                     public void onUpstreamFinish() throws Exception {
-                        if (!state.hasBytes()) completeStage();
+                        // a frame already produced from the last bytes is emitted on the next pull
+                        if (!state.frame().isPresent()) completeStage();
                     }
                 });
             }
@@ -77,14 +151,100 @@ public class FramingStage extends GraphStage<FlowShape<ByteString, RequestFrame>
             private void emitFrame() {
                 Optional<RequestFrame> frame = state.frame();
                 if (frame.isPresent()) {
-                    push(out, frame.get());
-                    state = state.next();
-                } else if (!state.hasBytes() && isClosed(in)) {
+                    RequestFrame next = timingSampleRate > 0 ? timed(frame.get()) : frame.get();
+                    recordHead(next);
+                    push(out, next);
+                    try {
+                        state = state.next();
+                    } catch (ParsingException e) {
+                        parseError(e);
+                        throw e;
+                    }
+                } else if (isClosed(in)) {
+                    // the bytes of an incomplete request are dropped
                     completeStage();
                 } else {
                     pull(in);
                 }
             }
+
+            /**
+             * Records the moment bytes were read: the first bytes of a request or the latest bytes of a timed request
+             * head.
+             */
+            private void read() {
+                readAt = System.nanoTime();
+                if (!inRequest && !pending) {
+                    pendingSince = readAt;
+                    pending = true;
+                }
+                if (timing != null) {
+                    timing.headRead(readAt);
+                }
+            }
+
+            /**
+             * Records the framing of the request heads as {@link RequestHeadEvent}s, when enabled: the event begins
+             * with the request line frame and is committed with the frame that ends the head.
+             */
+            private void recordHead(RequestFrame frame) {
+                if (frame instanceof RequestFrame.RequestLineFrame) {
+                    if (FlightRecorder.available() && RequestHeadEvent.enabled()) {
+                        RequestLine requestLine = ((RequestFrame.RequestLineFrame) frame).requestLine();
+                        headEvent = new RequestHeadEvent();
+                        headEvent.begin();
+                        headEvent.vhost = vhost;
+                        headEvent.method = requestLine.method().value();
+                        headEvent.uri = requestLine.uri().toString();
+                        headEvent.protocol = requestLine.protocol().value();
+                    }
+                } else if (headEvent != null) {
+                    if (frame instanceof RequestFrame.HeaderFrame) {
+                        headEvent.headers++;
+                    } else {
+                        headEvent.commit();
+                        headEvent = null;
+                    }
+                }
+            }
+
+            /**
+             * Tracks the request boundaries of the argument 'frame', attaching a new {@link RequestTiming} to the
+             * request line frames of the sampled requests.  The first bytes of a pipelined request are attributed to
+             * the read that carried them, together with the end of the previous request.
+             */
+            private RequestFrame timed(RequestFrame frame) {
+                if (frame instanceof RequestFrame.RequestLineFrame) {
+                    long received = pending ? pendingSince : readAt;
+                    pending = false;
+                    inRequest = true;
+                    if (ThreadLocalRandom.current().nextDouble() < timingSampleRate) {
+                        timing = RequestTiming.of().received(received).headRead(readAt);
+                        RequestLine requestLine = ((RequestFrame.RequestLineFrame) frame).requestLine();
+                        return RequestFrame.requestLine(requestLine, timing);
+                    }
+                } else if (frame instanceof RequestFrame.EntityStart) {
+                    timing = null;
+                } else if (frame == RequestFrame.end()) {
+                    timing = null;
+                    inRequest = false;
+                }
+                return frame;
+            }
         };
     }
+
+    private void parseError(ParsingException e) {
+        Counter counter = parseErrors.get(e.getClass());
+        if (counter != null) {
+            counter.increment();
+        }
+        if (FlightRecorder.available() && ParseFailureEvent.enabled()) {
+            ParseFailureEvent event = new ParseFailureEvent();
+            event.vhost = vhost;
+            event.type = e.getClass().getSimpleName();
+            event.message = e.getMessage();
+            event.commit();
+        }
+    }
 }
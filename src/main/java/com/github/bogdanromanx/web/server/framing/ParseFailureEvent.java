@@ -0,0 +1,36 @@
+package com.github.bogdanromanx.web.server.framing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a request rejected by the parser; the connection is closed afterwards.
+ */
+@Name("com.github.bogdanromanx.web.server.ParseFailure")
+@Label("Parse Failure")
+@Category({"Web Server", "Requests"})
+@Description("A request rejected by the parser, by failure type")
+@StackTrace(false)
+final class ParseFailureEvent extends Event {
+
+    @Label("VHost")
+    String vhost;
+
+    @Label("Type")
+    String type;
+
+    @Label("Message")
+    String message;
+
+    /**
+     * @return true if the event is enabled in a running recording; the instance allocated by the check does not
+     * escape, so that the check is free once compiled
+     */
+    static boolean enabled() {
+        return new ParseFailureEvent().isEnabled();
+    }
+}
@@ -2,6 +2,7 @@ package com.github.bogdanromanx.web.server.framing;
 
 import akka.util.ByteString;
 import com.github.bogdanromanx.web.server.types.RequestLine;
+import com.github.bogdanromanx.web.server.types.RequestTiming;
 import com.github.bogdanromanx.web.server.types.headers.RawHeader;
 
 import java.util.Optional;
@@ -33,7 +34,20 @@ public abstract class RequestFrame {
      * @throws NullPointerException for null 'requestLine' argument
      */
     public static RequestLineFrame requestLine(RequestLine requestLine) {
-        return new RequestLineFrame(requestLine);
+        return new RequestLineFrame(requestLine, null);
+    }
+
+    /**
+     * Constructs a new {@link RequestLineFrame} from the argument 'requestLine' that carries the argument 'timing' of
+     * the request it starts.
+     *
+     * @param requestLine the {@link RequestLine} to wrap into a {@link RequestLineFrame}
+     * @param timing      the {@link RequestTiming} of the request
+     * @return a new {@link RequestLineFrame} from the argument 'requestLine' and 'timing'
+     * @throws NullPointerException for null 'requestLine' or 'timing' arguments
+     */
+    public static RequestLineFrame requestLine(RequestLine requestLine, RequestTiming timing) {
+        return new RequestLineFrame(requestLine, requireNonNull(timing, "RequestTiming cannot be null"));
     }
 
     /**
@@ -79,15 +93,18 @@ public abstract class RequestFrame {
      */
     public static final class RequestLineFrame extends RequestFrame {
         private final RequestLine requestLine;
+        private final RequestTiming timing;
 
         /**
-         * Constructs a new {@link RequestLineFrame} from the argument 'requestLine'.
+         * Constructs a new {@link RequestLineFrame} from the argument 'requestLine' and 'timing'.
          *
          * @param requestLine the {@link RequestLine} of the newly constructed {@link RequestLineFrame}
+         * @param timing      the {@link RequestTiming} of the request, null if the request is not timed
          * @throws NullPointerException for a null 'requestLine' argument
          */
-        private RequestLineFrame(RequestLine requestLine) {
+        private RequestLineFrame(RequestLine requestLine, RequestTiming timing) {
             this.requestLine = requireNonNull(requestLine, "RequestLine cannot be null");
+            this.timing = timing;
         }
 
         /**
@@ -97,6 +114,14 @@ public abstract class RequestFrame {
             return requestLine;
         }
 
+        /**
+         * @return the {@link RequestTiming} of the request started by this frame, if the request is timed; the timing
+         * is not part of the equality of the frames.
+         */
+        public Optional<RequestTiming> timing() {
+            return Optional.ofNullable(timing);
+        }
+
         /**
          * {@inheritDoc}
          */
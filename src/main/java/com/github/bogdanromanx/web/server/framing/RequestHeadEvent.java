@@ -0,0 +1,46 @@
+package com.github.bogdanromanx.web.server.framing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event spanning the framing of a request head, from its request line to its empty line; it
+ * includes the time spent waiting for the header bytes.  Only the heads framed slower than the threshold (1 ms unless
+ * configured) are recorded.
+ */
+@Name("com.github.bogdanromanx.web.server.RequestHead")
+@Label("Request Head Parsed")
+@Category({"Web Server", "Requests"})
+@Description("The framing of a request head, from its request line to its empty line")
+@StackTrace(false)
+@Threshold("1 ms")
+final class RequestHeadEvent extends Event {
+
+    @Label("VHost")
+    String vhost;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Protocol")
+    String protocol;
+
+    @Label("Headers")
+    int headers;
+
+    /**
+     * @return true if the event is enabled in a running recording; the instance allocated by the check does not
+     * escape, so that the check is free once compiled
+     */
+    static boolean enabled() {
+        return new RequestHeadEvent().isEnabled();
+    }
+}
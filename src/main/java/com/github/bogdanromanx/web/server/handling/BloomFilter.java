@@ -0,0 +1,89 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Bloom filter: a set membership test with no false negatives and a bounded rate of false positives, for the
+ * configured number of keys.  Keys cannot be removed, so the filter is expected to be rebuilt once the keys it holds
+ * no longer reflect the set (see {@link BloomFilter#isSaturated()}).  Keys are hashed with their
+ * {@link Object#hashCode()}.
+ * <p>
+ * The filter is thread safe: keys can be added concurrently with the lookups.
+ * </p>
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int size;
+    private final int hashes;
+    private final int expectedKeys;
+    private final LongAdder additions = new LongAdder();
+
+    /**
+     * Constructs a new {@link BloomFilter} sized for the argument 'expectedKeys' and 'falsePositiveRate'.
+     *
+     * @param expectedKeys      the expected number of keys
+     * @param falsePositiveRate the expected rate of false positives once the filter holds 'expectedKeys' keys
+     * @throws IllegalArgumentException for 'expectedKeys' smaller than 1 or a 'falsePositiveRate' outside (0, 1)
+     */
+    BloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The BloomFilter expects at least a key and a rate within (0, 1)");
+        }
+        long bitCount = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.size = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bitCount));
+        this.hashes = Math.max(1, (int) Math.round((double) size / expectedKeys * Math.log(2)));
+        this.bits = new AtomicLongArray((size + 63) >>> 6);
+        this.expectedKeys = expectedKeys;
+    }
+
+    /**
+     * Adds the argument 'key' to the filter.
+     */
+    void add(Object key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 ^ 0x9e3779b9) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % size;
+            long mask = 1L << bit;
+            int idx = bit >>> 6;
+            long current;
+            while (((current = bits.get(idx)) & mask) == 0 && !bits.compareAndSet(idx, current, current | mask)) {
+                // retry until the bit is set
+            }
+        }
+        additions.increment();
+    }
+
+    /**
+     * @param key the key to look up
+     * @return <code>false</code> if the argument 'key' was definitely never added, <code>true</code> if it probably was
+     */
+    boolean mightContain(Object key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 ^ 0x9e3779b9) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % size;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if more keys than expected were added, at which point the false positive rate exceeds
+     * the configured one, <code>false</code> otherwise
+     */
+    boolean isSaturated() {
+        return additions.sum() > expectedKeys;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -4,12 +4,11 @@ import com.github.bogdanromanx.web.server.types.HttpRequest;
 import com.github.bogdanromanx.web.server.types.HttpResponse;
 import com.github.bogdanromanx.web.server.types.StatusCode;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.function.Function;
 
 /**
  * {@link RequestHandler} implementation that joins multiple handlers together and attempts to match them to the
@@ -20,10 +19,27 @@ public class CompositeHandler implements RequestHandler {
 
     private final List<RequestHandler> handlers;
     private final HttpResponse unmatched;
+    private final RequestHandler unmatchedHandler;
 
     private CompositeHandler(Collection<RequestHandler> handlers, HttpResponse unmatched) {
-        this.handlers = new LinkedList<>(handlers);
+        this.handlers = new ArrayList<>(handlers);
         this.unmatched = unmatched;
+        this.unmatchedHandler = new RequestHandler() {
+            @Override
+            public boolean matches(HttpRequest request) {
+                return true;
+            }
+
+            @Override
+            public CompletionStage<HttpResponse> apply(HttpRequest request) {
+                return CompletableFuture.completedFuture(CompositeHandler.this.unmatched);
+            }
+
+            @Override
+            public String name() {
+                return "unmatched";
+            }
+        };
     }
 
     /**
@@ -44,12 +60,23 @@ public class CompositeHandler implements RequestHandler {
      */
     @Override
     public CompletionStage<HttpResponse> apply(HttpRequest request) {
-        return handlers.stream()
-                .filter(handler -> handler.matches(request))
-                .findFirst()
-                .<Function<HttpRequest, CompletionStage<HttpResponse>>>map(Function.identity())
-                .orElse(req -> CompletableFuture.completedFuture(unmatched))
-                .apply(request);
+        return select(request).apply(request);
+    }
+
+    /**
+     * Selects the handler of the argument request: the first inner handler that matches it or, if none does, a handler
+     * named 'unmatched' that provides the default {@link CompositeHandler#unmatched} response.
+     *
+     * @param request the request to select the handler of
+     * @return the handler of the argument request
+     */
+    public RequestHandler select(HttpRequest request) {
+        for (RequestHandler handler : handlers) {
+            if (handler.matches(request)) {
+                return handler;
+            }
+        }
+        return unmatchedHandler;
     }
 
     /**
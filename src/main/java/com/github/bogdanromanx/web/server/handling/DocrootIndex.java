@@ -0,0 +1,236 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import com.github.bogdanromanx.web.server.types.headers.ContentType;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Immutable in memory index of the files under a vhost root: a trie of path segments holding the metadata of every
+ * file and directory, walked once at startup (see {@link DocrootIndex#load()}), in parallel.  Request paths are
+ * resolved by walking the trie segment by segment, without file system lookups and without normalizing the path; '..'
+ * segments are never matched, so a request cannot escape the root by construction.
+ * </p>
+ * <p>
+ * Changes are applied incrementally (see {@link DocrootIndex#changed(Path)}): the subtree of the changed path is walked
+ * again and the trie is rebuilt along the path to it, sharing all the other nodes with the previous version.  Lookups
+ * are never blocked by the updates, they see either the previous or the new version of the trie.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class DocrootIndex {
+
+    private final Path root;
+    private final Function<Path, ContentType> contentTypes;
+    private final ForkJoinPool pool;
+
+    private final FileMetadataCache.Metadata missing;
+    private volatile Node trie;
+
+    /**
+     * Constructs an empty index of the files under the argument 'root', to be walked by {@link DocrootIndex#load()}.
+     *
+     * @param root         the root file system location of the indexed files
+     * @param contentTypes the content type of a file path
+     * @param pool         the pool that walks the directories in parallel
+     */
+    public DocrootIndex(Path root, Function<Path, ContentType> contentTypes, ForkJoinPool pool) {
+        this.root = root;
+        this.contentTypes = contentTypes;
+        this.pool = pool;
+        this.missing = new FileMetadataCache.Metadata(root, false, false, 0, 0, ContentType.APPLICATION_OCTET_STREAM,
+                0);
+        this.trie = new Node(missing, Collections.emptyMap());
+    }
+
+    /**
+     * Walks the root into the index.  The changes reported while the root is walked (see
+     * {@link DocrootIndex#changed(Path)}) wait for the walk and are applied on top of it, so the watcher of the root
+     * should be started before the index is loaded: no change is lost in between.  <strong>Note:</strong> walking the
+     * root performs blocking file system calls, on the pool of the index.
+     *
+     * @return this index
+     */
+    public synchronized DocrootIndex load() {
+        Node node = walk(root);
+        trie = node != null ? node : new Node(missing, Collections.emptyMap());
+        return this;
+    }
+
+    /**
+     * Resolves the argument 'requestPath' against the index.
+     *
+     * @param requestPath the decoded path of the request uri
+     * @return the metadata of the referenced file; a shared instance that does not exist if the path is not in the
+     * index
+     */
+    public FileMetadataCache.Metadata get(String requestPath) {
+        Node node = trie;
+        int length = requestPath.length();
+        int start = 0;
+        while (start < length && node != null) {
+            int end = requestPath.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start && !(end - start == 1 && requestPath.charAt(start) == '.')) {
+                node = node.children.get(requestPath.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return node != null ? node.metadata : missing;
+    }
+
+    /**
+     * Applies a change of the argument 'path' to the index: the path is walked again, or dropped if it no longer
+     * exists.  Changes outside the root are ignored.  <strong>Note:</strong> this method performs blocking file system
+     * calls.
+     *
+     * @param path the path of a changed file or directory
+     */
+    public synchronized void changed(Path path) {
+        if (!path.startsWith(root)) {
+            return;
+        }
+        Path relative = root.relativize(path);
+        List<String> segments = new ArrayList<>();
+        for (Path segment : relative) {
+            if (!segment.toString().isEmpty()) {
+                segments.add(segment.toString());
+            }
+        }
+        if (segments.isEmpty()) {
+            load();
+            return;
+        }
+        // a change below a directory that is not indexed yet (i.e.: just created) indexes that directory instead
+        Node node = trie;
+        int depth = 0;
+        while (depth < segments.size() - 1 && node.children.containsKey(segments.get(depth))) {
+            node = node.children.get(segments.get(depth));
+            depth++;
+        }
+        List<String> target = segments.subList(0, depth + 1);
+        trie = replace(trie, root, target, 0);
+    }
+
+    private Node replace(Node node, Path path, List<String> segments, int idx) {
+        String name = segments.get(idx);
+        Path child = path.resolve(name);
+        Node replacement = idx == segments.size() - 1
+                ? walk(child)
+                : node.children.containsKey(name) ? replace(node.children.get(name), child, segments, idx + 1) : null;
+        Map<String, Node> children = new HashMap<>(node.children);
+        if (replacement != null) {
+            children.put(name, replacement);
+        } else {
+            children.remove(name);
+        }
+        return new Node(node.metadata, children);
+    }
+
+    private Node walk(Path path) {
+        return pool.invoke(new Walk(path, null));
+    }
+
+    /**
+     * @return the number of indexed paths, including the root
+     */
+    public int size() {
+        return trie.size();
+    }
+
+    /**
+     * Walks a directory tree in parallel: a task is forked for every directory entry.  Symbolic links are followed,
+     * except for those that point to a directory being walked (a loop).
+     */
+    private final class Walk extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+        private final Walk parent;
+        private Object fileKey;
+
+        private Walk(Path path, Walk parent) {
+            this.path = path;
+            this.parent = parent;
+        }
+
+        private boolean isLoop() {
+            for (Walk walk = parent; walk != null && fileKey != null; walk = walk.parent) {
+                if (fileKey.equals(walk.fileKey)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Node compute() {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                return null;
+            }
+            FileMetadataCache.Metadata metadata = new FileMetadataCache.Metadata(path, true,
+                    attributes.isRegularFile(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    contentTypes.apply(path), 0);
+            fileKey = attributes.fileKey();
+            if (!attributes.isDirectory() || isLoop()) {
+                return new Node(metadata, Collections.emptyMap());
+            }
+            List<Walk> walks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                for (Path entry : entries) {
+                    Walk walk = new Walk(entry, this);
+                    walk.fork();
+                    walks.add(walk);
+                }
+            } catch (IOException e) {
+                // an unreadable directory is indexed without its entries
+            }
+            Map<String, Node> children = new HashMap<>();
+            for (Walk walk : walks) {
+                Node child = walk.join();
+                if (child != null) {
+                    children.put(walk.path.getFileName().toString(), child);
+                }
+            }
+            return new Node(metadata, children);
+        }
+    }
+
+    /**
+     * An immutable trie node: the metadata of a path and the nodes of its entries, by name.
+     */
+    private static final class Node {
+        private final FileMetadataCache.Metadata metadata;
+        private final Map<String, Node> children;
+
+        private Node(FileMetadataCache.Metadata metadata, Map<String, Node> children) {
+            this.metadata = metadata;
+            this.children = children.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(children);
+        }
+
+        private int size() {
+            int size = 1;
+            for (Node child : children.values()) {
+                size += child.size();
+            }
+            return size;
+        }
+    }
+}
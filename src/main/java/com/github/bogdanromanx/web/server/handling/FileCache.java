@@ -0,0 +1,362 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.util.ByteString;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Bounded in memory cache of file contents, used by the {@link FileHandler} for serving small, frequently requested
+ * files without touching the disk.  The cache holds files up to 'maxFileSize' bytes each, and up to 'maxTotalSize'
+ * bytes in total.
+ * </p>
+ * <p>
+ * Entries are evicted in least recently used order, but a new entry is only admitted when it's estimated to be more
+ * popular than the entries it would evict (see {@link FrequencySketch}).  This way a single sweep over a large number
+ * of files does not flush the frequently requested ones.  Entries are validated against the file size and last
+ * modification time on every lookup and dropped when stale.
+ * </p>
+ * <p>
+ * Lookups do not lock: the entries are held in a concurrent map, and the accesses are recorded into striped read
+ * buffers (lossy when full) instead of the sketch and the recency order.  The buffers are replayed into both under the
+ * eviction lock, by the writes and by the lookups that find a buffer full and the lock free; a lookup never waits for
+ * it.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class FileCache {
+
+    private static final int READ_BUFFERS = 16;
+    private static final int READ_BUFFER_SIZE = 32;
+
+    private final long maxFileSize;
+    private volatile long maxTotalSize;
+
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final ReadBuffer[] reads = new ReadBuffer[READ_BUFFERS];
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // guarded by the eviction lock
+    private final LinkedHashMap<Path, Entry> order = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private volatile long totalSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructs a new {@link FileCache} from the 'maxFileSize' and 'maxTotalSize' arguments.
+     *
+     * @param maxFileSize  the maximum size in bytes of a file to be cached
+     * @param maxTotalSize the maximum number of bytes held by the cache; a value of 0 disables the cache
+     * @throws IllegalArgumentException for negative arguments
+     */
+    public FileCache(long maxFileSize, long maxTotalSize) {
+        if (maxFileSize < 0 || maxTotalSize < 0) {
+            throw new IllegalArgumentException("The FileCache sizes must be positive values");
+        }
+        this.maxFileSize = maxFileSize;
+        this.maxTotalSize = maxTotalSize;
+        this.sketch = new FrequencySketch((int) Math.max(64, Math.min(1 << 20, maxTotalSize / 1024)));
+        for (int i = 0; i < reads.length; i++) {
+            reads[i] = new ReadBuffer();
+        }
+    }
+
+    /**
+     * @param size the size of a file in bytes
+     * @return true if files of the argument 'size' can be held by the cache, false otherwise
+     */
+    public boolean accepts(long size) {
+        return size <= maxFileSize && size <= maxTotalSize;
+    }
+
+    /**
+     * Looks up the content of the file at the argument 'path' and records the access.  The cached content is only
+     * returned if it matches the argument 'size' and 'lastModified' values, otherwise it's dropped from the cache.
+     *
+     * @param path         the path of the file
+     * @param size         the current size of the file
+     * @param lastModified the current last modification time of the file in milliseconds
+     * @return an {@link Optional} inhabited by the cached content of the file, uninhabited otherwise
+     */
+    public Optional<ByteString> get(Path path, long size, long lastModified) {
+        recordAccess(path);
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (entry.lastModified != lastModified || entry.bytes.length() != size) {
+            evictionLock.lock();
+            try {
+                if (entries.get(path) == entry) {
+                    remove(path);
+                    invalidations.increment();
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.bytes);
+    }
+
+    /**
+     * Records an access of the argument 'path' into the read buffer of the current thread; a full buffer is drained if
+     * the eviction lock is free, the access is dropped otherwise.
+     */
+    private void recordAccess(Path path) {
+        ReadBuffer buffer = reads[(int) Thread.currentThread().getId() & (READ_BUFFERS - 1)];
+        if (!buffer.offer(path) && evictionLock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                evictionLock.unlock();
+            }
+            buffer.offer(path);
+        }
+    }
+
+    /**
+     * Replays the recorded accesses into the sketch and the recency order.  Called under the eviction lock.
+     */
+    private void drainReads() {
+        for (ReadBuffer buffer : reads) {
+            buffer.drainTo(path -> {
+                sketch.increment(path);
+                order.get(path);
+            });
+        }
+    }
+
+    /**
+     * Attempts to add the argument 'bytes' as the content of the file at the argument 'path'.  The content is admitted
+     * if there's enough room available, or if the file is estimated to be more popular than the least recently used
+     * entries that would need to be evicted to make room for it.
+     *
+     * @param path         the path of the file
+     * @param lastModified the last modification time of the file in milliseconds
+     * @param bytes        the content of the file
+     * @return true if the content was admitted into the cache, false otherwise
+     */
+    public boolean put(Path path, long lastModified, ByteString bytes) {
+        long size = bytes.length();
+        if (!accepts(size)) {
+            return false;
+        }
+        evictionLock.lock();
+        try {
+            drainReads();
+            remove(path);
+
+            int frequency = sketch.frequency(path);
+            List<Path> victims = new LinkedList<>();
+            long freed = 0;
+            Iterator<Map.Entry<Path, Entry>> it = order.entrySet().iterator();
+            while (totalSize - freed + size > maxTotalSize && it.hasNext()) {
+                Map.Entry<Path, Entry> victim = it.next();
+                if (sketch.frequency(victim.getKey()) >= frequency) {
+                    return false;
+                }
+                victims.add(victim.getKey());
+                freed += victim.getValue().bytes.length();
+            }
+            victims.forEach(victim -> {
+                remove(victim);
+                evictions.increment();
+            });
+
+            Entry entry = new Entry(lastModified, bytes);
+            order.put(path, entry);
+            entries.put(path, entry);
+            totalSize += size;
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the content of the file at the argument 'path' from the cache, if present.
+     *
+     * @param path the path of the file
+     */
+    public void invalidate(Path path) {
+        evictionLock.lock();
+        try {
+            if (remove(path)) {
+                invalidations.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry of the argument 'path'.  Called under the eviction lock.
+     */
+    private boolean remove(Path path) {
+        Entry entry = entries.remove(path);
+        if (entry != null) {
+            order.remove(path);
+            totalSize -= entry.bytes.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of lookups that were served from the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that could not be served from the cache
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries evicted to make room for new entries
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of entries dropped because the file changed on disk
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return the number of files currently held by the cache
+     */
+    public int entries() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of bytes currently held by the cache
+     */
+    public long totalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return the maximum number of bytes held by the cache
+     */
+    public long maxTotalSize() {
+        return maxTotalSize;
+    }
+
+    /**
+     * Changes the maximum number of bytes held by the cache, evicting the least recently used entries until the cache
+     * fits the new limit.
+     *
+     * @param maxTotalSize the maximum number of bytes held by the cache; a value of 0 disables the cache
+     * @throws IllegalArgumentException for a negative 'maxTotalSize'
+     */
+    public void maxTotalSize(long maxTotalSize) {
+        if (maxTotalSize < 0) {
+            throw new IllegalArgumentException("The FileCache sizes must be positive values");
+        }
+        evictionLock.lock();
+        try {
+            this.maxTotalSize = maxTotalSize;
+            drainReads();
+            Iterator<Map.Entry<Path, Entry>> it = order.entrySet().iterator();
+            while (totalSize > maxTotalSize && it.hasNext()) {
+                Map.Entry<Path, Entry> victim = it.next();
+                it.remove();
+                entries.remove(victim.getKey());
+                totalSize -= victim.getValue().bytes.length();
+                evictions.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "FileCache{" +
+                "maxFileSize=" + maxFileSize +
+                ", maxTotalSize=" + maxTotalSize +
+                ", hits=" + hits() +
+                ", misses=" + misses() +
+                ", evictions=" + evictions() +
+                ", invalidations=" + invalidations() +
+                '}';
+    }
+
+    /**
+     * A bounded buffer of the accessed paths, written concurrently by the lookups and drained under the eviction lock.
+     */
+    private static final class ReadBuffer {
+        private final AtomicReferenceArray<Path> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        /**
+         * @return false if the buffer is full or contended, in which case the access is not recorded
+         */
+        private boolean offer(Path path) {
+            long t = tail.get();
+            if (t - head >= READ_BUFFER_SIZE || !tail.compareAndSet(t, t + 1)) {
+                return false;
+            }
+            slots.lazySet((int) (t & (READ_BUFFER_SIZE - 1)), path);
+            return true;
+        }
+
+        private void drainTo(Consumer<Path> consumer) {
+            long h = head;
+            long t = tail.get();
+            for (; h < t; h++) {
+                int idx = (int) (h & (READ_BUFFER_SIZE - 1));
+                Path path = slots.get(idx);
+                if (path == null) {
+                    // not published yet, drained next time
+                    break;
+                }
+                slots.lazySet(idx, null);
+                consumer.accept(path);
+            }
+            head = h;
+        }
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final ByteString bytes;
+
+        private Entry(long lastModified, ByteString bytes) {
+            this.lastModified = lastModified;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -1,35 +1,217 @@
 package com.github.bogdanromanx.web.server.handling;
 
+import akka.stream.ActorAttributes;
 import akka.stream.javadsl.FileIO;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.FileHandlingConfig;
 import com.github.bogdanromanx.web.server.types.*;
-import com.github.bogdanromanx.web.server.types.headers.ContentLength;
-import com.github.bogdanromanx.web.server.types.headers.ContentType;
+import com.github.bogdanromanx.web.server.types.headers.*;
 
-import java.io.File;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * {@link RequestHandler} implementation that matches against 'GET' requests and attempts to return the requested
  * resources from the configured 'root' location.  If the resource referenced by the {@link HttpRequest} cannot be found
  * a '404 Not Found' {@link HttpResponse} is provided instead.
+ * <p>
+ * The path resolution and the file metadata lookups are blocking calls, so they are performed on the argument
+ * 'executor' rather than on the thread that applies the handler (usually a stream dispatcher thread).
+ * </p>
+ * <p>
+ * Files small enough to be held by the {@link FileCache} are served as {@link HttpEntity.Strict} entities, from memory
+ * when possible; larger files are served as {@link HttpEntity.FileRegion} entities that writers can transfer directly
+ * from the file, or stream from disk otherwise.  Files above the configured memory mapping threshold are streamed from
+ * a memory mapping shared by all the concurrent downloads of the same file (see {@link MappedFiles}).
+ * </p>
+ * <p>
+ * Byte range requests ('Range' and 'If-Range' headers) are served from the same sources, bounded to the requested
+ * offsets; multiple ranges are served as a 'multipart/byteranges' entity.
+ * </p>
+ * <p>
+ * File responses carry 'ETag' and 'Last-Modified' validators (see {@link FileValidators}); conditional requests
+ * ('If-None-Match', 'If-Modified-Since') for the current version of a file are answered with a prebuilt '304 Not
+ * Modified' response, without opening the file.
+ * </p>
+ * <p>
+ * When the client accepts it, a precompressed sibling of the requested file (see {@link PrecompressedFiles}) is served
+ * in its place, with the corresponding 'Content-Encoding'; the responses for files that have such siblings carry a
+ * 'Vary: Accept-Encoding' header.
+ * </p>
+ * <p>
+ * The file metadata is cached by request path (see {@link FileMetadataCache}) and, unless disabled, the root is watched
+ * for changes that invalidate the cached metadata along with the other per file state; {@link FileHandler#close()}
+ * stops the watcher.  When enabled, and while the root is watched, a filter of the existing paths answers most of the
+ * requests for missing files (i.e.: from vulnerability scanners) with a shared '404 Not Found' response, without file
+ * system lookups; the filter is rebuilt on the executor once older than the metadata ttl.
+ * </p>
+ * <p>
+ * In indexed mode the files are looked up in an in memory index of the root built at startup (see
+ * {@link DocrootIndex}) instead of the file system and the metadata cache; the index is kept current by the watcher,
+ * which is required unless the watching of the root is disabled.
+ * </p>
  */
-public class FileHandler implements RequestHandler {
+public class FileHandler implements RequestHandler, Closeable {
+
+    /**
+     * The maximum number of ranges served for a single request, more ranges than this fall back to serving the full
+     * file.
+     */
+    private static final int MAX_RANGES = 16;
+
+    private static final RawHeader ACCEPT_RANGES = RawHeader.of("Accept-Ranges", Range.BYTES);
+
+    /**
+     * The response for missing files, shared so that its head is encoded once.
+     */
+    private static final HttpResponse NOT_FOUND = HttpResponse.of(StatusCode.NOT_FOUND);
 
-    private final Path root;
+    private final FileHandlingConfig config;
+    private final Executor executor;
+    private final FileCache cache;
+    private final MappedFiles mappedFiles = new MappedFiles();
+    private final FileValidators validators;
+    private final PrecompressedFiles precompressed;
+    private final FileMetadataCache metadata;
+    private final ForkJoinPool indexPool;
+    private final DocrootIndex index;
+    private final RootWatcher watcher;
 
     /**
      * Constructs a new {@link FileHandler} that performs resource lookup from the argument 'root' path.
      *
-     * @param root the root file system location against which resources are being resolved
+     * @param root     the root file system location against which resources are being resolved
+     * @param config   the static file handling configuration
+     * @param executor the executor used for running the blocking file system calls
+     * @throws NullPointerException     for null arguments
+     * @throws IllegalArgumentException for unsupported precompressed encodings
+     * @throws IllegalStateException    in indexed mode, if the root is to be watched but cannot be
+     */
+    public FileHandler(Path root, FileHandlingConfig config, Executor executor) {
+        requireNonNull(root, "The FileHandler root cannot be null");
+        this.config = requireNonNull(config, "The FileHandler config cannot be null");
+        this.executor = requireNonNull(executor, "The FileHandler executor cannot be null");
+        this.cache = new FileCache(config.cacheMaxFileSize(), config.cacheMaxTotalSize());
+        this.validators = new FileValidators(config.etagContentHash());
+        this.precompressed = new PrecompressedFiles(config.precompressedEncodings());
+        this.metadata = new FileMetadataCache(root, config.metadataCacheMaxEntries(),
+                config.metadataCacheNegativeMaxEntries(), config.metadataCacheTtl(), FileHandler::contentTypeFor);
+        this.indexPool = config.indexed() ? new ForkJoinPool() : null;
+        this.index = config.indexed() ? new DocrootIndex(root, FileHandler::contentTypeFor, indexPool) : null;
+        // the root is watched before it's walked, so that the changes made during the walk are not lost
+        this.watcher = config.watchRoot() ? watch(root) : null;
+        if (index != null) {
+            index.load();
+        } else if (watcher != null && config.bloomFilterExpectedPaths() > 0) {
+            metadata.index(config.bloomFilterExpectedPaths(), config.bloomFilterFalsePositiveRate(), executor);
+        }
+    }
+
+    /**
+     * Starts watching the argument 'root' for changes, if possible; the cached metadata only expires after the
+     * configured ttl otherwise.  In indexed mode a root that cannot be watched fails the handler instead, as the index
+     * never expires.
+     */
+    private RootWatcher watch(Path root) {
+        try {
+            return new RootWatcher(root, this::changed);
+        } catch (IOException | UnsupportedOperationException e) {
+            if (index != null) {
+                indexPool.shutdown();
+                throw new IllegalStateException("Unable to watch the indexed root '" + root + "' for changes, disable"
+                        + " the watching of the root to serve a fixed index", e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Drops the state held for the argument changed 'path' and the paths below it.
+     */
+    private void changed(Path path) {
+        if (index != null) {
+            index.changed(path);
+        }
+        metadata.invalidate(path);
+        precompressed.changed(path);
+        cache.invalidate(path);
+        validators.invalidate(path);
+    }
+
+    /**
+     * @return the in memory cache of file contents used by this handler
+     */
+    public FileCache cache() {
+        return cache;
+    }
+
+    /**
+     * @return the registry of memory mapped files used by this handler
+     */
+    public MappedFiles mappedFiles() {
+        return mappedFiles;
+    }
+
+    /**
+     * @return the registry of file cache validators used by this handler
      */
-    public FileHandler(Path root) {
-        this.root = root;
+    public FileValidators validators() {
+        return validators;
+    }
+
+    /**
+     * @return the registry of precompressed sibling files used by this handler
+     */
+    public PrecompressedFiles precompressed() {
+        return precompressed;
+    }
+
+    /**
+     * @return the file metadata cache used by this handler
+     */
+    public FileMetadataCache metadata() {
+        return metadata;
+    }
+
+    /**
+     * @return the in memory index of the root, if the handler runs in indexed mode
+     */
+    public Optional<DocrootIndex> index() {
+        return Optional.ofNullable(index);
+    }
+
+    /**
+     * @return <code>true</code> if the root is watched for changes, <code>false</code> otherwise
+     */
+    public boolean watching() {
+        return watcher != null;
+    }
+
+    /**
+     * Stops watching the root for changes.
+     */
+    @Override
+    public void close() throws IOException {
+        if (indexPool != null) {
+            indexPool.shutdown();
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
     }
 
     /**
@@ -42,34 +224,299 @@ public class FileHandler implements RequestHandler {
 
     /**
      * Applies this handler to the argument {@link HttpRequest} producing either a 200 OK response when the requested
-     * resource was found, or a 404 Not Found response otherwise.
+     * resource was found, a 206 Partial Content or 416 Range Not Satisfiable response for range requests, or a 404 Not
+     * Found response otherwise.  The returned {@link CompletionStage} is completed asynchronously, on the configured
+     * executor.
      *
      * @param request the {@link HttpRequest} to apply this handler to
      * @return a future {@link HttpResponse}
      */
     @Override
     public CompletionStage<HttpResponse> apply(HttpRequest request) {
-        File file = resourcePath(request).toFile();
-        if (!file.exists() || !file.isFile()) {
-            return CompletableFuture.completedFuture(HttpResponse.of(StatusCode.NOT_FOUND));
+        return CompletableFuture.supplyAsync(() -> response(request), executor);
+    }
+
+    /**
+     * Resolves the resource referenced by the argument 'request' and builds its corresponding {@link HttpResponse}.
+     * <strong>Note:</strong> this method performs blocking file system calls.
+     */
+    private HttpResponse response(HttpRequest request) {
+        FileMetadataCache.Metadata resolved =
+                resolve(Optional.ofNullable(request.requestLine().uri().getPath()).orElse("/"));
+        if (!resolved.isRegularFile()) {
+            return NOT_FOUND;
         }
 
-        int idx = file.getName().lastIndexOf(".");
-        ContentType ct = idx > -1 ? contentTypeFor(file.getName().substring(idx + 1)) : ContentType.APPLICATION_OCTET_STREAM;
+        Path path = resolved.path();
+        ContentType ct = resolved.contentType();
+        long lastModified = resolved.lastModified();
+        long size = resolved.size();
+        List<PrecompressedFiles.Variant> variants = precompressed.variants(path, lastModified);
+        Optional<PrecompressedFiles.Variant> variant =
+                PrecompressedFiles.select(variants, header(request, AcceptEncoding::of));
+        boolean vary = !variants.isEmpty();
+        if (variant.isPresent()) {
+            path = variant.get().path();
+            size = variant.get().size();
+            lastModified = variant.get().lastModified();
+        }
 
-        long size = file.length();
-        return CompletableFuture.completedFuture(HttpResponse.of(
-                StatusCode.OK,
-                Arrays.asList(ContentLength.of(size).raw(), ct.raw()),
-                HttpEntity.streaming(FileIO.fromFile(file), size)
-        ));
+        FileValidators.Validators fileValidators = validators.get(path, size, lastModified, vary);
+        if (notModified(request, fileValidators)) {
+            return fileValidators.notModified();
+        }
+
+        Optional<ByteString> bytes = cache.accepts(size)
+                ? Optional.of(bytes(path, size, lastModified))
+                : Optional.empty();
+        // the size of the bytes read in memory prevails, as the file may have changed since its attributes were read
+        size = bytes.map(b -> (long) b.length()).orElse(size);
+        List<RawHeader> encodingHeaders = new ArrayList<>(2);
+        variant.ifPresent(v -> encodingHeaders.add(ContentEncoding.of(v.encoding()).raw()));
+        if (vary) {
+            encodingHeaders.add(PrecompressedFiles.VARY);
+        }
+        Resource file = new Resource(path, bytes, size, lastModified, fileValidators, encodingHeaders);
+
+        Optional<Range> range = header(request, Range::of);
+        if (range.isPresent() && ifRangeMatches(request, file)) {
+            return partialResponse(file, ct, range.get());
+        }
+        return file.full(ct);
+    }
+
+    /**
+     * Resolves the argument 'requestPath' against the index in indexed mode, or the metadata cache otherwise.
+     */
+    private FileMetadataCache.Metadata resolve(String requestPath) {
+        return index != null ? index.get(requestPath) : metadata.get(requestPath);
+    }
+
+    /**
+     * Loads the state held for the file referenced by the argument 'requestPath' ahead of the requests for it: its
+     * metadata, precompressed siblings and validators, along with the contents of the file and of its siblings when
+     * they fit in the cache.  <strong>Note:</strong> this method performs blocking file system calls.
+     *
+     * @param requestPath the decoded path of a request uri
+     * @return <code>true</code> if the path references a regular file, <code>false</code> otherwise
+     */
+    public boolean warm(String requestPath) {
+        FileMetadataCache.Metadata resolved = resolve(requestPath);
+        if (!resolved.isRegularFile()) {
+            return false;
+        }
+        List<PrecompressedFiles.Variant> variants = precompressed.variants(resolved.path(), resolved.lastModified());
+        boolean vary = !variants.isEmpty();
+        warm(resolved.path(), resolved.size(), resolved.lastModified(), vary);
+        for (PrecompressedFiles.Variant variant : variants) {
+            warm(variant.path(), variant.size(), variant.lastModified(), vary);
+        }
+        return true;
+    }
+
+    private void warm(Path path, long size, long lastModified, boolean vary) {
+        validators.get(path, size, lastModified, vary);
+        if (cache.accepts(size)) {
+            bytes(path, size, lastModified);
+        }
     }
 
-    private Path resourcePath(HttpRequest request) {
-        String uriPath = Optional.ofNullable(request.requestLine().uri().getPath()).orElse("/");
-        Path path = Paths.get(uriPath).normalize();
-        path = path.isAbsolute() ? Paths.get(path.toString().substring(1)) : path;
-        return root.resolve(path);
+    /**
+     * Builds the response to a range request: a single range is served as the entity of the response, while multiple
+     * ranges are served as a 'multipart/byteranges' entity.  The ranges are ignored (the full file is served) when
+     * there are too many of them or when they add up to more bytes than the file holds, as a defense against requests
+     * that ask for the same bytes over and over.
+     */
+    private HttpResponse partialResponse(Resource file, ContentType ct, Range range) {
+        List<Range.ByteRange> ranges = range.value().stream()
+                .filter(r -> r.isSatisfiable(file.size))
+                .collect(Collectors.toList());
+        if (ranges.isEmpty()) {
+            return HttpResponse.of(
+                    StatusCode.RANGE_NOT_SATISFIABLE,
+                    Arrays.asList(ContentLength.of(0).raw(), ContentRange.unsatisfied(file.size).raw()),
+                    HttpEntity.empty()
+            );
+        }
+        long total = ranges.stream().mapToLong(r -> r.last(file.size) - r.first(file.size) + 1).sum();
+        if (ranges.size() > MAX_RANGES || total > file.size) {
+            return file.full(ct);
+        }
+
+        if (ranges.size() == 1) {
+            long first = ranges.get(0).first(file.size);
+            long last = ranges.get(0).last(file.size);
+            HttpEntity entity = file.slice(first, last - first + 1);
+            return HttpResponse.of(
+                    StatusCode.PARTIAL_CONTENT,
+                    file.headers(entity, ct, ContentRange.of(first, last, file.size).raw()),
+                    entity
+            );
+        }
+
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<Source<ByteString, ?>> parts = new ArrayList<>();
+        ByteString strict = ByteString.empty();
+        long length = 0;
+        for (Range.ByteRange r : ranges) {
+            long first = r.first(file.size);
+            long last = r.last(file.size);
+            ByteString partHead = ByteString.fromString("\r\n--" + boundary + "\r\n" +
+                    ContentType.NAME + ": " + ct.value() + "\r\n" +
+                    ContentRange.NAME + ": " + ContentRange.of(first, last, file.size).value() + "\r\n\r\n");
+            HttpEntity part = file.slice(first, last - first + 1);
+            if (part instanceof HttpEntity.Strict) {
+                strict = strict.concat(partHead).concat(((HttpEntity.Strict) part).bytes());
+            } else {
+                parts.add(Source.single(partHead));
+                parts.add(((HttpEntity.FileRegion) part).source());
+            }
+            length += partHead.length() + part.length();
+        }
+        ByteString tail = ByteString.fromString("\r\n--" + boundary + "--\r\n");
+        length += tail.length();
+        HttpEntity entity;
+        if (file.bytes.isPresent()) {
+            entity = HttpEntity.strict(strict.concat(tail));
+        } else {
+            parts.add(Source.single(tail));
+            entity = HttpEntity.streaming(Source.from(parts).flatMapConcat(s -> s), length);
+        }
+        return HttpResponse.of(
+                StatusCode.PARTIAL_CONTENT,
+                file.headers(entity, ContentType.of("multipart/byteranges; boundary=" + boundary)),
+                entity
+        );
+    }
+
+    /**
+     * Evaluates the cache validation preconditions of the argument 'request' as per RFC 7232, section 6: when present,
+     * 'If-None-Match' takes precedence over 'If-Modified-Since'.
+     *
+     * @return <code>true</code> if the client holds the current version of the file, <code>false</code> otherwise
+     */
+    private static boolean notModified(HttpRequest request, FileValidators.Validators validators) {
+        Optional<IfNoneMatch> ifNoneMatch = header(request, IfNoneMatch::of);
+        if (ifNoneMatch.isPresent()) {
+            return ifNoneMatch.get().matches(validators.etag());
+        }
+        return header(request, IfModifiedSince::of)
+                .map(h -> !h.isModified(validators.lastModified().value()))
+                .orElse(false);
+    }
+
+    /**
+     * A range request is served as such only if the 'If-Range' validator (when present) matches the current file: an
+     * entity tag must strongly match the current ETag, a date must equal the current Last-Modified date.
+     */
+    private static boolean ifRangeMatches(HttpRequest request, Resource file) {
+        return header(request, IfRange::of)
+                .map(h -> h.isEntityTag()
+                        ? file.validators.etag().stronglyMatches(h.value())
+                        : h.date().map(d -> d.equals(file.validators.lastModified().value())).orElse(false))
+                .orElse(true);
+    }
+
+    private static <T> Optional<T> header(HttpRequest request, Function<RawHeader, Optional<T>> f) {
+        return request.headers().stream()
+                .map(f)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    /**
+     * Reads the content of a file that can be held by the {@link FileCache}, serving it from the cache when possible
+     * and offering it to the cache on a miss.
+     */
+    private ByteString bytes(Path path, long size, long lastModified) {
+        Optional<ByteString> cached = cache.get(path, size, lastModified);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        try {
+            ByteString bytes = ByteString.fromArray(Files.readAllBytes(path));
+            // the file may have changed since its attributes were read
+            if (bytes.length() == size) {
+                cache.put(path, lastModified, bytes);
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the {@link Source} of bytes for a region of a file that is streamed from disk; memory mapped when the
+     * file size exceeds the configured threshold, chunked reads otherwise.
+     */
+    private Source<ByteString, ?> source(Path path, long size, long lastModified, long position, long count) {
+        if (config.mmapThreshold() > 0 && size >= config.mmapThreshold()) {
+            return Source.fromGraph(new MappedFileSource(mappedFiles, path, size, lastModified, position, count))
+                    .withAttributes(ActorAttributes.dispatcher(config.dispatcher()))
+                    .async();
+        }
+        if (position == 0 && count == size) {
+            return FileIO.fromFile(path.toFile());
+        }
+        return FileSliceReader.source(path, position, count)
+                .withAttributes(ActorAttributes.dispatcher(config.dispatcher()));
+    }
+
+    /**
+     * A resolved file along with its in memory content, when the file can be held by the {@link FileCache}.
+     */
+    private final class Resource {
+        private final Path path;
+        private final Optional<ByteString> bytes;
+        private final long size;
+        private final long lastModified;
+        private final FileValidators.Validators validators;
+        private final List<RawHeader> encodingHeaders;
+
+        private Resource(Path path, Optional<ByteString> bytes, long size, long lastModified,
+                         FileValidators.Validators validators, List<RawHeader> encodingHeaders) {
+            this.path = path;
+            this.bytes = bytes;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.validators = validators;
+            this.encodingHeaders = encodingHeaders;
+        }
+
+        /**
+         * @return the headers of a response that holds the argument 'entity' of this file, followed by the 'extra'
+         * headers, the content coding headers and the cache validators
+         */
+        private List<RawHeader> headers(HttpEntity entity, ContentType ct, RawHeader... extra) {
+            List<RawHeader> headers = new ArrayList<>(7 + extra.length);
+            headers.add(ContentLength.of(entity.length()).raw());
+            headers.add(ct.raw());
+            headers.addAll(Arrays.asList(extra));
+            headers.addAll(encodingHeaders);
+            headers.add(ACCEPT_RANGES);
+            headers.add(validators.etag().raw());
+            headers.add(validators.lastModified().raw());
+            return headers;
+        }
+
+        /**
+         * @return the '200 OK' response holding the full file; its head is encoded once per file version
+         */
+        private HttpResponse full(ContentType ct) {
+            return validators.ok(slice(0, size), entity -> headers(entity, ct));
+        }
+
+        /**
+         * @return the entity of 'count' bytes starting at 'position'; a {@link HttpEntity.Strict} slice of the in
+         * memory content when available, a {@link HttpEntity.FileRegion} otherwise
+         */
+        private HttpEntity slice(long position, long count) {
+            if (bytes.isPresent()) {
+                return HttpEntity.strict(bytes.get().slice((int) position, (int) (position + count)));
+            }
+            return HttpEntity.fileRegion(path, position, count, source(path, size, lastModified, position, count));
+        }
     }
 
     /**
@@ -1070,7 +1517,11 @@ public class FileHandler implements RequestHandler {
         EXT_CT_MAPPING.put("zmm", ContentType.of("application/vnd.handheld-entertainment+xml"));
     }
 
-    private ContentType contentTypeFor(String extension) {
-        return EXT_CT_MAPPING.getOrDefault(extension, ContentType.APPLICATION_OCTET_STREAM);
+    private static ContentType contentTypeFor(Path path) {
+        String name = String.valueOf(path.getFileName());
+        int idx = name.lastIndexOf(".");
+        return idx > -1
+                ? EXT_CT_MAPPING.getOrDefault(name.substring(idx + 1), ContentType.APPLICATION_OCTET_STREAM)
+                : ContentType.APPLICATION_OCTET_STREAM;
     }
 }
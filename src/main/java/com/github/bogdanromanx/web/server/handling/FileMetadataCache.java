@@ -0,0 +1,450 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import com.github.bogdanromanx.web.server.types.headers.ContentType;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Cache of the file metadata looked up by the {@link FileHandler}, keyed by the request path: the resolved file path,
+ * whether it exists and is a regular file, its size, modification time and content type.  Requests for cached paths
+ * are served without resolving the path again and without file system metadata lookups.
+ * </p>
+ * <p>
+ * Entries are dropped when the files they describe change (see {@link FileMetadataCache#invalidate(Path)}, usually
+ * called by a watcher of the vhost root) and expire after a configured ttl, as a fallback for the changes the watcher
+ * misses.  When the cache is full an arbitrary entry is evicted to make room for a new one.
+ * </p>
+ * <p>
+ * Missing files are cached apart, in a separately bounded cache, so that scans for nonexistent paths do not evict the
+ * metadata of the existing files.  When the root is watched, a {@link BloomFilter} of the existing paths can be built
+ * as well (see {@link FileMetadataCache#index(int, double, Executor)}): paths that are definitely not in the filter are
+ * known to be missing without a file system lookup.  The filter is kept current by the change notifications, rebuilt
+ * once it holds more paths than it was sized for and, like the cached entries, it expires after the ttl: the root is
+ * walked again in the background, and the lookups go to the file system meanwhile.  So the answers of the filter are
+ * never older than the ttl, even for the changes the watcher misses.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class FileMetadataCache {
+
+    private final Path root;
+    private final int maxEntries;
+    private final int negativeMaxEntries;
+    private final long ttlNanos;
+    private final Function<Path, ContentType> contentTypes;
+
+    private final ConcurrentHashMap<String, Metadata> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Metadata> missing = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile ExistingPaths existing;
+    private volatile Queue<Path> changes;
+    private volatile Executor rebuilds;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private int expectedPaths;
+    private double falsePositiveRate;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructs a new {@link FileMetadataCache} for the files under the argument 'root'.
+     *
+     * @param root         the root file system location against which the request paths are resolved
+     * @param maxEntries         the maximum number of cached request paths of existing files; a value of 0 disables
+     *                           the cache
+     * @param negativeMaxEntries the maximum number of cached request paths of missing files; a value of 0 disables
+     *                           the cache
+     * @param ttl                the duration after which a cached entry is looked up again
+     * @param contentTypes       the content type of a file path
+     * @throws IllegalArgumentException for negative sizes
+     */
+    public FileMetadataCache(Path root, int maxEntries, int negativeMaxEntries, Duration ttl,
+                             Function<Path, ContentType> contentTypes) {
+        if (maxEntries < 0 || negativeMaxEntries < 0) {
+            throw new IllegalArgumentException("The FileMetadataCache sizes must be positive values");
+        }
+        this.root = root;
+        this.maxEntries = maxEntries;
+        this.negativeMaxEntries = negativeMaxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.contentTypes = contentTypes;
+    }
+
+    /**
+     * Returns the metadata of the file referenced by the argument 'requestPath', looking it up when not cached or
+     * expired.  <strong>Note:</strong> the lookups perform blocking file system calls.
+     *
+     * @param requestPath the decoded path of the request uri
+     * @return the metadata of the referenced file
+     */
+    public Metadata get(String requestPath) {
+        long now = System.nanoTime();
+        Metadata cached = entries.get(requestPath);
+        if (cached == null) {
+            cached = missing.get(requestPath);
+        }
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long current = generation.get();
+        Metadata metadata = load(resolve(requestPath), now);
+        if (metadata.exists) {
+            missing.remove(requestPath);
+            put(entries, maxEntries, requestPath, metadata, current);
+        } else {
+            entries.remove(requestPath);
+            put(missing, negativeMaxEntries, requestPath, metadata, current);
+        }
+        return metadata;
+    }
+
+    private void put(ConcurrentHashMap<String, Metadata> map, int max, String requestPath, Metadata metadata,
+                     long current) {
+        if (max == 0) {
+            return;
+        }
+        if (map.size() >= max && !map.containsKey(requestPath)) {
+            Iterator<String> it = map.keySet().iterator();
+            if (it.hasNext()) {
+                map.remove(it.next());
+            }
+        }
+        map.put(requestPath, metadata);
+        // a change reported while the metadata was looked up may not be reflected by it
+        if (generation.get() != current) {
+            map.remove(requestPath, metadata);
+        }
+    }
+
+    /**
+     * Builds the {@link BloomFilter} of the existing paths under the root, so that missing files are detected without
+     * file system lookups.  The filter is meant to be built when the changes under the root are reported through
+     * {@link FileMetadataCache#invalidate(Path)}, otherwise the new files are only found once the filter expires (it is
+     * rebuilt on the argument 'executor' after the ttl).  <strong>Note:</strong> walking the root performs blocking
+     * file system calls.
+     *
+     * @param expectedPaths     the expected number of paths under the root
+     * @param falsePositiveRate the rate of lookups for missing files that still hit the file system
+     * @param executor          the executor of the rebuilds of the expired filter
+     */
+    public void index(int expectedPaths, double falsePositiveRate, Executor executor) {
+        synchronized (this) {
+            this.expectedPaths = expectedPaths;
+            this.falsePositiveRate = falsePositiveRate;
+            this.rebuilds = executor;
+        }
+        rebuild();
+    }
+
+    /**
+     * Walks the root into a new filter.  The changes reported during the walk are recorded and added to the new filter
+     * once it is in use, as the walk may have passed their directories before they happened.
+     */
+    private synchronized void rebuild() {
+        Queue<Path> recorded = new ConcurrentLinkedQueue<>();
+        changes = recorded;
+        ExistingPaths paths;
+        try {
+            paths = walk();
+            existing = paths;
+        } finally {
+            changes = null;
+        }
+        if (paths != null) {
+            for (Path path : recorded) {
+                add(paths.filter, path);
+            }
+        }
+    }
+
+    /**
+     * @return the filter of the paths under the root, sized for the expected paths (doubled until the filter is not
+     * saturated), or null if the paths cannot be enumerated
+     */
+    private ExistingPaths walk() {
+        while (true) {
+            long builtAt = System.nanoTime();
+            BloomFilter filter = new BloomFilter(expectedPaths, falsePositiveRate);
+            if (!add(filter, root)) {
+                return null;
+            }
+            if (!filter.isSaturated()) {
+                return new ExistingPaths(filter, builtAt);
+            }
+            expectedPaths = expectedPaths * 2;
+        }
+    }
+
+    /**
+     * Rebuilds the expired filter in the background, unless already rebuilding.
+     */
+    private void expired() {
+        if (rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuilds.execute(() -> {
+                    try {
+                        rebuild();
+                    } finally {
+                        rebuilding.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    /**
+     * Adds the argument 'path' and the paths below it to the argument 'filter'; symbolic links are followed.
+     *
+     * @return <code>true</code> if the paths were enumerated, <code>false</code> otherwise
+     */
+    private static boolean add(BloomFilter filter, Path path) {
+        try {
+            Files.walkFileTree(path, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                    new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            filter.add(dir);
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            filter.add(file);
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                            // broken links, loops and unreadable directories; a lookup decides for them
+                            filter.add(file);
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drops the cached entries of the argument 'path' and of the paths below it.
+     *
+     * @param path the path of a changed file or directory
+     */
+    public void invalidate(Path path) {
+        generation.incrementAndGet();
+        boolean removed = entries.values().removeIf(m -> m.path.startsWith(path));
+        if (missing.values().removeIf(m -> m.path.startsWith(path)) || removed) {
+            invalidations.increment();
+        }
+        Queue<Path> recording = changes;
+        if (recording != null) {
+            recording.add(path);
+        }
+        ExistingPaths paths = existing;
+        if (paths != null) {
+            add(paths.filter, path);
+            if (paths.filter.isSaturated()) {
+                synchronized (this) {
+                    expectedPaths = expectedPaths * 2;
+                }
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Drops all the cached entries.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        missing.clear();
+        invalidations.increment();
+    }
+
+    private Metadata load(Path path, long now) {
+        ExistingPaths paths = existing;
+        if (paths != null) {
+            if (now - paths.builtAt >= ttlNanos) {
+                expired();
+            } else if (!paths.filter.mightContain(path)) {
+                filtered.increment();
+                // the answer is as old as the walk of the filter, so that it expires with it
+                return new Metadata(path, false, false, 0, 0, ContentType.APPLICATION_OCTET_STREAM, paths.builtAt);
+            }
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new Metadata(path, true, attributes.isRegularFile(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), contentTypes.apply(path), now);
+        } catch (IOException e) {
+            return new Metadata(path, false, false, 0, 0, ContentType.APPLICATION_OCTET_STREAM, now);
+        }
+    }
+
+    /**
+     * Resolves the argument 'requestPath' against the root; the path is normalized so that it cannot escape the root.
+     */
+    private Path resolve(String requestPath) {
+        Path path = Paths.get(requestPath).normalize();
+        path = path.isAbsolute() ? Paths.get(path.toString().substring(1)) : path;
+        return root.resolve(path);
+    }
+
+    /**
+     * @return the number of lookups served from the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that hit the file system
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of lookups for missing files answered by the filter of existing paths, without a file system
+     * lookup
+     */
+    public long filtered() {
+        return filtered.sum();
+    }
+
+    /**
+     * @return <code>true</code> if the filter of existing paths is in use, <code>false</code> otherwise
+     */
+    public boolean indexed() {
+        return existing != null;
+    }
+
+    /**
+     * @return the number of invalidations that dropped entries
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return the number of cached request paths of existing files
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of cached request paths of missing files
+     */
+    public int negativeSize() {
+        return missing.size();
+    }
+
+    /**
+     * A filter of the existing paths under the root, with the moment the walk that built it started.
+     */
+    private static final class ExistingPaths {
+        private final BloomFilter filter;
+        private final long builtAt;
+
+        private ExistingPaths(BloomFilter filter, long builtAt) {
+            this.filter = filter;
+            this.builtAt = builtAt;
+        }
+    }
+
+    /**
+     * The metadata of a file, as looked up at a point in time.
+     */
+    public static final class Metadata {
+        private final Path path;
+        private final boolean exists;
+        private final boolean regularFile;
+        private final long size;
+        private final long lastModified;
+        private final ContentType contentType;
+        private final long loadedAt;
+
+        Metadata(Path path, boolean exists, boolean regularFile, long size, long lastModified,
+                 ContentType contentType, long loadedAt) {
+            this.path = path;
+            this.exists = exists;
+            this.regularFile = regularFile;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.loadedAt = loadedAt;
+        }
+
+        /**
+         * @return the resolved path of the file
+         */
+        public Path path() {
+            return path;
+        }
+
+        /**
+         * @return <code>true</code> if the file exists, <code>false</code> otherwise
+         */
+        public boolean exists() {
+            return exists;
+        }
+
+        /**
+         * @return <code>true</code> if the file exists and is a regular file, <code>false</code> otherwise
+         */
+        public boolean isRegularFile() {
+            return regularFile;
+        }
+
+        /**
+         * @return the size of the file in bytes
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * @return the last modification time of the file in milliseconds
+         */
+        public long lastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the content type of the file, with its header rendered once
+         */
+        public ContentType contentType() {
+            return contentType;
+        }
+    }
+}
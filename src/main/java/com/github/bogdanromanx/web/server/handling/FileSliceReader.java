@@ -0,0 +1,80 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.NotUsed;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Reads a region of a file in chunks through positional reads.  Used for streaming file regions that do not start at
+ * the beginning of the file, which {@link akka.stream.javadsl.FileIO} cannot do.
+ * <p>
+ * <strong>Note:</strong> the reads are blocking calls, the returned sources are expected to run on a dispatcher
+ * dedicated to blocking calls.
+ * </p>
+ */
+final class FileSliceReader implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    private FileSliceReader(Path path, long position, long count) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.position = position;
+        this.end = position + count;
+    }
+
+    /**
+     * @return the next chunk of the region, or an empty {@link Optional} when the region was fully read
+     * @throws IOException if the file cannot be read or was truncated while being read
+     */
+    private Optional<ByteString> read() throws IOException {
+        if (position >= end) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, end - position));
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("The file " + path + " was truncated while being read");
+            }
+        }
+        buffer.flip();
+        position += buffer.remaining();
+        return Optional.of(ByteString.fromByteBuffer(buffer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Constructs a {@link Source} that emits 'count' bytes starting at 'position' of the file at the argument 'path'.
+     * The file is opened when the source is materialized and closed when the stream terminates.
+     *
+     * @param path     the path of the file
+     * @param position the offset of the first byte to emit
+     * @param count    the number of bytes to emit
+     */
+    static Source<ByteString, NotUsed> source(Path path, long position, long count) {
+        return Source.unfoldResource(
+                () -> new FileSliceReader(path, position, count),
+                FileSliceReader::read,
+                FileSliceReader::close);
+    }
+}
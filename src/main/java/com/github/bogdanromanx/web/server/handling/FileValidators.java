@@ -0,0 +1,206 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.stream.javadsl.Source;
+import com.github.bogdanromanx.web.server.types.HttpEntity;
+import com.github.bogdanromanx.web.server.types.HttpResponse;
+import com.github.bogdanromanx.web.server.types.StatusCode;
+import com.github.bogdanromanx.web.server.types.headers.ETag;
+import com.github.bogdanromanx.web.server.types.headers.LastModified;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Registry of the cache validators ('ETag' and 'Last-Modified') of the files served by a {@link FileHandler}.  The
+ * validators of a file are computed once per file version (size and last modification time) and reused until the
+ * file changes, along with the '304 Not Modified' response built from them and the encoded head of the '200 OK'
+ * response for the full file.  The responses for a file that vary on the 'Accept-Encoding' request header (i.e.: a
+ * precompressed sibling served in its place) and those that do not (i.e.: the sibling requested directly) are built
+ * from two sets of validators, kept side by side for the same file version and sharing its ETag.
+ * </p>
+ * <p>
+ * ETags are derived either from the file size and modification time, or from a hash of the file content.  The latter
+ * requires reading the file once per version, but yields the same tag for identical content regardless of when it
+ * was written (i.e.: across deployments or replicas).
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class FileValidators {
+
+    private static final int HASH_LENGTH = 16;
+
+    private final boolean contentHash;
+    private final ConcurrentHashMap<Path, Version> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link FileValidators} registry.
+     *
+     * @param contentHash whether the ETags are derived from a hash of the file content
+     */
+    public FileValidators(boolean contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Returns the validators of the file at the argument 'path', computing them if the file is seen for the first time
+     * or if it changed since the validators were computed.  <strong>Note:</strong> computing content hash ETags
+     * performs blocking file system calls.
+     *
+     * @param path         the path of the file
+     * @param size         the current size of the file
+     * @param lastModified the current last modification time of the file in milliseconds
+     * @param vary         whether the responses for the file vary on the 'Accept-Encoding' request header
+     * @return the validators of the file
+     * @throws UncheckedIOException if the content of the file cannot be read
+     */
+    public Validators get(Path path, long size, long lastModified, boolean vary) {
+        Version version = entries.get(path);
+        if (version == null || version.size != size || version.lastModified != lastModified) {
+            version = new Version(size, lastModified, contentHash
+                    ? ETag.strong(hash(path))
+                    : ETag.strong(Long.toHexString(size) + "-" + Long.toHexString(lastModified)));
+            entries.put(path, version);
+        }
+        return version.validators(vary);
+    }
+
+    /**
+     * Drops the validators of the file at the argument 'path'.
+     */
+    public void invalidate(Path path) {
+        entries.remove(path);
+    }
+
+    /**
+     * @return the number of files with computed validators
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static String hash(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), HASH_LENGTH));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is a required MessageDigest algorithm", e);
+        }
+    }
+
+    /**
+     * A version of a file, holding its validators for the responses that vary on 'Accept-Encoding' and for those that
+     * do not, built on first use.
+     */
+    private static final class Version {
+        private final long size;
+        private final long lastModified;
+        private final ETag etag;
+        private volatile Validators varying;
+        private volatile Validators plain;
+
+        private Version(long size, long lastModified, ETag etag) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.etag = etag;
+        }
+
+        private Validators validators(boolean vary) {
+            Validators validators = vary ? varying : plain;
+            if (validators == null) {
+                validators = new Validators(lastModified, vary, etag);
+                if (vary) {
+                    varying = validators;
+                } else {
+                    plain = validators;
+                }
+            }
+            return validators;
+        }
+    }
+
+    /**
+     * The validators of a version of a file.
+     */
+    public static final class Validators {
+        private final ETag etag;
+        private final LastModified lastModifiedHeader;
+        private final HttpResponse notModified;
+        private volatile HttpResponse ok;
+
+        private Validators(long lastModified, boolean vary, ETag etag) {
+            this.etag = etag;
+            this.lastModifiedHeader = LastModified.of(Instant.ofEpochMilli(lastModified));
+            this.notModified = HttpResponse.of(
+                    StatusCode.NOT_MODIFIED,
+                    vary
+                            ? Arrays.asList(etag.raw(), lastModifiedHeader.raw(), PrecompressedFiles.VARY)
+                            : Arrays.asList(etag.raw(), lastModifiedHeader.raw()),
+                    HttpEntity.empty());
+        }
+
+        /**
+         * @return the 'ETag' header of the file version
+         */
+        public ETag etag() {
+            return etag;
+        }
+
+        /**
+         * @return the 'Last-Modified' header of the file version
+         */
+        public LastModified lastModified() {
+            return lastModifiedHeader;
+        }
+
+        /**
+         * @return the '304 Not Modified' response for the file version
+         */
+        public HttpResponse notModified() {
+            return notModified;
+        }
+
+        /**
+         * Returns the '200 OK' response for the full file version with the argument 'entity'.  The headers are built
+         * with the argument 'headers' function the first time only, afterwards the response shares the headers and
+         * their encoding (see {@link HttpResponse#head(com.github.bogdanromanx.web.server.types.HttpProtocol)}) with
+         * the first one.
+         *
+         * @param entity  the entity holding the full file
+         * @param headers the function that builds the headers of the response
+         * @return the '200 OK' response for the full file version
+         */
+        public HttpResponse ok(HttpEntity entity, Function<HttpEntity, List<RawHeader>> headers) {
+            HttpResponse template = ok;
+            // the content read in memory prevails, and may differ from the file version when the file just changed
+            if (template == null || template.entity().length() != entity.length()) {
+                // the template holds a placeholder entity, so that it does not retain the content of the file
+                template = HttpResponse.of(StatusCode.OK, headers.apply(entity),
+                        HttpEntity.streaming(Source.empty(), entity.length()));
+                ok = template;
+            }
+            return template.withEntity(entity);
+        }
+    }
+}
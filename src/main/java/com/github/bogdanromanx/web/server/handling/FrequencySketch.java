@@ -0,0 +1,88 @@
+package com.github.bogdanromanx.web.server.handling;
+
+/**
+ * A count-min sketch that estimates the popularity of keys within a recent time window.  Counters saturate at
+ * {@link FrequencySketch#MAX_COUNT} and all of them are halved after a fixed number of increments, so that the
+ * estimates age and keys that used to be popular eventually give way to the currently popular ones.
+ * <p>
+ * <strong>Note:</strong> the sketch is not thread safe, callers are expected to synchronize access.
+ * </p>
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x9e3779b9, 0x7f4a7c15, 0xc2b2ae35};
+
+    private final int[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Constructs a new {@link FrequencySketch} of (at least) 'width' counters per row.
+     *
+     * @param width the number of counters per row; rounded up to the next power of two
+     * @throws IllegalArgumentException for width values smaller than 1
+     */
+    FrequencySketch(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("The FrequencySketch width must be greater than 0");
+        }
+        int size = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.table = new int[DEPTH][size];
+        this.mask = size - 1;
+        this.sampleSize = 10 * size;
+    }
+
+    /**
+     * Records an occurrence of the argument 'key', aging the sketch when the sample size is reached.
+     *
+     * @param key the key to record
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < DEPTH; i++) {
+            int idx = indexOf(hash, i);
+            if (table[i][idx] < MAX_COUNT) {
+                table[i][idx]++;
+            }
+        }
+        if (++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the estimated number of recent occurrences of the argument 'key'
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private void age() {
+        for (int[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        additions >>>= 1;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 16;
+        return h & mask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
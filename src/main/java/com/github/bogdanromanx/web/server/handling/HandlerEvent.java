@@ -0,0 +1,49 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event spanning the application of a {@link RequestHandler}, from the handler being applied to
+ * its response being ready, with the class of the handler and the response status.  Only the handlers slower than the
+ * threshold (1 ms unless configured) are recorded.  The vhosts begin and commit the events around the handlers.
+ */
+@Name("com.github.bogdanromanx.web.server.Handler")
+@Label("Request Handler")
+@Category({"Web Server", "Requests"})
+@Description("The application of a request handler, from the handler being applied to its response being ready")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class HandlerEvent extends Event {
+
+    @Label("VHost")
+    public String vhost;
+
+    @Label("Handler Class")
+    public Class<?> handler;
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Failure")
+    public String failure;
+
+    /**
+     * @return true if the event is enabled in a running recording; the instance allocated by the check does not
+     * escape, so that the check is free once compiled
+     */
+    public static boolean enabled() {
+        return new HandlerEvent().isEnabled();
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.stream.Attributes;
+import akka.stream.Outlet;
+import akka.stream.SourceShape;
+import akka.stream.stage.AbstractOutHandler;
+import akka.stream.stage.GraphStage;
+import akka.stream.stage.GraphStageLogic;
+import akka.util.ByteString;
+
+import java.nio.file.Path;
+
+/**
+ * {@link GraphStage} implementation of a {@link SourceShape} that emits the bytes of a file region in chunks read from
+ * a memory mapping shared through a {@link MappedFiles} registry.  The mapping is acquired when the stage starts and
+ * released when the stage stops, regardless of whether the stream completed, failed or was cancelled.
+ * <p>
+ * <strong>Note:</strong> reading from the mapping can fault pages in from disk, so the stage is expected to run on a
+ * dispatcher dedicated to blocking calls.
+ * </p>
+ */
+final class MappedFileSource extends GraphStage<SourceShape<ByteString>> {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Outlet<ByteString> out = Outlet.create("MappedFileSource.out");
+    private final SourceShape<ByteString> shape = SourceShape.of(out);
+
+    private final MappedFiles files;
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final long position;
+    private final long count;
+
+    /**
+     * Constructs a new {@link MappedFileSource} that emits 'count' bytes starting at 'position' of the file at the
+     * argument 'path'.
+     *
+     * @param files        the registry of shared mappings
+     * @param path         the path of the file
+     * @param size         the expected size of the file
+     * @param lastModified the expected last modification time of the file in milliseconds
+     * @param position     the offset of the first byte to emit
+     * @param count        the number of bytes to emit
+     */
+    MappedFileSource(MappedFiles files, Path path, long size, long lastModified, long position, long count) {
+        this.files = files;
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.position = position;
+        this.count = count;
+    }
+
+    @Override
+    public SourceShape<ByteString> shape() {
+        return shape;
+    }
+
+    @Override
+    public GraphStageLogic createLogic(Attributes inheritedAttributes) {
+        return new GraphStageLogic(shape) {
+            private MappedFiles.MappedFile file;
+            private long current = position;
+            private final long end = position + count;
+
+            {
+                setHandler(out, new AbstractOutHandler() {
+                    @Override
+                    public void onPull() throws Exception {
+                        if (current < end) {
+                            ByteString chunk = file.slice(current, (int) Math.min(CHUNK_SIZE, end - current));
+                            current += chunk.length();
+                            push(out, chunk);
+                        }
+                        if (current >= end) {
+                            completeStage();
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void preStart() {
+                try {
+                    file = files.acquire(path, size, lastModified);
+                } catch (Exception e) {
+                    failStage(e);
+                }
+            }
+
+            @Override
+            public void postStop() {
+                if (file != null) {
+                    files.release(path, file);
+                    file = null;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.util.ByteString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of memory mapped files shared across concurrent readers.  A file is mapped when first acquired and the
+ * mapping is kept for as long as there are readers holding a reference to it; the last reader to release it drops the
+ * mapping from the registry.  A mapping is only shared if it matches the size and last modification time of the file,
+ * so a file that changed on disk is mapped again for new readers while the existing readers keep their mapping.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MappedFiles {
+
+    private final ConcurrentHashMap<Path, MappedFile> files = new ConcurrentHashMap<>();
+
+    /**
+     * Acquires a reference to the mapping of the file at the argument 'path', mapping the file if necessary.  Every
+     * call must be paired with a call to {@link MappedFiles#release(Path, MappedFile)}.
+     *
+     * @param path         the path of the file
+     * @param size         the expected size of the file
+     * @param lastModified the expected last modification time of the file in milliseconds
+     * @return a reference to the mapping of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    MappedFile acquire(Path path, long size, long lastModified) throws IOException {
+        try {
+            return files.compute(path, (p, existing) -> {
+                if (existing != null && existing.matches(size, lastModified) && existing.retain()) {
+                    return existing;
+                }
+                return MappedFile.map(p, size, lastModified);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Releases a reference to the argument 'file' mapping, dropping it from the registry if there are no readers left.
+     *
+     * @param path the path of the file
+     * @param file the mapping previously acquired for the path
+     */
+    void release(Path path, MappedFile file) {
+        if (file.release()) {
+            files.remove(path, file);
+        }
+    }
+
+    /**
+     * @return the number of files currently mapped
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * A memory mapped file, split into regions of at most {@link MappedFile#REGION_SIZE} bytes as a single mapping
+     * cannot exceed {@link Integer#MAX_VALUE} bytes.
+     */
+    static final class MappedFile {
+
+        private static final long REGION_SIZE = 1L << 30;
+
+        private final long size;
+        private final long lastModified;
+        private final MappedByteBuffer[] regions;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private MappedFile(long size, long lastModified, MappedByteBuffer[] regions) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.regions = regions;
+        }
+
+        private static MappedFile map(Path path, long size, long lastModified) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+                for (int i = 0; i < regions.length; i++) {
+                    long position = i * REGION_SIZE;
+                    regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+                }
+                return new MappedFile(size, lastModified, regions);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        /**
+         * @return true if a reference was added, false if the mapping was already released by all its readers
+         */
+        private boolean retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        /**
+         * @return true if this was the last reference to the mapping
+         */
+        private boolean release() {
+            return references.decrementAndGet() == 0;
+        }
+
+        /**
+         * @return the size of the mapped file
+         */
+        long size() {
+            return size;
+        }
+
+        /**
+         * Copies at most 'length' bytes starting at 'position' from the mapping into a new {@link ByteString}.  The
+         * returned chunk never crosses a region boundary, so it may be shorter than requested.
+         *
+         * @param position the offset within the file
+         * @param length   the maximum number of bytes to copy
+         * @return a {@link ByteString} holding the bytes at the requested offset
+         * @throws IOException if the file was truncated and the mapped pages are no longer accessible
+         */
+        ByteString slice(long position, int length) throws IOException {
+            int region = (int) (position / REGION_SIZE);
+            int offset = (int) (position % REGION_SIZE);
+            ByteBuffer buffer = regions[region].duplicate();
+            buffer.position(offset);
+            buffer.limit((int) Math.min(buffer.capacity(), (long) offset + length));
+            try {
+                return ByteString.fromByteBuffer(buffer);
+            } catch (InternalError e) {
+                throw new IOException("Unable to read from the mapped file, it was likely truncated", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.metrics.MetricsRegistry;
+import com.github.bogdanromanx.web.server.types.*;
+import com.github.bogdanromanx.web.server.types.headers.ContentLength;
+import com.github.bogdanromanx.web.server.types.headers.ContentType;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link RequestHandler} implementation that matches against 'GET {path} *' requests and produces 200 OK responses
+ * with the current value of the metrics of a {@link MetricsRegistry}, in the Prometheus text exposition format.
+ */
+public class MetricsHandler implements RequestHandler {
+
+    private static final ContentType CONTENT_TYPE = ContentType.of("text/plain; version=0.0.4");
+
+    private final MetricsRegistry registry;
+    private final String path;
+
+    /**
+     * Constructs a new {@link MetricsHandler} from the argument 'registry' and 'path'.
+     *
+     * @param registry the rendered metrics
+     * @param path     the request path of the metrics, i.e.: "/metrics"
+     * @throws NullPointerException for null registry or path arguments
+     */
+    public MetricsHandler(MetricsRegistry registry, String path) {
+        this.registry = requireNonNull(registry, "The metrics registry cannot be null");
+        this.path = requireNonNull(path, "The metrics path cannot be null");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(HttpRequest request) {
+        return request.requestLine().method().equals(HttpMethod.Standard.GET) &&
+                request.requestLine().uri().toString().equals(path);
+    }
+
+    /**
+     * Renders the metrics of the registry.
+     *
+     * @param request the {@link HttpRequest} to apply this handler to
+     * @return a future {@link HttpResponse}
+     */
+    @Override
+    public CompletionStage<HttpResponse> apply(HttpRequest request) {
+        ByteString body = ByteString.fromString(registry.render(), "UTF-8");
+        return CompletableFuture.completedFuture(HttpResponse.of(
+                StatusCode.OK,
+                Arrays.asList(ContentLength.of(body.length()).raw(), CONTENT_TYPE.raw()),
+                HttpEntity.strict(body)
+        ));
+    }
+}
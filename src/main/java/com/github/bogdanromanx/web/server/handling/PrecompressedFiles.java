@@ -0,0 +1,206 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import com.github.bogdanromanx.web.server.types.headers.AcceptEncoding;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Registry of the precompressed siblings of the files served by a {@link FileHandler}, i.e.: 'app.js.br' and
+ * 'app.js.gz' for 'app.js'.  The sibling lookups are performed once per version (last modification time) of the
+ * requested file and their results, including the absence of any sibling, are cached until the file changes.
+ * </p>
+ * <p>
+ * Siblings older than the requested file are ignored, as they were most likely produced from a previous version of it.
+ * Siblings are expected to be replaced along with the requested file (i.e.: by a build), a sibling rewritten on its own
+ * is not noticed until the requested file changes or its lookup results are invalidated.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PrecompressedFiles {
+
+    /**
+     * The 'Vary' header of the responses for the files that have precompressed siblings.
+     */
+    static final RawHeader VARY = RawHeader.of("Vary", AcceptEncoding.NAME);
+
+    private static final Map<String, String> EXTENSIONS = new HashMap<>();
+
+    static {
+        EXTENSIONS.put("br", ".br");
+        EXTENSIONS.put("gzip", ".gz");
+    }
+
+    private final List<String> encodings;
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link PrecompressedFiles} registry for the argument content codings.
+     *
+     * @param encodings the content codings of the sibling files, in order of preference; an empty list disables the
+     *                  sibling lookups
+     * @throws IllegalArgumentException for unsupported content codings (supported: 'br', 'gzip')
+     */
+    public PrecompressedFiles(List<String> encodings) {
+        for (String encoding : encodings) {
+            if (!EXTENSIONS.containsKey(encoding)) {
+                throw new IllegalArgumentException("Unsupported precompressed encoding: " + encoding);
+            }
+        }
+        this.encodings = new ArrayList<>(encodings);
+    }
+
+    /**
+     * Returns the precompressed siblings of the file at the argument 'path', looking them up if the file is seen for
+     * the first time or if it changed since the last lookup.  <strong>Note:</strong> the lookups perform blocking file
+     * system calls.
+     *
+     * @param path         the path of the requested file
+     * @param lastModified the current last modification time of the requested file in milliseconds
+     * @return the siblings of the file, in order of preference; empty if the file has no siblings
+     */
+    public List<Variant> variants(Path path, long lastModified) {
+        if (encodings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Entry current = entries.get(path);
+        if (current != null && current.lastModified == lastModified) {
+            return current.variants;
+        }
+        List<Variant> variants = new ArrayList<>(encodings.size());
+        for (String encoding : encodings) {
+            Path sibling = path.resolveSibling(path.getFileName() + EXTENSIONS.get(encoding));
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(sibling, BasicFileAttributes.class);
+                long siblingLastModified = attributes.lastModifiedTime().toMillis();
+                if (attributes.isRegularFile() && siblingLastModified >= lastModified) {
+                    variants.add(new Variant(encoding, sibling, attributes.size(), siblingLastModified));
+                }
+            } catch (IOException e) {
+                // no such sibling
+            }
+        }
+        Entry entry = new Entry(lastModified, variants.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(variants));
+        entries.put(path, entry);
+        return entry.variants;
+    }
+
+    /**
+     * Selects the variant to serve to a client: the one with the highest quality value in the argument
+     * 'acceptEncoding' header, the first one in order of preference on ties.  A variant is not selected when the
+     * client prefers the unencoded representation.
+     *
+     * @param variants       the siblings of the requested file, in order of preference
+     * @param acceptEncoding the 'Accept-Encoding' header of the request, if any
+     * @return the selected variant, if any
+     */
+    public static Optional<Variant> select(List<Variant> variants, Optional<AcceptEncoding> acceptEncoding) {
+        if (variants.isEmpty() || !acceptEncoding.isPresent()) {
+            return Optional.empty();
+        }
+        AcceptEncoding header = acceptEncoding.get();
+        Variant selected = null;
+        float best = 0f;
+        for (Variant variant : variants) {
+            float q = header.quality(variant.encoding);
+            if (q > best) {
+                best = q;
+                selected = variant;
+            }
+        }
+        return selected != null && best >= header.quality(AcceptEncoding.IDENTITY)
+                ? Optional.of(selected)
+                : Optional.empty();
+    }
+
+    /**
+     * Drops the cached lookup results for the file at the argument 'path'.
+     */
+    public void invalidate(Path path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Drops the cached lookup results affected by a change of the file at the argument 'path': those of the file
+     * itself, or of the file it is a sibling of.
+     */
+    public void changed(Path path) {
+        entries.remove(path);
+        String name = String.valueOf(path.getFileName());
+        for (String extension : EXTENSIONS.values()) {
+            if (name.endsWith(extension) && name.length() > extension.length()) {
+                entries.remove(path.resolveSibling(name.substring(0, name.length() - extension.length())));
+            }
+        }
+    }
+
+    /**
+     * @return the number of files with cached lookup results
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final List<Variant> variants;
+
+        private Entry(long lastModified, List<Variant> variants) {
+            this.lastModified = lastModified;
+            this.variants = variants;
+        }
+    }
+
+    /**
+     * A precompressed sibling of a file.
+     */
+    public static final class Variant {
+        private final String encoding;
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        private Variant(String encoding, Path path, long size, long lastModified) {
+            this.encoding = encoding;
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return the content coding of the sibling
+         */
+        public String encoding() {
+            return encoding;
+        }
+
+        /**
+         * @return the path of the sibling
+         */
+        public Path path() {
+            return path;
+        }
+
+        /**
+         * @return the size of the sibling at lookup time
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * @return the last modification time of the sibling at lookup time, in milliseconds
+         */
+        public long lastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -19,4 +19,12 @@ public interface RequestHandler extends Function<HttpRequest, CompletionStage<Ht
      * @return true if the handler can be applied to the request, false otherwise
      */
     boolean matches(HttpRequest request);
+
+    /**
+     * @return the name of <code>this</code> handler, under which its requests are reported in the metrics; it's read
+     * once per handler, when its first request is recorded
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
 }
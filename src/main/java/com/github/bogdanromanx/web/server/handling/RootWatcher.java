@@ -0,0 +1,126 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches a directory tree for changes with a {@link WatchService} and reports the changed paths to a listener, on a
+ * dedicated daemon thread.  Directories created after the watcher started are watched as well; symbolic links to
+ * directories are followed, as they are by the lookups of the files, and their changes are reported under their path
+ * in the tree.  When the watch service overflows (events were lost) the directory that overflowed is reported as
+ * changed, which the listener is expected to treat as a change of everything below it.
+ */
+final class RootWatcher implements Closeable {
+
+    private final WatchService service;
+    private final Consumer<Path> listener;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Starts watching the tree at the argument 'root'.  <strong>Note:</strong> registering the directories of the tree
+     * performs blocking file system calls.
+     *
+     * @param root     the root of the directory tree to watch
+     * @param listener the listener of the changed paths, called on the watcher thread
+     * @throws IOException if the root cannot be watched
+     */
+    RootWatcher(Path root, Consumer<Path> listener) throws IOException {
+        this.service = root.getFileSystem().newWatchService();
+        this.listener = listener;
+        try {
+            register(root);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        Thread thread = new Thread(this::run, "root-watcher-" + root);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void register(Path directory) throws IOException {
+        Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                        directories.put(dir.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                        if (file.equals(directory)) {
+                            throw exc;
+                        }
+                        // unreadable directories and link loops are not served either
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = directories.get(key);
+                if (directory != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed(directory, event);
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher was closed
+        }
+    }
+
+    private void changed(Path directory, WatchEvent<?> event) {
+        Path path = event.kind() == OVERFLOW ? directory : directory.resolve((Path) event.context());
+        if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+            try {
+                register(path);
+            } catch (IOException e) {
+                // the directory is already gone
+            }
+        }
+        try {
+            listener.accept(path);
+        } catch (RuntimeException e) {
+            // a failing listener must not stop the watcher
+        }
+    }
+
+    /**
+     * @return the number of watched directories
+     */
+    int directories() {
+        return directories.size();
+    }
+
+    /**
+     * Stops watching the tree.
+     */
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
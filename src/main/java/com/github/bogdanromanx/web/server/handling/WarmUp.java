@@ -0,0 +1,198 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Warm-up of the files served by a {@link FileHandler}: the regular files under the root that match any of the
+ * configured globs are loaded (see {@link FileHandler#warm(String)}) on a pool of bounded size before the vhost is
+ * bound, so that the first requests after a restart find the file state and contents in memory.
+ * </p>
+ * <p>
+ * The globs use the {@link FileSystem#getPathMatcher(String)} 'glob' syntax and are matched against the paths
+ * relative to the root, i.e.: 'index.html', 'assets/**' or '**&#47;*.css' (which does not match the files directly
+ * under the root).  The progress of the warm-up can be followed while it runs through the accessors of this class.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class WarmUp {
+
+    private final Path root;
+    private final List<PathMatcher> matchers;
+    private final int parallelism;
+
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile int total;
+    private volatile long durationNanos;
+    private volatile boolean done;
+
+    /**
+     * Constructs a new {@link WarmUp} of the files under the argument 'root'.
+     *
+     * @param root        the root of the files
+     * @param globs       the globs of the files, relative to the root
+     * @param parallelism the maximum number of files loaded concurrently
+     * @throws IllegalArgumentException for malformed globs or a parallelism that is not positive
+     */
+    public WarmUp(Path root, List<String> globs, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The warm-up parallelism must be positive");
+        }
+        this.root = root;
+        this.matchers = globs.stream()
+                .map(glob -> root.getFileSystem().getPathMatcher("glob:" + glob))
+                .collect(Collectors.toList());
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Loads the matching files into the argument 'handler', blocking until all of them were loaded.  The argument
+     * 'progress' callback is notified each time another tenth of the files was loaded.
+     *
+     * @param handler  the handler that serves the files
+     * @param progress the progress callback
+     */
+    public void run(FileHandler handler, Consumer<WarmUp> progress) {
+        long start = System.nanoTime();
+        List<String> requestPaths = matchers.isEmpty() ? new ArrayList<>() : requestPaths();
+        total = requestPaths.size();
+        if (total == 0) {
+            durationNanos = System.nanoTime() - start;
+            done = true;
+            return;
+        }
+        int step = Math.max(1, total / 10);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, total), runnable -> {
+            Thread thread = new Thread(runnable, "warm-up-" + root.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (String requestPath : requestPaths) {
+                pool.execute(() -> {
+                    (warm(handler, requestPath) ? loaded : failed).incrementAndGet();
+                    int count = completed.incrementAndGet();
+                    if (count % step == 0 && count < total) {
+                        progress.accept(this);
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            durationNanos = System.nanoTime() - start;
+            done = true;
+        }
+    }
+
+    private static boolean warm(FileHandler handler, String requestPath) {
+        try {
+            return handler.warm(requestPath);
+        } catch (RuntimeException e) {
+            // the file is loaded on its first request instead
+            return false;
+        }
+    }
+
+    /**
+     * Lists the request paths of the regular files under the root that match any of the globs.
+     */
+    private List<String> requestPaths() {
+        List<String> requestPaths = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                    new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                            Path relative = root.relativize(file);
+                            if (attributes.isRegularFile() && matchers.stream().anyMatch(m -> m.matches(relative))) {
+                                StringBuilder requestPath = new StringBuilder();
+                                relative.forEach(segment -> requestPath.append('/').append(segment));
+                                requestPaths.add(requestPath.toString());
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException e) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException e) {
+            // the files found before the failure are still loaded
+        }
+        return requestPaths;
+    }
+
+    /**
+     * @return the number of matching files, known once the root was walked
+     */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * @return the number of files loaded so far
+     */
+    public int loaded() {
+        return loaded.get();
+    }
+
+    /**
+     * @return the number of matching files that could not be loaded (i.e.: removed during the warm-up)
+     */
+    public int failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return <code>true</code> if the warm-up completed, <code>false</code> otherwise
+     */
+    public boolean done() {
+        return done;
+    }
+
+    /**
+     * @return the duration of the warm-up in milliseconds, once completed
+     */
+    public long durationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "WarmUp{" +
+                "root=" + root +
+                ", total=" + total +
+                ", loaded=" + loaded +
+                ", failed=" + failed +
+                ", done=" + done +
+                ", durationMillis=" + durationMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter, backed by a striped {@link LongAdder}: concurrent updates neither lock nor contend on a single
+ * memory location.
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Increments the counter by the argument 'amount'.
+     *
+     * @param amount the non negative amount to add
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * @return the current value of the counter
+     */
+    public long value() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import akka.actor.Cancellable;
+import akka.actor.Scheduler;
+import akka.dispatch.ExecutionContexts;
+import akka.dispatch.MessageDispatcher;
+import akka.event.LoggingAdapter;
+import com.github.bogdanromanx.web.server.settings.DispatcherProbeConfig;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Periodically submits a no-op task to an Akka {@link MessageDispatcher} and records the delay before it runs, its
+ * scheduling lag, in the 'web_server_dispatcher_lag_seconds' histogram.  The executor behind the dispatcher is sampled
+ * at the same time (see {@link DispatcherStats}) into the 'web_server_dispatcher_queue_depth' and
+ * 'web_server_dispatcher_active_threads' gauges and the 'web_server_dispatcher_steals_total' counter, all of them
+ * labeled with the vhost and the dispatcher id.  The lags above the configured threshold are logged as warnings, with
+ * the executor statistics.
+ * </p>
+ * <p>
+ * A saturated dispatcher does not fail, it only gets slower: a growing scheduling lag points at tasks that hold the
+ * dispatcher threads, i.e.: blocking work running on the stream dispatcher.  A probe is not submitted while the
+ * previous one is still waiting, so a stalled dispatcher is not flooded with probes; the lag of the waiting probe is
+ * recorded once it runs.
+ * </p>
+ */
+public final class DispatcherProbe {
+
+    private final MessageDispatcher dispatcher;
+    private final DispatcherStats stats;
+    private final String vhost;
+    private final DispatcherProbeConfig config;
+    private final LoggingAdapter log;
+    private final long lagThresholdNanos;
+    private final Histogram lag;
+    private final Gauge queueDepth;
+    private final Gauge activeThreads;
+    private final Counter steals;
+
+    private volatile boolean pending;
+    private volatile long lastLagNanos = -1;
+    private long lastStealCount;
+    private Cancellable schedule;
+
+    /**
+     * Constructs the probe of the argument 'dispatcher' of the argument 'vhost'; the dispatcher is probed once the
+     * probe is started.
+     *
+     * @param dispatcher the probed dispatcher
+     * @param vhost      the vhost that uses the dispatcher, i.e.: "127.0.0.1:8080"
+     * @param config     the dispatcher probe configuration
+     * @param metrics    the registry of the probe metrics
+     * @param log        the log of the lags above the threshold
+     */
+    public DispatcherProbe(MessageDispatcher dispatcher, String vhost, DispatcherProbeConfig config,
+                           MetricsRegistry metrics, LoggingAdapter log) {
+        this.dispatcher = dispatcher;
+        this.stats = DispatcherStats.of(dispatcher);
+        this.vhost = vhost;
+        this.config = config;
+        this.log = log;
+        this.lagThresholdNanos = config.lagThreshold().toNanos();
+        this.lag = metrics.histogram("web_server_dispatcher_lag_seconds",
+                "The delay between a probe task being submitted to the dispatcher and it running",
+                Histogram.LATENCY_BOUNDS, Histogram.NANOS_PER_SECOND, "vhost", vhost, "dispatcher", dispatcher.id());
+        this.queueDepth = metrics.gauge("web_server_dispatcher_queue_depth",
+                "The number of tasks submitted to the dispatcher and not yet started, as last probed",
+                "vhost", vhost, "dispatcher", dispatcher.id());
+        this.activeThreads = metrics.gauge("web_server_dispatcher_active_threads",
+                "The number of dispatcher threads running tasks, as last probed",
+                "vhost", vhost, "dispatcher", dispatcher.id());
+        this.steals = metrics.counter("web_server_dispatcher_steals_total",
+                "The number of tasks stolen between the threads of a fork-join dispatcher, as last probed",
+                "vhost", vhost, "dispatcher", dispatcher.id());
+    }
+
+    /**
+     * Starts probing the dispatcher at the configured interval, from the argument 'scheduler'.
+     *
+     * @param scheduler the scheduler that triggers the probes
+     */
+    public synchronized void start(Scheduler scheduler) {
+        if (schedule == null) {
+            lastStealCount = Math.max(0, stats.stealCount());
+            FiniteDuration interval = FiniteDuration.create(config.interval().toNanos(), TimeUnit.NANOSECONDS);
+            // the probes are submitted from the scheduler thread, the probed dispatcher runs only the probe tasks
+            schedule = scheduler.schedule(interval, interval, (Runnable) this::probe,
+                    ExecutionContexts.fromExecutor(Runnable::run));
+        }
+    }
+
+    /**
+     * Stops probing the dispatcher.
+     */
+    public synchronized void stop() {
+        if (schedule != null) {
+            schedule.cancel();
+            schedule = null;
+        }
+    }
+
+    /**
+     * @return the scheduling lag of the last probe that ran, in nanoseconds, -1 if none ran yet
+     */
+    public long lastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * Samples the executor and submits the probe task, unless the previous one is still waiting.  Called by the
+     * scheduler thread, one probe at a time.
+     */
+    void probe() {
+        if (pending) {
+            return;
+        }
+        sample();
+        pending = true;
+        long submitted = System.nanoTime();
+        dispatcher.execute(() -> ran(System.nanoTime() - submitted));
+    }
+
+    private void sample() {
+        queueDepth.add(Math.max(0, stats.queueDepth()) - queueDepth.value());
+        activeThreads.add(Math.max(0, stats.activeThreads()) - activeThreads.value());
+        long stealCount = stats.stealCount();
+        if (stealCount > lastStealCount) {
+            steals.add(stealCount - lastStealCount);
+            lastStealCount = stealCount;
+        }
+    }
+
+    private void ran(long lagNanos) {
+        lag.record(lagNanos);
+        lastLagNanos = lagNanos;
+        pending = false;
+        if (lagThresholdNanos > 0 && lagNanos > lagThresholdNanos) {
+            log.warning("Scheduling lag of {} ms on the dispatcher of vhost {}, the dispatcher may be saturated: {}",
+                    TimeUnit.NANOSECONDS.toMillis(lagNanos), vhost, stats);
+        }
+    }
+}
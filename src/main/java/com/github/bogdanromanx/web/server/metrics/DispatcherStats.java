@@ -0,0 +1,122 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import akka.dispatch.Dispatcher;
+import akka.dispatch.MessageDispatcher;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Samples the executor behind an Akka {@link MessageDispatcher}: the number of tasks waiting for a thread, the number
+ * of threads running tasks and, for fork-join executors, the number of tasks stolen between threads.  Fork-join
+ * executors (Akka's own or the JDK one) and thread pool executors are supported; the statistics of other executors
+ * (i.e.: the calling thread dispatcher) are reported as -1.
+ */
+public final class DispatcherStats {
+
+    private final String id;
+    private final ExecutorService executor;
+
+    private DispatcherStats(String id, ExecutorService executor) {
+        this.id = id;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the id of the dispatcher, i.e.: "web.server.default-dispatcher"
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * @return the number of tasks submitted to the executor and not yet started, or -1 if unknown
+     */
+    public long queueDepth() {
+        if (executor instanceof scala.concurrent.forkjoin.ForkJoinPool) {
+            scala.concurrent.forkjoin.ForkJoinPool pool = (scala.concurrent.forkjoin.ForkJoinPool) executor;
+            return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+        }
+        if (executor instanceof java.util.concurrent.ForkJoinPool) {
+            java.util.concurrent.ForkJoinPool pool = (java.util.concurrent.ForkJoinPool) executor;
+            return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getQueue().size();
+        }
+        return -1;
+    }
+
+    /**
+     * @return the (estimated, for fork-join executors) number of threads running tasks, or -1 if unknown
+     */
+    public int activeThreads() {
+        if (executor instanceof scala.concurrent.forkjoin.ForkJoinPool) {
+            return ((scala.concurrent.forkjoin.ForkJoinPool) executor).getActiveThreadCount();
+        }
+        if (executor instanceof java.util.concurrent.ForkJoinPool) {
+            return ((java.util.concurrent.ForkJoinPool) executor).getActiveThreadCount();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getActiveCount();
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of threads started by the executor, or -1 if unknown
+     */
+    public int poolSize() {
+        if (executor instanceof scala.concurrent.forkjoin.ForkJoinPool) {
+            return ((scala.concurrent.forkjoin.ForkJoinPool) executor).getPoolSize();
+        }
+        if (executor instanceof java.util.concurrent.ForkJoinPool) {
+            return ((java.util.concurrent.ForkJoinPool) executor).getPoolSize();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getPoolSize();
+        }
+        return -1;
+    }
+
+    /**
+     * @return the (estimated) number of tasks stolen by the threads of a fork-join executor from the queues of the
+     * other threads since it was started, or -1 if unknown or not a fork-join executor
+     */
+    public long stealCount() {
+        if (executor instanceof scala.concurrent.forkjoin.ForkJoinPool) {
+            return ((scala.concurrent.forkjoin.ForkJoinPool) executor).getStealCount();
+        }
+        if (executor instanceof java.util.concurrent.ForkJoinPool) {
+            return ((java.util.concurrent.ForkJoinPool) executor).getStealCount();
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "DispatcherStats{" +
+                "id='" + id + '\'' +
+                ", queueDepth=" + queueDepth() +
+                ", activeThreads=" + activeThreads() +
+                ", poolSize=" + poolSize() +
+                ", stealCount=" + stealCount() +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link DispatcherStats} for the executor of the argument 'dispatcher'.
+     *
+     * @param dispatcher the sampled dispatcher
+     * @return a new {@link DispatcherStats} for the executor of the argument 'dispatcher'
+     */
+    public static DispatcherStats of(MessageDispatcher dispatcher) {
+        ExecutorService executor = dispatcher instanceof Dispatcher
+                ? ((Dispatcher) dispatcher).executorService().executor()
+                : null;
+        return new DispatcherStats(dispatcher.id(), executor);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Value that goes up and down (i.e.: the number of active connections), backed by a striped {@link LongAdder}.
+ */
+public final class Gauge {
+
+    private final LongAdder value = new LongAdder();
+
+    Gauge() {
+    }
+
+    /**
+     * Increments the gauge by one.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Decrements the gauge by one.
+     */
+    public void decrement() {
+        value.decrement();
+    }
+
+    /**
+     * Adds the argument 'amount', possibly negative, to the gauge.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * @return the current value of the gauge
+     */
+    public long value() {
+        return value.sum();
+    }
+}
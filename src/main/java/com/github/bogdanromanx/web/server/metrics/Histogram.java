@@ -0,0 +1,115 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Histogram with fixed, cumulative buckets in the Prometheus style: a value is counted in the first bucket whose upper
+ * bound is not lower than the value, the last (implicit) bucket counting the values above all the bounds.  Each bucket,
+ * the count and the sum are striped {@link LongAdder}s, so recording a value takes a search over the bounds and two
+ * lock free additions.
+ * </p>
+ * <p>
+ * The values are recorded in a base unit (i.e.: nanoseconds) and rendered in the unit of the metric (i.e.: seconds),
+ * by dividing them by the 'scale' of the histogram.
+ * </p>
+ */
+public final class Histogram {
+
+    /**
+     * The default bounds of the latency histograms, in nanoseconds: from 100 microseconds to 10 seconds.
+     */
+    public static final long[] LATENCY_BOUNDS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    /**
+     * The scale of the latency histograms: nanoseconds recorded, seconds rendered.
+     */
+    public static final double NANOS_PER_SECOND = 1e9;
+
+    private final long[] bounds;
+    private final double scale;
+    private final LongAdder[] buckets;
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Constructs a new {@link Histogram} from the argument 'bounds' and 'scale'.
+     *
+     * @param bounds the upper bounds of the buckets, in the base unit
+     * @param scale  the number of base units in the rendered unit
+     * @throws IllegalArgumentException if the bounds are not strictly increasing
+     */
+    Histogram(long[] bounds, double scale) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("The histogram bounds must be strictly increasing");
+            }
+        }
+        this.bounds = bounds.clone();
+        this.scale = scale;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the argument 'value'.
+     *
+     * @param value the value to record, in the base unit
+     */
+    public void record(long value) {
+        int idx = Arrays.binarySearch(bounds, value);
+        buckets[idx >= 0 ? idx : -idx - 1].increment();
+        sum.add(value);
+    }
+
+    /**
+     * @return the upper bounds of the buckets, in the base unit
+     */
+    long[] bounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * @return the number of base units in the rendered unit
+     */
+    double scale() {
+        return scale;
+    }
+
+    /**
+     * @return the non cumulative counts of the buckets, the last one counting the values above all the bounds
+     */
+    long[] counts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of the recorded values, in the base unit
+     */
+    public long sum() {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import akka.actor.AbstractExtensionId;
+import akka.actor.ExtendedActorSystem;
+import akka.actor.ExtensionIdProvider;
+
+/**
+ * Provider for the {@link MetricsRegistry} extension, ensuring a single registry across the entire
+ * {@link akka.actor.ActorSystem}: the metrics of all the vhosts are rendered together, told apart by their 'vhost'
+ * label.
+ *
+ * @see ExtensionIdProvider
+ */
+public class MetricsExtension extends AbstractExtensionId<MetricsRegistry> implements ExtensionIdProvider {
+    public final static MetricsExtension MetricsExtensionProvider = new MetricsExtension();
+
+    private MetricsExtension() {
+    }
+
+    @Override
+    public MetricsExtension lookup() {
+        return MetricsExtensionProvider;
+    }
+
+    /**
+     * Constructs an empty {@link MetricsRegistry} for the argument {@link ExtendedActorSystem}.
+     *
+     * @param system the target actor system for this extension
+     * @return an empty {@link MetricsRegistry}
+     */
+    @Override
+    public MetricsRegistry createExtension(ExtendedActorSystem system) {
+        return new MetricsRegistry();
+    }
+}
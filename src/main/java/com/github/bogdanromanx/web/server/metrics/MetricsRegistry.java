@@ -0,0 +1,199 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import akka.actor.Extension;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>
+ * Registry of the server metrics ({@link Counter}s, {@link Gauge}s and {@link Histogram}s), rendered in the Prometheus
+ * text exposition format by {@link MetricsRegistry#render()}.  A metric is identified by its name and its labels, given
+ * as alternating names and values (i.e.: "vhost", "127.0.0.1:8080", "status", "200"); asking again for the same name
+ * and labels returns the same metric.
+ * </p>
+ * <p>
+ * Looking up a metric builds its key, so the hot paths look up their metrics once (i.e.: when a stage is constructed)
+ * and only update them afterwards: the updates neither lock nor allocate.
+ * </p>
+ */
+public final class MetricsRegistry implements Extension {
+
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final ConcurrentMap<String, Family<?>> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the {@link Counter} of the argument 'name' and 'labels', registering it if absent.
+     *
+     * @param name   the name of the metric, i.e.: "web_server_connections_accepted_total"
+     * @param help   the description of the metric
+     * @param labels the alternating names and values of the labels
+     * @return the {@link Counter} of the argument 'name' and 'labels'
+     * @throws IllegalArgumentException for invalid names or labels, or if the name is registered with another type
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return this.<Counter>family(name, help, Type.COUNTER).metric(labels, Counter::new);
+    }
+
+    /**
+     * Returns the {@link Gauge} of the argument 'name' and 'labels', registering it if absent.
+     *
+     * @param name   the name of the metric, i.e.: "web_server_connections_active"
+     * @param help   the description of the metric
+     * @param labels the alternating names and values of the labels
+     * @return the {@link Gauge} of the argument 'name' and 'labels'
+     * @throws IllegalArgumentException for invalid names or labels, or if the name is registered with another type
+     */
+    public Gauge gauge(String name, String help, String... labels) {
+        return this.<Gauge>family(name, help, Type.GAUGE).metric(labels, Gauge::new);
+    }
+
+    /**
+     * Returns the {@link Histogram} of the argument 'name' and 'labels', registering it with the argument 'bounds' and
+     * 'scale' if absent.
+     *
+     * @param name   the name of the metric, i.e.: "web_server_request_duration_seconds"
+     * @param help   the description of the metric
+     * @param bounds the upper bounds of the buckets, in the base unit of the recorded values
+     * @param scale  the number of base units in the rendered unit
+     * @param labels the alternating names and values of the labels
+     * @return the {@link Histogram} of the argument 'name' and 'labels'
+     * @throws IllegalArgumentException for invalid names, labels or bounds, or if the name is registered with another
+     *                                  type
+     */
+    public Histogram histogram(String name, String help, long[] bounds, double scale, String... labels) {
+        return this.<Histogram>family(name, help, Type.HISTOGRAM).metric(labels, () -> new Histogram(bounds, scale));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Family<T> family(String name, String help, Type type) {
+        if (!NAME.matcher(requireNonNull(name, "The metric name cannot be null")).matches()) {
+            throw new IllegalArgumentException("Illegal metric name '" + name + "'");
+        }
+        Family<?> family = families.computeIfAbsent(name, n -> new Family<>(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("The metric '" + name + "' is registered as a " + family.type.name);
+        }
+        return (Family<T>) family;
+    }
+
+    /**
+     * @return the current value of all the metrics in the Prometheus text exposition format (version 0.0.4)
+     */
+    public String render() {
+        StringBuilder text = new StringBuilder();
+        for (Family<?> family : families.values()) {
+            family.render(text);
+        }
+        return text.toString();
+    }
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+        private final String name;
+
+        Type(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The metrics of a name, by their rendered labels.
+     */
+    private static final class Family<T> {
+
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final ConcurrentMap<String, T> metrics = new ConcurrentSkipListMap<>();
+
+        private Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = requireNonNull(help, "The metric help cannot be null");
+            this.type = type;
+        }
+
+        private T metric(String[] labels, Supplier<T> constructor) {
+            return metrics.computeIfAbsent(labels(labels), key -> constructor.get());
+        }
+
+        private void render(StringBuilder text) {
+            text.append("# HELP ").append(name).append(' ')
+                    .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(type.name).append('\n');
+            for (Map.Entry<String, T> entry : metrics.entrySet()) {
+                String labels = entry.getKey();
+                T metric = entry.getValue();
+                if (metric instanceof Counter) {
+                    sample(text, name, labels, "", ((Counter) metric).value());
+                } else if (metric instanceof Gauge) {
+                    sample(text, name, labels, "", ((Gauge) metric).value());
+                } else {
+                    render(text, labels, (Histogram) metric);
+                }
+            }
+        }
+
+        private void render(StringBuilder text, String labels, Histogram histogram) {
+            long[] bounds = histogram.bounds();
+            long[] counts = histogram.counts();
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += counts[i];
+                sample(text, name + "_bucket", labels, "le=\"" + format(bounds[i] / histogram.scale()) + "\"",
+                        cumulative);
+            }
+            cumulative += counts[bounds.length];
+            sample(text, name + "_bucket", labels, "le=\"+Inf\"", cumulative);
+            text.append(name).append("_sum");
+            if (!labels.isEmpty()) {
+                text.append('{').append(labels).append('}');
+            }
+            text.append(' ').append(format(histogram.sum() / histogram.scale())).append('\n');
+            sample(text, name + "_count", labels, "", cumulative);
+        }
+
+        private static void sample(StringBuilder text, String name, String labels, String extraLabel, long value) {
+            text.append(name);
+            if (!labels.isEmpty() || !extraLabel.isEmpty()) {
+                text.append('{').append(labels);
+                if (!labels.isEmpty() && !extraLabel.isEmpty()) {
+                    text.append(',');
+                }
+                text.append(extraLabel).append('}');
+            }
+            text.append(' ').append(value).append('\n');
+        }
+
+        private static String format(double value) {
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+
+        private static String labels(String[] labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("The metric labels must be pairs of names and values");
+            }
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < labels.length; i += 2) {
+                if (!NAME.matcher(labels[i]).matches() || labels[i].contains(":")) {
+                    throw new IllegalArgumentException("Illegal metric label name '" + labels[i] + "'");
+                }
+                if (i > 0) {
+                    key.append(',');
+                }
+                key.append(labels[i]).append("=\"").append(labels[i + 1]
+                        .replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+            }
+            return key.toString();
+        }
+    }
+}
@@ -27,7 +27,8 @@ public abstract class AbstractParser<T> implements Parser<T> {
     static Result<ByteString> take(ByteString input, ByteString sep, int maxLength, boolean dropSep) {
         // todo slice before computing index
         int idx = input.indexOfSlice(sep);
-        if (idx > maxLength || (idx == -1 && maxLength < input.length())) {
+        // without a separator, the input may still end with the first bytes of one
+        if (idx > maxLength || (idx == -1 && input.length() >= maxLength + sep.length())) {
             throw new ParsingException.IllegalFormat();
         } else if (idx == -1) {
             return Result.of(input);
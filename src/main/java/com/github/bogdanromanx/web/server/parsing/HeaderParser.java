@@ -67,11 +67,13 @@ public class HeaderParser extends AbstractParser<RawHeader> {
     @Override
     public Result<RawHeader> apply(ByteString byteString) {
         try {
-            return take(byteString, COLON, maxNameLength).andThen((name, afterName) ->
+            Result<RawHeader> result = take(byteString, COLON, maxNameLength).andThen((name, afterName) ->
                     take(afterName, NEW_LINE, maxValueLength).andThen((value, remaining) ->
                             Result.of(RawHeader.of(asciiString(name).trim(), asciiString(value).trim()), remaining)
                     )
             );
+            // an incomplete header is parsed again from its first byte once more bytes are available
+            return result.value().isPresent() ? result : Result.of(byteString);
         } catch (IllegalArgumentException e) {
             throw new ParsingException.IllegalHttpHeader(e);
         }
@@ -82,11 +82,13 @@ public class RequestLineParser extends AbstractParser<RequestLine> {
      */
     @Override
     public Result<RequestLine> apply(ByteString byteString) {
-        return Result.of(RequestLine.builder(), byteString)
+        Result<RequestLine> result = Result.of(RequestLine.builder(), byteString)
                 .andThen((builder, input) -> parseMethod(input).map(builder::method))
                 .andThen((builder, input) -> parseURI(input).map(builder::uri))
                 .andThen((builder, input) -> parseProtocol(input).map(builder::protocol))
                 .map(RequestLine.Builder::build);
+        // an incomplete request line is parsed again from its first byte once more bytes are available
+        return result.value().isPresent() ? result : Result.of(byteString);
     }
 
     /**
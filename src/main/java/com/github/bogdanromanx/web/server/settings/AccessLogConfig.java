@@ -0,0 +1,163 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the access log (see
+ * {@link com.github.bogdanromanx.web.server.accesslog.AccessLog}): the entries are recorded into a preallocated ring
+ * buffer and written to a size rotated file in batches, by a single background writer.
+ */
+public final class AccessLogConfig {
+
+    private final boolean enabled;
+    private final Path file;
+    private final int bufferSize;
+    private final int batchSize;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    /**
+     * Constructs a new {@link AccessLogConfig} instance from the arguments 'enabled', 'file', 'bufferSize',
+     * 'batchSize', 'maxFileSize' and 'maxFiles'.
+     *
+     * @param enabled     whether the requests are logged
+     * @param file        the file the entries are written to
+     * @param bufferSize  the number of entries held by the ring buffer, a power of two
+     * @param batchSize   the maximum number of entries written at once
+     * @param maxFileSize the size above which the file is rotated
+     * @param maxFiles    the number of rotated files kept, besides the current one
+     * @throws NullPointerException     for null file argument
+     * @throws IllegalArgumentException for a buffer size that is not a positive power of two, a batch size or a
+     *                                  maximum file size that is not positive or a negative number of files
+     */
+    private AccessLogConfig(boolean enabled, Path file, int bufferSize, int batchSize, long maxFileSize, int maxFiles) {
+        this.enabled = enabled;
+        this.file = requireNonNull(file, "The access log file cannot be null");
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("The access log buffer size must be a positive power of two");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The access log batch size must be positive");
+        }
+        if (maxFileSize <= 0) {
+            throw new IllegalArgumentException("The access log maximum file size must be positive");
+        }
+        if (maxFiles < 0) {
+            throw new IllegalArgumentException("The number of access log files cannot be negative");
+        }
+    }
+
+    /**
+     * @return whether the requests are logged
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the file the entries are written to
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return the number of entries held by the ring buffer, a power of two
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the maximum number of entries written at once
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the size above which the file is rotated
+     */
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * @return the number of rotated files kept, besides the current one
+     */
+    public int maxFiles() {
+        return maxFiles;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AccessLogConfig that = (AccessLogConfig) o;
+        if (enabled != that.enabled) return false;
+        if (bufferSize != that.bufferSize) return false;
+        if (batchSize != that.batchSize) return false;
+        if (maxFileSize != that.maxFileSize) return false;
+        if (maxFiles != that.maxFiles) return false;
+        return file.equals(that.file);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + file.hashCode();
+        result = 31 * result + bufferSize;
+        result = 31 * result + batchSize;
+        result = 31 * result + (int) (maxFileSize ^ (maxFileSize >>> 32));
+        result = 31 * result + maxFiles;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "AccessLogConfig{" +
+                "enabled=" + enabled +
+                ", file=" + file +
+                ", bufferSize=" + bufferSize +
+                ", batchSize=" + batchSize +
+                ", maxFileSize=" + maxFileSize +
+                ", maxFiles=" + maxFiles +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link AccessLogConfig} instance from the arguments 'enabled', 'file', 'bufferSize',
+     * 'batchSize', 'maxFileSize' and 'maxFiles'.
+     *
+     * @param enabled     whether the requests are logged
+     * @param file        the file the entries are written to
+     * @param bufferSize  the number of entries held by the ring buffer, a power of two
+     * @param batchSize   the maximum number of entries written at once
+     * @param maxFileSize the size above which the file is rotated
+     * @param maxFiles    the number of rotated files kept, besides the current one
+     * @return a new {@link AccessLogConfig} instance from the argument values.
+     * @throws NullPointerException     for null file argument
+     * @throws IllegalArgumentException for a buffer size that is not a positive power of two, a batch size or a
+     *                                  maximum file size that is not positive or a negative number of files
+     */
+    public static AccessLogConfig of(boolean enabled, Path file, int bufferSize, int batchSize, long maxFileSize,
+                                     int maxFiles) {
+        return new AccessLogConfig(enabled, file, bufferSize, batchSize, maxFileSize, maxFiles);
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the traffic capture (see
+ * {@link com.github.bogdanromanx.web.server.capture.TrafficCapture}): the inbound bytes of a sample of the connections
+ * of the "akka" transport are recorded, as read, to a binary file that can be replayed later (see
+ * {@link com.github.bogdanromanx.web.server.capture.CaptureReplay}).
+ */
+public final class CaptureConfig {
+
+    private final boolean enabled;
+    private final Path file;
+    private final double sampleRate;
+    private final long maxFileSize;
+    private final long maxConnectionSize;
+    private final int bufferSize;
+
+    /**
+     * Constructs a new {@link CaptureConfig} instance from the arguments 'enabled', 'file', 'sampleRate',
+     * 'maxFileSize', 'maxConnectionSize' and 'bufferSize'.
+     *
+     * @param enabled           whether the connections are captured
+     * @param file              the file the capture is written to
+     * @param sampleRate        the fraction of the connections that are captured, between 0 and 1
+     * @param maxFileSize       the size of the capture after which no more bytes are recorded
+     * @param maxConnectionSize the number of inbound bytes of a connection after which the connection is no longer
+     *                          recorded
+     * @param bufferSize        the maximum number of records waiting to be written
+     * @throws NullPointerException     for null file argument
+     * @throws IllegalArgumentException for a sample rate outside [0, 1] or sizes that are not positive
+     */
+    private CaptureConfig(boolean enabled, Path file, double sampleRate, long maxFileSize, long maxConnectionSize,
+                          int bufferSize) {
+        this.enabled = enabled;
+        this.file = requireNonNull(file, "The capture file cannot be null");
+        this.sampleRate = sampleRate;
+        this.maxFileSize = maxFileSize;
+        this.maxConnectionSize = maxConnectionSize;
+        this.bufferSize = bufferSize;
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("The capture sample rate must be between 0 and 1");
+        }
+        if (maxFileSize <= 0 || maxConnectionSize <= 0) {
+            throw new IllegalArgumentException("The capture maximum sizes must be positive");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("The capture buffer size must be positive");
+        }
+    }
+
+    /**
+     * @return whether the connections are captured
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the file the capture is written to
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return the fraction of the connections that are captured, between 0 and 1
+     */
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return the size of the capture after which no more bytes are recorded
+     */
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * @return the number of inbound bytes of a connection after which the connection is no longer recorded
+     */
+    public long maxConnectionSize() {
+        return maxConnectionSize;
+    }
+
+    /**
+     * @return the maximum number of records waiting to be written
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CaptureConfig that = (CaptureConfig) o;
+        if (enabled != that.enabled) return false;
+        if (Double.compare(that.sampleRate, sampleRate) != 0) return false;
+        if (maxFileSize != that.maxFileSize) return false;
+        if (maxConnectionSize != that.maxConnectionSize) return false;
+        if (bufferSize != that.bufferSize) return false;
+        return file.equals(that.file);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + file.hashCode();
+        long temp = Double.doubleToLongBits(sampleRate);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (int) (maxFileSize ^ (maxFileSize >>> 32));
+        result = 31 * result + (int) (maxConnectionSize ^ (maxConnectionSize >>> 32));
+        result = 31 * result + bufferSize;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CaptureConfig{" +
+                "enabled=" + enabled +
+                ", file=" + file +
+                ", sampleRate=" + sampleRate +
+                ", maxFileSize=" + maxFileSize +
+                ", maxConnectionSize=" + maxConnectionSize +
+                ", bufferSize=" + bufferSize +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link CaptureConfig} instance from the arguments 'enabled', 'file', 'sampleRate',
+     * 'maxFileSize', 'maxConnectionSize' and 'bufferSize'.
+     *
+     * @param enabled           whether the connections are captured
+     * @param file              the file the capture is written to
+     * @param sampleRate        the fraction of the connections that are captured, between 0 and 1
+     * @param maxFileSize       the size of the capture after which no more bytes are recorded
+     * @param maxConnectionSize the number of inbound bytes of a connection after which the connection is no longer
+     *                          recorded
+     * @param bufferSize        the maximum number of records waiting to be written
+     * @return a new {@link CaptureConfig} instance from the argument values.
+     * @throws NullPointerException     for null file argument
+     * @throws IllegalArgumentException for a sample rate outside [0, 1] or sizes that are not positive
+     */
+    public static CaptureConfig of(boolean enabled, Path file, double sampleRate, long maxFileSize,
+                                   long maxConnectionSize, int bufferSize) {
+        return new CaptureConfig(enabled, file, sampleRate, maxFileSize, maxConnectionSize, bufferSize);
+    }
+}
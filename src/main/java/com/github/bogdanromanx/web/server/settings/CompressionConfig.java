@@ -0,0 +1,188 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the on the fly response compression
+ * ({@link com.github.bogdanromanx.web.server.compression.ResponseCompression}).
+ */
+public final class CompressionConfig {
+
+    private final boolean enabled;
+    private final int level;
+    private final long minSize;
+    private final long maxSize;
+    private final List<String> contentTypes;
+    private final long cacheMaxTotalSize;
+    private final Path cacheDirectory;
+    private final long cacheDirectoryMaxSize;
+
+    /**
+     * Constructs a new {@link CompressionConfig} instance from the argument values.
+     *
+     * @param enabled           whether the responses are compressed
+     * @param level             the compression level, from 1 (fastest) to 9 (smallest)
+     * @param minSize           the minimum entity size in bytes of a compressed response
+     * @param maxSize           the maximum entity size in bytes of a compressed response
+     * @param contentTypes      the content type prefixes of the compressed responses
+     * @param cacheMaxTotalSize the maximum number of bytes held by the in memory cache of compressed variants
+     * @param cacheDirectory    the directory in which the compressed variants are persisted; null disables it
+     * @param cacheDirectoryMaxSize the maximum number of bytes persisted in the 'cacheDirectory'
+     * @throws NullPointerException     for null contentTypes argument
+     * @throws IllegalArgumentException for compression levels outside [1, 9] or negative sizes
+     */
+    private CompressionConfig(boolean enabled, int level, long minSize, long maxSize, List<String> contentTypes,
+                              long cacheMaxTotalSize, Path cacheDirectory, long cacheDirectoryMaxSize) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("The compression level must be within [1, 9]");
+        }
+        if (minSize < 0 || maxSize < 0 || cacheMaxTotalSize < 0 || cacheDirectoryMaxSize < 0) {
+            throw new IllegalArgumentException("The compression sizes must be positive values");
+        }
+        this.enabled = enabled;
+        this.level = level;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.contentTypes = Collections.unmodifiableList(new ArrayList<>(
+                requireNonNull(contentTypes, "The compression content types cannot be null")));
+        this.cacheMaxTotalSize = cacheMaxTotalSize;
+        this.cacheDirectory = cacheDirectory;
+        this.cacheDirectoryMaxSize = cacheDirectoryMaxSize;
+    }
+
+    /**
+     * @return <code>true</code> if the responses are compressed, <code>false</code> otherwise
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the compression level, from 1 (fastest) to 9 (smallest)
+     */
+    public int level() {
+        return level;
+    }
+
+    /**
+     * @return the minimum entity size in bytes of a compressed response
+     */
+    public long minSize() {
+        return minSize;
+    }
+
+    /**
+     * @return the maximum entity size in bytes of a compressed response
+     */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the content type prefixes of the compressed responses
+     */
+    public List<String> contentTypes() {
+        return contentTypes;
+    }
+
+    /**
+     * @return the maximum number of bytes held by the in memory cache of compressed variants
+     */
+    public long cacheMaxTotalSize() {
+        return cacheMaxTotalSize;
+    }
+
+    /**
+     * @return the directory in which the compressed variants are persisted, if any
+     */
+    public Optional<Path> cacheDirectory() {
+        return Optional.ofNullable(cacheDirectory);
+    }
+
+    /**
+     * @return the maximum number of bytes persisted in the directory of the compressed variants
+     */
+    public long cacheDirectoryMaxSize() {
+        return cacheDirectoryMaxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompressionConfig that = (CompressionConfig) o;
+        if (enabled != that.enabled) return false;
+        if (level != that.level) return false;
+        if (minSize != that.minSize) return false;
+        if (maxSize != that.maxSize) return false;
+        if (cacheMaxTotalSize != that.cacheMaxTotalSize) return false;
+        if (cacheDirectoryMaxSize != that.cacheDirectoryMaxSize) return false;
+        if (!contentTypes.equals(that.contentTypes)) return false;
+        return cacheDirectory != null ? cacheDirectory.equals(that.cacheDirectory) : that.cacheDirectory == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + level;
+        result = 31 * result + (int) (minSize ^ (minSize >>> 32));
+        result = 31 * result + (int) (maxSize ^ (maxSize >>> 32));
+        result = 31 * result + contentTypes.hashCode();
+        result = 31 * result + (int) (cacheMaxTotalSize ^ (cacheMaxTotalSize >>> 32));
+        result = 31 * result + (cacheDirectory != null ? cacheDirectory.hashCode() : 0);
+        result = 31 * result + (int) (cacheDirectoryMaxSize ^ (cacheDirectoryMaxSize >>> 32));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CompressionConfig{" +
+                "enabled=" + enabled +
+                ", level=" + level +
+                ", minSize=" + minSize +
+                ", maxSize=" + maxSize +
+                ", contentTypes=" + contentTypes +
+                ", cacheMaxTotalSize=" + cacheMaxTotalSize +
+                ", cacheDirectory=" + cacheDirectory +
+                ", cacheDirectoryMaxSize=" + cacheDirectoryMaxSize +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link CompressionConfig} instance from the argument values.
+     *
+     * @param enabled           whether the responses are compressed
+     * @param level             the compression level, from 1 (fastest) to 9 (smallest)
+     * @param minSize           the minimum entity size in bytes of a compressed response
+     * @param maxSize           the maximum entity size in bytes of a compressed response
+     * @param contentTypes      the content type prefixes of the compressed responses
+     * @param cacheMaxTotalSize the maximum number of bytes held by the in memory cache of compressed variants
+     * @param cacheDirectory    the directory in which the compressed variants are persisted; null disables it
+     * @param cacheDirectoryMaxSize the maximum number of bytes persisted in the 'cacheDirectory'
+     * @return a new {@link CompressionConfig} instance from the argument values.
+     * @throws NullPointerException     for null contentTypes argument
+     * @throws IllegalArgumentException for compression levels outside [1, 9] or negative sizes
+     */
+    public static CompressionConfig of(boolean enabled, int level, long minSize, long maxSize,
+                                       List<String> contentTypes, long cacheMaxTotalSize, Path cacheDirectory,
+                                       long cacheDirectoryMaxSize) {
+        return new CompressionConfig(enabled, level, minSize, maxSize, contentTypes, cacheMaxTotalSize,
+                cacheDirectory, cacheDirectoryMaxSize);
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the dispatcher probe of the vhosts (see
+ * {@link com.github.bogdanromanx.web.server.metrics.DispatcherProbe}): a no-op task is periodically submitted to the
+ * dispatcher of every vhost and the delay before it runs is recorded, with the lags above a threshold logged.
+ */
+public final class DispatcherProbeConfig {
+
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration lagThreshold;
+
+    /**
+     * Constructs a new {@link DispatcherProbeConfig} instance from the arguments 'enabled', 'interval' and
+     * 'lagThreshold'.
+     *
+     * @param enabled      whether the dispatchers of the vhosts are probed
+     * @param interval     the duration between two probes
+     * @param lagThreshold the scheduling lag above which the probes are logged, zero disables the log
+     * @throws NullPointerException     for null interval or lagThreshold arguments
+     * @throws IllegalArgumentException for an interval that is not positive or a negative lag threshold
+     */
+    private DispatcherProbeConfig(boolean enabled, Duration interval, Duration lagThreshold) {
+        this.enabled = enabled;
+        this.interval = requireNonNull(interval, "The dispatcher probe interval cannot be null");
+        this.lagThreshold = requireNonNull(lagThreshold, "The dispatcher lag threshold cannot be null");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("The dispatcher probe interval must be positive");
+        }
+        if (lagThreshold.isNegative()) {
+            throw new IllegalArgumentException("The dispatcher lag threshold cannot be negative");
+        }
+    }
+
+    /**
+     * @return whether the dispatchers of the vhosts are probed
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the duration between two probes
+     */
+    public Duration interval() {
+        return interval;
+    }
+
+    /**
+     * @return the scheduling lag above which the probes are logged, zero if the log is disabled
+     */
+    public Duration lagThreshold() {
+        return lagThreshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DispatcherProbeConfig that = (DispatcherProbeConfig) o;
+        if (enabled != that.enabled) return false;
+        if (!interval.equals(that.interval)) return false;
+        return lagThreshold.equals(that.lagThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + interval.hashCode();
+        result = 31 * result + lagThreshold.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "DispatcherProbeConfig{" +
+                "enabled=" + enabled +
+                ", interval=" + interval +
+                ", lagThreshold=" + lagThreshold +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link DispatcherProbeConfig} instance from the arguments 'enabled', 'interval' and
+     * 'lagThreshold'.
+     *
+     * @param enabled      whether the dispatchers of the vhosts are probed
+     * @param interval     the duration between two probes
+     * @param lagThreshold the scheduling lag above which the probes are logged, zero disables the log
+     * @return a new {@link DispatcherProbeConfig} instance from the argument values.
+     * @throws NullPointerException     for null interval or lagThreshold arguments
+     * @throws IllegalArgumentException for an interval that is not positive or a negative lag threshold
+     */
+    public static DispatcherProbeConfig of(boolean enabled, Duration interval, Duration lagThreshold) {
+        return new DispatcherProbeConfig(enabled, interval, lagThreshold);
+    }
+}
@@ -0,0 +1,261 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the static file handling, shared by all the
+ * {@link com.github.bogdanromanx.web.server.handling.FileHandler} instances.
+ */
+public final class FileHandlingConfig {
+
+    private final String dispatcher;
+    private final long cacheMaxFileSize;
+    private final long cacheMaxTotalSize;
+    private final long mmapThreshold;
+    private final boolean etagContentHash;
+    private final List<String> precompressedEncodings;
+    private final int metadataCacheMaxEntries;
+    private final int metadataCacheNegativeMaxEntries;
+    private final Duration metadataCacheTtl;
+    private final boolean watchRoot;
+    private final int bloomFilterExpectedPaths;
+    private final double bloomFilterFalsePositiveRate;
+    private final boolean indexed;
+
+    /**
+     * Constructs a new {@link FileHandlingConfig} instance from the argument values.
+     *
+     * @param dispatcher                      a config reference to the dispatcher used for blocking file system calls
+     * @param cacheMaxFileSize                the maximum size in bytes of a file to be held in the in memory file cache
+     * @param cacheMaxTotalSize               the maximum number of bytes held by the in memory file cache
+     * @param mmapThreshold                   the minimum size of a memory mapped file; 0 disables memory mapping
+     * @param etagContentHash                 whether the ETags are derived from a hash of the file content
+     * @param precompressedEncodings          the codings of the precompressed sibling files, in order of preference
+     * @param metadataCacheMaxEntries         the maximum number of entries of the file metadata cache; 0 disables it
+     * @param metadataCacheNegativeMaxEntries the maximum number of entries of the missing file cache; 0 disables it
+     * @param metadataCacheTtl                the duration after which the cached file metadata is looked up again
+     * @param watchRoot                       whether the vhost root is watched for changes that invalidate the metadata
+     * @param bloomFilterExpectedPaths        the expected number of paths under a root; 0 disables the path filter
+     * @param bloomFilterFalsePositiveRate    the false positive rate of the existing paths filter
+     * @param indexed                         whether the files are looked up in an in memory index of the root
+     * @throws NullPointerException for null dispatcher, precompressedEncodings or metadataCacheTtl arguments
+     */
+    private FileHandlingConfig(String dispatcher, long cacheMaxFileSize, long cacheMaxTotalSize, long mmapThreshold,
+                               boolean etagContentHash, List<String> precompressedEncodings,
+                               int metadataCacheMaxEntries, int metadataCacheNegativeMaxEntries,
+                               Duration metadataCacheTtl, boolean watchRoot, int bloomFilterExpectedPaths,
+                               double bloomFilterFalsePositiveRate, boolean indexed) {
+        this.dispatcher = requireNonNull(dispatcher, "The file handling dispatcher cannot be null");
+        this.cacheMaxFileSize = cacheMaxFileSize;
+        this.cacheMaxTotalSize = cacheMaxTotalSize;
+        this.mmapThreshold = mmapThreshold;
+        this.etagContentHash = etagContentHash;
+        this.precompressedEncodings = Collections.unmodifiableList(new ArrayList<>(
+                requireNonNull(precompressedEncodings, "The precompressed encodings cannot be null")));
+        this.metadataCacheMaxEntries = metadataCacheMaxEntries;
+        this.metadataCacheTtl = requireNonNull(metadataCacheTtl, "The metadata cache ttl cannot be null");
+        this.watchRoot = watchRoot;
+        this.metadataCacheNegativeMaxEntries = metadataCacheNegativeMaxEntries;
+        this.bloomFilterExpectedPaths = bloomFilterExpectedPaths;
+        this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
+        this.indexed = indexed;
+    }
+
+    /**
+     * @return a config reference to the dispatcher used for blocking file system calls
+     */
+    public String dispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return the maximum size in bytes of a file to be held in the in memory file cache
+     */
+    public long cacheMaxFileSize() {
+        return cacheMaxFileSize;
+    }
+
+    /**
+     * @return the maximum number of bytes held by the in memory file cache
+     */
+    public long cacheMaxTotalSize() {
+        return cacheMaxTotalSize;
+    }
+
+    /**
+     * @return the minimum size in bytes of a file to be served from a memory mapping; 0 disables memory mapping
+     */
+    public long mmapThreshold() {
+        return mmapThreshold;
+    }
+
+    /**
+     * @return <code>true</code> if the ETags are derived from a hash of the file content, <code>false</code> if they
+     * are derived from the file size and modification time
+     */
+    public boolean etagContentHash() {
+        return etagContentHash;
+    }
+
+    /**
+     * @return the codings of the precompressed sibling files, in order of preference
+     */
+    public List<String> precompressedEncodings() {
+        return precompressedEncodings;
+    }
+
+    /**
+     * @return the maximum number of entries of the file metadata cache; 0 disables the cache
+     */
+    public int metadataCacheMaxEntries() {
+        return metadataCacheMaxEntries;
+    }
+
+    /**
+     * @return the maximum number of entries of the missing file cache; 0 disables the cache
+     */
+    public int metadataCacheNegativeMaxEntries() {
+        return metadataCacheNegativeMaxEntries;
+    }
+
+    /**
+     * @return the duration after which the cached file metadata is looked up again, regardless of the watched changes
+     */
+    public Duration metadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    /**
+     * @return <code>true</code> if the cached file metadata is invalidated by watching the vhost root for changes,
+     * <code>false</code> if it only expires after the configured ttl
+     */
+    public boolean watchRoot() {
+        return watchRoot;
+    }
+
+    /**
+     * @return the expected number of paths under a vhost root, for sizing the filter of existing paths; 0 disables the
+     * filter
+     */
+    public int bloomFilterExpectedPaths() {
+        return bloomFilterExpectedPaths;
+    }
+
+    /**
+     * @return the false positive rate of the filter of existing paths
+     */
+    public double bloomFilterFalsePositiveRate() {
+        return bloomFilterFalsePositiveRate;
+    }
+
+    /**
+     * @return <code>true</code> if the files are looked up in an in memory index of the vhost root built at startup,
+     * <code>false</code> if they are looked up on the file system
+     */
+    public boolean indexed() {
+        return indexed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FileHandlingConfig that = (FileHandlingConfig) o;
+        if (cacheMaxFileSize != that.cacheMaxFileSize) return false;
+        if (cacheMaxTotalSize != that.cacheMaxTotalSize) return false;
+        if (mmapThreshold != that.mmapThreshold) return false;
+        if (etagContentHash != that.etagContentHash) return false;
+        if (metadataCacheMaxEntries != that.metadataCacheMaxEntries) return false;
+        if (watchRoot != that.watchRoot) return false;
+        if (indexed != that.indexed) return false;
+        if (metadataCacheNegativeMaxEntries != that.metadataCacheNegativeMaxEntries) return false;
+        if (bloomFilterExpectedPaths != that.bloomFilterExpectedPaths) return false;
+        if (Double.compare(bloomFilterFalsePositiveRate, that.bloomFilterFalsePositiveRate) != 0) return false;
+        if (!dispatcher.equals(that.dispatcher)) return false;
+        if (!precompressedEncodings.equals(that.precompressedEncodings)) return false;
+        return metadataCacheTtl.equals(that.metadataCacheTtl);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = dispatcher.hashCode();
+        result = 31 * result + (int) (cacheMaxFileSize ^ (cacheMaxFileSize >>> 32));
+        result = 31 * result + (int) (cacheMaxTotalSize ^ (cacheMaxTotalSize >>> 32));
+        result = 31 * result + (int) (mmapThreshold ^ (mmapThreshold >>> 32));
+        result = 31 * result + (etagContentHash ? 1 : 0);
+        result = 31 * result + precompressedEncodings.hashCode();
+        result = 31 * result + metadataCacheMaxEntries;
+        result = 31 * result + metadataCacheTtl.hashCode();
+        result = 31 * result + (watchRoot ? 1 : 0);
+        result = 31 * result + (indexed ? 1 : 0);
+        result = 31 * result + metadataCacheNegativeMaxEntries;
+        result = 31 * result + bloomFilterExpectedPaths;
+        long rate = Double.doubleToLongBits(bloomFilterFalsePositiveRate);
+        result = 31 * result + (int) (rate ^ (rate >>> 32));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "FileHandlingConfig{" +
+                "dispatcher='" + dispatcher + '\'' +
+                ", cacheMaxFileSize=" + cacheMaxFileSize +
+                ", cacheMaxTotalSize=" + cacheMaxTotalSize +
+                ", mmapThreshold=" + mmapThreshold +
+                ", etagContentHash=" + etagContentHash +
+                ", precompressedEncodings=" + precompressedEncodings +
+                ", metadataCacheMaxEntries=" + metadataCacheMaxEntries +
+                ", metadataCacheTtl=" + metadataCacheTtl +
+                ", watchRoot=" + watchRoot +
+                ", metadataCacheNegativeMaxEntries=" + metadataCacheNegativeMaxEntries +
+                ", bloomFilterExpectedPaths=" + bloomFilterExpectedPaths +
+                ", bloomFilterFalsePositiveRate=" + bloomFilterFalsePositiveRate +
+                ", indexed=" + indexed +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link FileHandlingConfig} instance from the argument values.
+     *
+     * @param dispatcher                      a config reference to the dispatcher used for blocking file system calls
+     * @param cacheMaxFileSize                the maximum size in bytes of a file to be held in the in memory file cache
+     * @param cacheMaxTotalSize               the maximum number of bytes held by the in memory file cache
+     * @param mmapThreshold                   the minimum size of a memory mapped file; 0 disables memory mapping
+     * @param etagContentHash                 whether the ETags are derived from a hash of the file content
+     * @param precompressedEncodings          the codings of the precompressed sibling files, in order of preference
+     * @param metadataCacheMaxEntries         the maximum number of entries of the file metadata cache; 0 disables it
+     * @param metadataCacheNegativeMaxEntries the maximum number of entries of the missing file cache; 0 disables it
+     * @param metadataCacheTtl                the duration after which the cached file metadata is looked up again
+     * @param watchRoot                       whether the vhost root is watched for changes that invalidate the metadata
+     * @param bloomFilterExpectedPaths        the expected number of paths under a root; 0 disables the path filter
+     * @param bloomFilterFalsePositiveRate    the false positive rate of the existing paths filter
+     * @param indexed                         whether the files are looked up in an in memory index of the root
+     * @return a new {@link FileHandlingConfig} instance from the argument values.
+     * @throws NullPointerException for null dispatcher, precompressedEncodings or metadataCacheTtl arguments
+     */
+    public static FileHandlingConfig of(String dispatcher, long cacheMaxFileSize, long cacheMaxTotalSize,
+                                        long mmapThreshold, boolean etagContentHash,
+                                        List<String> precompressedEncodings, int metadataCacheMaxEntries,
+                                        int metadataCacheNegativeMaxEntries, Duration metadataCacheTtl,
+                                        boolean watchRoot, int bloomFilterExpectedPaths,
+                                        double bloomFilterFalsePositiveRate, boolean indexed) {
+        return new FileHandlingConfig(dispatcher, cacheMaxFileSize, cacheMaxTotalSize, mmapThreshold, etagContentHash,
+                precompressedEncodings, metadataCacheMaxEntries, metadataCacheNegativeMaxEntries, metadataCacheTtl,
+                watchRoot, bloomFilterExpectedPaths, bloomFilterFalsePositiveRate, indexed);
+    }
+}
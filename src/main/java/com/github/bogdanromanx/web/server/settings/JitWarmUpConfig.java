@@ -0,0 +1,130 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the JIT warm-up, which replays a corpus of raw requests through the
+ * processing flow of every vhost, in memory, before binding it.
+ */
+public final class JitWarmUpConfig {
+
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeBudget;
+    private final List<String> requests;
+
+    /**
+     * Constructs a new {@link JitWarmUpConfig} instance from the arguments 'enabled', 'iterations', 'timeBudget' and
+     * 'requests'.
+     *
+     * @param enabled    whether the processing flows are warmed up before binding the vhosts
+     * @param iterations the number of times the corpus is replayed through the processing flow of a vhost
+     * @param timeBudget the maximum duration of the warm-up of a vhost, which stops early when exceeded
+     * @param requests   the corpus of raw requests, replayed pipelined on a single in memory connection
+     * @throws NullPointerException     for null timeBudget or requests arguments
+     * @throws IllegalArgumentException for a negative number of iterations or an empty corpus of an enabled warm-up
+     */
+    private JitWarmUpConfig(boolean enabled, int iterations, Duration timeBudget, List<String> requests) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeBudget = requireNonNull(timeBudget, "The jit warm-up time budget cannot be null");
+        this.requests = Collections.unmodifiableList(new ArrayList<>(
+                requireNonNull(requests, "The jit warm-up requests cannot be null")));
+        if (iterations < 0) {
+            throw new IllegalArgumentException("The jit warm-up iterations must be positive");
+        }
+        if (enabled && this.requests.isEmpty()) {
+            throw new IllegalArgumentException("The jit warm-up requests cannot be empty");
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the processing flows are warmed up before binding the vhosts, <code>false</code>
+     * otherwise
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the number of times the corpus is replayed through the processing flow of a vhost
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the maximum duration of the warm-up of a vhost, which stops early when exceeded
+     */
+    public Duration timeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @return the corpus of raw requests, replayed pipelined on a single in memory connection
+     */
+    public List<String> requests() {
+        return requests;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JitWarmUpConfig that = (JitWarmUpConfig) o;
+        if (enabled != that.enabled) return false;
+        if (iterations != that.iterations) return false;
+        if (!timeBudget.equals(that.timeBudget)) return false;
+        return requests.equals(that.requests);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + iterations;
+        result = 31 * result + timeBudget.hashCode();
+        result = 31 * result + requests.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "JitWarmUpConfig{" +
+                "enabled=" + enabled +
+                ", iterations=" + iterations +
+                ", timeBudget=" + timeBudget +
+                ", requests=" + requests.size() +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link JitWarmUpConfig} instance from the arguments 'enabled', 'iterations', 'timeBudget' and
+     * 'requests'.
+     *
+     * @param enabled    whether the processing flows are warmed up before binding the vhosts
+     * @param iterations the number of times the corpus is replayed through the processing flow of a vhost
+     * @param timeBudget the maximum duration of the warm-up of a vhost, which stops early when exceeded
+     * @param requests   the corpus of raw requests, replayed pipelined on a single in memory connection
+     * @return a new {@link JitWarmUpConfig} instance from the argument values.
+     * @throws NullPointerException     for null timeBudget or requests arguments
+     * @throws IllegalArgumentException for a negative number of iterations or an empty corpus of an enabled warm-up
+     */
+    public static JitWarmUpConfig of(boolean enabled, int iterations, Duration timeBudget, List<String> requests) {
+        return new JitWarmUpConfig(enabled, iterations, timeBudget, requests);
+    }
+}
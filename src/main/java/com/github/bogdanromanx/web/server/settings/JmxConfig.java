@@ -0,0 +1,90 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the JMX management of the vhosts: each vhost registers an MBean with
+ * its live statistics and runtime tunable limits.
+ */
+public final class JmxConfig {
+
+    private final boolean enabled;
+    private final String domain;
+
+    /**
+     * Constructs a new {@link JmxConfig} instance from the arguments 'enabled' and 'domain'.
+     *
+     * @param enabled whether the vhosts register their MBeans
+     * @param domain  the domain of the MBean names, i.e.: "com.github.bogdanromanx.web.server"
+     * @throws NullPointerException     for null domain argument
+     * @throws IllegalArgumentException for an empty domain
+     */
+    private JmxConfig(boolean enabled, String domain) {
+        this.enabled = enabled;
+        this.domain = requireNonNull(domain, "The jmx domain cannot be null");
+        if (domain.isEmpty()) {
+            throw new IllegalArgumentException("The jmx domain cannot be empty");
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the vhosts register their MBeans, <code>false</code> otherwise
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the domain of the MBean names
+     */
+    public String domain() {
+        return domain;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JmxConfig that = (JmxConfig) o;
+        if (enabled != that.enabled) return false;
+        return domain.equals(that.domain);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + domain.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "JmxConfig{" +
+                "enabled=" + enabled +
+                ", domain='" + domain + '\'' +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link JmxConfig} instance from the arguments 'enabled' and 'domain'.
+     *
+     * @param enabled whether the vhosts register their MBeans
+     * @param domain  the domain of the MBean names, i.e.: "com.github.bogdanromanx.web.server"
+     * @return a new {@link JmxConfig} instance from the argument values.
+     * @throws NullPointerException     for null domain argument
+     * @throws IllegalArgumentException for an empty domain
+     */
+    public static JmxConfig of(boolean enabled, String domain) {
+        return new JmxConfig(enabled, domain);
+    }
+}
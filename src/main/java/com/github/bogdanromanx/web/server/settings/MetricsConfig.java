@@ -0,0 +1,90 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the metrics endpoint, which renders the server metrics in the
+ * Prometheus text format on every vhost.
+ */
+public final class MetricsConfig {
+
+    private final boolean enabled;
+    private final String path;
+
+    /**
+     * Constructs a new {@link MetricsConfig} instance from the arguments 'enabled' and 'path'.
+     *
+     * @param enabled whether the vhosts serve the metrics
+     * @param path    the request path of the metrics, i.e.: "/metrics"
+     * @throws NullPointerException     for null path argument
+     * @throws IllegalArgumentException for a path that does not start with '/'
+     */
+    private MetricsConfig(boolean enabled, String path) {
+        this.enabled = enabled;
+        this.path = requireNonNull(path, "The metrics path cannot be null");
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("The metrics path must start with '/'");
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the vhosts serve the metrics, <code>false</code> otherwise
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the request path of the metrics
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MetricsConfig that = (MetricsConfig) o;
+        if (enabled != that.enabled) return false;
+        return path.equals(that.path);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (enabled ? 1 : 0);
+        result = 31 * result + path.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "MetricsConfig{" +
+                "enabled=" + enabled +
+                ", path='" + path + '\'' +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link MetricsConfig} instance from the arguments 'enabled' and 'path'.
+     *
+     * @param enabled whether the vhosts serve the metrics
+     * @param path    the request path of the metrics, i.e.: "/metrics"
+     * @return a new {@link MetricsConfig} instance from the argument values.
+     * @throws NullPointerException     for null path argument
+     * @throws IllegalArgumentException for a path that does not start with '/'
+     */
+    public static MetricsConfig of(boolean enabled, String path) {
+        return new MetricsConfig(enabled, path);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the JDK non-blocking IO transport
+ * ({@link com.github.bogdanromanx.web.server.vhost.NioTcpHandler}).
+ */
+public final class NioConfig {
+
+    private final String dispatcher;
+    private final int readBufferSize;
+    private final Duration writeTimeout;
+
+    /**
+     * Constructs a new {@link NioConfig} instance from the arguments 'dispatcher', 'readBufferSize' and
+     * 'writeTimeout'.
+     *
+     * @param dispatcher     a config reference to the dispatcher configuration used for writing responses
+     * @param readBufferSize the size in bytes of the per connection read buffer
+     * @param writeTimeout   the maximum duration to wait for a socket to become writable
+     * @throws NullPointerException     for null dispatcher or writeTimeout arguments
+     * @throws IllegalArgumentException for read buffer sizes smaller than 1
+     */
+    private NioConfig(String dispatcher, int readBufferSize, Duration writeTimeout) {
+        this.dispatcher = requireNonNull(dispatcher, "The nio dispatcher cannot be null");
+        this.writeTimeout = requireNonNull(writeTimeout, "The nio write timeout cannot be null");
+        this.readBufferSize = readBufferSize;
+        if (readBufferSize < 1) {
+            throw new IllegalArgumentException("The nio read buffer size must be greater than 0");
+        }
+    }
+
+    /**
+     * @return a config reference to the dispatcher configuration used for writing responses
+     */
+    public String dispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return the size in bytes of the per connection read buffer
+     */
+    public int readBufferSize() {
+        return readBufferSize;
+    }
+
+    /**
+     * @return the maximum duration to wait for a socket to become writable
+     */
+    public Duration writeTimeout() {
+        return writeTimeout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NioConfig that = (NioConfig) o;
+        if (readBufferSize != that.readBufferSize) return false;
+        if (!dispatcher.equals(that.dispatcher)) return false;
+        return writeTimeout.equals(that.writeTimeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = dispatcher.hashCode();
+        result = 31 * result + readBufferSize;
+        result = 31 * result + writeTimeout.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "NioConfig{" +
+                "dispatcher='" + dispatcher + '\'' +
+                ", readBufferSize=" + readBufferSize +
+                ", writeTimeout=" + writeTimeout +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link NioConfig} instance from the arguments 'dispatcher', 'readBufferSize' and
+     * 'writeTimeout'.
+     *
+     * @param dispatcher     a config reference to the dispatcher configuration used for writing responses
+     * @param readBufferSize the size in bytes of the per connection read buffer
+     * @param writeTimeout   the maximum duration to wait for a socket to become writable
+     * @return a new {@link NioConfig} instance from the argument values.
+     * @throws NullPointerException     for null dispatcher or writeTimeout arguments
+     * @throws IllegalArgumentException for read buffer sizes smaller than 1
+     */
+    public static NioConfig of(String dispatcher, int readBufferSize, Duration writeTimeout) {
+        return new NioConfig(dispatcher, readBufferSize, writeTimeout);
+    }
+}
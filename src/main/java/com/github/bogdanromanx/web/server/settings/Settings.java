@@ -16,19 +16,55 @@ public final class Settings implements Extension {
 
     private final Duration systemTerminateTimeout;
     private final ParsingConfig parsingConfig;
+    private final FileHandlingConfig fileHandlingConfig;
+    private final NioConfig nioConfig;
+    private final CompressionConfig compressionConfig;
+    private final JitWarmUpConfig jitWarmUpConfig;
+    private final MetricsConfig metricsConfig;
+    private final JmxConfig jmxConfig;
+    private final TimingConfig timingConfig;
+    private final AccessLogConfig accessLogConfig;
+    private final DispatcherProbeConfig dispatcherProbeConfig;
+    private final CaptureConfig captureConfig;
     private final List<VHostConfig> vHostConfigs;
 
     /**
-     * Constructs a new {@link Settings} instance from the arguments 'systemTerminateTimeout', 'parsingConfig' and
-     * 'vHostConfigs' collection.
+     * Constructs a new {@link Settings} instance from the arguments 'systemTerminateTimeout', 'parsingConfig',
+     * 'fileHandlingConfig', 'nioConfig', 'compressionConfig', 'jitWarmUpConfig', 'metricsConfig', 'jmxConfig',
+     * 'timingConfig', 'accessLogConfig', 'dispatcherProbeConfig', 'captureConfig' and 'vHostConfigs' collection.
      *
      * @param systemTerminateTimeout the maximum duration to wait until the {@link akka.actor.ActorSystem} terminates
      * @param parsingConfig          the {@link com.github.bogdanromanx.web.server.types.HttpRequest} parsing configuration
+     * @param fileHandlingConfig     the static file handling configuration
+     * @param nioConfig              the non-blocking IO transport configuration
+     * @param compressionConfig      the response compression configuration
+     * @param jitWarmUpConfig        the JIT warm-up configuration
+     * @param metricsConfig          the metrics endpoint configuration
+     * @param jmxConfig              the JMX management configuration
+     * @param timingConfig           the per request stage timing configuration
+     * @param accessLogConfig        the access log configuration
+     * @param dispatcherProbeConfig  the dispatcher probe configuration
+     * @param captureConfig          the traffic capture configuration
      * @param vHostConfigs           a collection of {@link VHostConfig} instances
      */
-    private Settings(Duration systemTerminateTimeout, ParsingConfig parsingConfig, Collection<VHostConfig> vHostConfigs) {
+    private Settings(Duration systemTerminateTimeout, ParsingConfig parsingConfig,
+                     FileHandlingConfig fileHandlingConfig, NioConfig nioConfig, CompressionConfig compressionConfig,
+                     JitWarmUpConfig jitWarmUpConfig, MetricsConfig metricsConfig, JmxConfig jmxConfig,
+                     TimingConfig timingConfig, AccessLogConfig accessLogConfig,
+                     DispatcherProbeConfig dispatcherProbeConfig, CaptureConfig captureConfig,
+                     Collection<VHostConfig> vHostConfigs) {
         this.systemTerminateTimeout = systemTerminateTimeout;
         this.parsingConfig = parsingConfig;
+        this.fileHandlingConfig = fileHandlingConfig;
+        this.nioConfig = nioConfig;
+        this.compressionConfig = compressionConfig;
+        this.jitWarmUpConfig = jitWarmUpConfig;
+        this.metricsConfig = metricsConfig;
+        this.jmxConfig = jmxConfig;
+        this.timingConfig = timingConfig;
+        this.accessLogConfig = accessLogConfig;
+        this.dispatcherProbeConfig = dispatcherProbeConfig;
+        this.captureConfig = captureConfig;
         this.vHostConfigs = new LinkedList<>(vHostConfigs);
     }
 
@@ -46,6 +82,76 @@ public final class Settings implements Extension {
         return parsingConfig;
     }
 
+    /**
+     * @return the static file handling configuration
+     */
+    public FileHandlingConfig fileHandlingConfig() {
+        return fileHandlingConfig;
+    }
+
+    /**
+     * @return the non-blocking IO transport configuration
+     */
+    public NioConfig nioConfig() {
+        return nioConfig;
+    }
+
+    /**
+     * @return the response compression configuration
+     */
+    public CompressionConfig compressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * @return the JIT warm-up configuration
+     */
+    public JitWarmUpConfig jitWarmUpConfig() {
+        return jitWarmUpConfig;
+    }
+
+    /**
+     * @return the metrics endpoint configuration
+     */
+    public MetricsConfig metricsConfig() {
+        return metricsConfig;
+    }
+
+    /**
+     * @return the JMX management configuration
+     */
+    public JmxConfig jmxConfig() {
+        return jmxConfig;
+    }
+
+    /**
+     * @return the per request stage timing configuration
+     */
+    public TimingConfig timingConfig() {
+        return timingConfig;
+    }
+
+    /**
+     * @return the access log configuration
+     */
+    public AccessLogConfig accessLogConfig() {
+        return accessLogConfig;
+    }
+
+    /**
+     * @return the dispatcher probe configuration
+     */
+    public DispatcherProbeConfig dispatcherProbeConfig() {
+        return dispatcherProbeConfig;
+    }
+
+    /**
+     * @return the traffic capture configuration
+     */
+    public CaptureConfig captureConfig() {
+        return captureConfig;
+    }
+
     /**
      * @return a collection of {@link VHostConfig} instances
      */
@@ -64,6 +170,16 @@ public final class Settings implements Extension {
         Settings settings = (Settings) o;
         if (!systemTerminateTimeout.equals(settings.systemTerminateTimeout)) return false;
         if (!parsingConfig.equals(settings.parsingConfig)) return false;
+        if (!fileHandlingConfig.equals(settings.fileHandlingConfig)) return false;
+        if (!nioConfig.equals(settings.nioConfig)) return false;
+        if (!compressionConfig.equals(settings.compressionConfig)) return false;
+        if (!jitWarmUpConfig.equals(settings.jitWarmUpConfig)) return false;
+        if (!metricsConfig.equals(settings.metricsConfig)) return false;
+        if (!jmxConfig.equals(settings.jmxConfig)) return false;
+        if (!timingConfig.equals(settings.timingConfig)) return false;
+        if (!accessLogConfig.equals(settings.accessLogConfig)) return false;
+        if (!dispatcherProbeConfig.equals(settings.dispatcherProbeConfig)) return false;
+        if (!captureConfig.equals(settings.captureConfig)) return false;
         return vHostConfigs.equals(settings.vHostConfigs);
     }
 
@@ -74,6 +190,16 @@ public final class Settings implements Extension {
     public int hashCode() {
         int result = systemTerminateTimeout.hashCode();
         result = 31 * result + parsingConfig.hashCode();
+        result = 31 * result + fileHandlingConfig.hashCode();
+        result = 31 * result + nioConfig.hashCode();
+        result = 31 * result + compressionConfig.hashCode();
+        result = 31 * result + jitWarmUpConfig.hashCode();
+        result = 31 * result + metricsConfig.hashCode();
+        result = 31 * result + jmxConfig.hashCode();
+        result = 31 * result + timingConfig.hashCode();
+        result = 31 * result + accessLogConfig.hashCode();
+        result = 31 * result + dispatcherProbeConfig.hashCode();
+        result = 31 * result + captureConfig.hashCode();
         result = 31 * result + vHostConfigs.hashCode();
         return result;
     }
@@ -86,21 +212,50 @@ public final class Settings implements Extension {
         return "Settings{" +
                 "systemTerminateTimeout=" + systemTerminateTimeout +
                 ", parsingConfig=" + parsingConfig +
+                ", fileHandlingConfig=" + fileHandlingConfig +
+                ", nioConfig=" + nioConfig +
+                ", compressionConfig=" + compressionConfig +
+                ", jitWarmUpConfig=" + jitWarmUpConfig +
+                ", metricsConfig=" + metricsConfig +
+                ", jmxConfig=" + jmxConfig +
+                ", timingConfig=" + timingConfig +
+                ", accessLogConfig=" + accessLogConfig +
+                ", dispatcherProbeConfig=" + dispatcherProbeConfig +
+                ", captureConfig=" + captureConfig +
                 ", vHostConfigs=" + vHostConfigs +
                 '}';
     }
 
     /**
-     * Constructs a new {@link Settings} instance from the arguments 'systemTerminateTimeout', 'parsingConfig' and
-     * 'vHostConfigs' collection.
+     * Constructs a new {@link Settings} instance from the arguments 'systemTerminateTimeout', 'parsingConfig',
+     * 'fileHandlingConfig', 'nioConfig', 'compressionConfig', 'jitWarmUpConfig', 'metricsConfig', 'jmxConfig',
+     * 'timingConfig', 'accessLogConfig', 'dispatcherProbeConfig', 'captureConfig' and 'vHostConfigs' collection.
      *
      * @param systemTerminateTimeout the maximum duration to wait until the {@link akka.actor.ActorSystem} terminates
      * @param parsingConfig          the {@link com.github.bogdanromanx.web.server.types.HttpRequest} parsing configuration
+     * @param fileHandlingConfig     the static file handling configuration
+     * @param nioConfig              the non-blocking IO transport configuration
+     * @param compressionConfig      the response compression configuration
+     * @param jitWarmUpConfig        the JIT warm-up configuration
+     * @param metricsConfig          the metrics endpoint configuration
+     * @param jmxConfig              the JMX management configuration
+     * @param timingConfig           the per request stage timing configuration
+     * @param accessLogConfig        the access log configuration
+     * @param dispatcherProbeConfig  the dispatcher probe configuration
+     * @param captureConfig          the traffic capture configuration
      * @param vHostConfigs           a collection of {@link VHostConfig} instances
-     * @return a new {@link Settings} instance from the arguments 'systemTerminateTimeout', 'parsingConfig' and
-     * 'vHostConfigs' collection.
+     * @return a new {@link Settings} instance from the arguments 'systemTerminateTimeout', 'parsingConfig',
+     * 'fileHandlingConfig', 'nioConfig', 'compressionConfig', 'jitWarmUpConfig', 'metricsConfig', 'jmxConfig',
+     * 'timingConfig', 'accessLogConfig', 'dispatcherProbeConfig', 'captureConfig' and 'vHostConfigs' collection.
      */
-    public static Settings of(Duration systemTerminateTimeout, ParsingConfig parsingConfig, Collection<VHostConfig> vHostConfigs) {
-        return new Settings(systemTerminateTimeout, parsingConfig, vHostConfigs);
+    public static Settings of(Duration systemTerminateTimeout, ParsingConfig parsingConfig,
+                              FileHandlingConfig fileHandlingConfig, NioConfig nioConfig,
+                              CompressionConfig compressionConfig, JitWarmUpConfig jitWarmUpConfig,
+                              MetricsConfig metricsConfig, JmxConfig jmxConfig, TimingConfig timingConfig,
+                              AccessLogConfig accessLogConfig, DispatcherProbeConfig dispatcherProbeConfig,
+                              CaptureConfig captureConfig, Collection<VHostConfig> vHostConfigs) {
+        return new Settings(systemTerminateTimeout, parsingConfig, fileHandlingConfig, nioConfig, compressionConfig,
+                jitWarmUpConfig, metricsConfig, jmxConfig, timingConfig, accessLogConfig, dispatcherProbeConfig,
+                captureConfig, vHostConfigs);
     }
 }
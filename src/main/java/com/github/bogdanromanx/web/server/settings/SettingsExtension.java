@@ -44,13 +44,36 @@ public class SettingsExtension extends AbstractExtensionId<Settings> implements
 
         ParsingConfig parsingConfig = parsingConfig(config.getConfig("parsing"));
 
+        FileHandlingConfig fileHandlingConfig = fileHandlingConfig(config.getConfig("files"));
+
+        NioConfig nioConfig = nioConfig(config.getConfig("nio"));
+
+        CompressionConfig compressionConfig = compressionConfig(config.getConfig("compression"));
+
+        JitWarmUpConfig jitWarmUpConfig = jitWarmUpConfig(config.getConfig("jit-warm-up"));
+
+        MetricsConfig metricsConfig = metricsConfig(config.getConfig("metrics"));
+
+        JmxConfig jmxConfig = jmxConfig(config.getConfig("jmx"));
+
+        TimingConfig timingConfig = timingConfig(config.getConfig("timing"));
+
+        AccessLogConfig accessLogConfig = accessLogConfig(config.getConfig("access-log"));
+
+        DispatcherProbeConfig dispatcherProbeConfig = dispatcherProbeConfig(config.getConfig("dispatcher-probe"));
+
+        CaptureConfig captureConfig = captureConfig(config.getConfig("capture"));
+
+        Config vHostDefaults = config.getConfig("vhost-defaults");
         List<VHostConfig> vHostConfigs = config
                 .getConfigList("vhosts")
                 .stream()
-                .map(this::vHostConfig)
+                .map(vc -> vHostConfig(vc.withFallback(vHostDefaults)))
                 .collect(Collectors.toList());
 
-        return Settings.of(systemTerminateTimeout, parsingConfig, vHostConfigs);
+        return Settings.of(systemTerminateTimeout, parsingConfig, fileHandlingConfig, nioConfig, compressionConfig,
+                jitWarmUpConfig, metricsConfig, jmxConfig, timingConfig, accessLogConfig, dispatcherProbeConfig,
+                captureConfig, vHostConfigs);
     }
 
     private ParsingConfig parsingConfig(Config config) {
@@ -62,11 +85,107 @@ public class SettingsExtension extends AbstractExtensionId<Settings> implements
                 config.getInt("protocol-length"));
     }
 
+    private FileHandlingConfig fileHandlingConfig(Config config) {
+        return FileHandlingConfig.of(
+                config.getString("dispatcher"),
+                config.getBytes("cache.max-file-size"),
+                config.getBytes("cache.max-total-size"),
+                config.getBytes("mmap-threshold"),
+                config.getBoolean("etag-content-hash"),
+                config.getStringList("precompressed-encodings"),
+                config.getInt("metadata-cache.max-entries"),
+                config.getInt("metadata-cache.negative-max-entries"),
+                config.getDuration("metadata-cache.ttl"),
+                config.getBoolean("metadata-cache.watch"),
+                config.getInt("metadata-cache.bloom-filter.expected-paths"),
+                config.getDouble("metadata-cache.bloom-filter.false-positive-rate"),
+                config.getBoolean("indexed"));
+    }
+
+    private NioConfig nioConfig(Config config) {
+        return NioConfig.of(
+                config.getString("dispatcher"),
+                config.getBytes("read-buffer-size").intValue(),
+                config.getDuration("write-timeout"));
+    }
+
+    private CompressionConfig compressionConfig(Config config) {
+        String directory = config.getString("cache.directory");
+        return CompressionConfig.of(
+                config.getBoolean("enabled"),
+                config.getInt("level"),
+                config.getBytes("min-size"),
+                config.getBytes("max-size"),
+                config.getStringList("content-types"),
+                config.getBytes("cache.max-total-size"),
+                directory.isEmpty() ? null : Paths.get(directory),
+                config.getBytes("cache.directory-max-size"));
+    }
+
+    private JitWarmUpConfig jitWarmUpConfig(Config config) {
+        return JitWarmUpConfig.of(
+                config.getBoolean("enabled"),
+                config.getInt("iterations"),
+                config.getDuration("time-budget"),
+                config.getStringList("requests"));
+    }
+
+    private MetricsConfig metricsConfig(Config config) {
+        return MetricsConfig.of(
+                config.getBoolean("enabled"),
+                config.getString("path"));
+    }
+
+    private JmxConfig jmxConfig(Config config) {
+        return JmxConfig.of(
+                config.getBoolean("enabled"),
+                config.getString("domain"));
+    }
+
+    private TimingConfig timingConfig(Config config) {
+        return TimingConfig.of(
+                config.getDouble("sample-rate"),
+                config.getDuration("slow-threshold"),
+                config.getString("opt-in-header"));
+    }
+
+    private AccessLogConfig accessLogConfig(Config config) {
+        return AccessLogConfig.of(
+                config.getBoolean("enabled"),
+                Paths.get(config.getString("file")).toAbsolutePath().normalize(),
+                config.getInt("buffer-size"),
+                config.getInt("batch-size"),
+                config.getBytes("max-file-size"),
+                config.getInt("max-files"));
+    }
+
+    private DispatcherProbeConfig dispatcherProbeConfig(Config config) {
+        return DispatcherProbeConfig.of(
+                config.getBoolean("enabled"),
+                config.getDuration("interval"),
+                config.getDuration("lag-threshold"));
+    }
+
+    private CaptureConfig captureConfig(Config config) {
+        return CaptureConfig.of(
+                config.getBoolean("enabled"),
+                Paths.get(config.getString("file")).toAbsolutePath().normalize(),
+                config.getDouble("sample-rate"),
+                config.getBytes("max-file-size"),
+                config.getBytes("max-connection-size"),
+                config.getInt("buffer-size"));
+    }
+
     private VHostConfig vHostConfig(Config config) {
         return VHostConfig.of(
                 config.getString("host"),
                 config.getInt("port"),
                 Paths.get(config.getString("path")).toAbsolutePath().normalize(),
-                config.getString("dispatcher"));
+                config.getString("dispatcher"),
+                config.getString("transport"),
+                config.getStringList("warm-up.files"),
+                config.getInt("warm-up.parallelism"),
+                config.getInt("max-connections"),
+                config.getInt("pipelining"));
     }
 }
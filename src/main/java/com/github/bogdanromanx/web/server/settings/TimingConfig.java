@@ -0,0 +1,117 @@
+package com.github.bogdanromanx.web.server.settings;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Data type representing the configuration of the per request stage timing (see
+ * {@link com.github.bogdanromanx.web.server.types.RequestTiming}): a sample of the requests is timed, the timed
+ * requests above the slow request threshold are logged with their per stage breakdown and the clients that opt in
+ * through a request header are timed and receive a 'Server-Timing' response header.
+ */
+public final class TimingConfig {
+
+    private final double sampleRate;
+    private final Duration slowThreshold;
+    private final String optInHeader;
+
+    /**
+     * Constructs a new {@link TimingConfig} instance from the arguments 'sampleRate', 'slowThreshold' and
+     * 'optInHeader'.
+     *
+     * @param sampleRate    the fraction of the requests that are timed, between 0 and 1
+     * @param slowThreshold the duration above which the requests are logged as slow, zero disables the log
+     * @param optInHeader   the name of the request header through which clients opt in for a 'Server-Timing'
+     *                      response header, empty to disable the header
+     * @throws NullPointerException     for null slowThreshold or optInHeader arguments
+     * @throws IllegalArgumentException for a sample rate outside [0, 1] or a negative slow threshold
+     */
+    private TimingConfig(double sampleRate, Duration slowThreshold, String optInHeader) {
+        this.sampleRate = sampleRate;
+        this.slowThreshold = requireNonNull(slowThreshold, "The slow request threshold cannot be null");
+        this.optInHeader = requireNonNull(optInHeader, "The timing opt-in header cannot be null");
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("The timing sample rate must be between 0 and 1");
+        }
+        if (slowThreshold.isNegative()) {
+            throw new IllegalArgumentException("The slow request threshold cannot be negative");
+        }
+    }
+
+    /**
+     * @return the fraction of the requests that are timed, between 0 and 1
+     */
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return the duration above which the requests are logged as slow, zero if the log is disabled
+     */
+    public Duration slowThreshold() {
+        return slowThreshold;
+    }
+
+    /**
+     * @return the name of the request header through which clients opt in for a 'Server-Timing' response header,
+     * empty if the header is disabled
+     */
+    public String optInHeader() {
+        return optInHeader;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimingConfig that = (TimingConfig) o;
+        if (Double.compare(that.sampleRate, sampleRate) != 0) return false;
+        if (!slowThreshold.equals(that.slowThreshold)) return false;
+        return optInHeader.equals(that.optInHeader);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        long temp = Double.doubleToLongBits(sampleRate);
+        int result = (int) (temp ^ (temp >>> 32));
+        result = 31 * result + slowThreshold.hashCode();
+        result = 31 * result + optInHeader.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "TimingConfig{" +
+                "sampleRate=" + sampleRate +
+                ", slowThreshold=" + slowThreshold +
+                ", optInHeader='" + optInHeader + '\'' +
+                '}';
+    }
+
+    /**
+     * Constructs a new {@link TimingConfig} instance from the arguments 'sampleRate', 'slowThreshold' and
+     * 'optInHeader'.
+     *
+     * @param sampleRate    the fraction of the requests that are timed, between 0 and 1
+     * @param slowThreshold the duration above which the requests are logged as slow, zero disables the log
+     * @param optInHeader   the name of the request header through which clients opt in for a 'Server-Timing'
+     *                      response header, empty to disable the header
+     * @return a new {@link TimingConfig} instance from the argument values.
+     * @throws NullPointerException     for null slowThreshold or optInHeader arguments
+     * @throws IllegalArgumentException for a sample rate outside [0, 1] or a negative slow threshold
+     */
+    public static TimingConfig of(double sampleRate, Duration slowThreshold, String optInHeader) {
+        return new TimingConfig(sampleRate, slowThreshold, optInHeader);
+    }
+}
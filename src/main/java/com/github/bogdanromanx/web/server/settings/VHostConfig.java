@@ -1,6 +1,9 @@
 package com.github.bogdanromanx.web.server.settings;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Data type representing the mandatory configuration for binding a
@@ -12,20 +15,46 @@ public final class VHostConfig {
     private final int port;
     private final Path path;
     private final String dispatcher;
+    private final String transport;
+    private final List<String> warmUp;
+    private final int warmUpParallelism;
+    private final int maxConnections;
+    private final int pipelining;
 
     /**
-     * Constructs a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path' and 'dispatcher'.
+     * Constructs a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path', 'dispatcher',
+     * 'transport', 'warmUp', 'warmUpParallelism', 'maxConnections' and 'pipelining'.
      *
-     * @param host       the host to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
-     * @param port       the port to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
-     * @param path       the root location of the static resources
-     * @param dispatcher a config reference to a dispatcher configuration
+     * @param host              the host to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
+     * @param port              the port to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
+     * @param path              the root location of the static resources
+     * @param dispatcher        a config reference to a dispatcher configuration
+     * @param transport         the name of the transport that handles the connections of the vhost
+     * @param warmUp            the globs (relative to 'path') of the files loaded in memory before the vhost is bound
+     * @param warmUpParallelism the maximum number of files loaded concurrently during the warm-up
+     * @param maxConnections    the maximum number of open connections, 0 for no limit
+     * @param pipelining        the maximum number of pipelined requests of a connection handled concurrently
      */
-    private VHostConfig(String host, int port, Path path, String dispatcher) {
+    private VHostConfig(String host, int port, Path path, String dispatcher, String transport, List<String> warmUp,
+                        int warmUpParallelism, int maxConnections, int pipelining) {
+        if (warmUpParallelism < 1) {
+            throw new IllegalArgumentException("The warm-up parallelism must be positive");
+        }
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("The maximum number of connections cannot be negative");
+        }
+        if (pipelining < 1) {
+            throw new IllegalArgumentException("The pipelining parallelism must be positive");
+        }
         this.host = host;
         this.port = port;
         this.path = path;
         this.dispatcher = dispatcher;
+        this.transport = transport;
+        this.warmUp = Collections.unmodifiableList(new ArrayList<>(warmUp));
+        this.warmUpParallelism = warmUpParallelism;
+        this.maxConnections = maxConnections;
+        this.pipelining = pipelining;
     }
 
     /**
@@ -56,6 +85,44 @@ public final class VHostConfig {
         return dispatcher;
     }
 
+    /**
+     * @return the name of the transport that handles the connections of the vhost
+     */
+    public String transport() {
+        return transport;
+    }
+
+    /**
+     * @return the globs (relative to {@link VHostConfig#path()}) of the files loaded in memory before the vhost is
+     * bound; empty if the vhost is not warmed up
+     */
+    public List<String> warmUp() {
+        return warmUp;
+    }
+
+    /**
+     * @return the maximum number of files loaded concurrently during the warm-up
+     */
+    public int warmUpParallelism() {
+        return warmUpParallelism;
+    }
+
+    /**
+     * @return the maximum number of open connections, 0 for no limit; the connections over the limit are closed as
+     * soon as they are accepted
+     */
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @return the maximum number of pipelined requests of a connection handled concurrently, their responses are
+     * written in order regardless
+     */
+    public int pipelining() {
+        return pipelining;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -68,7 +135,12 @@ public final class VHostConfig {
         if (port != that.port) return false;
         if (!host.equals(that.host)) return false;
         if (!path.equals(that.path)) return false;
-        return dispatcher.equals(that.dispatcher);
+        if (!dispatcher.equals(that.dispatcher)) return false;
+        if (!transport.equals(that.transport)) return false;
+        if (warmUpParallelism != that.warmUpParallelism) return false;
+        if (maxConnections != that.maxConnections) return false;
+        if (pipelining != that.pipelining) return false;
+        return warmUp.equals(that.warmUp);
 
     }
 
@@ -81,6 +153,11 @@ public final class VHostConfig {
         result = 31 * result + port;
         result = 31 * result + path.hashCode();
         result = 31 * result + dispatcher.hashCode();
+        result = 31 * result + transport.hashCode();
+        result = 31 * result + warmUp.hashCode();
+        result = 31 * result + warmUpParallelism;
+        result = 31 * result + maxConnections;
+        result = 31 * result + pipelining;
         return result;
     }
 
@@ -94,19 +171,55 @@ public final class VHostConfig {
                 ", port=" + port +
                 ", path=" + path +
                 ", dispatcher='" + dispatcher + '\'' +
+                ", transport='" + transport + '\'' +
+                ", warmUp=" + warmUp +
+                ", warmUpParallelism=" + warmUpParallelism +
+                ", maxConnections=" + maxConnections +
+                ", pipelining=" + pipelining +
                 '}';
     }
 
     /**
-     * Constructs a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path' and 'dispatcher'.
+     * Constructs a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path', 'dispatcher',
+     * 'transport', 'warmUp' and 'warmUpParallelism'.
+     *
+     * @param host              the host to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
+     * @param port              the port to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
+     * @param path              the root location of the static resources
+     * @param dispatcher        a config reference to a dispatcher configuration
+     * @param transport         the name of the transport that handles the connections of the vhost
+     * @param warmUp            the globs (relative to 'path') of the files loaded in memory before the vhost is bound
+     * @param warmUpParallelism the maximum number of files loaded concurrently during the warm-up
+     * @return a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path', 'dispatcher',
+     * 'transport', 'warmUp' and 'warmUpParallelism', without a connection limit and handling the pipelined requests
+     * one at a time.
+     * @throws IllegalArgumentException if the warm-up parallelism is not positive
+     */
+    public static VHostConfig of(String host, int port, Path path, String dispatcher, String transport,
+                                 List<String> warmUp, int warmUpParallelism) {
+        return new VHostConfig(host, port, path, dispatcher, transport, warmUp, warmUpParallelism, 0, 1);
+    }
+
+    /**
+     * Constructs a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path', 'dispatcher',
+     * 'transport', 'warmUp', 'warmUpParallelism', 'maxConnections' and 'pipelining'.
      *
-     * @param host       the host to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
-     * @param port       the port to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
-     * @param path       the root location of the static resources
-     * @param dispatcher a config reference to a dispatcher configuration
-     * @return a new {@link VHostConfig} instance from the arguments 'host', 'port', 'path' and 'dispatcher'.
+     * @param host              the host to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
+     * @param port              the port to bind the {@link com.github.bogdanromanx.web.server.vhost.VHostHandler} to
+     * @param path              the root location of the static resources
+     * @param dispatcher        a config reference to a dispatcher configuration
+     * @param transport         the name of the transport that handles the connections of the vhost
+     * @param warmUp            the globs (relative to 'path') of the files loaded in memory before the vhost is bound
+     * @param warmUpParallelism the maximum number of files loaded concurrently during the warm-up
+     * @param maxConnections    the maximum number of open connections, 0 for no limit
+     * @param pipelining        the maximum number of pipelined requests of a connection handled concurrently
+     * @return a new {@link VHostConfig} instance from the argument values
+     * @throws IllegalArgumentException if the warm-up parallelism or the pipelining are not positive, or the maximum
+     *                                  number of connections is negative
      */
-    public static VHostConfig of(String host, int port, Path path, String dispatcher) {
-        return new VHostConfig(host, port, path, dispatcher);
+    public static VHostConfig of(String host, int port, Path path, String dispatcher, String transport,
+                                 List<String> warmUp, int warmUpParallelism, int maxConnections, int pipelining) {
+        return new VHostConfig(host, port, path, dispatcher, transport, warmUp, warmUpParallelism, maxConnections,
+                pipelining);
     }
 }
@@ -6,6 +6,7 @@ import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import akka.util.ByteString;
 
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
@@ -16,6 +17,7 @@ import static java.util.Objects.requireNonNull;
  *
  * @see HttpEntity.Strict
  * @see HttpEntity.Streaming
+ * @see HttpEntity.FileRegion
  * @see HttpEntity.Empty
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
@@ -56,6 +58,24 @@ public abstract class HttpEntity {
         return new Streaming(source, length);
     }
 
+    /**
+     * Constructs a new {@link HttpEntity.FileRegion} instance from the 'path', 'position', 'count' and 'source'
+     * arguments.
+     *
+     * @param path     the path of the file that holds the bytes of the entity
+     * @param position the offset within the file of the first byte of the entity
+     * @param count    the number of bytes of the entity
+     * @param source   the source of bytes of the region, used by the writers that cannot transfer the region directly
+     *                 from the file; should NOT be consumed
+     * @return a new {@link HttpEntity.FileRegion} instance from the argument values.
+     * @throws NullPointerException     if the path or the source arguments are null
+     * @throws IllegalArgumentException if the position or count values are smaller than 0
+     * @see HttpEntity.FileRegion
+     */
+    public static HttpEntity.FileRegion fileRegion(Path path, long position, long count, Source<ByteString, ?> source) {
+        return new FileRegion(path, position, count, source);
+    }
+
     /**
      * @return a reference to the {@link HttpEntity.Empty} singleton.
      * @see HttpEntity.Empty
@@ -221,6 +241,111 @@ public abstract class HttpEntity {
         }
     }
 
+    /**
+     * <p>
+     * {@link HttpEntity} implementation for entities backed by a region of a file.  Writers that have direct access to
+     * the connection channel can transfer the region from the file without copying the bytes into user space (i.e.:
+     * via {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}), while
+     * the other writers consume the {@link HttpEntity.FileRegion#source()} like for {@link HttpEntity.Streaming}
+     * entities.
+     * </p>
+     * <p>
+     * Instances can be constructed via {@link HttpEntity#fileRegion(Path, long, long, Source)}.
+     * </p>
+     */
+    public static final class FileRegion extends HttpEntity {
+
+        private final Path path;
+        private final long position;
+        private final long count;
+        private final Source<ByteString, ?> source;
+
+        /**
+         * Constructs a new {@link HttpEntity.FileRegion} instance from the argument values.
+         *
+         * @param path     the path of the file that holds the bytes of the entity
+         * @param position the offset within the file of the first byte of the entity
+         * @param count    the number of bytes of the entity
+         * @param source   the source of bytes of the region
+         * @throws NullPointerException     if the path or the source arguments are null
+         * @throws IllegalArgumentException if the position or count values are smaller than 0
+         */
+        private FileRegion(Path path, long position, long count, Source<ByteString, ?> source) {
+            this.path = requireNonNull(path, "HttpEntity.FileRegion path argument cannot be null");
+            this.source = requireNonNull(source, "HttpEntity.FileRegion source argument cannot be null");
+            this.position = position;
+            this.count = count;
+            if (this.position < 0) {
+                throw new IllegalArgumentException("HttpEntity.FileRegion position value must be >= 0");
+            }
+            if (this.count < 0) {
+                throw new IllegalArgumentException("HttpEntity length value must be >= 0");
+            }
+        }
+
+        /**
+         * @return the path of the file that holds the bytes of this entity.
+         */
+        public Path path() {
+            return path;
+        }
+
+        /**
+         * @return the offset within the file of the first byte of this entity.
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * @return a reference to the source of bytes of this entity.
+         */
+        public Source<ByteString, ?> source() {
+            return source;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long length() {
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "HttpEntity.FileRegion{path=" + path + ", position=" + position + ", length=" + count + '}';
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @SuppressWarnings("SimplifiableIfStatement")
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FileRegion that = (FileRegion) o;
+            if (position != that.position) return false;
+            if (count != that.count) return false;
+            return path.equals(that.path);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (int) (position ^ (position >>> 32));
+            result = 31 * result + (int) (count ^ (count >>> 32));
+            return result;
+        }
+    }
+
     /**
      * {@link HttpEntity} implementation of no bytes and zero length.
      */
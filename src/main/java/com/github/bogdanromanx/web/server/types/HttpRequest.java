@@ -25,6 +25,10 @@ public final class HttpRequest {
      * The {@link HttpEntity} of this {@link HttpRequest}.
      */
     private final HttpEntity entity;
+    /**
+     * The {@link RequestTiming} of this {@link HttpRequest}, null if the request is not timed.
+     */
+    private final RequestTiming timing;
 
     /**
      * Constructs a new {@link HttpRequest} instance from the 'requestLine', 'headers' and 'entity' arguments.
@@ -35,10 +39,12 @@ public final class HttpRequest {
      * @param entity      the {@link HttpEntity} of the newly constructed {@link HttpRequest}
      * @throws NullPointerException if any of the arguments are null.
      */
-    private HttpRequest(RequestLine requestLine, Collection<RawHeader> headers, HttpEntity entity) {
+    private HttpRequest(RequestLine requestLine, Collection<RawHeader> headers, HttpEntity entity,
+                        RequestTiming timing) {
         this.requestLine = requireNonNull(requestLine, "The RequestLine cannot be null");
         this.headers = new LinkedList<>(requireNonNull(headers, "The RawHeader collection cannot be null"));
         this.entity = requireNonNull(entity, "The HttpEntity cannot be null");
+        this.timing = timing;
     }
 
     /**
@@ -62,6 +68,14 @@ public final class HttpRequest {
         return entity;
     }
 
+    /**
+     * @return the {@link RequestTiming} of this {@link HttpRequest}, if the request is timed (sampled or opted in by
+     * the client).
+     */
+    public Optional<RequestTiming> timing() {
+        return Optional.ofNullable(timing);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -103,7 +117,7 @@ public final class HttpRequest {
      * @throws NullPointerException if any of the arguments are null.
      */
     public static HttpRequest of(RequestLine requestLine, Collection<RawHeader> headers, HttpEntity entity) {
-        return new HttpRequest(requestLine, headers, entity);
+        return new HttpRequest(requestLine, headers, entity, null);
     }
 
     /**
@@ -128,6 +142,7 @@ public final class HttpRequest {
         private RequestLine requestLine;
         private List<RawHeader> headers = new LinkedList<>();
         private HttpEntity entity;
+        private RequestTiming timing;
 
         private Builder() {
         }
@@ -196,14 +211,26 @@ public final class HttpRequest {
         }
 
         /**
-         * Builds a new {@link HttpRequest} instance using the 'requestLine', 'headers' and 'entity' values accumulated
-         * within this instance's state.
+         * Sets the argument 'timing' as the {@link RequestTiming} of the future {@link HttpRequest} instance to be
+         * built; the timing is shared, not copied.
+         *
+         * @param timing the timing of the future {@link HttpRequest} instance, null for a request that is not timed
+         * @return <code>this</code> instance
+         */
+        public Builder timing(RequestTiming timing) {
+            this.timing = timing;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link HttpRequest} instance using the 'requestLine', 'headers', 'entity' and 'timing' values
+         * accumulated within this instance's state.
          *
          * @return a new {@link HttpRequest} instance
          * @throws NullPointerException if any of the fields for the target {@link HttpRequest} are unset (null).
          */
         public HttpRequest build() {
-            return of(requestLine, headers, entity);
+            return new HttpRequest(requestLine, headers, entity, timing);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.github.bogdanromanx.web.server.types;
 
+import akka.util.ByteString;
 import com.github.bogdanromanx.web.server.types.headers.ContentLength;
 import com.github.bogdanromanx.web.server.types.headers.RawHeader;
 
@@ -13,6 +14,11 @@ import static java.util.Objects.requireNonNull;
 /**
  * Data type representing an http message from a server to a client.  It wraps around a {@link StatusCode}, a list of
  * {@link RawHeader} and a {@link HttpEntity}.
+ * <p>
+ * The encoded status line and headers of a response are rendered once per protocol and reused, so that responses
+ * shared across requests (i.e.: prebuilt '404 Not Found' or '304 Not Modified' responses) are written without
+ * encoding them again.
+ * </p>
  */
 public final class HttpResponse {
     /**
@@ -27,6 +33,10 @@ public final class HttpResponse {
      * The {@link HttpEntity} of this {@link HttpResponse}.
      */
     private final HttpEntity entity;
+    /**
+     * The encoded status line and headers of this {@link HttpResponse}, indexed by {@link HttpProtocol} ordinal.
+     */
+    private final ByteString[] heads;
 
     /**
      * Constructs a new {@link HttpResponse} instance from the 'statusCode', 'headers' and 'entity' arguments.
@@ -41,6 +51,14 @@ public final class HttpResponse {
         this.statusCode = requireNonNull(statusCode, "The StatusCode cannot be null");
         this.headers = new LinkedList<>(requireNonNull(headers, "The RawHeader collection cannot be null"));
         this.entity = requireNonNull(entity, "The HttpEntity cannot be null");
+        this.heads = new ByteString[HttpProtocol.values().length];
+    }
+
+    private HttpResponse(HttpResponse response, HttpEntity entity) {
+        this.statusCode = response.statusCode;
+        this.headers = response.headers;
+        this.entity = entity;
+        this.heads = response.heads;
     }
 
     /**
@@ -64,6 +82,50 @@ public final class HttpResponse {
         return entity;
     }
 
+    /**
+     * Returns the status line and the headers of this response encoded for the argument 'protocol', including the
+     * empty line that separates them from the entity.  The bytes are rendered on first use and reused afterwards.
+     *
+     * @param protocol the http protocol of the request this response responds to
+     * @return the status line and header bytes of this response
+     */
+    public ByteString head(HttpProtocol protocol) {
+        ByteString head = heads[protocol.ordinal()];
+        if (head == null) {
+            // ByteStrings are immutable, a concurrent first use renders the same bytes twice at worst
+            head = render(protocol);
+            heads[protocol.ordinal()] = head;
+        }
+        return head;
+    }
+
+    /**
+     * Constructs a new {@link HttpResponse} with the status code and the headers of this response, and the argument
+     * 'entity'.  The new response shares the encoded head of this response, so the entity must have the same length.
+     *
+     * @param entity the {@link HttpEntity} of the new response
+     * @return a new {@link HttpResponse} with the argument 'entity'
+     * @throws NullPointerException     for a null entity
+     * @throws IllegalArgumentException if the entity length differs from the length of the entity of this response
+     */
+    public HttpResponse withEntity(HttpEntity entity) {
+        if (requireNonNull(entity, "The HttpEntity cannot be null").length() != this.entity.length()) {
+            throw new IllegalArgumentException("The HttpEntity length must match the length of the response entity");
+        }
+        return new HttpResponse(this, entity);
+    }
+
+    private ByteString render(HttpProtocol protocol) {
+        StringBuilder sb = new StringBuilder(64 + 32 * headers.size())
+                .append(protocol).append(' ')
+                .append(statusCode.value()).append(' ')
+                .append(statusCode.name()).append("\r\n");
+        for (RawHeader h : headers) {
+            sb.append(h.name()).append(':').append(h.value()).append("\r\n");
+        }
+        return ByteString.fromString(sb.append("\r\n").toString());
+    }
+
     /**
      * {@inheritDoc}
      */
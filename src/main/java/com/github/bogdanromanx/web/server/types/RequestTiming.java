@@ -0,0 +1,207 @@
+package com.github.bogdanromanx.web.server.types;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * <p>
+ * Monotonic timestamps ({@link System#nanoTime()}) of the stage boundaries crossed by a request, from the moment its
+ * first bytes were read until its response was written.  The timestamps are recorded by the stages of the processing
+ * flow in order, each one handing the request over to the next, so they are never written concurrently.  The
+ * boundaries delimit the stages reported by {@link RequestTiming#toString()} and
+ * {@link RequestTiming#serverTiming()}:
+ * </p>
+ * <ul>
+ * <li>read: from the first to the last bytes of the request head being read (waiting for bytes)</li>
+ * <li>framing: from the last bytes of the head being read to the request being folded</li>
+ * <li>queue: from the request being folded to the handler being applied</li>
+ * <li>handler: from the handler being applied to its response being ready</li>
+ * <li>compression: from the response of the handler to the compressed response being ready</li>
+ * <li>entity: from the compressed response to the unread request entity being discarded</li>
+ * <li>write: from the response being ready to its last bytes being written</li>
+ * </ul>
+ * <p>
+ * A stage is reported only when both its boundaries were recorded, i.e.: the read and framing stages are unknown for
+ * the requests timed because their clients opted in, after the head was read.  Unlike the other types of this package
+ * {@link RequestTiming} is mutable; it is not part of the equality of the {@link HttpRequest} that carries it.
+ * </p>
+ */
+public final class RequestTiming {
+
+    private static final long UNSET = Long.MIN_VALUE;
+    private static final String[] STAGES = {"read", "framing", "queue", "handler", "compression", "entity", "write"};
+
+    private static final int RECEIVED = 0;
+    private static final int HEAD_READ = 1;
+    private static final int PARSED = 2;
+    private static final int HANDLER_STARTED = 3;
+    private static final int HANDLED = 4;
+    private static final int COMPRESSED = 5;
+    private static final int READY = 6;
+    private static final int WRITTEN = 7;
+
+    private final long[] marks = new long[STAGES.length + 1];
+
+    private RequestTiming() {
+        Arrays.fill(marks, UNSET);
+    }
+
+    /**
+     * @param nanos the timestamp at which the first bytes of the request were read
+     * @return <code>this</code> instance
+     */
+    public RequestTiming received(long nanos) {
+        marks[RECEIVED] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the last bytes of the request head were read
+     * @return <code>this</code> instance
+     */
+    public RequestTiming headRead(long nanos) {
+        marks[HEAD_READ] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the request head was folded into an {@link HttpRequest}
+     * @return <code>this</code> instance
+     */
+    public RequestTiming parsed(long nanos) {
+        marks[PARSED] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the handler was applied to the request
+     * @return <code>this</code> instance
+     */
+    public RequestTiming handlerStarted(long nanos) {
+        marks[HANDLER_STARTED] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the response of the handler was ready
+     * @return <code>this</code> instance
+     */
+    public RequestTiming handled(long nanos) {
+        marks[HANDLED] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the compressed response was ready
+     * @return <code>this</code> instance
+     */
+    public RequestTiming compressed(long nanos) {
+        marks[COMPRESSED] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the request entity was read and the response was ready to be written
+     * @return <code>this</code> instance
+     */
+    public RequestTiming ready(long nanos) {
+        marks[READY] = nanos;
+        return this;
+    }
+
+    /**
+     * @param nanos the timestamp at which the last bytes of the response were written
+     * @return <code>this</code> instance
+     */
+    public RequestTiming written(long nanos) {
+        marks[WRITTEN] = nanos;
+        return this;
+    }
+
+    /**
+     * @return the nanoseconds elapsed between the first and the last recorded boundaries, 0 if fewer than two
+     * boundaries were recorded
+     */
+    public long totalNanos() {
+        long first = UNSET;
+        long last = UNSET;
+        for (long mark : marks) {
+            if (mark != UNSET) {
+                if (first == UNSET) {
+                    first = mark;
+                }
+                last = mark;
+            }
+        }
+        return first == UNSET ? 0 : last - first;
+    }
+
+    /**
+     * Returns the nanoseconds spent in the argument 'stage', one of "read", "framing", "queue", "handler",
+     * "compression", "entity" or "write".
+     *
+     * @param stage the name of the stage
+     * @return the nanoseconds spent in the stage, -1 if either of its boundaries was not recorded
+     * @throws IllegalArgumentException for an unknown stage name
+     */
+    public long stageNanos(String stage) {
+        for (int i = 0; i < STAGES.length; i++) {
+            if (STAGES[i].equals(stage)) {
+                return stageNanos(i);
+            }
+        }
+        throw new IllegalArgumentException("Unknown request stage '" + stage + "'");
+    }
+
+    private long stageNanos(int stage) {
+        long from = marks[stage];
+        long to = marks[stage + 1];
+        return from == UNSET || to == UNSET ? -1 : to - from;
+    }
+
+    /**
+     * Renders the value of a 'Server-Timing' response header from the stages recorded so far, with the durations in
+     * milliseconds, i.e.: "queue;dur=0.041, handler;dur=1.250, compression;dur=0.310, entity;dur=0.002".
+     *
+     * @return the value of a 'Server-Timing' response header
+     */
+    public String serverTiming() {
+        StringBuilder sb = new StringBuilder(128);
+        for (int i = 0; i < STAGES.length; i++) {
+            long nanos = stageNanos(i);
+            if (nanos >= 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(STAGES[i]).append(";dur=").append(millis(nanos));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000d);
+    }
+
+    /**
+     * @return a new {@link RequestTiming} instance without any recorded boundary
+     */
+    public static RequestTiming of() {
+        return new RequestTiming();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RequestTiming{total=").append(millis(totalNanos())).append("ms");
+        for (int i = 0; i < STAGES.length; i++) {
+            long nanos = stageNanos(i);
+            if (nanos >= 0) {
+                sb.append(", ").append(STAGES[i]).append('=').append(millis(nanos)).append("ms");
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -85,11 +85,26 @@ public final class StatusCode {
      */
     public static final StatusCode OK = of("OK", 200);
 
+    /**
+     * HTTP 206 Partial Content
+     */
+    public static final StatusCode PARTIAL_CONTENT = of("Partial Content", 206);
+
+    /**
+     * HTTP 304 Not Modified
+     */
+    public static final StatusCode NOT_MODIFIED = of("Not Modified", 304);
+
     /**
      * HTTP 404 Not Found
      */
     public static final StatusCode NOT_FOUND = of("Not Found", 404);
 
+    /**
+     * HTTP 416 Range Not Satisfiable
+     */
+    public static final StatusCode RANGE_NOT_SATISFIABLE = of("Range Not Satisfiable", 416);
+
     /**
      * Http 500 Internal Server Error
      */
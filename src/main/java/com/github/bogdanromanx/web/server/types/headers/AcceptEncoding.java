@@ -0,0 +1,189 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'Accept-Encoding' header type definition.  The value of the header maps the content codings accepted by the
+ * client (lower cased) to their quality values.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class AcceptEncoding implements HttpHeader<Map<String, Float>> {
+
+    /**
+     * The constant name of the {@link AcceptEncoding} header.
+     */
+    public static final String NAME = "Accept-Encoding";
+
+    /**
+     * The constant lower cased name of the {@link AcceptEncoding} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    /**
+     * The constant 'identity' content coding (no encoding).
+     */
+    public static final String IDENTITY = "identity";
+
+    /**
+     * The constant wildcard content coding, which matches the codings not explicitly listed.
+     */
+    public static final String ANY = "*";
+
+    private final Map<String, Float> codings;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link AcceptEncoding} header instance from the 'codings' argument.
+     *
+     * @param codings the content codings mapped to their quality values
+     * @throws NullPointerException     if the codings map is null
+     * @throws IllegalArgumentException for quality values outside [0, 1]
+     */
+    private AcceptEncoding(Map<String, Float> codings) {
+        Map<String, Float> copy = new LinkedHashMap<>();
+        requireNonNull(codings).forEach((coding, q) -> {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Accept-Encoding quality values must be within [0, 1]");
+            }
+            copy.put(coding.trim().toLowerCase(), q);
+        });
+        this.codings = Collections.unmodifiableMap(copy);
+        this.raw = RawHeader.of(NAME, this.codings.entrySet().stream()
+                .map(e -> e.getValue() == 1f ? e.getKey() : e.getKey() + ";q=" + e.getValue())
+                .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Float> value() {
+        return codings;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * Resolves the quality value of the argument 'coding' as per RFC 7231, section 5.3.4: an explicitly listed coding
+     * has its own value, otherwise the '*' wildcard applies; 'identity' is acceptable unless explicitly excluded.
+     *
+     * @param coding a content coding, i.e.: 'gzip'
+     * @return the quality value of the coding, 0 meaning not acceptable
+     */
+    public float quality(String coding) {
+        String key = coding.toLowerCase();
+        Float q = codings.get(key);
+        if (q != null) {
+            return q;
+        }
+        q = codings.get(ANY);
+        if (q != null) {
+            return q;
+        }
+        return key.equals(IDENTITY) ? 1f : 0f;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AcceptEncoding that = (AcceptEncoding) o;
+        return codings.equals(that.codings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return codings.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "AcceptEncoding{value='" + raw.value() + "'}";
+    }
+
+    /**
+     * Constructs a new {@link AcceptEncoding} header instance from the 'codings' argument.
+     *
+     * @param codings the content codings mapped to their quality values
+     * @throws NullPointerException     if the codings map is null
+     * @throws IllegalArgumentException for quality values outside [0, 1]
+     */
+    public static AcceptEncoding of(Map<String, Float> codings) {
+        return new AcceptEncoding(codings);
+    }
+
+    /**
+     * Attempts to construct a new {@link AcceptEncoding} instance from the 'raw' header argument.  Elements with
+     * malformed quality values are ignored.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link AcceptEncoding}, inhabited if the lowercase name of the argument header
+     * equals to the lowercase name constant of the {@link AcceptEncoding} header, uninhabited otherwise.
+     */
+    public static Optional<AcceptEncoding> of(RawHeader raw) {
+        if (!raw.lowerCaseName().equals(LOWERCASE_NAME)) {
+            return Optional.empty();
+        }
+        Map<String, Float> codings = new LinkedHashMap<>();
+        for (String element : raw.value().split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            if (coding.isEmpty()) {
+                continue;
+            }
+            float q = 1f;
+            if (parts.length > 1) {
+                String param = parts[1].trim();
+                if (!param.startsWith("q=") && !param.startsWith("Q=")) {
+                    continue;
+                }
+                try {
+                    q = Float.parseFloat(param.substring(2));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (q < 0 || q > 1) {
+                    continue;
+                }
+            }
+            codings.put(coding.toLowerCase(), q);
+        }
+        return Optional.of(AcceptEncoding.of(codings));
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'Content-Encoding' header type definition.  The value of the header is the content coding applied to the
+ * representation, i.e.: 'gzip'.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ContentEncoding implements HttpHeader<String> {
+
+    /**
+     * The constant name of the {@link ContentEncoding} header.
+     */
+    public static final String NAME = "Content-Encoding";
+
+    /**
+     * The constant lower cased name of the {@link ContentEncoding} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    private final String value;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link ContentEncoding} instance from the 'value' argument.
+     *
+     * @param value the content coding of the representation
+     * @throws NullPointerException     for null value argument
+     * @throws IllegalArgumentException for values consisting of only whitespace
+     */
+    private ContentEncoding(String value) {
+        this.value = requireNonNull(value, "Content-Encoding value cannot be null").trim();
+        if (this.value.isEmpty()) {
+            throw new IllegalArgumentException("Content-Encoding value cannot be a whitespace only string");
+        }
+        raw = RawHeader.of(NAME, this.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String value() {
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContentEncoding that = (ContentEncoding) o;
+        return value.equals(that.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ContentEncoding{value='" + value + "'}";
+    }
+
+    /**
+     * Constructs a new {@link ContentEncoding} instance from the 'value' argument.
+     *
+     * @param value the content coding of the representation
+     * @throws NullPointerException     for null value argument
+     * @throws IllegalArgumentException for values consisting of only whitespace
+     */
+    public static ContentEncoding of(String value) {
+        return new ContentEncoding(value);
+    }
+
+    /**
+     * Attempts to construct a new {@link ContentEncoding} header from the argument {@link RawHeader}.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link ContentEncoding}, inhabited if the lowercase name of the argument header
+     * equals to the lowercase name constant of the {@link ContentEncoding} header and the value is not empty,
+     * uninhabited otherwise.
+     */
+    public static Optional<ContentEncoding> of(RawHeader raw) {
+        if (LOWERCASE_NAME.equals(raw.lowerCaseName())) {
+            try {
+                return Optional.of(ContentEncoding.of(raw.value()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Constant {@link ContentEncoding} instance for 'gzip'.
+     */
+    public static final ContentEncoding GZIP = ContentEncoding.of("gzip");
+
+    /**
+     * Constant {@link ContentEncoding} instance for 'br'.
+     */
+    public static final ContentEncoding BR = ContentEncoding.of("br");
+
+    /**
+     * Constant {@link ContentEncoding} instance for 'deflate'.
+     */
+    public static final ContentEncoding DEFLATE = ContentEncoding.of("deflate");
+}
@@ -0,0 +1,138 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+/**
+ * Http 'Content-Range' header type definition, for the 'bytes' range unit.  The header describes either the range of
+ * bytes enclosed by a '206 Partial Content' response or, in its unsatisfied form ('bytes *&#47;size'), the size of the
+ * representation for a '416 Range Not Satisfiable' response.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ContentRange implements HttpHeader<String> {
+
+    /**
+     * The constant name of the {@link ContentRange} header.
+     */
+    public static final String NAME = "Content-Range";
+
+    /**
+     * The constant lower cased name of the {@link ContentRange} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    private final long first;
+    private final long last;
+    private final long size;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link ContentRange} instance; a negative 'first' offset denotes an unsatisfied range.
+     */
+    private ContentRange(long first, long last, long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Content-Range size must be positive");
+        }
+        if (first >= 0 && (last < first || last >= size)) {
+            throw new IllegalArgumentException("Content-Range offsets must be ordered and smaller than the size");
+        }
+        this.first = first;
+        this.last = last;
+        this.size = size;
+        String range = first < 0 ? "*" : first + "-" + last;
+        raw = RawHeader.of(NAME, Range.BYTES + " " + range + "/" + size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String value() {
+        return raw.value();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * @return <code>true</code> if this header describes an unsatisfied range, <code>false</code> otherwise
+     */
+    public boolean isUnsatisfied() {
+        return first < 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContentRange that = (ContentRange) o;
+        return first == that.first && last == that.last && size == that.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = (int) (first ^ (first >>> 32));
+        result = 31 * result + (int) (last ^ (last >>> 32));
+        result = 31 * result + (int) (size ^ (size >>> 32));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ContentRange{value='" + raw.value() + "'}";
+    }
+
+    /**
+     * Constructs a new {@link ContentRange} instance for the enclosed range of bytes 'first'-'last'.
+     *
+     * @param first the offset of the first byte in the range
+     * @param last  the offset of the last byte in the range (inclusive)
+     * @param size  the size in bytes of the complete representation
+     * @throws IllegalArgumentException for negative values, unordered offsets or offsets beyond the size
+     */
+    public static ContentRange of(long first, long last, long size) {
+        if (first < 0) {
+            throw new IllegalArgumentException("Content-Range offsets must be positive");
+        }
+        return new ContentRange(first, last, size);
+    }
+
+    /**
+     * Constructs a new unsatisfied {@link ContentRange} instance, i.e.: 'bytes *&#47;size'.
+     *
+     * @param size the size in bytes of the complete representation
+     * @throws IllegalArgumentException for negative sizes
+     */
+    public static ContentRange unsatisfied(long size) {
+        return new ContentRange(-1, -1, size);
+    }
+}
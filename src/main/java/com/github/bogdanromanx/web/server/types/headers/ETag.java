@@ -0,0 +1,188 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'ETag' header type definition.  The value of the header is a complete entity tag, including the double quotes
+ * and the optional weakness indicator, i.e.: '"xyzzy"' or 'W/"xyzzy"'.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ETag implements HttpHeader<String> {
+
+    /**
+     * The constant name of the {@link ETag} header.
+     */
+    public static final String NAME = "ETag";
+
+    /**
+     * The constant lower cased name of the {@link ETag} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final String value;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link ETag} instance from the 'value' argument.
+     *
+     * @param value the entity tag
+     * @throws NullPointerException     for null value argument
+     * @throws IllegalArgumentException for values that are not well formed entity tags
+     */
+    private ETag(String value) {
+        this.value = requireNonNull(value, "ETag value cannot be null").trim();
+        if (!isEntityTag(this.value)) {
+            throw new IllegalArgumentException("ETag value must be a quoted string, optionally prefixed by 'W/'");
+        }
+        raw = RawHeader.of(NAME, this.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String value() {
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * @return <code>true</code> if this is a weak entity tag, <code>false</code> otherwise
+     */
+    public boolean isWeak() {
+        return value.startsWith(WEAK_PREFIX);
+    }
+
+    /**
+     * @return the weak version of this entity tag, i.e.: the tag of a content coded variant of the representation
+     */
+    public ETag weak() {
+        return isWeak() ? this : new ETag(WEAK_PREFIX + value);
+    }
+
+    /**
+     * Weak comparison (RFC 7232, section 2.3.2): the opaque tags are equal, regardless of their weakness.
+     *
+     * @param tag an entity tag, i.e.: the value of an 'If-None-Match' list element
+     * @return <code>true</code> if the argument tag weakly matches this tag, <code>false</code> otherwise
+     */
+    public boolean weaklyMatches(String tag) {
+        return opaque(value).equals(opaque(tag.trim()));
+    }
+
+    /**
+     * Strong comparison (RFC 7232, section 2.3.2): both tags are strong and equal.
+     *
+     * @param tag an entity tag, i.e.: the value of an 'If-Range' header
+     * @return <code>true</code> if the argument tag strongly matches this tag, <code>false</code> otherwise
+     */
+    public boolean stronglyMatches(String tag) {
+        return !isWeak() && value.equals(tag.trim());
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    private static boolean isEntityTag(String value) {
+        String tag = opaque(value);
+        return tag.length() >= 2 && tag.charAt(0) == '"' && tag.indexOf('"', 1) == tag.length() - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ETag that = (ETag) o;
+        return value.equals(that.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ETag{value='" + value + "'}";
+    }
+
+    /**
+     * Constructs a new {@link ETag} instance from the 'value' argument.
+     *
+     * @param value the entity tag, including the double quotes and the optional weakness indicator
+     * @throws NullPointerException     for null value argument
+     * @throws IllegalArgumentException for values that are not well formed entity tags
+     */
+    public static ETag of(String value) {
+        return new ETag(value);
+    }
+
+    /**
+     * Constructs a new strong {@link ETag} instance by quoting the argument 'opaqueTag'.
+     *
+     * @param opaqueTag the unquoted tag; must not contain double quotes
+     * @throws NullPointerException     for null opaqueTag argument
+     * @throws IllegalArgumentException for tags containing double quotes
+     */
+    public static ETag strong(String opaqueTag) {
+        return new ETag("\"" + requireNonNull(opaqueTag, "ETag value cannot be null") + "\"");
+    }
+
+    /**
+     * Attempts to construct a new {@link ETag} header from the argument {@link RawHeader}.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link ETag}, inhabited if the lowercase name of the argument header equals to the
+     * lowercase name constant of the {@link ETag} header and the value is a well formed entity tag, uninhabited
+     * otherwise.
+     */
+    public static Optional<ETag> of(RawHeader raw) {
+        if (LOWERCASE_NAME.equals(raw.lowerCaseName())) {
+            try {
+                return Optional.of(ETag.of(raw.value()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+}
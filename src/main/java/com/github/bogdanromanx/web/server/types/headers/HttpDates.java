@@ -0,0 +1,41 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Formatting and parsing of http dates (RFC 7231, section 7.1.1.1), shared by the date valued headers.  Dates are
+ * always formatted in the preferred IMF-fixdate format; only the IMF-fixdate format is accepted when parsing.
+ */
+final class HttpDates {
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private HttpDates() {
+    }
+
+    /**
+     * @return the IMF-fixdate representation of the argument 'instant', i.e.: 'Sun, 06 Nov 1994 08:49:37 GMT'
+     */
+    static String format(Instant instant) {
+        return FORMATTER.format(instant);
+    }
+
+    /**
+     * @return an {@link Optional} {@link Instant}, inhabited if the argument 'value' is a valid IMF-fixdate (two digit
+     * day, 'GMT' zone and a day of the week matching the date), uninhabited otherwise
+     */
+    static Optional<Instant> parse(String value) {
+        try {
+            return Optional.of(ZonedDateTime.parse(value.trim(), FORMATTER).toInstant());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
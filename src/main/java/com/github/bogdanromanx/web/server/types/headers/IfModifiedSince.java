@@ -0,0 +1,134 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'If-Modified-Since' header type definition.  The representation is to be sent only if it was modified after
+ * the date of the header.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class IfModifiedSince implements HttpHeader<Instant> {
+
+    /**
+     * The constant name of the {@link IfModifiedSince} header.
+     */
+    public static final String NAME = "If-Modified-Since";
+
+    /**
+     * The constant lower cased name of the {@link IfModifiedSince} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    private final Instant value;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link IfModifiedSince} instance from the 'value' argument.
+     *
+     * @param value the date of the representation held by the client
+     * @throws NullPointerException for null value argument
+     */
+    private IfModifiedSince(Instant value) {
+        this.value = requireNonNull(value, "If-Modified-Since value cannot be null").truncatedTo(ChronoUnit.SECONDS);
+        raw = RawHeader.of(NAME, HttpDates.format(this.value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Instant value() {
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * @param lastModified the modification date of the current representation
+     * @return <code>true</code> if the argument date is after the date of this header (at a resolution of a second),
+     * <code>false</code> otherwise
+     */
+    public boolean isModified(Instant lastModified) {
+        return lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IfModifiedSince that = (IfModifiedSince) o;
+        return value.equals(that.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "IfModifiedSince{value='" + raw.value() + "'}";
+    }
+
+    /**
+     * Constructs a new {@link IfModifiedSince} instance from the 'value' argument.
+     *
+     * @param value the date of the representation held by the client
+     * @throws NullPointerException for null value argument
+     */
+    public static IfModifiedSince of(Instant value) {
+        return new IfModifiedSince(value);
+    }
+
+    /**
+     * Attempts to construct a new {@link IfModifiedSince} header from the argument {@link RawHeader}.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link IfModifiedSince}, inhabited if the lowercase name of the argument header equals
+     * to the lowercase name constant of the {@link IfModifiedSince} header and the value is a valid http date,
+     * uninhabited otherwise.
+     */
+    public static Optional<IfModifiedSince> of(RawHeader raw) {
+        if (LOWERCASE_NAME.equals(raw.lowerCaseName())) {
+            return HttpDates.parse(raw.value()).map(IfModifiedSince::of);
+        }
+        return Optional.empty();
+    }
+}
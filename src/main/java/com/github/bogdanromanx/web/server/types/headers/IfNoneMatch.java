@@ -0,0 +1,152 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'If-None-Match' header type definition.  The value of the header is either the list of entity tags held by the
+ * client or the '*' wildcard, which matches any current representation.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class IfNoneMatch implements HttpHeader<List<String>> {
+
+    /**
+     * The constant name of the {@link IfNoneMatch} header.
+     */
+    public static final String NAME = "If-None-Match";
+
+    /**
+     * The constant lower cased name of the {@link IfNoneMatch} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    /**
+     * The constant wildcard value of the {@link IfNoneMatch} header.
+     */
+    public static final String ANY = "*";
+
+    private final List<String> tags;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link IfNoneMatch} header instance from the 'tags' collection argument.
+     *
+     * @param tags the collection of entity tags, or a single '*' element
+     * @throws NullPointerException     if the tag collection is null
+     * @throws IllegalArgumentException if the tag collection is empty
+     */
+    private IfNoneMatch(Collection<String> tags) {
+        this.tags = Collections.unmodifiableList(requireNonNull(tags)
+                .stream()
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.toList()));
+        if (this.tags.isEmpty()) {
+            throw new IllegalArgumentException("The If-None-Match tags must contain at least a tag");
+        }
+        this.raw = RawHeader.of(NAME, this.tags.stream().collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> value() {
+        return tags;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * @param etag the entity tag of the current representation
+     * @return <code>true</code> if any of the tags of this header weakly matches the argument 'etag', or if this header
+     * is the '*' wildcard, <code>false</code> otherwise
+     */
+    public boolean matches(ETag etag) {
+        return tags.stream().anyMatch(t -> t.equals(ANY) || etag.weaklyMatches(t));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IfNoneMatch that = (IfNoneMatch) o;
+        return tags.equals(that.tags);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return tags.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "IfNoneMatch{tags=[" + raw.value() + "]}";
+    }
+
+    /**
+     * Constructs a new {@link IfNoneMatch} header instance from the 'tags' collection argument.
+     *
+     * @param tags the collection of entity tags, or a single '*' element
+     * @throws NullPointerException     if the tag collection is null
+     * @throws IllegalArgumentException if the tag collection is empty
+     */
+    public static IfNoneMatch of(Collection<String> tags) {
+        return new IfNoneMatch(tags);
+    }
+
+    /**
+     * Attempts to construct a new {@link IfNoneMatch} instance from the 'raw' header argument by splitting the header
+     * value into a list of entity tags.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link IfNoneMatch}, inhabited if the lowercase name of the argument header equals
+     * to the lowercase name constant of the {@link IfNoneMatch} header and the value holds at least a tag, uninhabited
+     * otherwise.
+     */
+    public static Optional<IfNoneMatch> of(RawHeader raw) {
+        if (raw.lowerCaseName().equals(LOWERCASE_NAME)) {
+            try {
+                return Optional.of(IfNoneMatch.of(Arrays.asList(raw.value().split(","))));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+}
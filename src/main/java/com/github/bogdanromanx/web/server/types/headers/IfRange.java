@@ -0,0 +1,150 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'If-Range' header type definition.  The value of the header is either an entity tag or an http date; the
+ * requested ranges are to be served only if the validator matches the current representation.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class IfRange implements HttpHeader<String> {
+
+    /**
+     * The constant name of the {@link IfRange} header.
+     */
+    public static final String NAME = "If-Range";
+
+    /**
+     * The constant lower cased name of the {@link IfRange} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    private final String value;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link IfRange} instance from the 'value' argument.
+     *
+     * @param value the value of the header, an entity tag or an http date
+     * @throws NullPointerException     for null value argument
+     * @throws IllegalArgumentException for values consisting of only whitespace
+     */
+    private IfRange(String value) {
+        this.value = requireNonNull(value, "If-Range value cannot be null").trim();
+        if (this.value.isEmpty()) {
+            throw new IllegalArgumentException("If-Range value cannot be a whitespace only string");
+        }
+        raw = RawHeader.of(NAME, this.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String value() {
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * @return <code>true</code> if the value of the header is an entity tag, <code>false</code> if it's a date
+     */
+    public boolean isEntityTag() {
+        return value.endsWith("\"");
+    }
+
+    /**
+     * @return an {@link Optional} {@link Instant}, inhabited if the value of the header is a valid http date,
+     * uninhabited otherwise
+     */
+    public Optional<Instant> date() {
+        if (isEntityTag()) {
+            return Optional.empty();
+        }
+        return HttpDates.parse(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IfRange that = (IfRange) o;
+        return value.equals(that.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "IfRange{value='" + value + "'}";
+    }
+
+    /**
+     * Constructs a new {@link IfRange} instance from the 'value' argument.
+     *
+     * @param value the value of the header, an entity tag or an http date
+     * @throws NullPointerException     for null value argument
+     * @throws IllegalArgumentException for values consisting of only whitespace
+     */
+    public static IfRange of(String value) {
+        return new IfRange(value);
+    }
+
+    /**
+     * Attempts to construct a new {@link IfRange} header from the argument {@link RawHeader}.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link IfRange}, inhabited if the lowercase name of the argument header equals to
+     * the lowercase name constant of the {@link IfRange} header and the value is not empty, uninhabited otherwise.
+     */
+    public static Optional<IfRange> of(RawHeader raw) {
+        if (LOWERCASE_NAME.equals(raw.lowerCaseName())) {
+            try {
+                return Optional.of(IfRange.of(raw.value()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'Last-Modified' header type definition.  Http dates have a resolution of a second, so the value of the header
+ * is truncated to seconds.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class LastModified implements HttpHeader<Instant> {
+
+    /**
+     * The constant name of the {@link LastModified} header.
+     */
+    public static final String NAME = "Last-Modified";
+
+    /**
+     * The constant lower cased name of the {@link LastModified} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    private final Instant value;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link LastModified} instance from the 'value' argument.
+     *
+     * @param value the modification date
+     * @throws NullPointerException for null value argument
+     */
+    private LastModified(Instant value) {
+        this.value = requireNonNull(value, "Last-Modified value cannot be null").truncatedTo(ChronoUnit.SECONDS);
+        raw = RawHeader.of(NAME, HttpDates.format(this.value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Instant value() {
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LastModified that = (LastModified) o;
+        return value.equals(that.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "LastModified{value='" + raw.value() + "'}";
+    }
+
+    /**
+     * Constructs a new {@link LastModified} instance from the 'value' argument.
+     *
+     * @param value the modification date
+     * @throws NullPointerException for null value argument
+     */
+    public static LastModified of(Instant value) {
+        return new LastModified(value);
+    }
+
+    /**
+     * Attempts to construct a new {@link LastModified} header from the argument {@link RawHeader}.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link LastModified}, inhabited if the lowercase name of the argument header equals
+     * to the lowercase name constant of the {@link LastModified} header and the value is a valid http date,
+     * uninhabited otherwise.
+     */
+    public static Optional<LastModified> of(RawHeader raw) {
+        if (LOWERCASE_NAME.equals(raw.lowerCaseName())) {
+            return HttpDates.parse(raw.value()).map(LastModified::of);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,306 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.HttpHeader;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Http 'Range' header type definition.  Only the 'bytes' range unit is supported.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Range implements HttpHeader<List<Range.ByteRange>> {
+
+    /**
+     * The constant name of the {@link Range} header.
+     */
+    public static final String NAME = "Range";
+
+    /**
+     * The constant lower cased name of the {@link Range} header.
+     */
+    public static final String LOWERCASE_NAME = NAME.toLowerCase();
+
+    /**
+     * The constant 'bytes' range unit.
+     */
+    public static final String BYTES = "bytes";
+
+    private final List<ByteRange> ranges;
+    private final RawHeader raw;
+
+    /**
+     * Constructs a new {@link Range} header instance from the 'ranges' collection argument.
+     * <p>
+     * <strong>Note:</strong> the constructor creates a shallow copy of the collection,  changes in argument collection
+     * will NOT be reflected in the {@link Range} header instance.
+     * </p>
+     *
+     * @param ranges the collection of byte ranges of the {@link Range} header
+     * @throws NullPointerException     if the range collection or any of its elements is null
+     * @throws IllegalArgumentException if the range collection is empty
+     */
+    private Range(Collection<ByteRange> ranges) {
+        this.ranges = Collections.unmodifiableList(new ArrayList<>(requireNonNull(ranges)));
+        if (this.ranges.isEmpty()) {
+            throw new IllegalArgumentException("The Range header must contain at least a byte range");
+        }
+        this.raw = RawHeader.of(NAME, BYTES + "=" + this.ranges.stream()
+                .map(r -> requireNonNull(r, "The Range byte ranges cannot be null").toString())
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ByteRange> value() {
+        return ranges;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lowerCaseName() {
+        return LOWERCASE_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RawHeader raw() {
+        return raw;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Range that = (Range) o;
+        return ranges.equals(that.ranges);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ranges.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Range{value='" + raw.value() + "'}";
+    }
+
+    /**
+     * Constructs a new {@link Range} header instance from the 'ranges' collection argument.
+     *
+     * @param ranges the collection of byte ranges of the {@link Range} header
+     * @throws NullPointerException     if the range collection or any of its elements is null
+     * @throws IllegalArgumentException if the range collection is empty
+     */
+    public static Range of(Collection<ByteRange> ranges) {
+        return new Range(ranges);
+    }
+
+    /**
+     * Attempts to construct a new {@link Range} instance from the 'raw' header argument.  As per RFC 7233, a header
+     * that contains any syntactically invalid range spec is ignored as a whole.
+     *
+     * @param raw the source {@link RawHeader}
+     * @return an {@link Optional} {@link Range}, inhabited if the lowercase name of the argument header equals to the
+     * lowercase name constant of the {@link Range} header and the value is a well formed 'bytes' range set,
+     * uninhabited otherwise.
+     */
+    public static Optional<Range> of(RawHeader raw) {
+        if (!raw.lowerCaseName().equals(LOWERCASE_NAME)) {
+            return Optional.empty();
+        }
+        String value = raw.value().trim();
+        int idx = value.indexOf('=');
+        if (idx < 0 || !value.substring(0, idx).trim().equalsIgnoreCase(BYTES)) {
+            return Optional.empty();
+        }
+        List<ByteRange> ranges = new ArrayList<>();
+        for (String spec : value.substring(idx + 1).split(",")) {
+            spec = spec.trim();
+            if (spec.isEmpty()) {
+                // empty list elements are allowed by the list syntax
+                continue;
+            }
+            Optional<ByteRange> range = ByteRange.parse(spec);
+            if (!range.isPresent()) {
+                return Optional.empty();
+            }
+            ranges.add(range.get());
+        }
+        return ranges.isEmpty() ? Optional.empty() : Optional.of(Range.of(ranges));
+    }
+
+    /**
+     * A single byte range spec of a {@link Range} header, one of:
+     * <ul>
+     * <li>'first-last', a bounded range of offsets (see {@link ByteRange#of(long, long)})</li>
+     * <li>'first-', all the bytes starting at an offset (see {@link ByteRange#fromOffset(long)})</li>
+     * <li>'-length', the last bytes of the representation (see {@link ByteRange#suffix(long)})</li>
+     * </ul>
+     * A {@link ByteRange} is resolved against a representation size through the {@link ByteRange#first(long)} and
+     * {@link ByteRange#last(long)} methods, which are defined only for satisfiable ranges.
+     */
+    public static final class ByteRange {
+
+        private final long first;
+        private final long last;
+        private final long suffixLength;
+
+        private ByteRange(long first, long last, long suffixLength) {
+            this.first = first;
+            this.last = last;
+            this.suffixLength = suffixLength;
+        }
+
+        /**
+         * @param size the size in bytes of the representation
+         * @return <code>true</code> if this range overlaps the argument 'size' bytes, <code>false</code> otherwise
+         */
+        public boolean isSatisfiable(long size) {
+            return suffixLength >= 0 ? suffixLength > 0 && size > 0 : first < size;
+        }
+
+        /**
+         * @param size the size in bytes of the representation
+         * @return the offset of the first byte of this range, for a representation of 'size' bytes
+         */
+        public long first(long size) {
+            return suffixLength >= 0 ? Math.max(0, size - suffixLength) : first;
+        }
+
+        /**
+         * @param size the size in bytes of the representation
+         * @return the offset of the last byte of this range (inclusive), for a representation of 'size' bytes
+         */
+        public long last(long size) {
+            return suffixLength >= 0 || last < 0 ? size - 1 : Math.min(last, size - 1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ByteRange that = (ByteRange) o;
+            return first == that.first && last == that.last && suffixLength == that.suffixLength;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int result = (int) (first ^ (first >>> 32));
+            result = 31 * result + (int) (last ^ (last >>> 32));
+            result = 31 * result + (int) (suffixLength ^ (suffixLength >>> 32));
+            return result;
+        }
+
+        /**
+         * @return the range spec representation of this range, i.e.: '0-499', '500-' or '-500'
+         */
+        @Override
+        public String toString() {
+            if (suffixLength >= 0) {
+                return "-" + suffixLength;
+            }
+            return last < 0 ? first + "-" : first + "-" + last;
+        }
+
+        /**
+         * Constructs a bounded {@link ByteRange}.
+         *
+         * @param first the offset of the first byte in the range
+         * @param last  the offset of the last byte in the range (inclusive)
+         * @throws IllegalArgumentException for negative offsets or if 'last' is smaller than 'first'
+         */
+        public static ByteRange of(long first, long last) {
+            if (first < 0 || last < first) {
+                throw new IllegalArgumentException("ByteRange offsets must be positive and ordered");
+            }
+            return new ByteRange(first, last, -1);
+        }
+
+        /**
+         * Constructs a {@link ByteRange} of all the bytes starting at the argument offset.
+         *
+         * @param first the offset of the first byte in the range
+         * @throws IllegalArgumentException for negative offsets
+         */
+        public static ByteRange fromOffset(long first) {
+            if (first < 0) {
+                throw new IllegalArgumentException("ByteRange offsets must be positive");
+            }
+            return new ByteRange(first, -1, -1);
+        }
+
+        /**
+         * Constructs a {@link ByteRange} of the last 'length' bytes of the representation.
+         *
+         * @param length the number of bytes at the end of the representation
+         * @throws IllegalArgumentException for negative lengths
+         */
+        public static ByteRange suffix(long length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("ByteRange suffix length must be positive");
+            }
+            return new ByteRange(-1, -1, length);
+        }
+
+        private static Optional<ByteRange> parse(String spec) {
+            int idx = spec.indexOf('-');
+            if (idx < 0) {
+                return Optional.empty();
+            }
+            try {
+                String first = spec.substring(0, idx).trim();
+                String last = spec.substring(idx + 1).trim();
+                if (first.isEmpty()) {
+                    return Optional.of(suffix(digits(last)));
+                }
+                if (last.isEmpty()) {
+                    return Optional.of(fromOffset(digits(first)));
+                }
+                return Optional.of(of(digits(first), digits(last)));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+
+        private static long digits(String value) {
+            // Long.parseLong accepts signs, which are not allowed in a range spec
+            if (value.isEmpty() || !value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                throw new NumberFormatException("Invalid range offset: " + value);
+            }
+            return Long.parseLong(value);
+        }
+    }
+}
@@ -1,48 +1,338 @@
 package com.github.bogdanromanx.web.server.vhost;
 
+import akka.Done;
 import akka.NotUsed;
 import akka.actor.ActorSystem;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
 import akka.japi.Pair;
 import akka.stream.ActorMaterializer;
 import akka.stream.ActorMaterializerSettings;
+import akka.stream.javadsl.BidiFlow;
 import akka.stream.javadsl.Concat;
 import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.FlightRecorder;
+import com.github.bogdanromanx.web.server.accesslog.AccessLog;
+import com.github.bogdanromanx.web.server.accesslog.AccessLogExtension;
+import com.github.bogdanromanx.web.server.compression.ResponseCompression;
 import com.github.bogdanromanx.web.server.framing.FramingStage;
 import com.github.bogdanromanx.web.server.framing.RequestFrame;
+import com.github.bogdanromanx.web.server.handling.CompositeHandler;
+import com.github.bogdanromanx.web.server.handling.FileHandler;
+import com.github.bogdanromanx.web.server.handling.HandlerEvent;
+import com.github.bogdanromanx.web.server.handling.MetricsHandler;
+import com.github.bogdanromanx.web.server.handling.PingHandler;
 import com.github.bogdanromanx.web.server.handling.RequestHandler;
+import com.github.bogdanromanx.web.server.handling.WarmUp;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.metrics.DispatcherProbe;
+import com.github.bogdanromanx.web.server.metrics.Gauge;
+import com.github.bogdanromanx.web.server.metrics.Histogram;
+import com.github.bogdanromanx.web.server.metrics.MetricsExtension;
+import com.github.bogdanromanx.web.server.metrics.MetricsRegistry;
+import com.github.bogdanromanx.web.server.settings.FileHandlingConfig;
+import com.github.bogdanromanx.web.server.settings.JitWarmUpConfig;
+import com.github.bogdanromanx.web.server.settings.JmxConfig;
+import com.github.bogdanromanx.web.server.settings.Settings;
 import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.TimingConfig;
 import com.github.bogdanromanx.web.server.settings.VHostConfig;
 import com.github.bogdanromanx.web.server.types.*;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
 
 /**
  * Base class for all implementations of {@link VHostHandler}s.  It provides an end to end processing flow that can be
  * attached to a {@link Source} of {@link ByteString} and a {@link akka.stream.javadsl.Sink} of {@link ByteString} to
- * handle individual connections from clients.
+ * handle individual connections from clients.  The connections, the bytes read and written and the request latencies
+ * by handler and status are counted in the {@link MetricsRegistry} of the actor system, under the 'vhost' label.  The
+ * vhost registers a {@link VHostMXBean} when started, through which its limits can be changed at runtime.  A sample of
+ * the requests is timed at every stage boundary (see {@link RequestTiming}); the requests above the configured
+ * threshold are logged as slow and the clients that opt in receive a 'Server-Timing' response header.  The
+ * connections and the handler applications are recorded as flight recorder events when enabled in a recording (see
+ * {@link ConnectionAcceptedEvent}, {@link ConnectionClosedEvent} and {@link HandlerEvent}) and skipped on the JVMs
+ * without the flight recorder API (see {@link FlightRecorder}).  When enabled, the handled requests are recorded into
+ * the {@link AccessLog} of the actor system (see {@link AccessLogStage}).
  */
 abstract class AbstractVHostHandler implements VHostHandler {
 
     final ActorSystem system;
     final VHostConfig vHostConfig;
     final ActorMaterializer materializer;
+    final MetricsRegistry metrics;
+    final String vhost;
+    final Counter connectionsAccepted;
+    final Counter connectionsRejected;
+    final Gauge connectionsActive;
+    final Gauge requestsInFlight;
+    final Counter bytesOut;
+    final ResponseCompression compression;
+
+    /**
+     * The runtime tunable limits, initialized from the {@link VHostConfig} (see {@link VHostMXBean}).
+     */
+    volatile int maxConnections;
+    volatile int pipelining;
 
     private final FramingStage framingStage;
+    private final FramingStage syntheticFramingStage;
+    private final RequestFoldingStage requestFoldingStage;
+    private final String timingOptInHeader;
+    private final long slowThresholdNanos;
 
-    private final RequestFoldingStage requestFoldingStage = new RequestFoldingStage();
     private final ConnectionCloseStage connectionCloseStage = new ConnectionCloseStage();
+    private final AccessLog accessLog;
+    private final AccessLogStage accessLogStage;
+    private final ConcurrentMap<RequestHandler, String> handlerNames = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicReferenceArray<Histogram>> latencies = new ConcurrentHashMap<>();
+
+    private FileHandler fileHandler;
+    private WarmUp warmUp;
+    private JitWarmUp jitWarmUp;
+    private ObjectName mBeanName;
+    private DispatcherProbe dispatcherProbe;
 
     AbstractVHostHandler(ActorSystem system, VHostConfig vHostConfig) {
         this.system = system;
         this.vHostConfig = vHostConfig;
         this.materializer = materializer();
-        framingStage = new FramingStage(SettingsExtension.SettingsExtensionProvider.get(system).parsingConfig());
+        this.metrics = MetricsExtension.MetricsExtensionProvider.get(system);
+        this.vhost = vHostConfig.host() + ":" + vHostConfig.port();
+        this.connectionsAccepted = metrics.counter("web_server_connections_accepted_total",
+                "The number of connections accepted", "vhost", vhost);
+        this.connectionsRejected = metrics.counter("web_server_connections_rejected_total",
+                "The number of connections closed on accept because of the connection limit", "vhost", vhost);
+        this.connectionsActive = metrics.gauge("web_server_connections_active",
+                "The number of open connections", "vhost", vhost);
+        this.requestsInFlight = metrics.gauge("web_server_requests_in_flight",
+                "The number of requests being handled", "vhost", vhost);
+        this.bytesOut = metrics.counter("web_server_bytes_out_total",
+                "The number of bytes written to the connections", "vhost", vhost);
+        Settings settings = SettingsExtension.SettingsExtensionProvider.get(system);
+        this.maxConnections = vHostConfig.maxConnections();
+        this.pipelining = vHostConfig.pipelining();
+        TimingConfig timingConfig = settings.timingConfig();
+        framingStage = new FramingStage(settings.parsingConfig(), metrics, vhost, timingConfig.sampleRate());
+        syntheticFramingStage = new FramingStage(settings.parsingConfig(), new MetricsRegistry(), vhost,
+                timingConfig.sampleRate());
+        requestFoldingStage = new RequestFoldingStage(vhost, timingConfig.optInHeader());
+        timingOptInHeader = timingConfig.optInHeader();
+        slowThresholdNanos = timingConfig.slowThreshold().toNanos();
+        accessLog = AccessLogExtension.AccessLogExtensionProvider.get(system);
+        accessLogStage = new AccessLogStage(accessLog, vhost);
+        compression = new ResponseCompression(settings.compressionConfig(),
+                vhost,
+                system.dispatchers().lookup(settings.fileHandlingConfig().dispatcher()),
+                materializer);
+    }
+
+    /**
+     * Constructs the default {@link RequestHandler} of this vhost, warming up the configured files and, if enabled, the
+     * processing flow of the handler, then registers the {@link VHostMXBean} of the vhost and starts probing its
+     * dispatcher (see {@link DispatcherProbe}).
+     */
+    RequestHandler requestHandler() {
+        Settings settings = SettingsExtension.SettingsExtensionProvider.get(system);
+        FileHandlingConfig fileHandlingConfig = settings.fileHandlingConfig();
+        Executor fileExecutor = system.dispatchers().lookup(fileHandlingConfig.dispatcher());
+
+        fileHandler = new FileHandler(vHostConfig.path(), fileHandlingConfig, fileExecutor);
+        if (fileHandlingConfig.indexed() && !fileHandler.watching()) {
+            Logging.getLogger(system, this).warning("The root of vhost {} is not watched, its index is never refreshed",
+                    vhost);
+        }
+        warmUp(fileHandler);
+        List<RequestHandler> handlers = new ArrayList<>();
+        handlers.add(new PingHandler());
+        if (settings.metricsConfig().enabled()) {
+            handlers.add(new MetricsHandler(metrics, settings.metricsConfig().path()));
+        }
+        handlers.add(fileHandler);
+        RequestHandler requestHandler = CompositeHandler.of(handlers);
+        if (settings.jitWarmUpConfig().enabled()) {
+            jitWarmUp(requestHandler, settings.jitWarmUpConfig());
+        }
+        if (settings.jmxConfig().enabled()) {
+            registerMBean(settings.jmxConfig());
+        }
+        if (settings.dispatcherProbeConfig().enabled()) {
+            dispatcherProbe = new DispatcherProbe(system.dispatchers().lookup(vHostConfig.dispatcher()), vhost,
+                    settings.dispatcherProbeConfig(), metrics, Logging.getLogger(system, this));
+            dispatcherProbe.start(system.scheduler());
+        }
+        return requestHandler;
+    }
+
+    /**
+     * Registers the {@link VHostMXBean} of this vhost with the platform MBean server.  A vhost with the same address
+     * registered by another actor system takes precedence, this one is then only reported in the logs.
+     */
+    private void registerMBean(JmxConfig config) {
+        try {
+            ObjectName name = new ObjectName(config.domain() + ":type=VHost,name=" + ObjectName.quote(vhost));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new VHostManagement(this, fileHandler), name);
+            mBeanName = name;
+        } catch (JMException e) {
+            Logging.getLogger(system, this).warning("Unable to register the MBean of vhost {}: {}", vhost, e);
+        }
+    }
+
+    /**
+     * Counts a new connection of the vhost, unless the vhost is at its connection limit; the transports close the
+     * connections that are not admitted.
+     *
+     * @param remote the remote address of the connection
+     * @return true if the connection is admitted, false otherwise
+     */
+    boolean admitConnection(SocketAddress remote) {
+        int max = maxConnections;
+        boolean admitted = max <= 0 || connectionsActive.value() < max;
+        if (admitted) {
+            connectionsAccepted.increment();
+            connectionsActive.increment();
+        } else {
+            connectionsRejected.increment();
+        }
+        if (FlightRecorder.available() && ConnectionAcceptedEvent.enabled()) {
+            ConnectionAcceptedEvent event = new ConnectionAcceptedEvent();
+            event.vhost = vhost;
+            event.transport = vHostConfig.transport();
+            event.remoteAddress = String.valueOf(remote);
+            event.admitted = admitted;
+            event.commit();
+        }
+        return admitted;
+    }
+
+    /**
+     * Counts the closing of a connection admitted by {@link AbstractVHostHandler#admitConnection(SocketAddress)}.
+     *
+     * @param remote   the remote address of the connection
+     * @param openedAt the moment the connection was admitted, as returned by {@link System#nanoTime()}
+     * @param failure  the failure that closed the connection, null if closed normally
+     */
+    void connectionClosed(SocketAddress remote, long openedAt, Throwable failure) {
+        connectionsActive.decrement();
+        if (FlightRecorder.available() && ConnectionClosedEvent.enabled()) {
+            ConnectionClosedEvent event = new ConnectionClosedEvent();
+            event.vhost = vhost;
+            event.transport = vHostConfig.transport();
+            event.remoteAddress = String.valueOf(remote);
+            event.lifetime = System.nanoTime() - openedAt;
+            event.failure = failure == null ? null : failure.toString();
+            event.commit();
+        }
+    }
+
+    /**
+     * Memoizes the flow built by the argument 'factory' for the current pipelining of the vhost, building it again
+     * once the pipelining changes (see {@link VHostMXBean#setPipelining(int)}).
+     *
+     * @param factory builds the flow for the current pipelining
+     * @return the flow for the current pipelining
+     */
+    <F> Supplier<F> perPipelining(Supplier<F> factory) {
+        return new Supplier<F>() {
+            private F flow;
+            private int builtFor;
+
+            @Override
+            public synchronized F get() {
+                int current = pipelining;
+                if (flow == null || builtFor != current) {
+                    flow = factory.get();
+                    builtFor = current;
+                }
+                return flow;
+            }
+        };
+    }
+
+    /**
+     * @return the number of requests handled since the vhost was started
+     */
+    long requests() {
+        long requests = 0;
+        for (AtomicReferenceArray<Histogram> byStatus : latencies.values()) {
+            for (int i = 0; i < byStatus.length(); i++) {
+                Histogram histogram = byStatus.get(i);
+                if (histogram != null) {
+                    requests += histogram.count();
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Loads the files selected by the vhost warm-up globs into the argument 'fileHandler', blocking until all of them
+     * were loaded (see {@link WarmUp}).
+     */
+    private void warmUp(FileHandler fileHandler) {
+        if (vHostConfig.warmUp().isEmpty()) {
+            return;
+        }
+        LoggingAdapter log = Logging.getLogger(system, this);
+        String vhost = vHostConfig.host() + ":" + vHostConfig.port();
+        warmUp = new WarmUp(vHostConfig.path(), vHostConfig.warmUp(), vHostConfig.warmUpParallelism());
+        log.info("Warming up vhost {}", vhost);
+        warmUp.run(fileHandler, w -> log.info("Warming up vhost {}, loaded {} of {} files",
+                vhost, w.loaded() + w.failed(), w.total()));
+        log.info("Warmed up vhost {} in {} ms: {} files loaded, {} failed",
+                vhost, warmUp.durationMillis(), warmUp.loaded(), warmUp.failed());
+    }
+
+    /**
+     * Replays the configured corpus of requests through the processing flow of the argument 'requestHandler', blocking
+     * until the warm-up completes (see {@link JitWarmUp}).
+     */
+    private void jitWarmUp(RequestHandler requestHandler, JitWarmUpConfig config) {
+        LoggingAdapter log = Logging.getLogger(system, this);
+        String vhost = vHostConfig.host() + ":" + vHostConfig.port();
+        jitWarmUp = new JitWarmUp(config);
+        log.info("Replaying {} requests through the processing flow of vhost {}", config.requests().size(), vhost);
+        jitWarmUp.run(processingFlow(requestHandler, true), materializer);
+        if (jitWarmUp.failure().isPresent()) {
+            log.warning("The JIT warm-up of vhost {} failed after {} iterations: {}", vhost, jitWarmUp.iterations(),
+                    jitWarmUp.failure().get());
+        } else {
+            log.info("Warmed up the processing flow of vhost {} in {} ms, {} iterations", vhost,
+                    jitWarmUp.durationMillis(), jitWarmUp.iterations());
+        }
+    }
+
+    /**
+     * @return the JIT warm-up of the vhost processing flow, if enabled and the vhost was started
+     */
+    public Optional<JitWarmUp> jitWarmUp() {
+        return Optional.ofNullable(jitWarmUp);
+    }
+
+    /**
+     * @return the warm-up of the vhost files, if any is configured and the vhost was started
+     */
+    public Optional<WarmUp> warmUp() {
+        return Optional.ofNullable(warmUp);
     }
 
     /**
@@ -55,45 +345,74 @@ abstract class AbstractVHostHandler implements VHostHandler {
      * @see RequestHandler
      */
     Flow<ByteString, ByteString, NotUsed> processingFlow(RequestHandler requestHandler) {
+        return processingFlow(requestHandler, false);
+    }
+
+    /**
+     * Constructs a processing flow from the argument 'requestHandler'; the requests of a 'synthetic' flow (i.e.: the
+     * replayed warm-up requests) are neither recorded into the access log nor counted in the metrics of the vhost.
+     */
+    private Flow<ByteString, ByteString, NotUsed> processingFlow(RequestHandler requestHandler, boolean synthetic) {
+        Flow<ByteString, ByteString, NotUsed> flow = handlingFlow(requestHandler, synthetic)
+                .flatMapConcat(pair -> response(pair.second(), pair.first()));
+        return synthetic ? flow : flow.map(bytes -> {
+            bytesOut.add(bytes.length());
+            return bytes;
+        });
+    }
+
+    /**
+     * Constructs the part of the processing flow that stops short of writing: it produces the {@link HttpResponse}s
+     * paired with the {@link HttpRequest}s they respond to, leaving their encoding to the caller.  This allows
+     * transports to write the responses in their own way, i.e.: transferring file backed entities directly.  Up to
+     * {@link AbstractVHostHandler#pipelining} requests of a connection are handled concurrently, as read when the flow
+     * is built (see {@link AbstractVHostHandler#perPipelining(Supplier)}).  The handled requests are recorded into the
+     * access log, if enabled, once through the {@link ConnectionCloseStage} (see {@link AccessLogStage}).
+     *
+     * @param requestHandler the request handler to be used by the processing flow for producing {@link HttpResponse}s
+     * @return a flow of ({@link HttpResponse}, {@link HttpRequest}) pairs
+     * @see AbstractVHostHandler#processingFlow(RequestHandler)
+     */
+    Flow<ByteString, Pair<HttpResponse, HttpRequest>, NotUsed> handlingFlow(RequestHandler requestHandler) {
+        return handlingFlow(requestHandler, false);
+    }
+
+    private Flow<ByteString, Pair<HttpResponse, HttpRequest>, NotUsed> handlingFlow(RequestHandler requestHandler,
+                                                                                  boolean synthetic) {
+        Flow<HttpRequest, Pair<HttpResponse, HttpRequest>, NotUsed> handling = Flow.of(HttpRequest.class)
+                .mapAsync(pipelining, req -> applyHandler(requestHandler, req, synthetic))
+                .via(connectionCloseStage);
         return Flow.of(ByteString.class)
-                .via(framingStage)
+                .via(synthetic ? syntheticFramingStage : framingStage)
                 .splitAfter(frame -> frame == RequestFrame.end())
                 .via(requestFoldingStage)
                 .mergeSubstreams()
-                .mapAsync(1, req -> applyHandler(requestHandler, req))
-                .via(connectionCloseStage)
-                .flatMapConcat(pair -> response(pair.second().requestLine().protocol(), pair.first()));
+                .via(!synthetic && accessLog.enabled() ? BidiFlow.fromGraph(accessLogStage).join(handling) : handling);
     }
 
-    private static ByteString CRLF = ByteString.fromString("\r\n");
+    /**
+     * Adds the argument 'remote' address of a connection to the argument 'flow' that handles it, for the access log;
+     * the flow is returned as is when the access log is disabled.
+     *
+     * @param flow   the flow that handles the connection
+     * @param remote the address of the client
+     * @return the flow that handles the connection
+     */
+    <I, O, M> Flow<I, O, M> withRemoteAddress(Flow<I, O, M> flow, SocketAddress remote) {
+        return accessLog.enabled() ? flow.addAttributes(RemoteAddress.attributes(remote)) : flow;
+    }
 
     /**
-     * Constructs a {@link Source} of {@link ByteString} for the argument 'protocol' and 'response' that emits the
-     * status line and header bytes as {@link ByteString}.
+     * Encodes the status line and the headers of the argument 'response' for the argument 'protocol', including the
+     * empty line that separates them from the entity.  The encoding is memoized by the response (see
+     * {@link HttpResponse#head(HttpProtocol)}).
      *
      * @param protocol the current http protocol
      * @param response the response to be sent to the client
-     * @return a {@link Source} of {@link ByteString} for the argument 'protocol' and 'response' that emits the
-     * status line and header bytes as {@link ByteString}.
+     * @return the status line and header bytes of the argument 'response'
      */
-    private Source<ByteString, ?> responseMeta(HttpProtocol protocol, HttpResponse response) {
-        List<ByteString> bytes = new LinkedList<>();
-
-        ByteString status = ByteString.fromString(protocol.toString()
-                + " " + response.statusCode().value()
-                + " " + response.statusCode().name());
-
-        List<ByteString> headers = response
-                .headers()
-                .stream()
-                .map(h -> ByteString.fromString(h.name() + ":" + h.value()).concat(CRLF))
-                .collect(Collectors.toList());
-
-        bytes.add(status.concat(CRLF));
-        bytes.addAll(headers);
-        bytes.add(CRLF);
-
-        return Source.from(bytes);
+    static ByteString responseHead(HttpProtocol protocol, HttpResponse response) {
+        return response.head(protocol);
     }
 
     /**
@@ -110,6 +429,11 @@ abstract class AbstractVHostHandler implements VHostHandler {
             return entity.source();
         }
 
+        if (response.entity() instanceof HttpEntity.FileRegion) {
+            HttpEntity.FileRegion entity = (HttpEntity.FileRegion) response.entity();
+            return entity.source();
+        }
+
         if (response.entity() instanceof HttpEntity.Strict) {
             HttpEntity.Strict entity = (HttpEntity.Strict) response.entity();
             return Source.single(entity.bytes());
@@ -119,35 +443,203 @@ abstract class AbstractVHostHandler implements VHostHandler {
     }
 
     /**
-     * Constructs a {@link Source} of {@link ByteString} for the argument 'protocol' and 'response' that emits the
+     * Constructs a {@link Source} of {@link ByteString} for the argument 'request' and 'response' that emits the
      * the full bytes of the argument 'response'.  It merges the source for the status line and headers with the source
-     * from the response entity.
+     * from the response entity.  The response of a timed request is written once the source completes (see
+     * {@link AbstractVHostHandler#written(HttpRequest)}).
      *
-     * @param protocol the current http protocol
+     * @param request  the request the response responds to
      * @param response the response to be sent to the client
-     * @return a {@link Source} of {@link ByteString} for the argument 'protocol' and 'response' that emits the
+     * @return a {@link Source} of {@link ByteString} for the argument 'request' and 'response' that emits the
      * full bytes of the argument 'response'.
      */
-    private Source<ByteString, ?> response(HttpProtocol protocol, HttpResponse response) {
-        return Source.combine(
-                responseMeta(protocol, response),
+    private Source<ByteString, ?> response(HttpRequest request, HttpResponse response) {
+        Source<ByteString, NotUsed> source = Source.combine(
+                Source.single(responseHead(request.requestLine().protocol(), response)),
                 responseEntity(response),
                 Collections.emptyList(),
                 i -> Concat.create(ByteString.class));
+        if (!request.timing().isPresent()) {
+            return source;
+        }
+        return source.watchTermination((mat, done) -> {
+            done.thenRun(() -> written(request));
+            return mat;
+        });
+    }
+
+    /**
+     * Records the moment the response of the argument 'request' was written, if the request is timed, and logs the
+     * request if slow.  The transports call it once the last bytes of the response were handed over to the connection.
+     *
+     * @param request the request whose response was written
+     */
+    void written(HttpRequest request) {
+        Optional<RequestTiming> timing = request.timing();
+        if (timing.isPresent()) {
+            long total = timing.get().written(System.nanoTime()).totalNanos();
+            if (slowThresholdNanos > 0 && total > slowThresholdNanos) {
+                Logging.getLogger(system, this).warning("Slow request '{}' on vhost {}: {}",
+                        request.requestLine(), vhost, timing.get());
+            }
+        }
     }
 
     /**
-     * Applies the argument 'requestHandler' to the argument 'request' producing an {@link HttpResponse}.  If the
-     * handler application fails, a default error response (500 Internal Server Error) will be provided instead.
+     * Applies the argument 'requestHandler' to the argument 'request' producing an {@link HttpResponse}, compressed
+     * if eligible (see {@link ResponseCompression}).  If the handler application (synchronously or not) or the
+     * compression fails, a default error response (500 Internal Server Error) will be provided instead.  The response
+     * is emitted once the request entity was read (see {@link AbstractVHostHandler#discardEntity(HttpRequest)}), when
+     * its latency is recorded by the name of the handler that matched the request and the response status.  The stage
+     * boundaries of timed requests are recorded along the way (see {@link RequestTiming}).  The 'synthetic' requests
+     * are not counted in the metrics of the vhost.
      *
      * @param requestHandler the handler to apply
      * @param request the argument to the 'requestHandler'
+     * @param synthetic whether the request was replayed by the warm-up
      * @return a ({@link HttpResponse}, {@link HttpRequest} pair)
      */
-    private CompletionStage<Pair<HttpResponse, HttpRequest>> applyHandler(RequestHandler requestHandler, HttpRequest request) {
-        return requestHandler.apply(request)
-                .exceptionally(th -> ERROR_RESPONSE)
-                .thenApply(resp -> Pair.create(resp, request));
+    private CompletionStage<Pair<HttpResponse, HttpRequest>> applyHandler(RequestHandler requestHandler,
+                                                                          HttpRequest request, boolean synthetic) {
+        long start = System.nanoTime();
+        RequestHandler handler = requestHandler instanceof CompositeHandler
+                ? ((CompositeHandler) requestHandler).select(request)
+                : requestHandler;
+        RequestTiming timing = request.timing().orElse(null);
+        HandlerEvent event = FlightRecorder.available() && HandlerEvent.enabled()
+                ? handlerEvent(handler, request)
+                : null;
+        if (!synthetic) {
+            requestsInFlight.increment();
+        }
+        CompletionStage<HttpResponse> response;
+        try {
+            response = handler.apply(request);
+        } catch (RuntimeException e) {
+            CompletableFuture<HttpResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            response = failed;
+        }
+        if (event != null) {
+            response = response.whenComplete((resp, th) -> commit(event, resp, th));
+        }
+        if (timing != null) {
+            timing.handlerStarted(start);
+            response = response.whenComplete((resp, th) -> timing.handled(System.nanoTime()));
+        }
+        response = response
+                .thenCompose(resp -> compression.apply(request, resp))
+                .exceptionally(th -> ERROR_RESPONSE);
+        if (timing != null) {
+            response = response.whenComplete((resp, th) -> timing.compressed(System.nanoTime()));
+        }
+        return response.thenCompose(resp -> discardEntity(request).thenApply(done -> {
+            long end = System.nanoTime();
+            if (!synthetic) {
+                latency(name(handler), resp.statusCode().value()).record(end - start);
+            }
+            if (timing == null) {
+                if (!synthetic && slowThresholdNanos > 0 && end - start > slowThresholdNanos) {
+                    Logging.getLogger(system, this).warning("Slow request '{}' on vhost {}: {} ms, not timed",
+                            request.requestLine(), vhost, TimeUnit.NANOSECONDS.toMillis(end - start));
+                }
+                return Pair.create(resp, request);
+            }
+            timing.ready(end);
+            return Pair.create(serverTiming(request, resp, timing), request);
+        })).whenComplete((pair, th) -> {
+            if (!synthetic) {
+                requestsInFlight.decrement();
+            }
+        });
+    }
+
+    /**
+     * Begins the {@link HandlerEvent} of the application of the argument 'handler' to the argument 'request'.
+     */
+    private HandlerEvent handlerEvent(RequestHandler handler, HttpRequest request) {
+        HandlerEvent event = new HandlerEvent();
+        event.begin();
+        event.vhost = vhost;
+        event.handler = handler.getClass();
+        event.method = request.requestLine().method().value();
+        event.uri = request.requestLine().uri().toString();
+        return event;
+    }
+
+    /**
+     * Commits the argument 'event' with the status of the argument 'response', or the argument 'failure' of the
+     * handler, if the event is above its threshold.
+     */
+    private static void commit(HandlerEvent event, HttpResponse response, Throwable failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.status = response != null ? response.statusCode().value() : ERROR_RESPONSE.statusCode().value();
+            event.failure = failure == null ? null : failure.toString();
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds a 'Server-Timing' header with the stages of the argument 'timing' to the argument 'response' if the client
+     * opted in through the configured request header.
+     */
+    private HttpResponse serverTiming(HttpRequest request, HttpResponse response, RequestTiming timing) {
+        if (timingOptInHeader.isEmpty()
+                || request.headers().stream().noneMatch(h -> h.name().equalsIgnoreCase(timingOptInHeader))) {
+            return response;
+        }
+        List<RawHeader> headers = new ArrayList<>(response.headers());
+        headers.add(RawHeader.of("Server-Timing", timing.serverTiming()));
+        return HttpResponse.of(response.statusCode(), headers, response.entity());
+    }
+
+    /**
+     * @return the name of the argument 'handler' (see {@link RequestHandler#name()}), computed once per handler
+     */
+    private String name(RequestHandler handler) {
+        String name = handlerNames.get(handler);
+        return name != null ? name : handlerNames.computeIfAbsent(handler, RequestHandler::name);
+    }
+
+    /**
+     * Looks up the latency histogram of the argument 'handler' name and 'status', registering it on first use; the
+     * histograms are cached by status code, so that recording a latency does not build a metric key.  The lookups of
+     * registered histograms don't lock: the maps are only updated the first time a handler or status is seen.  The
+     * non-standard statuses of 600 and above share the histogram labeled 'other'.
+     */
+    private Histogram latency(String handler, int status) {
+        AtomicReferenceArray<Histogram> byStatus = latencies.get(handler);
+        if (byStatus == null) {
+            byStatus = latencies.computeIfAbsent(handler, name -> new AtomicReferenceArray<>(600));
+        }
+        int idx = status > 0 && status < byStatus.length() ? status : 0;
+        Histogram histogram = byStatus.get(idx);
+        if (histogram == null) {
+            histogram = metrics.histogram("web_server_request_duration_seconds",
+                    "The duration of the requests, from parsing to the response being ready to write",
+                    Histogram.LATENCY_BOUNDS, Histogram.NANOS_PER_SECOND,
+                    "vhost", vhost, "handler", handler, "status", idx == 0 ? "other" : Integer.toString(status));
+            byStatus.set(idx, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Reads and discards the streaming entity of the argument 'request' if the handler left it unread: the entity
+     * bytes are framed on the connection ahead of the next request, which is stalled until they are consumed.  The
+     * entity source can only be materialized once, a failure to read it means the handler already did.
+     *
+     * @param request the handled request
+     * @return a stage completed when the entity of the request was read
+     */
+    private CompletionStage<Done> discardEntity(HttpRequest request) {
+        if (request.entity() instanceof HttpEntity.Streaming) {
+            return ((HttpEntity.Streaming) request.entity()).source()
+                    .runWith(Sink.ignore(), materializer)
+                    .exceptionally(th -> Done.getInstance());
+        }
+        return CompletableFuture.completedFuture(Done.getInstance());
     }
 
     /**
@@ -169,6 +661,26 @@ abstract class AbstractVHostHandler implements VHostHandler {
      */
     @Override
     public void terminate() {
+        if (dispatcherProbe != null) {
+            dispatcherProbe.stop();
+            dispatcherProbe = null;
+        }
+        if (mBeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+            } catch (JMException e) {
+                Logging.getLogger(system, this).warning("Unable to unregister the MBean of vhost {}", vhost);
+            }
+            mBeanName = null;
+        }
+        if (fileHandler != null) {
+            try {
+                fileHandler.close();
+            } catch (IOException e) {
+                Logging.getLogger(system, this).warning("Unable to stop watching the root of vhost {}:{}",
+                        vHostConfig.host(), vHostConfig.port());
+            }
+        }
         materializer.shutdown();
     }
 }
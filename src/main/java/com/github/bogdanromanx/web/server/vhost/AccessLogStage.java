@@ -0,0 +1,135 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.japi.Pair;
+import akka.stream.Attributes;
+import akka.stream.BidiShape;
+import akka.stream.Inlet;
+import akka.stream.Outlet;
+import akka.stream.stage.AbstractInHandler;
+import akka.stream.stage.AbstractOutHandler;
+import akka.stream.stage.GraphStage;
+import akka.stream.stage.GraphStageLogic;
+import com.github.bogdanromanx.web.server.accesslog.AccessLog;
+import com.github.bogdanromanx.web.server.types.HttpRequest;
+import com.github.bogdanromanx.web.server.types.HttpResponse;
+import com.github.bogdanromanx.web.server.types.RequestLine;
+
+import java.util.Arrays;
+
+/**
+ * {@link GraphStage} implementation that records the handled requests of a connection into the {@link AccessLog}.  It
+ * wraps the handling of the requests, up to and including the {@link ConnectionCloseStage}: the requests are
+ * timestamped on their way in and recorded with their responses on their way out, which keeps them in order.  The
+ * address of the client is read from the {@link RemoteAddress} attribute of the connection flow.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AccessLogStage extends GraphStage<BidiShape<HttpRequest, HttpRequest, Pair<HttpResponse, HttpRequest>,
+        Pair<HttpResponse, HttpRequest>>> {
+
+    private final Inlet<HttpRequest> requestIn = Inlet.create("AccessLogStage.requestIn");
+    private final Outlet<HttpRequest> requestOut = Outlet.create("AccessLogStage.requestOut");
+    private final Inlet<Pair<HttpResponse, HttpRequest>> responseIn = Inlet.create("AccessLogStage.responseIn");
+    private final Outlet<Pair<HttpResponse, HttpRequest>> responseOut = Outlet.create("AccessLogStage.responseOut");
+    private final BidiShape<HttpRequest, HttpRequest, Pair<HttpResponse, HttpRequest>, Pair<HttpResponse, HttpRequest>>
+            shape = BidiShape.of(requestIn, requestOut, responseIn, responseOut);
+
+    private final AccessLog accessLog;
+    private final String vhost;
+
+    /**
+     * @param accessLog the access log the requests are recorded into
+     * @param vhost     the vhost that handles the requests
+     */
+    public AccessLogStage(AccessLog accessLog, String vhost) {
+        this.accessLog = accessLog;
+        this.vhost = vhost;
+    }
+
+    @Override
+    public BidiShape<HttpRequest, HttpRequest, Pair<HttpResponse, HttpRequest>, Pair<HttpResponse, HttpRequest>>
+    shape() {
+        return shape;
+    }
+
+    @Override
+    public GraphStageLogic createLogic(Attributes inheritedAttributes) {
+        String remote = inheritedAttributes.getAttribute(RemoteAddress.class, RemoteAddress.UNKNOWN).host();
+        return new GraphStageLogic(shape) {
+            // the timestamps of the requests being handled, in order
+            private long[] timestamps = new long[16];
+            private int head;
+            private int count;
+
+            {
+                setHandler(requestIn, new AbstractInHandler() {
+                    @Override
+                    public void onPush() throws Exception {
+                        HttpRequest request = grab(requestIn);
+                        started(System.nanoTime());
+                        push(requestOut, request);
+                    }
+
+                    @Override
+                    public void onUpstreamFinish() throws Exception {
+                        complete(requestOut);
+                    }
+                });
+
+                setHandler(requestOut, new AbstractOutHandler() {
+                    @Override
+                    public void onPull() throws Exception {
+                        pull(requestIn);
+                    }
+
+                    @Override
+                    public void onDownstreamFinish() throws Exception {
+                        // the handling stops taking requests when the connection is to be closed, the responses
+                        // already handled are still to be recorded
+                        cancel(requestIn);
+                    }
+                });
+
+                setHandler(responseIn, new AbstractInHandler() {
+                    @Override
+                    public void onPush() throws Exception {
+                        Pair<HttpResponse, HttpRequest> pair = grab(responseIn);
+                        record(pair.second(), pair.first(), System.nanoTime() - completed());
+                        push(responseOut, pair);
+                    }
+                });
+
+                setHandler(responseOut, new AbstractOutHandler() {
+                    @Override
+                    public void onPull() throws Exception {
+                        pull(responseIn);
+                    }
+                });
+            }
+
+            private void started(long nanos) {
+                if (count == timestamps.length) {
+                    long[] larger = Arrays.copyOf(timestamps, timestamps.length * 2);
+                    System.arraycopy(timestamps, 0, larger, timestamps.length, head);
+                    timestamps = larger;
+                }
+                timestamps[(head + count) % timestamps.length] = nanos;
+                count++;
+            }
+
+            private long completed() {
+                long nanos = timestamps[head];
+                head = (head + 1) % timestamps.length;
+                count--;
+                return nanos;
+            }
+
+            private void record(HttpRequest request, HttpResponse response, long latencyNanos) {
+                RequestLine line = request.requestLine();
+                String path = line.uri().getRawPath();
+                accessLog.record(remote, vhost, line.method().value(), path != null ? path : line.uri().toString(),
+                        line.protocol().value(), response.statusCode().value(), response.entity().length(),
+                        latencyNanos);
+            }
+        };
+    }
+}
@@ -1,28 +1,43 @@
 package com.github.bogdanromanx.web.server.vhost;
 
+import akka.Done;
 import akka.NotUsed;
 import akka.actor.ActorSystem;
 import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Keep;
+import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import akka.stream.javadsl.Tcp;
 import akka.util.ByteString;
-import com.github.bogdanromanx.web.server.handling.CompositeHandler;
-import com.github.bogdanromanx.web.server.handling.FileHandler;
-import com.github.bogdanromanx.web.server.handling.PingHandler;
+import com.github.bogdanromanx.web.server.capture.TrafficCapture;
+import com.github.bogdanromanx.web.server.capture.TrafficCaptureExtension;
 import com.github.bogdanromanx.web.server.handling.RequestHandler;
 import com.github.bogdanromanx.web.server.settings.VHostConfig;
 
-import java.util.Arrays;
+import java.net.SocketAddress;
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 
 /**
- * {@link VHostHandler} implementation that uses Akka's IO sub system for handling incoming connections.
+ * {@link VHostHandler} implementation that uses Akka's IO sub system for handling incoming connections.  When the
+ * traffic capture is enabled, the inbound bytes of a sample of the connections are recorded (see
+ * {@link TrafficCapture}).
  * @see AbstractVHostHandler
  */
 public class AkkaTcpHandler extends AbstractVHostHandler {
 
+    /**
+     * The flow of the connections over the connection limit: it closes them without reading any bytes.
+     */
+    private static final Flow<ByteString, ByteString, ?> REJECTED =
+            Flow.fromSinkAndSource(Sink.cancelled(), Source.empty());
+
+    private final TrafficCapture capture;
+
     public AkkaTcpHandler(ActorSystem system, VHostConfig vHostConfig) {
         super(system, vHostConfig);
+        capture = TrafficCaptureExtension.TrafficCaptureExtensionProvider.get(system);
     }
 
     /**
@@ -33,13 +48,30 @@ public class AkkaTcpHandler extends AbstractVHostHandler {
         Source<Tcp.IncomingConnection, CompletionStage<Tcp.ServerBinding>> connections =
                 Tcp.get(system).bind(vHostConfig.host(), vHostConfig.port());
 
-        RequestHandler handler = CompositeHandler.of(Arrays.asList(
-                new PingHandler(),
-                new FileHandler(vHostConfig.path())
-        ));
+        RequestHandler requestHandler = requestHandler();
+        Supplier<Flow<ByteString, ByteString, CompletionStage<Done>>> flow =
+                perPipelining(() -> processingFlow(requestHandler).watchTermination(Keep.right()));
 
-        Flow<ByteString, ByteString, NotUsed> flow = processingFlow(handler);
+        connections.runForeach(c -> {
+            if (admitConnection(c.remoteAddress())) {
+                long openedAt = System.nanoTime();
+                Flow<ByteString, ByteString, CompletionStage<Done>> handling =
+                        captured(withRemoteAddress(flow.get(), c.remoteAddress()), c.remoteAddress());
+                c.handleWith(handling, materializer)
+                        .whenComplete((done, th) -> connectionClosed(c.remoteAddress(), openedAt, th));
+            } else {
+                c.handleWith(REJECTED, materializer);
+            }
+        }, materializer);
+    }
 
-        connections.runForeach(c -> c.handleWith(flow, materializer), materializer);
+    /**
+     * Places the capture tap of the connection from the argument 'remote' address ahead of the argument 'flow', if the
+     * connection is captured.
+     */
+    private Flow<ByteString, ByteString, CompletionStage<Done>> captured(
+            Flow<ByteString, ByteString, CompletionStage<Done>> flow, SocketAddress remote) {
+        Optional<Flow<ByteString, ByteString, NotUsed>> tap = capture.tap(vhost, remote);
+        return tap.isPresent() ? tap.get().viaMat(flow, Keep.right()) : flow;
     }
 }
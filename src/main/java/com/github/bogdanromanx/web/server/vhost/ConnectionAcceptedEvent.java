@@ -0,0 +1,40 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a connection accepted by a vhost, whether admitted or closed right away because the
+ * vhost is at its connection limit.
+ */
+@Name("com.github.bogdanromanx.web.server.ConnectionAccepted")
+@Label("Connection Accepted")
+@Category({"Web Server", "Connections"})
+@Description("A connection accepted by a vhost, admitted or closed because of the connection limit")
+@StackTrace(false)
+final class ConnectionAcceptedEvent extends Event {
+
+    @Label("VHost")
+    String vhost;
+
+    @Label("Transport")
+    String transport;
+
+    @Label("Remote Address")
+    String remoteAddress;
+
+    @Label("Admitted")
+    boolean admitted;
+
+    /**
+     * @return true if the event is enabled in a running recording; the instance allocated by the check does not
+     * escape, so that the check is free once compiled
+     */
+    static boolean enabled() {
+        return new ConnectionAcceptedEvent().isEnabled();
+    }
+}
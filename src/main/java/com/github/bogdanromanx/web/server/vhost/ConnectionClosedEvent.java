@@ -0,0 +1,44 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event for a closed connection of a vhost, with the time it was open.
+ */
+@Name("com.github.bogdanromanx.web.server.ConnectionClosed")
+@Label("Connection Closed")
+@Category({"Web Server", "Connections"})
+@Description("A connection of a vhost closed, by either side or because of a failure")
+@StackTrace(false)
+final class ConnectionClosedEvent extends Event {
+
+    @Label("VHost")
+    String vhost;
+
+    @Label("Transport")
+    String transport;
+
+    @Label("Remote Address")
+    String remoteAddress;
+
+    @Label("Lifetime")
+    @Timespan(Timespan.NANOSECONDS)
+    long lifetime;
+
+    @Label("Failure")
+    String failure;
+
+    /**
+     * @return true if the event is enabled in a running recording; the instance allocated by the check does not
+     * escape, so that the check is free once compiled
+     */
+    static boolean enabled() {
+        return new ConnectionClosedEvent().isEnabled();
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event spanning the streaming of a request entity, from the end of the request head to the last
+ * entity bytes being framed.  Only the streams longer than the threshold (1 ms unless configured) are recorded.
+ */
+@Name("com.github.bogdanromanx.web.server.EntityStream")
+@Label("Request Entity Stream")
+@Category({"Web Server", "Requests"})
+@Description("The streaming of a request entity, from the end of the request head to its last bytes")
+@StackTrace(false)
+@Threshold("1 ms")
+final class EntityStreamEvent extends Event {
+
+    @Label("VHost")
+    String vhost;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Content Length")
+    @DataAmount
+    long contentLength;
+
+    @Label("Bytes Streamed")
+    @DataAmount
+    long bytes;
+
+    /**
+     * @return true if the event is enabled in a running recording; the instance allocated by the check does not
+     * escape, so that the check is free once compiled
+     */
+    static boolean enabled() {
+        return new EntityStreamEvent().isEnabled();
+    }
+}
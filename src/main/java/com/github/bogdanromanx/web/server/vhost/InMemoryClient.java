@@ -0,0 +1,138 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.NotUsed;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>
+ * Client of an {@link InMemoryHandler}: every call opens a new in memory connection, writes the argument requests to
+ * it, pipelined, and completes with the responses once the connection completes (when all the requests were answered
+ * or when the server closed the connection).
+ * </p>
+ * <p>
+ * The requests are raw bytes, so that malformed requests can be issued as well; they can be written in fragments of
+ * arbitrary size to exercise the framing of the requests that span multiple reads.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class InMemoryClient {
+
+    private static final ByteString HEAD_END = ByteString.fromString("\r\n\r\n");
+    private static final String CONTENT_LENGTH = "content-length:";
+
+    private final Flow<ByteString, ByteString, NotUsed> connection;
+    private final Materializer materializer;
+
+    /**
+     * Constructs a new {@link InMemoryClient} of the argument 'connection' factory.
+     *
+     * @param connection   the connection factory of the vhost
+     * @param materializer the materializer of the connections
+     */
+    public InMemoryClient(Flow<ByteString, ByteString, NotUsed> connection, Materializer materializer) {
+        this.connection = connection;
+        this.materializer = materializer;
+    }
+
+    /**
+     * Writes the argument 'chunks' to a new connection, one after the other.
+     *
+     * @param chunks the raw bytes written to the connection
+     * @return the raw bytes of all the responses
+     */
+    public CompletionStage<ByteString> send(List<ByteString> chunks) {
+        return Source.from(chunks)
+                .via(connection)
+                .runFold(ByteString.empty(), ByteString::concat, materializer);
+    }
+
+    /**
+     * Writes the argument 'requests' to a new connection, pipelined, in a single chunk.
+     *
+     * @param requests the raw requests, i.e.: "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n"
+     * @return the raw responses, in order
+     */
+    public CompletionStage<List<ByteString>> pipeline(String... requests) {
+        return pipeline(Arrays.asList(requests), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes the argument 'requests' to a new connection, pipelined, in chunks of at most 'chunkSize' bytes.
+     *
+     * @param requests  the raw requests
+     * @param chunkSize the maximum size of the chunks written to the connection
+     * @return the raw responses, in order
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public CompletionStage<List<ByteString>> pipeline(List<String> requests, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        ByteString bytes = ByteString.empty();
+        for (String request : requests) {
+            bytes = bytes.concat(ByteString.fromString(request, "ISO-8859-1"));
+        }
+        List<ByteString> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length(); offset += chunkSize) {
+            chunks.add(bytes.slice(offset, (int) Math.min((long) offset + chunkSize, bytes.length())));
+        }
+        return send(chunks).thenApply(InMemoryClient::split);
+    }
+
+    /**
+     * Splits the argument raw 'responses' using the 'Content-Length' of each response; responses without the header
+     * have no entity.  A truncated last response is kept as is.
+     *
+     * @param responses the raw bytes of the responses written on a connection
+     * @return the raw bytes of each response
+     */
+    public static List<ByteString> split(ByteString responses) {
+        if (responses.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ByteString> result = new ArrayList<>();
+        ByteString remaining = responses;
+        while (!remaining.isEmpty()) {
+            int headEnd = remaining.indexOfSlice(HEAD_END);
+            if (headEnd < 0) {
+                result.add(remaining);
+                break;
+            }
+            int length = headEnd + HEAD_END.length();
+            length += contentLength(remaining.slice(0, headEnd).decodeString(StandardCharsets.ISO_8859_1.name()));
+            length = Math.min(length, remaining.length());
+            result.add(remaining.slice(0, length));
+            remaining = remaining.drop(length);
+        }
+        return result;
+    }
+
+    private static int contentLength(String head) {
+        for (String line : head.split("\r\n")) {
+            if (line.toLowerCase().startsWith(CONTENT_LENGTH)) {
+                return Integer.parseInt(line.substring(CONTENT_LENGTH.length()).trim());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Decodes the argument raw 'response' as text, for assertions.
+     *
+     * @param response the raw bytes of a response
+     * @return the response as text
+     */
+    public static String asString(ByteString response) {
+        return response.decodeString(StandardCharsets.ISO_8859_1.name());
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.stream.javadsl.Flow;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.handling.RequestHandler;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * {@link VHostHandler} implementation that does not bind to any interface: its connections are in memory, each
+ * materialization of the {@link InMemoryHandler#connection()} flow being a new connection that takes the raw request
+ * bytes in and gives the raw response bytes out, through the same processing flow as the network transports.
+ * </p>
+ * <p>
+ * It allows benchmarking and testing the request processing without the cost and the nondeterminism of the loopback
+ * sockets, or embedding the server in another application; see {@link InMemoryClient} for issuing requests.
+ * </p>
+ *
+ * @see AbstractVHostHandler
+ */
+public class InMemoryHandler extends AbstractVHostHandler {
+
+    private volatile Supplier<Flow<ByteString, ByteString, NotUsed>> connection;
+
+    public InMemoryHandler(ActorSystem system, VHostConfig vHostConfig) {
+        super(system, vHostConfig);
+    }
+
+    /**
+     * Constructs the request handler and the processing flow of this vhost, including their warm-up; no interface is
+     * bound.
+     */
+    @Override
+    public void start() {
+        RequestHandler requestHandler = requestHandler();
+        connection = perPipelining(() -> processingFlow(requestHandler));
+    }
+
+    /**
+     * @return the connection factory of this vhost: each materialization of the flow is a new connection
+     * @throws IllegalStateException if the handler was not started
+     */
+    public Flow<ByteString, ByteString, NotUsed> connection() {
+        Supplier<Flow<ByteString, ByteString, NotUsed>> flow = connection;
+        if (flow == null) {
+            throw new IllegalStateException("The in memory vhost " + vHostConfig.host() + ":" + vHostConfig.port()
+                    + " was not started");
+        }
+        return flow.get();
+    }
+
+    /**
+     * @return a new client of this vhost
+     * @throws IllegalStateException if the handler was not started
+     */
+    public InMemoryClient client() {
+        return new InMemoryClient(connection(), materializer);
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.NotUsed;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.JitWarmUpConfig;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>
+ * JIT warm-up of a vhost: the configured corpus of raw requests is replayed, pipelined, through the processing flow of
+ * the vhost on in memory connections (see {@link AbstractVHostHandler#processingFlow}), one connection per iteration,
+ * until the configured number of iterations is reached or the time budget is exceeded.  The framing, parsing, handling
+ * and rendering code is thus compiled before the vhost is bound and the first real requests arrive.  The replayed
+ * requests are neither counted in the metrics of the vhost nor recorded into the access log.
+ * </p>
+ * <p>
+ * A failing replay (i.e.: a malformed request in the corpus) stops the warm-up without failing the vhost start.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class JitWarmUp {
+
+    private final JitWarmUpConfig config;
+    private final ByteString corpus;
+
+    private volatile int iterations;
+    private volatile long responseBytes;
+    private volatile long durationNanos;
+    private volatile Throwable failure;
+
+    /**
+     * Constructs a new {@link JitWarmUp} from the argument 'config'.
+     *
+     * @param config the JIT warm-up configuration
+     */
+    JitWarmUp(JitWarmUpConfig config) {
+        this.config = config;
+        ByteString corpus = ByteString.empty();
+        for (String request : config.requests()) {
+            corpus = corpus.concat(ByteString.fromString(request, "ISO-8859-1"));
+        }
+        this.corpus = corpus.compact();
+    }
+
+    /**
+     * Replays the corpus through the argument 'flow', blocking until the warm-up completes.
+     *
+     * @param flow         the processing flow of the vhost
+     * @param materializer the materializer of the in memory connections
+     */
+    void run(Flow<ByteString, ByteString, NotUsed> flow, Materializer materializer) {
+        long start = System.nanoTime();
+        long deadline = start + config.timeBudget().toNanos();
+        try {
+            while (iterations < config.iterations()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                responseBytes += Source.single(corpus)
+                        .via(flow)
+                        .runFold(0L, (acc, bytes) -> acc + bytes.length(), materializer)
+                        .toCompletableFuture()
+                        .get(remaining, TimeUnit.NANOSECONDS);
+                iterations++;
+            }
+        } catch (TimeoutException e) {
+            // the time budget was exceeded while replaying the corpus
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            durationNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return the number of times the corpus was replayed
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the number of response bytes produced by the replays
+     */
+    public long responseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return the duration of the warm-up in milliseconds, once completed
+     */
+    public long durationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * @return the failure that stopped the warm-up, if any
+     */
+    public Optional<Throwable> failure() {
+        return Optional.ofNullable(failure);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "JitWarmUp{" +
+                "iterations=" + iterations +
+                ", responseBytes=" + responseBytes +
+                ", durationMillis=" + durationMillis() +
+                ", failure=" + failure +
+                '}';
+    }
+}
@@ -0,0 +1,277 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.Done;
+import akka.NotUsed;
+import akka.japi.Pair;
+import akka.stream.Materializer;
+import akka.stream.OverflowStrategy;
+import akka.stream.QueueOfferResult;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Keep;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.SourceQueueWithComplete;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.NioConfig;
+import com.github.bogdanromanx.web.server.types.HttpEntity;
+import com.github.bogdanromanx.web.server.types.HttpProtocol;
+import com.github.bogdanromanx.web.server.types.HttpRequest;
+import com.github.bogdanromanx.web.server.types.HttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A single connection handled by the {@link NioTcpHandler}.  The inbound bytes are read by the selector thread and
+ * offered to the processing flow one chunk at a time; the read interest is dropped until the flow accepts the chunk,
+ * which propagates the back-pressure to the client.  The responses are written in order, on the write executor:
+ * <ul>
+ * <li>{@link HttpEntity.Strict} entities are written together with the response head in a single gathering write</li>
+ * <li>{@link HttpEntity.FileRegion} entities are transferred with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}</li>
+ * <li>{@link HttpEntity.Streaming} entities are written chunk by chunk as they are emitted by their source</li>
+ * </ul>
+ * When the socket send buffer is full, the writing thread waits on a connection private selector until the socket
+ * becomes writable again, or closes the connection after the configured write timeout.
+ */
+final class NioConnection {
+
+    private final NioTcpHandler handler;
+    private final SocketChannel channel;
+    private final Executor writeExecutor;
+    private final Materializer materializer;
+    private final ByteBuffer readBuffer;
+    private final long writeTimeoutMillis;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final SocketAddress remote;
+    private final long openedAt = System.nanoTime();
+
+    private SelectionKey key;
+    private SourceQueueWithComplete<ByteString> inbound;
+    private Selector writeSelector;
+
+    NioConnection(NioTcpHandler handler, SocketChannel channel, NioConfig config, Executor writeExecutor,
+                  Materializer materializer) {
+        this.handler = handler;
+        this.channel = channel;
+        this.writeExecutor = writeExecutor;
+        this.materializer = materializer;
+        this.readBuffer = ByteBuffer.allocate(config.readBufferSize());
+        this.writeTimeoutMillis = config.writeTimeout().toMillis();
+        this.remote = channel.socket().getRemoteSocketAddress();
+    }
+
+    void key(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the remote address of the connection
+     */
+    SocketAddress remote() {
+        return remote;
+    }
+
+    /**
+     * @return the moment the connection was opened, as returned by {@link System#nanoTime()}
+     */
+    long openedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Materializes the argument 'flow' for this connection; the connection is closed when the flow terminates, with the
+     * failure of the flow, if any.
+     */
+    void run(Flow<ByteString, Pair<HttpResponse, HttpRequest>, NotUsed> flow) {
+        Pair<SourceQueueWithComplete<ByteString>, CompletionStage<Done>> materialized = Source
+                .<ByteString>queue(1, OverflowStrategy.backpressure())
+                .via(flow)
+                .mapAsync(1, pair -> written(pair.second(),
+                        write(pair.second().requestLine().protocol(), pair.first())))
+                .toMat(Sink.ignore(), Keep.both())
+                .run(materializer);
+        inbound = materialized.first();
+        materialized.second().whenComplete((done, th) -> close(th));
+    }
+
+    /**
+     * Reads the available bytes and offers them to the processing flow.  Called by the selector thread.
+     */
+    void read() {
+        int read;
+        readBuffer.clear();
+        try {
+            read = channel.read(readBuffer);
+        } catch (IOException e) {
+            close(e);
+            return;
+        }
+        if (read < 0) {
+            key.interestOps(0);
+            inbound.complete();
+            return;
+        }
+        if (read == 0) {
+            return;
+        }
+        readBuffer.flip();
+        key.interestOps(0);
+        inbound.offer(ByteString.fromByteBuffer(readBuffer)).whenComplete((result, th) -> {
+            if (th == null && result instanceof QueueOfferResult.Enqueued$) {
+                handler.onSelector(() -> {
+                    if (key.isValid()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                });
+            } else {
+                close(th != null ? th : rejected(result));
+            }
+        });
+    }
+
+    /**
+     * @return the failure of an offer of the inbound bytes that was not enqueued
+     */
+    private static Throwable rejected(QueueOfferResult result) {
+        return result instanceof QueueOfferResult.Failure
+                ? ((QueueOfferResult.Failure) result).cause()
+                : new IllegalStateException("The inbound bytes were not enqueued: " + result);
+    }
+
+    /**
+     * Reports the response of the argument 'request' as written once the argument 'write' completes, for timed
+     * requests (see {@link AbstractVHostHandler#written(HttpRequest)}).
+     */
+    private CompletionStage<Done> written(HttpRequest request, CompletionStage<Done> write) {
+        if (!request.timing().isPresent()) {
+            return write;
+        }
+        return write.thenApply(done -> {
+            handler.written(request);
+            return done;
+        });
+    }
+
+    /**
+     * Writes the argument 'response' to the connection.
+     *
+     * @return a {@link CompletionStage} completed when the full response was written
+     */
+    private CompletionStage<Done> write(HttpProtocol protocol, HttpResponse response) {
+        ByteString head = AbstractVHostHandler.responseHead(protocol, response);
+        HttpEntity entity = response.entity();
+        if (entity instanceof HttpEntity.Streaming) {
+            return CompletableFuture.runAsync(() -> write(head), writeExecutor)
+                    .thenCompose(d -> ((HttpEntity.Streaming) entity).source()
+                            .mapAsync(1, bytes -> CompletableFuture.runAsync(() -> write(bytes), writeExecutor))
+                            .runWith(Sink.ignore(), materializer));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (entity instanceof HttpEntity.Strict) {
+                write(head.concat(((HttpEntity.Strict) entity).bytes()));
+            } else if (entity instanceof HttpEntity.FileRegion) {
+                write(head);
+                transfer((HttpEntity.FileRegion) entity);
+            } else {
+                write(head);
+            }
+            return Done.getInstance();
+        }, writeExecutor);
+    }
+
+    private void write(ByteString bytes) {
+        List<ByteBuffer> list = new ArrayList<>();
+        bytes.getByteBuffers().forEach(list::add);
+        ByteBuffer[] buffers = list.toArray(new ByteBuffer[list.size()]);
+        long remaining = bytes.length();
+        try {
+            while (remaining > 0) {
+                long written = channel.write(buffers);
+                if (written == 0) {
+                    awaitWritable();
+                }
+                remaining -= written;
+                handler.bytesOut.add(written);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void transfer(HttpEntity.FileRegion region) {
+        try (FileChannel file = FileChannel.open(region.path(), StandardOpenOption.READ)) {
+            long position = region.position();
+            long end = position + region.length();
+            while (position < end) {
+                long transferred = file.transferTo(position, end - position, channel);
+                if (transferred == 0) {
+                    if (position >= file.size()) {
+                        throw new IOException("The file " + region.path() + " was truncated while being transferred");
+                    }
+                    awaitWritable();
+                }
+                position += transferred;
+                handler.bytesOut.add(transferred);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        if (writeSelector == null) {
+            writeSelector = Selector.open();
+            channel.register(writeSelector, SelectionKey.OP_WRITE);
+        }
+        if (writeSelector.select(writeTimeoutMillis) == 0) {
+            throw new IOException("Timed out waiting for the connection to become writable");
+        }
+        writeSelector.selectedKeys().clear();
+    }
+
+    /**
+     * Closes the connection, freeing its resources.  Subsequent calls have no effect.
+     */
+    void close() {
+        close(null);
+    }
+
+    /**
+     * Closes the connection because of the argument 'failure', if not null: the inbound queue is failed first, so that
+     * the processing flow is terminated along with the connection.  Subsequent calls have no effect.
+     */
+    private void close(Throwable failure) {
+        if (closed.compareAndSet(false, true)) {
+            if (inbound != null) {
+                if (failure != null) {
+                    inbound.fail(failure);
+                } else {
+                    inbound.complete();
+                }
+            }
+            handler.closed(this, failure);
+            try {
+                channel.close();
+                if (writeSelector != null) {
+                    writeSelector.close();
+                }
+            } catch (IOException ignored) {
+                // nothing left to do with the connection
+            }
+        }
+    }
+}
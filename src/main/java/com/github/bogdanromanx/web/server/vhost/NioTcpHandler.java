@@ -0,0 +1,173 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import akka.japi.Pair;
+import akka.stream.javadsl.Flow;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.handling.RequestHandler;
+import com.github.bogdanromanx.web.server.settings.NioConfig;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import com.github.bogdanromanx.web.server.types.HttpEntity;
+import com.github.bogdanromanx.web.server.types.HttpRequest;
+import com.github.bogdanromanx.web.server.types.HttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * {@link VHostHandler} implementation that uses the JDK non-blocking IO API for handling incoming connections.  A
+ * single selector thread accepts the connections and reads the inbound bytes, feeding them into the processing flow.
+ * The responses are written on the dispatcher configured by 'web.server.nio.dispatcher'.
+ * </p>
+ * <p>
+ * Unlike the {@link AkkaTcpHandler}, this handler writes the responses itself instead of encoding them into a stream
+ * of {@link ByteString}: {@link HttpEntity.FileRegion} entities are transferred from the file straight to the socket
+ * (see {@link NioConnection}), without copying their bytes into user space.
+ * </p>
+ *
+ * @see AbstractVHostHandler
+ */
+public class NioTcpHandler extends AbstractVHostHandler {
+
+    private final LoggingAdapter log;
+    private final NioConfig nioConfig;
+    private final Executor writeExecutor;
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private final Set<NioConnection> connections = ConcurrentHashMap.newKeySet();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    public NioTcpHandler(ActorSystem system, VHostConfig vHostConfig) {
+        super(system, vHostConfig);
+        this.log = Logging.getLogger(system, this);
+        this.nioConfig = SettingsExtension.SettingsExtensionProvider.get(system).nioConfig();
+        this.writeExecutor = system.dispatchers().lookup(nioConfig.dispatcher());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        RequestHandler requestHandler = requestHandler();
+        Supplier<Flow<ByteString, Pair<HttpResponse, HttpRequest>, NotUsed>> flow =
+                perPipelining(() -> handlingFlow(requestHandler));
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(vHostConfig.host(), vHostConfig.port()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to bind to " + vHostConfig.host() + ":" + vHostConfig.port(), e);
+        }
+        running = true;
+        Thread thread = new Thread(() -> select(flow), "nio-tcp-handler-" + vHostConfig.port());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * The selector loop: accepts new connections, reads the inbound bytes of the existing ones and runs the tasks
+     * scheduled by the other threads (i.e.: re-registering the read interest of a connection).
+     */
+    private void select(Supplier<Flow<ByteString, Pair<HttpResponse, HttpRequest>, NotUsed>> flow) {
+        while (running) {
+            try {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept(flow.get());
+                    } else if (key.isReadable()) {
+                        ((NioConnection) key.attachment()).read();
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (Exception e) {
+                log.error(e, "Unexpected failure in the selector loop of vhost {}:{}", vHostConfig.host(), vHostConfig.port());
+            }
+        }
+    }
+
+    private void accept(Flow<ByteString, Pair<HttpResponse, HttpRequest>, NotUsed> flow) throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        if (!admitConnection(channel.socket().getRemoteSocketAddress())) {
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        NioConnection connection = new NioConnection(this, channel, nioConfig, writeExecutor, materializer);
+        connections.add(connection);
+        connection.run(withRemoteAddress(flow, connection.remote()));
+        connection.key(channel.register(selector, SelectionKey.OP_READ, connection));
+    }
+
+    /**
+     * Schedules the argument 'task' to be run by the selector thread, as the selection keys are not to be mutated
+     * concurrently with a selection.
+     */
+    void onSelector(Runnable task) {
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Callback for connections that have been closed, with the argument 'failure' that closed them, if any.
+     */
+    void closed(NioConnection connection, Throwable failure) {
+        connections.remove(connection);
+        connectionClosed(connection.remote(), connection.openedAt(), failure);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminate() {
+        running = false;
+        try {
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            log.warning("Unable to close the server channel of vhost {}:{}", vHostConfig.host(), vHostConfig.port());
+        }
+        connections.forEach(NioConnection::close);
+        super.terminate();
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.stream.Attributes;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * {@link Attributes.Attribute} carrying the address of the client of a connection to the stages of its processing
+ * flow; the transports add it to the flow of every connection they accept (see {@link AccessLogStage}).
+ */
+final class RemoteAddress implements Attributes.Attribute {
+
+    /**
+     * The address of the connections without a client address, i.e.: in memory connections.
+     */
+    static final RemoteAddress UNKNOWN = new RemoteAddress("-");
+
+    private final String host;
+
+    private RemoteAddress(String host) {
+        this.host = host;
+    }
+
+    /**
+     * @return the address of the client host, without the port, "-" if unknown
+     */
+    String host() {
+        return host;
+    }
+
+    /**
+     * @param address the socket address of the client
+     * @return the attributes carrying the host of the argument 'address'; it is never resolved to a name
+     */
+    static Attributes attributes(SocketAddress address) {
+        if (!(address instanceof InetSocketAddress)) {
+            return Attributes.none().and(UNKNOWN);
+        }
+        InetSocketAddress inet = (InetSocketAddress) address;
+        String host = inet.getAddress() != null ? inet.getAddress().getHostAddress() : inet.getHostString();
+        return Attributes.none().and(new RemoteAddress(host));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "RemoteAddress{" +
+                "host='" + host + '\'' +
+                '}';
+    }
+}
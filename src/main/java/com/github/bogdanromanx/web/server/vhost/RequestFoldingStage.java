@@ -7,15 +7,23 @@ import akka.stream.Outlet;
 import akka.stream.javadsl.Source;
 import akka.stream.stage.*;
 import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.FlightRecorder;
 import com.github.bogdanromanx.web.server.framing.RequestFrame;
 import com.github.bogdanromanx.web.server.types.HttpEntity;
 import com.github.bogdanromanx.web.server.types.HttpRequest;
+import com.github.bogdanromanx.web.server.types.RequestLine;
+import com.github.bogdanromanx.web.server.types.RequestTiming;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
 
 import java.lang.reflect.Constructor;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * {@link GraphStage} implementation that folds a series on {@link RequestFrame} instances into a single
- * {@link HttpRequest} instance.
+ * {@link HttpRequest} instance.  The requests timed by the framing stage, as well as those whose clients opted in
+ * through the configured request header, carry a {@link RequestTiming} that records the moment they were folded.  The
+ * streaming of the request entities is recorded as {@link EntityStreamEvent}s when enabled in a flight recording.
  */
 @SuppressWarnings("WeakerAccess")
 public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, HttpRequest>> {
@@ -23,6 +31,28 @@ public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, Http
     private Inlet<RequestFrame> in = Inlet.create("FoldingStage.in");
     private Outlet<HttpRequest> out = Outlet.create("FoldingStage.out");
     private FlowShape<RequestFrame, HttpRequest> shape = FlowShape.of(in, out);
+    private final String vhost;
+    private final String optInHeader;
+
+    /**
+     * Constructs a new {@link RequestFoldingStage} that times only the requests timed by the framing stage.
+     */
+    public RequestFoldingStage() {
+        this("", "");
+    }
+
+    /**
+     * Constructs a new {@link RequestFoldingStage} for the argument 'vhost' that also times the requests with the
+     * argument 'optInHeader'.
+     *
+     * @param vhost       the vhost of the recorded events, i.e.: "127.0.0.1:8080"
+     * @param optInHeader the name of the request header through which clients opt in for timing, empty for none
+     * @throws NullPointerException for null vhost or optInHeader arguments
+     */
+    public RequestFoldingStage(String vhost, String optInHeader) {
+        this.vhost = requireNonNull(vhost, "The vhost cannot be null");
+        this.optInHeader = requireNonNull(optInHeader, "The timing opt-in header cannot be null");
+    }
 
     @Override
     public FlowShape<RequestFrame, HttpRequest> shape() {
@@ -37,6 +67,10 @@ public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, Http
     private class RequestFoldingLogic extends GraphStageLogic {
         SubSourceOutlet<ByteString> entitySourceOutlet = null;
         HttpRequest.Builder builder = HttpRequest.builder().entity(HttpEntity.empty());
+        RequestTiming timing = null;
+        boolean optedIn = false;
+        RequestLine requestLine = null;
+        EntityStreamEvent entityEvent = null;
 
         private RequestFoldingLogic(FlowShape<RequestFrame, HttpRequest> shape) {
             super(shape);
@@ -99,13 +133,17 @@ public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, Http
             if (frame instanceof RequestFrame.RequestLineFrame) {
                 RequestFrame.RequestLineFrame requestLineFrame = (RequestFrame.RequestLineFrame) frame;
                 requestLineFrame.requestLine().protocol();
-                builder.requestLine(requestLineFrame.requestLine());
+                requestLine = requestLineFrame.requestLine();
+                builder.requestLine(requestLine);
+                timing = requestLineFrame.timing().orElse(null);
             }
         }
 
         private void handleHeader(RequestFrame frame) {
             if (frame instanceof RequestFrame.HeaderFrame) {
-                builder.addHeader(((RequestFrame.HeaderFrame) frame).header());
+                RawHeader header = ((RequestFrame.HeaderFrame) frame).header();
+                optedIn |= !optInHeader.isEmpty() && header.name().equalsIgnoreCase(optInHeader);
+                builder.addHeader(header);
             }
         }
 
@@ -115,6 +153,14 @@ public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, Http
                 entitySourceOutlet.setHandler(outHandler);
 
                 RequestFrame.EntityStart entityStart = (RequestFrame.EntityStart) frame;
+                if (FlightRecorder.available() && EntityStreamEvent.enabled()) {
+                    entityEvent = new EntityStreamEvent();
+                    entityEvent.begin();
+                    entityEvent.vhost = vhost;
+                    entityEvent.method = requestLine.method().value();
+                    entityEvent.uri = requestLine.uri().toString();
+                    entityEvent.contentLength = entityStart.length();
+                }
                 HttpEntity entity = HttpEntity.streaming(
                         Source.fromGraph(entitySourceOutlet.source()),
                         entityStart.length());
@@ -123,24 +169,32 @@ public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, Http
                 setHandler(in, streamingEntityInHandler);
                 setHandler(out, streamingEntityOutHandler);
 
-                push(out, builder.build());
+                push(out, build());
             }
         }
 
         private void handleEntityFrame(RequestFrame frame) {
             if (frame instanceof RequestFrame.EntityFrame) {
-                entitySourceOutlet.push(((RequestFrame.EntityFrame) frame).bytes());
+                ByteString bytes = ((RequestFrame.EntityFrame) frame).bytes();
+                if (entityEvent != null) {
+                    entityEvent.bytes += bytes.length();
+                }
+                entitySourceOutlet.push(bytes);
             }
         }
 
         private void handleEntityEnd(RequestFrame frame) {
             if (frame instanceof RequestFrame.EntityEnd) {
                 if (entitySourceOutlet != null) {
+                    if (entityEvent != null) {
+                        entityEvent.commit();
+                        entityEvent = null;
+                    }
                     entitySourceOutlet.complete();
                     entitySourceOutlet = null;
                     setDefaultHandlers();
                 } else {
-                    push(out, builder.build());
+                    push(out, build());
                 }
                 completeStage();
             }
@@ -152,6 +206,16 @@ public class RequestFoldingStage extends GraphStage<FlowShape<RequestFrame, Http
          *
          * @return a new {@link SubSourceOutlet}
          */
+        private HttpRequest build() {
+            if (timing == null && optedIn) {
+                timing = RequestTiming.of();
+            }
+            if (timing != null) {
+                builder.timing(timing.parsed(System.nanoTime()));
+            }
+            return builder.build();
+        }
+
         // TODO implement an alternative to the private API SubSourceOutlet
         @SuppressWarnings("unchecked")
         private SubSourceOutlet<ByteString> constructSubSourceOutlet() {
@@ -0,0 +1,144 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+/**
+ * Management interface of a running vhost, registered with the platform MBean server as
+ * '&lt;domain&gt;:type=VHost,name="&lt;host&gt;:&lt;port&gt;"' (see {@link AbstractVHostHandler}).  Along with the live
+ * statistics of the vhost, it exposes the limits that can be changed without a restart: the changes of the connection
+ * limit and of the pipelining apply to the connections accepted afterwards, the cache budgets apply immediately.
+ */
+public interface VHostMXBean {
+
+    /**
+     * @return the address of the vhost, i.e.: "127.0.0.1:8080"
+     */
+    String getAddress();
+
+    /**
+     * @return the name of the transport that handles the connections of the vhost
+     */
+    String getTransport();
+
+    /**
+     * @return the number of open connections
+     */
+    long getActiveConnections();
+
+    /**
+     * @return the number of connections accepted since the vhost was started
+     */
+    long getAcceptedConnections();
+
+    /**
+     * @return the number of connections closed on accept because the vhost was at its connection limit
+     */
+    long getRejectedConnections();
+
+    /**
+     * @return the number of requests handled since the vhost was started
+     */
+    long getRequests();
+
+    /**
+     * @return the number of requests handled per second, since the previous read of this attribute (sampled at most
+     * once a second)
+     */
+    double getRequestsPerSecond();
+
+    /**
+     * @return the number of requests being handled
+     */
+    long getInFlightRequests();
+
+    /**
+     * @return the number of files held by the file cache
+     */
+    int getFileCacheEntries();
+
+    /**
+     * @return the number of bytes held by the file cache
+     */
+    long getFileCacheBytes();
+
+    /**
+     * @return the ratio of the file cache lookups served from the cache, 0 without lookups
+     */
+    double getFileCacheHitRatio();
+
+    /**
+     * @return the ratio of the file metadata lookups served from the metadata cache, 0 without lookups
+     */
+    double getMetadataCacheHitRatio();
+
+    /**
+     * @return the number of compressed variants held in memory
+     */
+    int getCompressionCacheEntries();
+
+    /**
+     * @return the number of bytes of the compressed variants held in memory
+     */
+    long getCompressionCacheBytes();
+
+    /**
+     * @return the ratio of the compressed variant lookups that found a variant, 0 without lookups
+     */
+    double getCompressionCacheHitRatio();
+
+    /**
+     * @return the number of tasks waiting for a thread of the vhost dispatcher, -1 if unknown
+     */
+    long getDispatcherQueueDepth();
+
+    /**
+     * @return the number of threads of the vhost dispatcher running tasks, -1 if unknown
+     */
+    int getDispatcherActiveThreads();
+
+    /**
+     * @return the maximum number of open connections, 0 for no limit
+     */
+    int getMaxConnections();
+
+    /**
+     * @param maxConnections the maximum number of open connections, 0 for no limit; the open connections over the
+     *                       new limit are left open
+     * @throws IllegalArgumentException for a negative value
+     */
+    void setMaxConnections(int maxConnections);
+
+    /**
+     * @return the maximum number of pipelined requests of a connection handled concurrently
+     */
+    int getPipelining();
+
+    /**
+     * @param pipelining the maximum number of pipelined requests of a connection handled concurrently, for the
+     *                   connections accepted afterwards
+     * @throws IllegalArgumentException for a value lower than 1
+     */
+    void setPipelining(int pipelining);
+
+    /**
+     * @return the maximum number of bytes held by the file cache
+     */
+    long getFileCacheMaxBytes();
+
+    /**
+     * @param bytes the maximum number of bytes held by the file cache, 0 disables the cache; the least recently used
+     *              files are evicted until the cache fits the new budget
+     * @throws IllegalArgumentException for a negative value
+     */
+    void setFileCacheMaxBytes(long bytes);
+
+    /**
+     * @return the maximum number of bytes of the compressed variants held in memory
+     */
+    long getCompressionCacheMaxBytes();
+
+    /**
+     * @param bytes the maximum number of bytes of the compressed variants held in memory, 0 disables the cache; the
+     *              least recently used variants are evicted until the cache fits the new budget
+     * @throws IllegalArgumentException for a negative value
+     */
+    void setCompressionCacheMaxBytes(long bytes);
+}
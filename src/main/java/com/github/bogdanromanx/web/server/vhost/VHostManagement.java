@@ -0,0 +1,177 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import com.github.bogdanromanx.web.server.compression.CompressedVariants;
+import com.github.bogdanromanx.web.server.handling.FileCache;
+import com.github.bogdanromanx.web.server.handling.FileHandler;
+import com.github.bogdanromanx.web.server.handling.FileMetadataCache;
+import com.github.bogdanromanx.web.server.metrics.DispatcherStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VHostMXBean} implementation backed by the metrics, the caches and the limits of an
+ * {@link AbstractVHostHandler}.
+ */
+final class VHostManagement implements VHostMXBean {
+
+    private static final long RATE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final AbstractVHostHandler handler;
+    private final FileHandler fileHandler;
+    private final DispatcherStats dispatcher;
+
+    private long sampledAt = System.nanoTime();
+    private long sampledRequests;
+    private double rate;
+
+    VHostManagement(AbstractVHostHandler handler, FileHandler fileHandler) {
+        this.handler = handler;
+        this.fileHandler = fileHandler;
+        this.dispatcher = DispatcherStats.of(handler.system.dispatchers().lookup(handler.vHostConfig.dispatcher()));
+    }
+
+    @Override
+    public String getAddress() {
+        return handler.vhost;
+    }
+
+    @Override
+    public String getTransport() {
+        return handler.vHostConfig.transport();
+    }
+
+    @Override
+    public long getActiveConnections() {
+        return handler.connectionsActive.value();
+    }
+
+    @Override
+    public long getAcceptedConnections() {
+        return handler.connectionsAccepted.value();
+    }
+
+    @Override
+    public long getRejectedConnections() {
+        return handler.connectionsRejected.value();
+    }
+
+    @Override
+    public long getRequests() {
+        return handler.requests();
+    }
+
+    @Override
+    public synchronized double getRequestsPerSecond() {
+        long now = System.nanoTime();
+        if (now - sampledAt >= RATE_INTERVAL) {
+            long requests = handler.requests();
+            rate = (requests - sampledRequests) * (double) TimeUnit.SECONDS.toNanos(1) / (now - sampledAt);
+            sampledRequests = requests;
+            sampledAt = now;
+        }
+        return rate;
+    }
+
+    @Override
+    public long getInFlightRequests() {
+        return handler.requestsInFlight.value();
+    }
+
+    @Override
+    public int getFileCacheEntries() {
+        return fileHandler.cache().entries();
+    }
+
+    @Override
+    public long getFileCacheBytes() {
+        return fileHandler.cache().totalSize();
+    }
+
+    @Override
+    public double getFileCacheHitRatio() {
+        FileCache cache = fileHandler.cache();
+        return ratio(cache.hits(), cache.misses());
+    }
+
+    @Override
+    public double getMetadataCacheHitRatio() {
+        FileMetadataCache metadata = fileHandler.metadata();
+        return ratio(metadata.hits(), metadata.misses());
+    }
+
+    @Override
+    public int getCompressionCacheEntries() {
+        return handler.compression.variants().entries();
+    }
+
+    @Override
+    public long getCompressionCacheBytes() {
+        return handler.compression.variants().totalSize();
+    }
+
+    @Override
+    public double getCompressionCacheHitRatio() {
+        CompressedVariants variants = handler.compression.variants();
+        return ratio(variants.hits(), variants.misses());
+    }
+
+    @Override
+    public long getDispatcherQueueDepth() {
+        return dispatcher.queueDepth();
+    }
+
+    @Override
+    public int getDispatcherActiveThreads() {
+        return dispatcher.activeThreads();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return handler.maxConnections;
+    }
+
+    @Override
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("The maximum number of connections cannot be negative");
+        }
+        handler.maxConnections = maxConnections;
+    }
+
+    @Override
+    public int getPipelining() {
+        return handler.pipelining;
+    }
+
+    @Override
+    public void setPipelining(int pipelining) {
+        if (pipelining < 1) {
+            throw new IllegalArgumentException("The pipelining parallelism must be positive");
+        }
+        handler.pipelining = pipelining;
+    }
+
+    @Override
+    public long getFileCacheMaxBytes() {
+        return fileHandler.cache().maxTotalSize();
+    }
+
+    @Override
+    public void setFileCacheMaxBytes(long bytes) {
+        fileHandler.cache().maxTotalSize(bytes);
+    }
+
+    @Override
+    public long getCompressionCacheMaxBytes() {
+        return handler.compression.variants().maxTotalSize();
+    }
+
+    @Override
+    public void setCompressionCacheMaxBytes(long bytes) {
+        handler.compression.variants().maxTotalSize(bytes);
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
@@ -24,6 +24,7 @@ public class WebServerTest {
     private static Config config = ConfigFactory.load();
     private static WebServer server;
     private static String uri = String.format("http://%s:%s", config.getString("host"), config.getInt("port"));
+    private static String nioUri = String.format("http://%s:%s", config.getString("host"), config.getInt("nio-port"));
 
     @BeforeClass
     public static void beforeClass() {
@@ -67,6 +68,35 @@ public class WebServerTest {
         assertThat(result, equalTo(expected));
     }
 
+    @Test
+    public void nioPing() throws IOException {
+        Response response = Request.Get(nioUri + "/ping")
+                .version(HttpVersion.HTTP_1_1)
+                .execute();
+        Content content = response.returnContent();
+        assertThat(content.asString(), equalTo("pong"));
+        assertThat(content.getType().toString(), equalTo(ContentType.TEXT_PLAIN.value()));
+    }
+
+    @Test
+    public void nioGetLargeResource() throws IOException {
+        if (!isUnix()) {
+            return;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            builder.append(i).append('\n');
+        }
+        String expected = builder.toString();
+        ensureContent(new File(config.getString("tmp") + "/testfile-large"), expected);
+        String result = Request.Get(nioUri + "/testfile-large")
+                .version(HttpVersion.HTTP_1_1)
+                .execute()
+                .returnContent()
+                .asString();
+        assertThat(result, equalTo(expected));
+    }
+
     @AfterClass
     public static void afterClass() {
         server.terminate();
@@ -0,0 +1,133 @@
+package com.github.bogdanromanx.web.server.accesslog;
+
+import akka.event.NoLogging;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.metrics.MetricsRegistry;
+import com.github.bogdanromanx.web.server.settings.AccessLogConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class AccessLogTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("access-log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static Counter dropped() {
+        return new MetricsRegistry().counter("web_server_access_log_dropped_total", "The dropped entries");
+    }
+
+    private static boolean offer(AccessLogBuffer buffer, int status) {
+        return buffer.offer(0L, "-", "localhost:8080", "GET", "/", "HTTP/1.1", status, 0L, 0L);
+    }
+
+    @Test
+    public void drainsTheEntriesInOrderAndRejectsThemWhenFull() {
+        AccessLogBuffer buffer = new AccessLogBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(offer(buffer, 200 + i), equalTo(true));
+        }
+        assertThat(offer(buffer, 204), equalTo(false));
+        List<Integer> statuses = new ArrayList<>();
+        assertThat(buffer.drain(e -> statuses.add(e.status), 3), equalTo(3));
+        assertThat(offer(buffer, 204), equalTo(true));
+        assertThat(buffer.drain(e -> statuses.add(e.status), 10), equalTo(2));
+        assertThat(statuses, contains(200, 201, 202, 203, 204));
+        assertThat(buffer.drain(e -> statuses.add(e.status), 10), equalTo(0));
+    }
+
+    @Test
+    public void acceptsConcurrentProducers() throws Exception {
+        AccessLogBuffer buffer = new AccessLogBuffer(64);
+        AtomicLong rejected = new AtomicLong();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    if (!offer(buffer, 200)) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        long[] drained = new long[1];
+        Thread consumer = new Thread(() -> {
+            while (true) {
+                boolean done = !producing.get();
+                if (buffer.drain(e -> drained[0]++, 16) == 0 && done) {
+                    break;
+                }
+            }
+        });
+        consumer.start();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        producing.set(false);
+        consumer.join();
+        assertThat(drained[0] + rejected.get(), equalTo(40000L));
+    }
+
+    @Test
+    public void countsTheDroppedEntries() {
+        AccessLog accessLog = new AccessLog(AccessLogConfig.of(false, dir.resolve("access.log"), 2, 16, 1024, 1),
+                dropped(), NoLogging.getInstance());
+        for (int i = 0; i < 5; i++) {
+            accessLog.record("127.0.0.1", "localhost:8080", "GET", "/", "HTTP/1.1", 200, 0, 0);
+        }
+        assertThat(accessLog.dropped(), equalTo(3L));
+    }
+
+    @Test
+    public void writesTheEntriesAndRotatesTheFile() throws Exception {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(AccessLogConfig.of(true, file, 1024, 4, 400, 2),
+                dropped(), NoLogging.getInstance());
+        for (int i = 0; i < 20; i++) {
+            accessLog.record("127.0.0.1", "localhost:8080", "GET", "/file-" + i, "HTTP/1.1", 200, i, 1_500_000);
+        }
+        accessLog.close();
+        assertThat(Files.exists(dir.resolve("access.log.1")), equalTo(true));
+        assertThat(Files.exists(dir.resolve("access.log.2")), equalTo(true));
+        assertThat(Files.exists(dir.resolve("access.log.3")), equalTo(false));
+        for (String name : new String[]{"access.log", "access.log.1", "access.log.2"}) {
+            assertThat(Files.size(dir.resolve(name)), lessThanOrEqualTo(400L));
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        assertThat(lines.get(lines.size() - 1), allOf(
+                startsWith("localhost:8080 127.0.0.1 - - ["),
+                endsWith(" +0000] \"GET /file-19 HTTP/1.1\" 200 19 1500")));
+        assertThat(accessLog.dropped(), equalTo(0L));
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.bogdanromanx.web.server.capture;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.event.NoLogging;
+import akka.stream.ActorMaterializer;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.metrics.MetricsRegistry;
+import com.github.bogdanromanx.web.server.settings.CaptureConfig;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import com.github.bogdanromanx.web.server.vhost.InMemoryHandler;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class TrafficCaptureTest {
+
+    private static final InetSocketAddress REMOTE = new InetSocketAddress("127.0.0.1", 54321);
+
+    private static ActorSystem system;
+    private static Materializer materializer;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+        materializer = ActorMaterializer.create(system);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static Counter truncated() {
+        return new MetricsRegistry().counter("web_server_capture_truncated_total", "The truncated connections");
+    }
+
+    private static void send(Flow<ByteString, ByteString, NotUsed> tap, String... chunks) throws Exception {
+        Source.from(Arrays.asList(chunks))
+                .map(ByteString::fromString)
+                .via(tap)
+                .runWith(Sink.ignore(), materializer)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static String asString(ByteString bytes) {
+        return bytes.decodeString(StandardCharsets.UTF_8.name());
+    }
+
+    @Test
+    public void recordsTheChunksOfTheSampledConnections() throws Exception {
+        Path file = Files.createTempFile("capture", ".bin");
+        try {
+            TrafficCapture capture = new TrafficCapture(CaptureConfig.of(true, file, 1.0, 1024 * 1024, 32, 16),
+                    truncated(), NoLogging.getInstance());
+            Optional<Flow<ByteString, ByteString, NotUsed>> first = capture.tap("localhost:8080", REMOTE);
+            Optional<Flow<ByteString, ByteString, NotUsed>> second = capture.tap("localhost:8081", REMOTE);
+            assertThat(first.isPresent() && second.isPresent(), equalTo(true));
+            send(first.get(), "GET /", "ping HTTP/1.1\r\n", "\r\n");
+            send(second.get(), "0123456789012345678901234567890", "abc");
+            capture.close();
+
+            List<CaptureFile.Connection> connections = CaptureFile.read(file);
+            assertThat(connections.size(), equalTo(2));
+            CaptureFile.Connection connection = connections.get(0);
+            assertThat(connection.vhost(), equalTo("localhost:8080"));
+            assertThat(connection.remote(), equalTo("127.0.0.1:54321"));
+            assertThat(connection.chunks().stream().map(c -> asString(c.bytes())).collect(Collectors.toList()),
+                    contains("GET /", "ping HTTP/1.1\r\n", "\r\n"));
+            assertThat(connection.chunks().get(0).at(), greaterThanOrEqualTo(connection.openedAt()));
+            assertThat(connection.closedAt(), greaterThanOrEqualTo(connection.chunks().get(2).at()));
+            // the second connection stops being recorded once it exceeds the 32 bytes per connection
+            assertThat(connections.get(1).chunks().size(), equalTo(1));
+            assertThat(connections.get(1).closedAt(), equalTo(-1L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void samplesTheConnections() throws Exception {
+        Path file = Files.createTempFile("capture", ".bin");
+        try {
+            TrafficCapture none = new TrafficCapture(CaptureConfig.of(true, file, 0.0, 1024, 1024, 16),
+                    truncated(), NoLogging.getInstance());
+            assertThat(none.tap("localhost:8080", REMOTE).isPresent(), equalTo(false));
+            none.close();
+            assertThat(CaptureFile.read(file), empty());
+
+            TrafficCapture disabled = new TrafficCapture(CaptureConfig.of(false, file, 1.0, 1024, 1024, 16),
+                    truncated(), NoLogging.getInstance());
+            assertThat(disabled.tap("localhost:8080", REMOTE).isPresent(), equalTo(false));
+            disabled.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void replaysTheCaptureThroughTheProcessingFlow() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CaptureFile.writeHeader(out);
+        open(out, 1, 0);
+        data(out, 1, 10_000_000L, "GET /pi");
+        open(out, 2, 50_000_000L);
+        data(out, 2, 60_000_000L, "GET /missing-file HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        close(out, 2, 70_000_000L);
+        data(out, 1, 200_000_000L,
+                "ng HTTP/1.1\r\nHost: localhost\r\n\r\nGET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        close(out, 1, 300_000_000L);
+        List<CaptureFile.Connection> connections = CaptureFile.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(connections.size(), equalTo(2));
+
+        VHostConfig config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+        InMemoryHandler handler = new InMemoryHandler(system, VHostConfig.of(config.host(), config.port(),
+                config.path(), config.dispatcher(), "memory", Collections.emptyList(), 1));
+        handler.start();
+        try {
+            for (double speed : Arrays.asList(0.0, 1.0)) {
+                long start = System.nanoTime();
+                List<ByteString> responses = new CaptureReplay(system, materializer, connections, speed)
+                        .replay(handler::connection, Sink.fold(ByteString.empty(), ByteString::concat))
+                        .toCompletableFuture()
+                        .get(10, TimeUnit.SECONDS);
+                long elapsed = System.nanoTime() - start;
+                assertThat(responses.size(), equalTo(2));
+                String pings = asString(responses.get(0));
+                assertThat(pings, startsWith("HTTP/1.1 200 OK\r\n"));
+                assertThat(pings.split("pong", -1).length, equalTo(3));
+                assertThat(asString(responses.get(1)), startsWith("HTTP/1.1 404 Not Found\r\n"));
+                if (speed == 1.0) {
+                    assertThat(elapsed, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(290)));
+                }
+            }
+        } finally {
+            handler.terminate();
+        }
+    }
+
+    private static void open(DataOutputStream out, long id, long at) throws IOException {
+        out.writeByte(CaptureFile.OPEN);
+        out.writeLong(id);
+        out.writeLong(at);
+        out.writeUTF("localhost:8080");
+        out.writeUTF("127.0.0.1:54321");
+    }
+
+    private static void data(DataOutputStream out, long id, long at, String chunk) throws IOException {
+        byte[] bytes = chunk.getBytes(StandardCharsets.US_ASCII);
+        out.writeByte(CaptureFile.DATA);
+        out.writeLong(id);
+        out.writeLong(at);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void close(DataOutputStream out, long id, long at) throws IOException {
+        out.writeByte(CaptureFile.CLOSE);
+        out.writeLong(id);
+        out.writeLong(at);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.bogdanromanx.web.server.compression;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class DeflateStageTest {
+
+    private static ActorSystem system;
+    private static ActorMaterializer materializer;
+    private static ByteString content;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+        materializer = ActorMaterializer.create(system);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        content = ByteString.fromString(sb.toString());
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static ByteString compress(String coding, int chunkSize) throws Exception {
+        List<ByteString> chunks = new ArrayList<>();
+        for (int i = 0; i < content.length(); i += chunkSize) {
+            chunks.add(content.slice(i, Math.min(content.length(), i + chunkSize)));
+        }
+        return Source.from(chunks)
+                .via(new DeflateStage(coding, 6))
+                .runWith(Sink.fold(ByteString.empty(), ByteString::concat), materializer)
+                .toCompletableFuture()
+                .get();
+    }
+
+    static ByteString inflate(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return ByteString.fromArray(out.toByteArray());
+    }
+
+    static ByteString gunzip(ByteString bytes) throws IOException {
+        return inflate(new GZIPInputStream(new ByteArrayInputStream(bytes.toArray())));
+    }
+
+    @Test
+    public void gzipsChunkedInput() throws Exception {
+        ByteString compressed = compress("gzip", 1000);
+        assertThat(compressed.length(), lessThan(content.length() / 2));
+        assertThat(gunzip(compressed), equalTo(content));
+    }
+
+    @Test
+    public void deflatesChunkedInput() throws Exception {
+        ByteString compressed = compress("deflate", 7);
+        assertThat(inflate(new InflaterInputStream(new ByteArrayInputStream(compressed.toArray()))), equalTo(content));
+    }
+
+    @Test
+    public void matchesTheOneShotCompression() throws Exception {
+        assertThat(compress("gzip", content.length()), equalTo(Compressor.compress(content, "gzip", 6)));
+    }
+
+    @Test
+    public void encodesEmptyStreams() throws Exception {
+        ByteString compressed = Source.<ByteString>empty()
+                .via(new DeflateStage("gzip", 1))
+                .runWith(Sink.fold(ByteString.empty(), ByteString::concat), materializer)
+                .toCompletableFuture()
+                .get();
+        assertThat(gunzip(compressed), equalTo(ByteString.empty()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwsOnUnsupportedCodings() {
+        new DeflateStage("br", 6);
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.bogdanromanx.web.server.compression;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.CompressionConfig;
+import com.github.bogdanromanx.web.server.types.*;
+import com.github.bogdanromanx.web.server.types.headers.*;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static com.github.bogdanromanx.web.server.compression.DeflateStageTest.gunzip;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class ResponseCompressionTest {
+
+    private static ActorSystem system;
+    private static ActorMaterializer materializer;
+    private static Executor executor;
+    private static ByteString content;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+        materializer = ActorMaterializer.create(system);
+        executor = system.dispatcher();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append("<p>paragraph ").append(i).append("</p>\n");
+        }
+        content = ByteString.fromString(sb.toString());
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static ResponseCompression compression(Path directory) {
+        CompressionConfig config = CompressionConfig.of(true, 6, 1024, 1024 * 1024,
+                Arrays.asList("text/", "application/json"), 1024 * 1024, directory, 1024 * 1024);
+        return new ResponseCompression(config, "localhost:8080", executor, materializer);
+    }
+
+    private static HttpRequest request(String acceptEncoding) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.builder()
+                .requestLine(RequestLine.of(HttpMethod.Standard.GET, new URI("/index.html"), HttpProtocol.HTTP_1_1))
+                .entity(HttpEntity.empty());
+        if (acceptEncoding != null) {
+            builder.addHeaders(RawHeader.of(AcceptEncoding.NAME, acceptEncoding));
+        }
+        return builder.build();
+    }
+
+    private static HttpResponse response(String contentType, HttpEntity entity, RawHeader... extra) {
+        return HttpResponse.of(StatusCode.OK, headers(contentType, entity.length(), extra), entity);
+    }
+
+    private static List<RawHeader> headers(String contentType, long length, RawHeader... extra) {
+        List<RawHeader> headers = new ArrayList<>();
+        headers.add(ContentLength.of(length).raw());
+        headers.add(ContentType.of(contentType).raw());
+        headers.addAll(Arrays.asList(extra));
+        return headers;
+    }
+
+    private static HttpResponse apply(ResponseCompression compression, String acceptEncoding, HttpResponse response)
+            throws Exception {
+        return compression.apply(request(acceptEncoding), response).toCompletableFuture().get();
+    }
+
+    private static Optional<String> header(HttpResponse response, String name) {
+        return response.headers().stream()
+                .filter(h -> h.name().equalsIgnoreCase(name))
+                .map(RawHeader::value)
+                .findFirst();
+    }
+
+    private static ByteString body(HttpResponse response) {
+        return ((HttpEntity.Strict) response.entity()).bytes();
+    }
+
+    @Test
+    public void gzipsEligibleResponses() throws Exception {
+        HttpResponse response = apply(compression(null), "deflate, gzip", response("text/html",
+                HttpEntity.strict(content)));
+        assertThat(header(response, ContentEncoding.NAME), equalTo(Optional.of("gzip")));
+        assertThat(header(response, "Vary"), equalTo(Optional.of(AcceptEncoding.NAME)));
+        assertThat(header(response, ContentLength.NAME), equalTo(Optional.of(String.valueOf(body(response).length()))));
+        assertThat(gunzip(body(response)), equalTo(content));
+    }
+
+    @Test
+    public void deflatesWhenPreferred() throws Exception {
+        HttpResponse response = apply(compression(null), "gzip;q=0.5, deflate", response("text/html",
+                HttpEntity.strict(content)));
+        assertThat(header(response, ContentEncoding.NAME), equalTo(Optional.of("deflate")));
+    }
+
+    @Test
+    public void compressesStreamedEntities() throws Exception {
+        HttpEntity entity = HttpEntity.streaming(Source.from(Arrays.asList(content.take(100), content.drop(100))),
+                content.length());
+        HttpResponse response = apply(compression(null), "gzip", response("application/json", entity));
+        assertThat(gunzip(body(response)), equalTo(content));
+    }
+
+    @Test
+    public void onlyAddsVaryWithoutAcceptedCodings() throws Exception {
+        HttpResponse original = response("text/html", HttpEntity.strict(content));
+        for (String acceptEncoding : Arrays.asList(null, "br", "gzip;q=0.5, identity")) {
+            HttpResponse response = apply(compression(null), acceptEncoding, original);
+            assertThat(header(response, ContentEncoding.NAME), equalTo(Optional.empty()));
+            assertThat(header(response, "Vary"), equalTo(Optional.of(AcceptEncoding.NAME)));
+            assertThat(response.entity(), sameInstance(original.entity()));
+        }
+    }
+
+    @Test
+    public void skipsIneligibleResponses() throws Exception {
+        ResponseCompression compression = compression(null);
+        HttpResponse small = response("text/html", HttpEntity.strict(ByteString.fromString("small")));
+        HttpResponse binary = response("image/png", HttpEntity.strict(content));
+        HttpResponse encoded = response("text/html", HttpEntity.strict(content), ContentEncoding.BR.raw());
+        HttpResponse partial = HttpResponse.of(StatusCode.PARTIAL_CONTENT,
+                headers("text/html", content.length()), HttpEntity.strict(content));
+        for (HttpResponse response : Arrays.asList(small, binary, encoded, partial)) {
+            assertThat(apply(compression, "gzip", response), sameInstance(response));
+        }
+    }
+
+    @Test
+    public void weakensTheEntityTag() throws Exception {
+        HttpResponse response = apply(compression(null), "gzip", response("text/html",
+                HttpEntity.strict(content), ETag.strong("abc").raw()));
+        assertThat(header(response, ETag.NAME), equalTo(Optional.of("W/\"abc\"")));
+    }
+
+    @Test
+    public void cachesTheVariantsOfTaggedResponses() throws Exception {
+        ResponseCompression compression = compression(null);
+        HttpResponse first = apply(compression, "gzip", response("text/html",
+                HttpEntity.strict(content), ETag.strong("abc").raw()));
+        HttpResponse second = apply(compression, "gzip", response("text/html",
+                HttpEntity.strict(content), ETag.strong("abc").raw()));
+        assertThat(body(second), sameInstance(body(first)));
+        assertThat(compression.variants().hits(), equalTo(1L));
+        assertThat(compression.variants().misses(), equalTo(1L));
+        assertThat(compression.variants().entries(), equalTo(1));
+
+        apply(compression, "gzip", response("text/html", HttpEntity.strict(content), ETag.strong("def").raw()));
+        assertThat(compression.variants().entries(), equalTo(2));
+    }
+
+    @Test
+    public void persistsTheVariants() throws Exception {
+        Path directory = Files.createTempDirectory("variants");
+        try {
+            HttpResponse original = response("text/html", HttpEntity.strict(content), ETag.strong("abc").raw());
+            ByteString compressed = body(apply(compression(directory), "gzip", original));
+            File[] files = new File[0];
+            for (int i = 0; i < 100 && files.length == 0; i++) {
+                Thread.sleep(20);
+                files = directory.toFile().listFiles((dir, name) -> !name.endsWith(".tmp"));
+            }
+            assertThat(files.length, equalTo(1));
+
+            ResponseCompression restarted = compression(directory);
+            assertThat(body(apply(restarted, "gzip", original)), equalTo(compressed));
+            assertThat(restarted.variants().hits(), equalTo(1L));
+        } finally {
+            for (File file : directory.toFile().listFiles()) {
+                Files.delete(file.toPath());
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedPersistedVariants() throws Exception {
+        Path directory = Files.createTempDirectory("variants");
+        try {
+            ByteString bytes = ByteString.fromArray(new byte[100]);
+            CompressedVariants variants = new CompressedVariants(0, Optional.of(directory), 250, Runnable::run);
+            variants.put("a", bytes);
+            Thread.sleep(20);
+            variants.put("b", bytes);
+            Thread.sleep(20);
+            assertThat(variants.get("a").toCompletableFuture().get().isPresent(), equalTo(true));
+            Thread.sleep(20);
+            variants.put("c", bytes);
+            assertThat(directory.toFile().list().length, equalTo(2));
+            assertThat(variants.get("b").toCompletableFuture().get().isPresent(), equalTo(false));
+            assertThat(variants.get("a").toCompletableFuture().get().isPresent(), equalTo(true));
+            assertThat(variants.get("c").toCompletableFuture().get().isPresent(), equalTo(true));
+
+            variants.put("large", ByteString.fromArray(new byte[300]));
+            assertThat(directory.toFile().list().length, equalTo(2));
+        } finally {
+            for (File file : directory.toFile().listFiles()) {
+                Files.delete(file.toPath());
+            }
+            Files.delete(directory);
+        }
+    }
+}
@@ -5,10 +5,12 @@ import akka.stream.ActorMaterializer;
 import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.metrics.MetricsRegistry;
 import com.github.bogdanromanx.web.server.settings.ParsingConfig;
 import com.github.bogdanromanx.web.server.types.HttpMethod;
 import com.github.bogdanromanx.web.server.types.HttpProtocol;
 import com.github.bogdanromanx.web.server.types.RequestLine;
+import com.github.bogdanromanx.web.server.types.RequestTiming;
 import com.github.bogdanromanx.web.server.types.headers.ContentLength;
 import com.github.bogdanromanx.web.server.types.headers.RawHeader;
 import org.junit.AfterClass;
@@ -21,10 +23,13 @@ import java.net.URI;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
 public class FramingStageTest {
@@ -75,4 +80,58 @@ public class FramingStageTest {
         );
         assertThat(frames, equalTo(expected));
     }
+
+    @Test
+    public void timesTheSampledRequests() throws ExecutionException, InterruptedException {
+        String request = "GET / HTTP/1.1\r\nname:value\r\n\r\n";
+        List<ByteString> chunks = Arrays.asList(
+                ByteString.fromString(request.substring(0, 5)),
+                ByteString.fromString(request.substring(5) + request));
+        for (double sampleRate : new double[]{0, 1}) {
+            List<RequestFrame> frames = Source.from(chunks)
+                    .via(new FramingStage(config, new MetricsRegistry(), "", sampleRate))
+                    .runWith(Sink.seq(), materializer)
+                    .toCompletableFuture()
+                    .get();
+            List<RequestTiming> timings = frames.stream()
+                    .filter(frame -> frame instanceof RequestFrame.RequestLineFrame)
+                    .map(frame -> ((RequestFrame.RequestLineFrame) frame).timing())
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
+            assertThat(frames.size(), equalTo(6));
+            assertThat(timings.size(), equalTo(sampleRate == 0 ? 0 : 2));
+            for (RequestTiming timing : timings) {
+                assertThat(timing.stageNanos("read"), greaterThanOrEqualTo(0L));
+                assertThat(timing.stageNanos("framing"), equalTo(-1L));
+            }
+        }
+    }
+
+    @Test
+    public void fragmentedFramingStage() throws ExecutionException, InterruptedException {
+        ByteString bytes = ByteString.fromString("" +
+                "GET / HTTP/1.0\r\n" +
+                "name:value\r\n" +
+                "\r\n"
+        );
+        List<RequestFrame> expected = Arrays.asList(
+                RequestFrame.requestLine(RequestLine.of(
+                        HttpMethod.of("GET"), URI.create("/"), HttpProtocol.HTTP_1_0)),
+                RequestFrame.header(RawHeader.of("name", "value")),
+                RequestFrame.end()
+        );
+        for (int size = 1; size <= bytes.length(); size++) {
+            List<ByteString> chunks = new LinkedList<>();
+            for (int offset = 0; offset < bytes.length(); offset += size) {
+                chunks.add(bytes.slice(offset, Math.min(offset + size, bytes.length())));
+            }
+            List<RequestFrame> frames = Source.from(chunks)
+                    .via(new FramingStage(config))
+                    .runWith(Sink.seq(), materializer)
+                    .toCompletableFuture()
+                    .get();
+            assertThat(frames, equalTo(expected));
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import com.github.bogdanromanx.web.server.types.headers.ContentType;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class DocrootIndexTest {
+
+    private static final ContentType TEXT_HTML = ContentType.of("text/html");
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private Path root;
+
+    @Before
+    public void before() throws IOException {
+        root = Files.createTempDirectory("index");
+        Files.createDirectories(root.resolve("dir/nested"));
+        Files.write(root.resolve("dir/index.html"), "<html/>".getBytes());
+        Files.write(root.resolve("dir/nested/page.html"), "<p/>".getBytes());
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        POOL.shutdown();
+    }
+
+    private DocrootIndex index() {
+        return new DocrootIndex(root, p -> TEXT_HTML, POOL).load();
+    }
+
+    @Test
+    public void indexesTheWholeTree() throws Exception {
+        DocrootIndex index = index();
+        assertThat(index.size(), equalTo(5));
+        FileMetadataCache.Metadata metadata = index.get("/dir/nested/page.html");
+        assertThat(metadata.path(), equalTo(root.resolve("dir/nested/page.html")));
+        assertThat(metadata.exists(), equalTo(true));
+        assertThat(metadata.isRegularFile(), equalTo(true));
+        assertThat(metadata.size(), equalTo(4L));
+        assertThat(metadata.contentType(), equalTo(TEXT_HTML));
+        assertThat(index.get("/dir").isRegularFile(), equalTo(false));
+        assertThat(index.get("/").path(), equalTo(root));
+        assertThat(index.get("//dir/./index.html").size(), equalTo(7L));
+    }
+
+    @Test
+    public void neverResolvesPathsOutsideTheIndex() throws Exception {
+        DocrootIndex index = index();
+        assertThat(index.get("/missing").exists(), equalTo(false));
+        assertThat(index.get("/dir/index.html/more").exists(), equalTo(false));
+        assertThat(index.get("/dir/../dir/index.html").exists(), equalTo(false));
+        assertThat(index.get("/../" + root.getFileName() + "/dir").exists(), equalTo(false));
+    }
+
+    @Test
+    public void appliesChangedFiles() throws Exception {
+        DocrootIndex index = index();
+        Files.write(root.resolve("dir/index.html"), "<html></html>".getBytes());
+        index.changed(root.resolve("dir/index.html"));
+        assertThat(index.get("/dir/index.html").size(), equalTo(13L));
+        Files.delete(root.resolve("dir/nested/page.html"));
+        index.changed(root.resolve("dir/nested/page.html"));
+        assertThat(index.get("/dir/nested/page.html").exists(), equalTo(false));
+        assertThat(index.size(), equalTo(4));
+    }
+
+    @Test
+    public void indexesNewDirectories() throws Exception {
+        DocrootIndex index = index();
+        Files.createDirectories(root.resolve("new/deep"));
+        Files.write(root.resolve("new/deep/file.html"), "<a/>".getBytes());
+        index.changed(root.resolve("new/deep/file.html"));
+        assertThat(index.get("/new/deep/file.html").exists(), equalTo(true));
+        assertThat(index.get("/dir/index.html").exists(), equalTo(true));
+        index.changed(root.getParent().resolve("elsewhere"));
+        assertThat(index.size(), equalTo(8));
+    }
+}
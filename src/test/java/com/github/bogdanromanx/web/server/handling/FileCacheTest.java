@@ -0,0 +1,152 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.util.ByteString;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class FileCacheTest {
+
+    private static final ByteString bytes = ByteString.fromString("0123456789");
+
+    private static Path path(String name) {
+        return Paths.get("/tmp", name);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsOnNegativeSizes() {
+        new FileCache(-1, 10);
+    }
+
+    @Test
+    public void rejectsFilesLargerThanTheThreshold() {
+        FileCache cache = new FileCache(5, 100);
+        assertThat(cache.accepts(bytes.length()), equalTo(false));
+        assertThat(cache.put(path("a"), 1L, bytes), equalTo(false));
+        assertThat(cache.entries(), equalTo(0));
+    }
+
+    @Test
+    public void disabledForZeroTotalSize() {
+        FileCache cache = new FileCache(100, 0);
+        assertThat(cache.accepts(0), equalTo(true));
+        assertThat(cache.accepts(1), equalTo(false));
+    }
+
+    @Test
+    public void servesCachedContent() {
+        FileCache cache = new FileCache(100, 100);
+        assertThat(cache.get(path("a"), bytes.length(), 1L), equalTo(Optional.empty()));
+        assertThat(cache.put(path("a"), 1L, bytes), equalTo(true));
+        assertThat(cache.get(path("a"), bytes.length(), 1L), equalTo(Optional.of(bytes)));
+        assertThat(cache.hits(), equalTo(1L));
+        assertThat(cache.misses(), equalTo(1L));
+        assertThat(cache.totalSize(), equalTo((long) bytes.length()));
+    }
+
+    @Test
+    public void dropsStaleContent() {
+        FileCache cache = new FileCache(100, 100);
+        cache.put(path("a"), 1L, bytes);
+        assertThat(cache.get(path("a"), bytes.length(), 2L), equalTo(Optional.empty()));
+        assertThat(cache.invalidations(), equalTo(1L));
+        assertThat(cache.entries(), equalTo(0));
+        assertThat(cache.totalSize(), equalTo(0L));
+    }
+
+    @Test
+    public void invalidatesContent() {
+        FileCache cache = new FileCache(100, 100);
+        cache.put(path("a"), 1L, bytes);
+        cache.invalidate(path("a"));
+        assertThat(cache.get(path("a"), bytes.length(), 1L), equalTo(Optional.empty()));
+        assertThat(cache.invalidations(), equalTo(1L));
+    }
+
+    @Test
+    public void evictsEntriesWhenTheBudgetShrinks() {
+        FileCache cache = new FileCache(10, 20);
+        cache.put(path("a"), 1L, bytes);
+        cache.put(path("b"), 1L, bytes);
+        cache.get(path("a"), bytes.length(), 1L);
+        cache.maxTotalSize(bytes.length());
+        assertThat(cache.maxTotalSize(), equalTo((long) bytes.length()));
+        assertThat(cache.entries(), equalTo(1));
+        assertThat(cache.evictions(), equalTo(1L));
+        assertThat(cache.get(path("a"), bytes.length(), 1L), equalTo(Optional.of(bytes)));
+    }
+
+    @Test
+    public void evictsLessPopularEntries() {
+        FileCache cache = new FileCache(10, 20);
+        cache.put(path("a"), 1L, bytes);
+        cache.put(path("b"), 1L, bytes);
+        for (int i = 0; i < 3; i++) {
+            cache.get(path("c"), bytes.length(), 1L);
+        }
+        assertThat(cache.put(path("c"), 1L, bytes), equalTo(true));
+        assertThat(cache.evictions(), equalTo(1L));
+        assertThat(cache.entries(), equalTo(2));
+        assertThat(cache.totalSize(), equalTo(20L));
+    }
+
+    @Test
+    public void sweepDoesNotFlushPopularEntries() {
+        FileCache cache = new FileCache(10, 20);
+        for (String name : new String[]{"a", "b"}) {
+            for (int i = 0; i < 3; i++) {
+                cache.get(path(name), bytes.length(), 1L);
+            }
+            cache.put(path(name), 1L, bytes);
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.get(path("sweep" + i), bytes.length(), 1L);
+            cache.put(path("sweep" + i), 1L, bytes);
+        }
+        assertThat(cache.get(path("a"), bytes.length(), 1L), equalTo(Optional.of(bytes)));
+        assertThat(cache.get(path("b"), bytes.length(), 1L), equalTo(Optional.of(bytes)));
+        assertThat(cache.evictions(), equalTo(0L));
+    }
+
+    @Test
+    public void staysConsistentUnderConcurrentAccess() throws Exception {
+        FileCache cache = new FileCache(10, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        Path path = path("f" + ((i * 31 + seed) % 40));
+                        if (!cache.get(path, bytes.length(), 1L).isPresent()) {
+                            cache.put(path, 1L, bytes);
+                        }
+                        if (i % 1000 == seed) {
+                            cache.invalidate(path);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(cache.totalSize(), equalTo((long) cache.entries() * bytes.length()));
+        assertThat(cache.totalSize(), lessThanOrEqualTo(100L));
+        assertThat(cache.hits(), greaterThan(0L));
+    }
+}
@@ -0,0 +1,396 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.FileHandlingConfig;
+import com.github.bogdanromanx.web.server.types.*;
+import com.github.bogdanromanx.web.server.types.headers.ETag;
+import com.github.bogdanromanx.web.server.types.headers.RawHeader;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class FileHandlerTest {
+
+    private static ActorSystem system;
+    private static ActorMaterializer materializer;
+    private static Path root;
+    private static ByteString content;
+
+    // serves the file from memory
+    private static FileHandler cached;
+    // serves the file with positional reads
+    private static FileHandler streamed;
+    // serves the file from a memory mapping
+    private static FileHandler mapped;
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        system = ActorSystem.create();
+        materializer = ActorMaterializer.create(system);
+        byte[] bytes = new byte[100 * 1024];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        content = ByteString.fromArray(bytes);
+        root = Files.createTempDirectory("files");
+        Files.write(root.resolve("file.bin"), bytes);
+        Files.write(root.resolve("text.txt"), "plain".getBytes());
+        Files.write(root.resolve("text.txt.gz"), "gzipped".getBytes());
+        Files.write(root.resolve("text.txt.br"), "brotli".getBytes());
+        long mb = 1024 * 1024;
+        cached = new FileHandler(root, config(mb, 0), system.dispatcher());
+        streamed = new FileHandler(root, config(0, 0), system.dispatcher());
+        mapped = new FileHandler(root, config(0, 1), system.dispatcher());
+    }
+
+    private static FileHandlingConfig config(long cacheSize, long mmapThreshold) {
+        return FileHandlingConfig.of("akka.actor.default-dispatcher", cacheSize, cacheSize, mmapThreshold, false,
+                Arrays.asList("br", "gzip"), 100, 100, java.time.Duration.ofSeconds(5), false, 0, 0.01, false);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        for (String name : Arrays.asList("file.bin", "text.txt", "text.txt.gz", "text.txt.br")) {
+            Files.deleteIfExists(root.resolve(name));
+        }
+        Files.deleteIfExists(root);
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static HttpRequest request(String path, RawHeader... headers) throws Exception {
+        return HttpRequest.builder()
+                .requestLine(RequestLine.of(HttpMethod.Standard.GET, new URI(path), HttpProtocol.HTTP_1_1))
+                .addHeaders(headers)
+                .entity(HttpEntity.empty())
+                .build();
+    }
+
+    private static HttpResponse get(FileHandler handler, String path, RawHeader... headers) throws Exception {
+        return handler.apply(request(path, headers)).toCompletableFuture().get();
+    }
+
+    private static ByteString body(HttpResponse response) throws Exception {
+        HttpEntity entity = response.entity();
+        if (entity instanceof HttpEntity.Strict) {
+            return ((HttpEntity.Strict) entity).bytes();
+        }
+        if (entity instanceof HttpEntity.FileRegion) {
+            return fold(((HttpEntity.FileRegion) entity).source());
+        }
+        if (entity instanceof HttpEntity.Streaming) {
+            return fold(((HttpEntity.Streaming) entity).source());
+        }
+        return ByteString.empty();
+    }
+
+    private static ByteString fold(akka.stream.javadsl.Source<ByteString, ?> source) throws Exception {
+        return source.runWith(Sink.fold(ByteString.empty(), ByteString::concat), materializer)
+                .toCompletableFuture()
+                .get();
+    }
+
+    private static Optional<String> header(HttpResponse response, String name) {
+        return response.headers().stream()
+                .filter(h -> h.lowerCaseName().equals(name.toLowerCase()))
+                .map(RawHeader::value)
+                .findFirst();
+    }
+
+    @Test
+    public void servesTheFullFile() throws Exception {
+        for (FileHandler handler : Arrays.asList(cached, streamed, mapped)) {
+            HttpResponse response = get(handler, "/file.bin");
+            assertThat(response.statusCode(), equalTo(StatusCode.OK));
+            assertThat(header(response, "Accept-Ranges"), equalTo(Optional.of("bytes")));
+            assertThat(body(response), equalTo(content));
+        }
+    }
+
+    @Test
+    public void returnsNotFoundForMissingFiles() throws Exception {
+        assertThat(get(cached, "/missing").statusCode(), equalTo(StatusCode.NOT_FOUND));
+    }
+
+    @Test
+    public void servesFilesFromTheIndex() throws Exception {
+        FileHandlingConfig config = FileHandlingConfig.of("akka.actor.default-dispatcher", 0, 0, 0, false,
+                Arrays.asList("br", "gzip"), 100, 100, java.time.Duration.ofSeconds(5), false, 0, 0.01, true);
+        try (FileHandler indexed = new FileHandler(root, config, system.dispatcher())) {
+            assertThat(indexed.index().isPresent(), equalTo(true));
+            assertThat(body(get(indexed, "/file.bin")), equalTo(content));
+            assertThat(get(indexed, "/missing").statusCode(), equalTo(StatusCode.NOT_FOUND));
+            assertThat(get(indexed, "/../" + root.getFileName() + "/file.bin").statusCode(),
+                    equalTo(StatusCode.NOT_FOUND));
+            assertThat(indexed.metadata().size(), equalTo(0));
+        }
+    }
+
+    @Test
+    public void keepsTheWatchedIndexCurrent() throws Exception {
+        Path indexedRoot = Files.createTempDirectory("indexed");
+        FileHandlingConfig config = FileHandlingConfig.of("akka.actor.default-dispatcher", 0, 0, 0, false,
+                Arrays.asList("br", "gzip"), 100, 100, java.time.Duration.ofSeconds(5), true, 0, 0.01, true);
+        try (FileHandler indexed = new FileHandler(indexedRoot, config, system.dispatcher())) {
+            assertThat(indexed.watching(), equalTo(true));
+            assertThat(get(indexed, "/added.txt").statusCode(), equalTo(StatusCode.NOT_FOUND));
+            Files.write(indexedRoot.resolve("added.txt"), "added".getBytes());
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (get(indexed, "/added.txt").statusCode() != StatusCode.OK
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(body(get(indexed, "/added.txt")), equalTo(ByteString.fromString("added")));
+        } finally {
+            Files.deleteIfExists(indexedRoot.resolve("added.txt"));
+            Files.delete(indexedRoot);
+        }
+    }
+
+    @Test
+    public void resolvesTheFilesOnTheConfiguredExecutor() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        try (FileHandler handler = new FileHandler(root, config(0, 0), tasks::add)) {
+            CompletableFuture<HttpResponse> response = handler.apply(request("/file.bin")).toCompletableFuture();
+            // neither the resolution nor the stat of the file ran on the calling thread
+            assertThat(response.isDone(), equalTo(false));
+            assertThat(handler.metadata().size(), equalTo(0));
+            assertThat(tasks.size(), equalTo(1));
+            tasks.poll().run();
+            assertThat(response.isDone(), equalTo(true));
+            assertThat(handler.metadata().size(), equalTo(1));
+            assertThat(body(response.get()), equalTo(content));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsTheIndexOfARootThatCannotBeWatched() throws Exception {
+        FileHandlingConfig config = FileHandlingConfig.of("akka.actor.default-dispatcher", 0, 0, 0, false,
+                Arrays.asList("br", "gzip"), 100, 100, java.time.Duration.ofSeconds(5), true, 0, 0.01, true);
+        new FileHandler(root.resolve("missing"), config, system.dispatcher()).close();
+    }
+
+    @Test
+    public void servesASingleRange() throws Exception {
+        for (FileHandler handler : Arrays.asList(cached, streamed, mapped)) {
+            HttpResponse response = get(handler, "/file.bin", RawHeader.of("Range", "bytes=1000-70999"));
+            assertThat(response.statusCode(), equalTo(StatusCode.PARTIAL_CONTENT));
+            assertThat(header(response, "Content-Range"), equalTo(Optional.of("bytes 1000-70999/102400")));
+            assertThat(header(response, "Content-Length"), equalTo(Optional.of("70000")));
+            assertThat(body(response), equalTo(content.slice(1000, 71000)));
+        }
+    }
+
+    @Test
+    public void servesSuffixAndOpenEndedRanges() throws Exception {
+        HttpResponse suffix = get(streamed, "/file.bin", RawHeader.of("Range", "bytes=-100"));
+        assertThat(header(suffix, "Content-Range"), equalTo(Optional.of("bytes 102300-102399/102400")));
+        assertThat(body(suffix), equalTo(content.slice(102300, 102400)));
+        HttpResponse open = get(cached, "/file.bin", RawHeader.of("Range", "bytes=102000-200000"));
+        assertThat(header(open, "Content-Range"), equalTo(Optional.of("bytes 102000-102399/102400")));
+        assertThat(body(open), equalTo(content.slice(102000, 102400)));
+    }
+
+    @Test
+    public void servesMultipleRanges() throws Exception {
+        for (FileHandler handler : Arrays.asList(cached, streamed, mapped)) {
+            HttpResponse response = get(handler, "/file.bin", RawHeader.of("Range", "bytes=0-9,500-509"));
+            assertThat(response.statusCode(), equalTo(StatusCode.PARTIAL_CONTENT));
+            String contentType = header(response, "Content-Type").orElse("");
+            assertThat(contentType, startsWith("multipart/byteranges; boundary="));
+            String boundary = contentType.substring(contentType.indexOf('=') + 1);
+            ByteString expected = ByteString.fromString("\r\n--" + boundary + "\r\n" +
+                    "Content-Type: application/octet-stream\r\nContent-Range: bytes 0-9/102400\r\n\r\n")
+                    .concat(content.slice(0, 10))
+                    .concat(ByteString.fromString("\r\n--" + boundary + "\r\n" +
+                            "Content-Type: application/octet-stream\r\nContent-Range: bytes 500-509/102400\r\n\r\n"))
+                    .concat(content.slice(500, 510))
+                    .concat(ByteString.fromString("\r\n--" + boundary + "--\r\n"));
+            ByteString body = body(response);
+            assertThat(body, equalTo(expected));
+            assertThat(header(response, "Content-Length"), equalTo(Optional.of(Integer.toString(body.length()))));
+        }
+    }
+
+    @Test
+    public void rejectsUnsatisfiableRanges() throws Exception {
+        HttpResponse response = get(streamed, "/file.bin", RawHeader.of("Range", "bytes=200000-"));
+        assertThat(response.statusCode(), equalTo(StatusCode.RANGE_NOT_SATISFIABLE));
+        assertThat(header(response, "Content-Range"), equalTo(Optional.of("bytes */102400")));
+    }
+
+    @Test
+    public void ignoresMalformedRanges() throws Exception {
+        HttpResponse response = get(streamed, "/file.bin", RawHeader.of("Range", "bytes=10-5"));
+        assertThat(response.statusCode(), equalTo(StatusCode.OK));
+        assertThat(body(response), equalTo(content));
+    }
+
+    @Test
+    public void ignoresOverlappingRangesLargerThanTheFile() throws Exception {
+        HttpResponse response = get(streamed, "/file.bin", RawHeader.of("Range", "bytes=0-,0-"));
+        assertThat(response.statusCode(), equalTo(StatusCode.OK));
+        assertThat(body(response), equalTo(content));
+    }
+
+    @Test
+    public void honorsIfRangeDates() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        long lastModified = Files.getLastModifiedTime(root.resolve("file.bin")).toMillis();
+        RawHeader range = RawHeader.of("Range", "bytes=0-9");
+        RawHeader current = RawHeader.of("If-Range", format.format(new Date(lastModified)));
+        RawHeader stale = RawHeader.of("If-Range", format.format(new Date(lastModified - 10000)));
+        assertThat(get(cached, "/file.bin", range, current).statusCode(), equalTo(StatusCode.PARTIAL_CONTENT));
+        assertThat(get(cached, "/file.bin", range, stale).statusCode(), equalTo(StatusCode.OK));
+    }
+
+    @Test
+    public void sendsCacheValidators() throws Exception {
+        HttpResponse response = get(streamed, "/file.bin");
+        assertThat(header(response, "ETag").isPresent(), equalTo(true));
+        assertThat(header(response, "Last-Modified").isPresent(), equalTo(true));
+    }
+
+    @Test
+    public void returnsNotModifiedForMatchingETags() throws Exception {
+        String etag = header(get(streamed, "/file.bin"), "ETag").orElse("");
+        HttpResponse response = get(streamed, "/file.bin", RawHeader.of("If-None-Match", "\"other\", " + etag));
+        assertThat(response.statusCode(), equalTo(StatusCode.NOT_MODIFIED));
+        assertThat(response.entity(), equalTo(HttpEntity.empty()));
+        assertThat(header(response, "ETag"), equalTo(Optional.of(etag)));
+        assertThat(get(streamed, "/file.bin", RawHeader.of("If-None-Match", "\"other\"")).statusCode(),
+                equalTo(StatusCode.OK));
+    }
+
+    @Test
+    public void returnsNotModifiedForUnmodifiedFiles() throws Exception {
+        String lastModified = header(get(cached, "/file.bin"), "Last-Modified").orElse("");
+        HttpResponse response = get(cached, "/file.bin", RawHeader.of("If-Modified-Since", lastModified));
+        assertThat(response.statusCode(), equalTo(StatusCode.NOT_MODIFIED));
+        RawHeader old = RawHeader.of("If-Modified-Since", "Sun, 06 Nov 1994 08:49:37 GMT");
+        assertThat(get(cached, "/file.bin", old).statusCode(), equalTo(StatusCode.OK));
+    }
+
+    @Test
+    public void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws Exception {
+        String lastModified = header(get(cached, "/file.bin"), "Last-Modified").orElse("");
+        HttpResponse response = get(cached, "/file.bin",
+                RawHeader.of("If-None-Match", "\"other\""), RawHeader.of("If-Modified-Since", lastModified));
+        assertThat(response.statusCode(), equalTo(StatusCode.OK));
+    }
+
+    @Test
+    public void honorsIfRangeETags() throws Exception {
+        String etag = header(get(streamed, "/file.bin"), "ETag").orElse("");
+        RawHeader range = RawHeader.of("Range", "bytes=0-9");
+        assertThat(get(streamed, "/file.bin", range, RawHeader.of("If-Range", etag)).statusCode(),
+                equalTo(StatusCode.PARTIAL_CONTENT));
+        assertThat(get(streamed, "/file.bin", range, RawHeader.of("If-Range", "\"other\"")).statusCode(),
+                equalTo(StatusCode.OK));
+    }
+
+    @Test
+    public void derivesETagsFromContentHashes() throws Exception {
+        FileValidators validators = new FileValidators(true);
+        Path copy = Files.createTempFile("copy", ".bin");
+        try {
+            Files.copy(root.resolve("file.bin"), copy, StandardCopyOption.REPLACE_EXISTING);
+            Path file = root.resolve("file.bin");
+            long size = Files.size(file);
+            ETag first = validators.get(file, size, Files.getLastModifiedTime(file).toMillis(), false).etag();
+            ETag second = validators.get(copy, size, Files.getLastModifiedTime(copy).toMillis() + 1000, false).etag();
+            assertThat(first, equalTo(second));
+            assertThat(validators.size(), equalTo(2));
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    public void servesThePreferredPrecompressedSibling() throws Exception {
+        for (FileHandler handler : Arrays.asList(cached, streamed, mapped)) {
+            HttpResponse response = get(handler, "/text.txt", RawHeader.of("Accept-Encoding", "gzip, deflate, br"));
+            assertThat(body(response), equalTo(ByteString.fromString("brotli")));
+            assertThat(header(response, "Content-Encoding"), equalTo(Optional.of("br")));
+            assertThat(header(response, "Content-Type"), equalTo(Optional.of("text/plain")));
+            assertThat(header(response, "Vary"), equalTo(Optional.of("Accept-Encoding")));
+        }
+    }
+
+    @Test
+    public void honorsTheQualityValuesOfTheCodings() throws Exception {
+        HttpResponse gzip = get(cached, "/text.txt", RawHeader.of("Accept-Encoding", "br;q=0.5, gzip"));
+        assertThat(body(gzip), equalTo(ByteString.fromString("gzipped")));
+        assertThat(header(gzip, "Content-Encoding"), equalTo(Optional.of("gzip")));
+        HttpResponse identity = get(cached, "/text.txt", RawHeader.of("Accept-Encoding", "br;q=0, gzip;q=0"));
+        assertThat(body(identity), equalTo(ByteString.fromString("plain")));
+        assertThat(header(identity, "Content-Encoding"), equalTo(Optional.empty()));
+        assertThat(header(identity, "Vary"), equalTo(Optional.of("Accept-Encoding")));
+    }
+
+    @Test
+    public void servesTheFileWithoutAcceptEncoding() throws Exception {
+        HttpResponse response = get(cached, "/text.txt");
+        assertThat(body(response), equalTo(ByteString.fromString("plain")));
+        assertThat(header(response, "Vary"), equalTo(Optional.of("Accept-Encoding")));
+        assertThat(header(get(cached, "/file.bin"), "Vary"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void usesDistinctValidatorsForEncodedVariants() throws Exception {
+        RawHeader br = RawHeader.of("Accept-Encoding", "br");
+        String plain = header(get(cached, "/text.txt"), "ETag").orElse("");
+        String encoded = header(get(cached, "/text.txt", br), "ETag").orElse("");
+        assertThat(plain.equals(encoded), equalTo(false));
+        HttpResponse response = get(cached, "/text.txt", br, RawHeader.of("If-None-Match", encoded));
+        assertThat(response.statusCode(), equalTo(StatusCode.NOT_MODIFIED));
+        assertThat(header(response, "Vary"), equalTo(Optional.of("Accept-Encoding")));
+    }
+
+    @Test
+    public void ignoresSiblingsOlderThanTheFile() throws Exception {
+        PrecompressedFiles files = new PrecompressedFiles(Arrays.asList("br", "gzip"));
+        Path path = root.resolve("text.txt");
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        assertThat(files.variants(path, lastModified).size(), equalTo(2));
+        assertThat(files.variants(path, lastModified + 60000).size(), equalTo(0));
+        assertThat(files.size(), equalTo(1));
+    }
+
+    @Test
+    public void dropsSiblingLookupsWhenASiblingChanges() throws Exception {
+        PrecompressedFiles files = new PrecompressedFiles(Arrays.asList("br", "gzip"));
+        Path path = root.resolve("text.txt");
+        files.variants(path, Files.getLastModifiedTime(path).toMillis());
+        files.changed(root.resolve("text.txt.gz"));
+        assertThat(files.size(), equalTo(0));
+    }
+
+    @Test
+    public void reusesTheEncodedHeadOfFullResponses() throws Exception {
+        for (FileHandler handler : Arrays.asList(cached, streamed, mapped)) {
+            HttpResponse first = get(handler, "/file.bin");
+            HttpResponse second = get(handler, "/file.bin");
+            assertThat(second.head(HttpProtocol.HTTP_1_1), sameInstance(first.head(HttpProtocol.HTTP_1_1)));
+            assertThat(body(second), equalTo(content));
+        }
+    }
+}
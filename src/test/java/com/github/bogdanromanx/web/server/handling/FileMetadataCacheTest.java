@@ -0,0 +1,173 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import com.github.bogdanromanx.web.server.types.headers.ContentType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class FileMetadataCacheTest {
+
+    private static final ContentType TEXT_HTML = ContentType.of("text/html");
+
+    private Path root;
+
+    @Before
+    public void before() throws IOException {
+        root = Files.createTempDirectory("metadata");
+        Files.createDirectory(root.resolve("dir"));
+        Files.write(root.resolve("dir").resolve("index.html"), "<html/>".getBytes());
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private FileMetadataCache cache(int maxEntries, Duration ttl) {
+        return new FileMetadataCache(root, maxEntries, maxEntries, ttl, p -> TEXT_HTML);
+    }
+
+    @Test
+    public void resolvesTheRequestPaths() throws Exception {
+        FileMetadataCache.Metadata metadata = cache(10, Duration.ofMinutes(1)).get("/dir/../dir/index.html");
+        assertThat(metadata.path(), equalTo(root.resolve("dir/index.html")));
+        assertThat(metadata.exists(), equalTo(true));
+        assertThat(metadata.isRegularFile(), equalTo(true));
+        assertThat(metadata.size(), equalTo(7L));
+        assertThat(metadata.contentType(), equalTo(TEXT_HTML));
+        assertThat(cache(10, Duration.ofMinutes(1)).get("/../../dir").path(), equalTo(root.resolve("dir")));
+    }
+
+    @Test
+    public void servesCachedEntriesWithoutLookups() throws Exception {
+        FileMetadataCache cache = cache(10, Duration.ofMinutes(1));
+        cache.get("/dir/index.html");
+        Files.delete(root.resolve("dir/index.html"));
+        assertThat(cache.get("/dir/index.html").exists(), equalTo(true));
+        assertThat(cache.hits(), equalTo(1L));
+        assertThat(cache.misses(), equalTo(1L));
+    }
+
+    @Test
+    public void invalidatesChangedPathsAndTheirChildren() throws Exception {
+        FileMetadataCache cache = cache(10, Duration.ofMinutes(1));
+        cache.get("/dir/index.html");
+        cache.get("/dir");
+        cache.get("/missing");
+        cache.invalidate(root.resolve("dir"));
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.negativeSize(), equalTo(1));
+        assertThat(cache.invalidations(), equalTo(1L));
+    }
+
+    @Test
+    public void expiresEntriesAfterTheTtl() throws Exception {
+        FileMetadataCache cache = cache(10, Duration.ZERO);
+        cache.get("/dir/index.html");
+        Files.delete(root.resolve("dir/index.html"));
+        assertThat(cache.get("/dir/index.html").exists(), equalTo(false));
+    }
+
+    @Test
+    public void boundsTheNumberOfEntries() throws Exception {
+        FileMetadataCache cache = cache(2, Duration.ofMinutes(1));
+        cache.get("/a");
+        cache.get("/b");
+        cache.get("/c");
+        assertThat(cache.negativeSize(), equalTo(2));
+        assertThat(cache(0, Duration.ofMinutes(1)).size(), equalTo(0));
+    }
+
+    @Test
+    public void invalidatesWatchedChanges() throws Exception {
+        FileMetadataCache cache = cache(10, Duration.ofMinutes(1));
+        try (RootWatcher watcher = new RootWatcher(root, cache::invalidate)) {
+            assertThat(watcher.directories(), equalTo(2));
+            assertThat(cache.get("/dir/new.html").exists(), equalTo(false));
+            Files.write(root.resolve("dir/new.html"), "new".getBytes());
+            boolean exists = false;
+            // the watch service reports the changes asynchronously (and by polling on some platforms)
+            for (int i = 0; i < 300 && !exists; i++) {
+                Thread.sleep(50);
+                exists = cache.get("/dir/new.html").exists();
+            }
+            assertThat(exists, equalTo(true));
+        }
+    }
+
+    @Test
+    public void keepsMissingFilesApart() throws Exception {
+        FileMetadataCache cache = new FileMetadataCache(root, 1, 1, Duration.ofMinutes(1), p -> TEXT_HTML);
+        cache.get("/dir/index.html");
+        cache.get("/.env");
+        cache.get("/wp-admin");
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.negativeSize(), equalTo(1));
+        Files.delete(root.resolve("dir/index.html"));
+        assertThat(cache.get("/dir/index.html").exists(), equalTo(true));
+    }
+
+    @Test
+    public void answersMissingPathsFromTheFilter() throws Exception {
+        FileMetadataCache cache = new FileMetadataCache(root, 10, 0, Duration.ofMinutes(1), p -> TEXT_HTML);
+        cache.index(100, 0.001, Runnable::run);
+        assertThat(cache.indexed(), equalTo(true));
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.get("/scan/" + i).exists(), equalTo(false));
+        }
+        assertThat(cache.filtered(), greaterThan(90L));
+        assertThat(cache.get("/dir/index.html").exists(), equalTo(true));
+    }
+
+    @Test
+    public void addsChangedPathsToTheFilter() throws Exception {
+        FileMetadataCache cache = new FileMetadataCache(root, 10, 10, Duration.ofMinutes(1), p -> TEXT_HTML);
+        cache.index(100, 0.001, Runnable::run);
+        assertThat(cache.get("/new/page.html").exists(), equalTo(false));
+        Files.createDirectory(root.resolve("new"));
+        Files.write(root.resolve("new/page.html"), "new".getBytes());
+        cache.invalidate(root.resolve("new"));
+        assertThat(cache.get("/new/page.html").exists(), equalTo(true));
+    }
+
+    @Test
+    public void growsTheFilterWhenSaturated() throws Exception {
+        FileMetadataCache cache = new FileMetadataCache(root, 10, 10, Duration.ofMinutes(1), p -> TEXT_HTML);
+        cache.index(1, 0.001, Runnable::run);
+        for (int i = 0; i < 10; i++) {
+            Files.write(root.resolve("dir").resolve(i + ".html"), "x".getBytes());
+            cache.invalidate(root.resolve("dir").resolve(i + ".html"));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.get("/dir/" + i + ".html").exists(), equalTo(true));
+        }
+    }
+
+    @Test
+    public void expiresTheFilterAfterTheTtl() throws Exception {
+        FileMetadataCache cache = new FileMetadataCache(root, 10, 10, Duration.ofMillis(200), p -> TEXT_HTML);
+        cache.index(100, 0.001, Runnable::run);
+        assertThat(cache.get("/unwatched.html").exists(), equalTo(false));
+        // a change the watcher missed, i.e.: on a network file system
+        Files.write(root.resolve("unwatched.html"), "new".getBytes());
+        assertThat(cache.get("/unwatched.html").exists(), equalTo(false));
+        Thread.sleep(250);
+        assertThat(cache.get("/unwatched.html").exists(), equalTo(true));
+        assertThat(cache.indexed(), equalTo(true));
+        assertThat(cache.get("/still-missing.html").exists(), equalTo(false));
+        assertThat(cache.filtered(), equalTo(2L));
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class FileValidatorsTest {
+
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        file = Files.createTempFile("validators", ".js.gz");
+        Files.write(file, "gzipped".getBytes());
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void keepsTheVaryingAndPlainValidatorsOfAFile() throws Exception {
+        FileValidators validators = new FileValidators(true);
+        // the sibling served in place of 'app.js', then requested directly as 'app.js.gz'
+        FileValidators.Validators varying = validators.get(file, 7, 1000, true);
+        FileValidators.Validators plain = validators.get(file, 7, 1000, false);
+        assertThat(plain, not(sameInstance(varying)));
+        assertThat(plain.etag(), sameInstance(varying.etag()));
+        assertThat(validators.get(file, 7, 1000, true), sameInstance(varying));
+        assertThat(validators.get(file, 7, 1000, false), sameInstance(plain));
+        assertThat(varying.notModified().headers().size(), equalTo(plain.notModified().headers().size() + 1));
+        assertThat(validators.size(), equalTo(1));
+    }
+
+    @Test
+    public void replacesTheValidatorsOfAChangedFile() throws Exception {
+        FileValidators validators = new FileValidators(false);
+        FileValidators.Validators first = validators.get(file, 7, 1000, false);
+        FileValidators.Validators changed = validators.get(file, 7, 2000, false);
+        assertThat(changed, not(sameInstance(first)));
+        assertThat(changed.etag(), not(equalTo(first.etag())));
+        validators.invalidate(file);
+        assertThat(validators.size(), equalTo(0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class MappedFileSourceTest {
+
+    private static ActorSystem system;
+    private static ActorMaterializer materializer;
+    private static Path file;
+    private static ByteString content;
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        system = ActorSystem.create();
+        materializer = ActorMaterializer.create(system);
+        byte[] bytes = new byte[200 * 1024];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        content = ByteString.fromArray(bytes);
+        file = Files.createTempFile("mapped", ".bin");
+        Files.write(file, bytes);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        Files.deleteIfExists(file);
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static ByteString read(MappedFiles files, long position, long count) throws Exception {
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        return Source.fromGraph(new MappedFileSource(files, file, content.length(), lastModified, position, count))
+                .runWith(Sink.fold(ByteString.empty(), ByteString::concat), materializer)
+                .toCompletableFuture()
+                .get();
+    }
+
+    @Test
+    public void emitsTheFullFile() throws Exception {
+        assertThat(read(new MappedFiles(), 0, content.length()), equalTo(content));
+    }
+
+    @Test
+    public void emitsAFileRegion() throws Exception {
+        assertThat(read(new MappedFiles(), 100, 70000), equalTo(content.slice(100, 70100)));
+    }
+
+    @Test
+    public void emitsNothingForEmptyRegions() throws Exception {
+        assertThat(read(new MappedFiles(), 10, 0), equalTo(ByteString.empty()));
+    }
+
+    @Test
+    public void releasesTheMappingOnCompletion() throws Exception {
+        MappedFiles files = new MappedFiles();
+        read(files, 0, content.length());
+        assertThat(files.size(), equalTo(0));
+    }
+
+    @Test
+    public void sharesMappingsAcrossReaders() throws Exception {
+        MappedFiles files = new MappedFiles();
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        MappedFiles.MappedFile first = files.acquire(file, content.length(), lastModified);
+        MappedFiles.MappedFile second = files.acquire(file, content.length(), lastModified);
+        assertThat(first == second, equalTo(true));
+        files.release(file, first);
+        assertThat(files.size(), equalTo(1));
+        files.release(file, second);
+        assertThat(files.size(), equalTo(0));
+    }
+
+    @Test
+    public void remapsChangedFiles() throws Exception {
+        MappedFiles files = new MappedFiles();
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        MappedFiles.MappedFile first = files.acquire(file, content.length(), lastModified - 1000);
+        MappedFiles.MappedFile second = files.acquire(file, content.length(), lastModified);
+        assertThat(first == second, equalTo(false));
+        files.release(file, first);
+        assertThat(files.size(), equalTo(1));
+        files.release(file, second);
+        assertThat(files.size(), equalTo(0));
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class RootWatcherTest {
+
+    private Path root;
+    private Path target;
+
+    @Before
+    public void before() throws IOException {
+        root = Files.createTempDirectory("watched");
+        target = Files.createTempDirectory("linked");
+        Files.createDirectory(root.resolve("dir"));
+        Files.createSymbolicLink(root.resolve("link"), target);
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.delete(root.resolve("link"));
+        for (Path path : new Path[]{root, target}) {
+            try (Stream<Path> paths = Files.walk(path)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static Path next(BlockingQueue<Path> changes, Path expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Path path;
+        while ((path = changes.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+            if (path.equals(expected)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void reportsTheChangesOfTheTree() throws Exception {
+        BlockingQueue<Path> changes = new LinkedBlockingQueue<>();
+        try (RootWatcher watcher = new RootWatcher(root, changes::add)) {
+            assertThat(watcher.directories(), equalTo(3));
+            Files.write(root.resolve("dir/index.html"), "x".getBytes());
+            assertThat(next(changes, root.resolve("dir/index.html")), equalTo(root.resolve("dir/index.html")));
+            Files.createDirectory(root.resolve("new"));
+            assertThat(next(changes, root.resolve("new")), equalTo(root.resolve("new")));
+            Files.write(root.resolve("new/page.html"), "x".getBytes());
+            assertThat(next(changes, root.resolve("new/page.html")), equalTo(root.resolve("new/page.html")));
+        }
+    }
+
+    @Test
+    public void followsTheLinkedDirectories() throws Exception {
+        BlockingQueue<Path> changes = new LinkedBlockingQueue<>();
+        try (RootWatcher watcher = new RootWatcher(root, changes::add)) {
+            assertThat(watcher.directories(), equalTo(3));
+            Files.write(target.resolve("linked.html"), "x".getBytes());
+            assertThat(next(changes, root.resolve("link/linked.html")), equalTo(root.resolve("link/linked.html")));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.bogdanromanx.web.server.handling;
+
+import akka.dispatch.ExecutionContexts;
+import com.github.bogdanromanx.web.server.settings.FileHandlingConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class WarmUpTest {
+
+    private Path root;
+    private FileHandler handler;
+
+    @Before
+    public void before() throws IOException {
+        root = Files.createTempDirectory("warm-up");
+        Files.createDirectories(root.resolve("assets/css"));
+        Files.write(root.resolve("index.html"), "<html/>".getBytes());
+        Files.write(root.resolve("assets/app.js"), "app();".getBytes());
+        Files.write(root.resolve("assets/app.js.gz"), "gzipped".getBytes());
+        Files.write(root.resolve("assets/css/site.css"), "body{}".getBytes());
+        Files.write(root.resolve("large.bin"), new byte[4096]);
+        FileHandlingConfig config = FileHandlingConfig.of("akka.actor.default-dispatcher", 1024, 1024 * 1024, 0,
+                false, Collections.singletonList("gzip"), 100, 100, Duration.ofSeconds(5), false, 0, 0.01, false);
+        handler = new FileHandler(root, config, ExecutionContexts.global());
+    }
+
+    @After
+    public void after() throws IOException {
+        handler.close();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void loadsTheMatchingFiles() throws Exception {
+        WarmUp warmUp = new WarmUp(root, Arrays.asList("*.html", "assets/**"), 2);
+        warmUp.run(handler, w -> { });
+        assertThat(warmUp.done(), equalTo(true));
+        assertThat(warmUp.total(), equalTo(4));
+        assertThat(warmUp.loaded(), equalTo(4));
+        assertThat(warmUp.failed(), equalTo(0));
+        // the precompressed sibling is loaded along with its file, as well as on its own
+        assertThat(handler.cache().entries(), equalTo(4));
+        assertThat(handler.validators().size(), equalTo(4));
+        assertThat(handler.metadata().size(), equalTo(4));
+    }
+
+    @Test
+    public void keepsTheFilesLargerThanTheCacheOnDisk() throws Exception {
+        WarmUp warmUp = new WarmUp(root, Collections.singletonList("*.bin"), 2);
+        warmUp.run(handler, w -> { });
+        assertThat(warmUp.loaded(), equalTo(1));
+        assertThat(handler.cache().entries(), equalTo(0));
+        assertThat(handler.validators().size(), equalTo(1));
+    }
+
+    @Test
+    public void reportsTheProgress() throws Exception {
+        List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+        WarmUp warmUp = new WarmUp(root, Collections.singletonList("assets/**"), 1);
+        warmUp.run(handler, w -> progress.add(w.loaded()));
+        assertThat(warmUp.total(), equalTo(3));
+        assertThat(progress, equalTo(Arrays.asList(1, 2)));
+    }
+
+    @Test
+    public void completesWithoutMatches() throws Exception {
+        WarmUp warmUp = new WarmUp(root, Collections.singletonList("missing/*"), 4);
+        warmUp.run(handler, w -> { });
+        assertThat(warmUp.done(), equalTo(true));
+        assertThat(warmUp.total(), equalTo(0));
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import akka.actor.ActorSystem;
+import akka.dispatch.MessageDispatcher;
+import akka.event.NoLogging;
+import com.github.bogdanromanx.web.server.settings.DispatcherProbeConfig;
+import com.typesafe.config.ConfigFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class DispatcherProbeTest {
+
+    private static ActorSystem system;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create("dispatcher-probe", ConfigFactory.parseString(
+                "single-thread-dispatcher { executor = thread-pool-executor, thread-pool-executor.fixed-pool-size = 1 }")
+                .withFallback(ConfigFactory.load()));
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    @Test
+    public void recordsTheSchedulingLagOfABlockedDispatcher() throws Exception {
+        MessageDispatcher dispatcher = system.dispatchers().lookup("single-thread-dispatcher");
+        MetricsRegistry metrics = new MetricsRegistry();
+        DispatcherProbe probe = new DispatcherProbe(dispatcher, "localhost:8080",
+                DispatcherProbeConfig.of(true, java.time.Duration.ofMillis(20), java.time.Duration.ofMillis(100)),
+                metrics, NoLogging.getInstance());
+        CountDownLatch blocked = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            blocked.countDown();
+            sleep(500);
+        });
+        blocked.await(5, TimeUnit.SECONDS);
+        Histogram lag = metrics.histogram("web_server_dispatcher_lag_seconds", "",
+                Histogram.LATENCY_BOUNDS, Histogram.NANOS_PER_SECOND,
+                "vhost", "localhost:8080", "dispatcher", "single-thread-dispatcher");
+        probe.start(system.scheduler());
+        try {
+            for (int i = 0; i < 100 && lag.count() == 0; i++) {
+                Thread.sleep(50);
+            }
+        } finally {
+            probe.stop();
+        }
+        // the first probe waited behind the blocking task, the probes that followed did not
+        assertThat(lag.sum(), greaterThan(TimeUnit.MILLISECONDS.toNanos(250)));
+        assertThat(probe.lastLagNanos(), greaterThanOrEqualTo(0L));
+        assertThat(metrics.render(), allOf(
+                containsString("web_server_dispatcher_active_threads{vhost=\"localhost:8080\","
+                        + "dispatcher=\"single-thread-dispatcher\"} "),
+                containsString("web_server_dispatcher_queue_depth{vhost=\"localhost:8080\","
+                        + "dispatcher=\"single-thread-dispatcher\"} ")));
+    }
+
+    @Test
+    public void samplesTheStealsOfForkJoinDispatchers() {
+        DispatcherStats forkJoin = DispatcherStats.of(system.dispatchers().lookup("web.server.default-dispatcher"));
+        DispatcherStats threadPool = DispatcherStats.of(system.dispatchers().lookup("single-thread-dispatcher"));
+        assertThat(forkJoin.stealCount(), greaterThanOrEqualTo(0L));
+        assertThat(threadPool.stealCount(), equalTo(-1L));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.bogdanromanx.web.server.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void returnsTheSameMetricForTheSameLabels() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("requests_total", "Requests", "vhost", "a");
+        assertThat(registry.counter("requests_total", "Requests", "vhost", "a"), sameInstance(counter));
+        counter.increment();
+        counter.add(2);
+        assertThat(counter.value(), equalTo(3L));
+        assertThat(registry.counter("requests_total", "Requests", "vhost", "b").value(), equalTo(0L));
+    }
+
+    @Test
+    public void rendersCountersAndGauges() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests", "vhost", "a").add(3);
+        Gauge gauge = registry.gauge("connections", "Open connections");
+        gauge.increment();
+        gauge.increment();
+        gauge.decrement();
+        assertThat(registry.render(), equalTo(
+                "# HELP connections Open connections\n" +
+                        "# TYPE connections gauge\n" +
+                        "connections 1\n" +
+                        "# HELP requests_total Requests\n" +
+                        "# TYPE requests_total counter\n" +
+                        "requests_total{vhost=\"a\"} 3\n"));
+    }
+
+    @Test
+    public void rendersCumulativeHistogramBuckets() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram histogram = registry.histogram("duration_seconds", "Durations", new long[]{1_000, 10_000}, 1e6,
+                "handler", "ping");
+        histogram.record(500);
+        histogram.record(1_000);
+        histogram.record(5_000);
+        histogram.record(50_000);
+        assertThat(histogram.count(), equalTo(4L));
+        assertThat(registry.render(), equalTo(
+                "# HELP duration_seconds Durations\n" +
+                        "# TYPE duration_seconds histogram\n" +
+                        "duration_seconds_bucket{handler=\"ping\",le=\"0.001\"} 2\n" +
+                        "duration_seconds_bucket{handler=\"ping\",le=\"0.01\"} 3\n" +
+                        "duration_seconds_bucket{handler=\"ping\",le=\"+Inf\"} 4\n" +
+                        "duration_seconds_sum{handler=\"ping\"} 0.0565\n" +
+                        "duration_seconds_count{handler=\"ping\"} 4\n"));
+    }
+
+    @Test
+    public void escapesLabelValues() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("errors_total", "Errors", "path", "a\"b\\c\nd").increment();
+        assertThat(registry.render(), containsString("errors_total{path=\"a\\\"b\\\\c\\nd\"} 1\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANameRegisteredWithAnotherType() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("connections", "Connections");
+        registry.gauge("connections", "Connections");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnpairedLabels() {
+        new MetricsRegistry().counter("requests_total", "Requests", "vhost");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIllegalNames() {
+        new MetricsRegistry().counter("requests-total", "Requests");
+    }
+}
@@ -47,4 +47,10 @@ public class HeaderParserTest {
         ByteString input = ByteString.fromString("name:TOO_LONG_HEADER_VALUE\r\n");
         parser.apply(input);
     }
+
+    @Test
+    public void incompleteValueKeepsAllBytes() {
+        ByteString input = ByteString.fromString("name:value");
+        assertThat(parser.apply(input), equalTo(Result.of(input)));
+    }
 }
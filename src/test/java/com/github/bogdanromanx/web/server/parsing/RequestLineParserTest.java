@@ -84,4 +84,10 @@ public class RequestLineParserTest {
         ByteString bytes = ByteString.fromString("GET / HTTP/1.2345\r\n");
         parser.apply(bytes);
     }
+
+    @Test
+    public void incompleteInputKeepsAllBytes() {
+        ByteString bytes = ByteString.fromString("GET /path HTTP/1.1\r");
+        assertThat(parser.apply(bytes), equalTo(Result.of(bytes)));
+    }
 }
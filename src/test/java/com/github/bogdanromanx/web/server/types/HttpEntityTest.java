@@ -10,6 +10,8 @@ import org.junit.Test;
 import scala.concurrent.Await;
 import scala.concurrent.duration.Duration;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -99,6 +101,50 @@ public class HttpEntityTest {
         assertThat(streaming.toString(), equalTo("HttpEntity.Streaming{length=2}"));
     }
 
+    private static final Path path = Paths.get("/tmp/file");
+
+    @Test(expected = NullPointerException.class)
+    public void fileRegionThrowsOnNullPath() {
+        HttpEntity.fileRegion(null, 0, 0, Source.empty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fileRegionThrowsOnNullSource() {
+        HttpEntity.fileRegion(path, 0, 0, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fileRegionThrowsOnNegativePosition() {
+        HttpEntity.fileRegion(path, -1, 0, Source.empty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fileRegionThrowsOnNegativeLength() {
+        HttpEntity.fileRegion(path, 0, -1, Source.empty());
+    }
+
+    @Test
+    public void fileRegionEntityCorrectlyConstructed() {
+        HttpEntity.FileRegion region = HttpEntity.fileRegion(path, 1, 2, Source.empty());
+        assertThat(region.path(), equalTo(path));
+        assertThat(region.position(), equalTo(1L));
+        assertThat(region.length(), equalTo(2L));
+        assertThat(region.source(), equalTo(Source.empty()));
+    }
+
+    @Test
+    public void fileRegionEntityEquality() {
+        Set<HttpEntity> set = new HashSet<>();
+        set.add(HttpEntity.fileRegion(path, 1, 2, Source.empty()));
+        assertThat(set, contains(HttpEntity.fileRegion(path, 1, 2, Source.single(ByteString.empty()))));
+    }
+
+    @Test
+    public void fileRegionEntityStringRepresentation() {
+        HttpEntity.FileRegion region = HttpEntity.fileRegion(path, 1, 2, Source.empty());
+        assertThat(region.toString(), equalTo("HttpEntity.FileRegion{path=/tmp/file, position=1, length=2}"));
+    }
+
     @SuppressWarnings("ThrowFromFinallyBlock")
     @Test
     public void streamingEntityShouldCompleteWhenConsumed() throws Exception {
@@ -1,5 +1,6 @@
 package com.github.bogdanromanx.web.server.types;
 
+import akka.util.ByteString;
 import com.github.bogdanromanx.web.server.types.headers.ContentLength;
 import com.github.bogdanromanx.web.server.types.headers.RawHeader;
 import org.junit.Test;
@@ -11,6 +12,8 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
 public class HttpResponseTest {
@@ -73,4 +76,28 @@ public class HttpResponseTest {
         String expected = String.format("HttpResponse{statusCode=%s, headers=%s, entity=%s}", code, headers, entity);
         assertThat(HttpResponse.of(code, headers, entity).toString(), equalTo(expected));
     }
+
+    @Test
+    public void encodesTheHeadOncePerProtocol() {
+        HttpResponse response = HttpResponse.of(StatusCode.NOT_FOUND);
+        ByteString head = response.head(HttpProtocol.HTTP_1_1);
+        assertThat(head.utf8String(), equalTo("HTTP/1.1 404 Not Found\r\nContent-Length:0\r\n\r\n"));
+        assertThat(response.head(HttpProtocol.HTTP_1_1), sameInstance(head));
+        assertThat(response.head(HttpProtocol.HTTP_1_0).utf8String(), startsWith("HTTP/1.0 404 Not Found\r\n"));
+    }
+
+    @Test
+    public void withEntitySharesTheEncodedHead() {
+        HttpResponse response = HttpResponse.of(code, headers, HttpEntity.strict(ByteString.fromString("abc")));
+        HttpResponse other = response.withEntity(HttpEntity.strict(ByteString.fromString("def")));
+        assertThat(other.head(HttpProtocol.HTTP_1_1), sameInstance(response.head(HttpProtocol.HTTP_1_1)));
+        assertThat(other.headers(), equalTo(headers));
+        assertThat(other.entity(), equalTo(HttpEntity.strict(ByteString.fromString("def"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withEntityThrowsOnLengthMismatch() {
+        HttpResponse.of(code, headers, HttpEntity.strict(ByteString.fromString("abc")))
+                .withEntity(HttpEntity.strict(ByteString.fromString("abcd")));
+    }
 }
@@ -0,0 +1,73 @@
+package com.github.bogdanromanx.web.server.types;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class RequestTimingTest {
+
+    private static RequestTiming timing() {
+        return RequestTiming.of()
+                .received(1_000_000)
+                .headRead(1_500_000)
+                .parsed(1_600_000)
+                .handlerStarted(2_600_000)
+                .handled(5_100_000)
+                .compressed(5_200_000)
+                .ready(5_200_000)
+                .written(6_000_000);
+    }
+
+    @Test
+    public void measuresTheStagesBetweenTheBoundaries() {
+        RequestTiming timing = timing();
+        assertThat(timing.stageNanos("read"), equalTo(500_000L));
+        assertThat(timing.stageNanos("framing"), equalTo(100_000L));
+        assertThat(timing.stageNanos("queue"), equalTo(1_000_000L));
+        assertThat(timing.stageNanos("handler"), equalTo(2_500_000L));
+        assertThat(timing.stageNanos("compression"), equalTo(100_000L));
+        assertThat(timing.stageNanos("entity"), equalTo(0L));
+        assertThat(timing.stageNanos("write"), equalTo(800_000L));
+        assertThat(timing.totalNanos(), equalTo(5_000_000L));
+    }
+
+    @Test
+    public void skipsTheStagesWithUnknownBoundaries() {
+        RequestTiming timing = RequestTiming.of().parsed(1_000_000).handlerStarted(1_250_000).handled(3_000_000);
+        assertThat(timing.stageNanos("read"), equalTo(-1L));
+        assertThat(timing.stageNanos("compression"), equalTo(-1L));
+        assertThat(timing.totalNanos(), equalTo(2_000_000L));
+        assertThat(timing.serverTiming(), equalTo("queue;dur=0.250, handler;dur=1.750"));
+        assertThat(RequestTiming.of().totalNanos(), equalTo(0L));
+    }
+
+    @Test
+    public void rendersTheBreakdown() {
+        assertThat(timing().toString(), equalTo("RequestTiming{total=5.000ms, read=0.500ms, framing=0.100ms, "
+                + "queue=1.000ms, handler=2.500ms, compression=0.100ms, entity=0.000ms, write=0.800ms}"));
+    }
+
+    @Test
+    public void isNotPartOfTheRequestEquality() {
+        RequestTiming timing = timing();
+        HttpRequest.Builder builder = HttpRequest.builder()
+                .requestLine(RequestLine.of(HttpMethod.of("GET"), URI.create("/"), HttpProtocol.HTTP_1_1))
+                .headers(Collections.emptyList())
+                .entity(HttpEntity.empty());
+        HttpRequest plain = builder.build();
+        HttpRequest timed = builder.timing(timing).build();
+        assertThat(timed, equalTo(plain));
+        assertThat(timed.timing().get(), sameInstance(timing));
+        assertThat(plain.timing().isPresent(), equalTo(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownStages() {
+        timing().stageNanos("parsing");
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class AcceptEncodingTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnIllegalQualityValues() {
+        AcceptEncoding.of(Collections.singletonMap("gzip", 2f));
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        Map<String, Float> codings = new LinkedHashMap<>();
+        codings.put("gzip", 1f);
+        codings.put("br", 0.5f);
+        assertThat(AcceptEncoding.of(codings).raw(), equalTo(RawHeader.of(AcceptEncoding.NAME, "gzip, br;q=0.5")));
+    }
+
+    @Test
+    public void factoryParsesCodingsAndQualityValues() {
+        AcceptEncoding header = AcceptEncoding.of(RawHeader.of("accept-encoding", "GZIP, br;q=0.8, deflate;q=x")).get();
+        assertThat(header.quality("gzip"), equalTo(1f));
+        assertThat(header.quality("br"), equalTo(0.8f));
+        assertThat(header.quality("deflate"), equalTo(0f));
+    }
+
+    @Test
+    public void identityIsAcceptableUnlessExcluded() {
+        assertThat(AcceptEncoding.of(RawHeader.of(AcceptEncoding.NAME, "gzip")).get().quality("identity"),
+                equalTo(1f));
+        assertThat(AcceptEncoding.of(RawHeader.of(AcceptEncoding.NAME, "gzip, *;q=0")).get().quality("identity"),
+                equalTo(0f));
+    }
+
+    @Test
+    public void wildcardAppliesToUnlistedCodings() {
+        AcceptEncoding header = AcceptEncoding.of(RawHeader.of(AcceptEncoding.NAME, "gzip;q=0, *")).get();
+        assertThat(header.quality("br"), equalTo(1f));
+        assertThat(header.quality("gzip"), equalTo(0f));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalName() {
+        assertThat(AcceptEncoding.of(RawHeader.of("Accept", "gzip")), equalTo(Optional.empty()));
+    }
+}
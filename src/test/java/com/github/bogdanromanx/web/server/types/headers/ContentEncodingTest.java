@@ -0,0 +1,32 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class ContentEncodingTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnEmptyValues() {
+        ContentEncoding.of(" ");
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(ContentEncoding.GZIP.raw(), equalTo(RawHeader.of(ContentEncoding.NAME, "gzip")));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalName() {
+        assertThat(ContentEncoding.of(RawHeader.of("Content-Encodings", "br")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsNonEmptyForCorrectValue() {
+        RawHeader header = RawHeader.of("content-encoding", "br");
+        assertThat(ContentEncoding.of(header), equalTo(Optional.of(ContentEncoding.BR)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class ContentRangeTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnOffsetsBeyondTheSize() {
+        ContentRange.of(0, 100, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnUnorderedOffsets() {
+        ContentRange.of(10, 5, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnNegativeSizes() {
+        ContentRange.unsatisfied(-1);
+    }
+
+    @Test
+    public void headerEquality() {
+        Set<ContentRange> set = new HashSet<>();
+        set.add(ContentRange.of(0, 99, 100));
+        assertThat(set, contains(ContentRange.of(0, 99, 100)));
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(ContentRange.of(0, 99, 100).raw(), equalTo(RawHeader.of(ContentRange.NAME, "bytes 0-99/100")));
+        assertThat(ContentRange.unsatisfied(100).raw(), equalTo(RawHeader.of(ContentRange.NAME, "bytes */100")));
+    }
+
+    @Test
+    public void distinguishesUnsatisfiedRanges() {
+        assertThat(ContentRange.of(0, 99, 100).isUnsatisfied(), equalTo(false));
+        assertThat(ContentRange.unsatisfied(100).isUnsatisfied(), equalTo(true));
+    }
+}
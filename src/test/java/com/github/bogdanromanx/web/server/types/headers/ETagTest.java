@@ -0,0 +1,65 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class ETagTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnUnquotedValues() {
+        ETag.of("abc");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnEmbeddedQuotes() {
+        ETag.strong("a\"b");
+    }
+
+    @Test
+    public void headerEquality() {
+        Set<ETag> set = new HashSet<>();
+        set.add(ETag.strong("abc"));
+        assertThat(set, contains(ETag.of("\"abc\"")));
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(ETag.strong("abc").raw(), equalTo(RawHeader.of(ETag.NAME, "\"abc\"")));
+    }
+
+    @Test
+    public void comparesWeaklyAndStrongly() {
+        ETag strong = ETag.strong("abc");
+        ETag weak = ETag.of("W/\"abc\"");
+        assertThat(weak.isWeak(), equalTo(true));
+        assertThat(strong.weaklyMatches("W/\"abc\""), equalTo(true));
+        assertThat(weak.weaklyMatches("\"abc\""), equalTo(true));
+        assertThat(strong.weaklyMatches("\"abd\""), equalTo(false));
+        assertThat(strong.stronglyMatches("\"abc\""), equalTo(true));
+        assertThat(strong.stronglyMatches("W/\"abc\""), equalTo(false));
+        assertThat(weak.stronglyMatches("W/\"abc\""), equalTo(false));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalValues() {
+        assertThat(ETag.of(RawHeader.of(ETag.NAME, "abc")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsNonEmptyForCorrectValue() {
+        assertThat(ETag.of(RawHeader.of("etag", "W/\"abc\"")), equalTo(Optional.of(ETag.of("W/\"abc\""))));
+    }
+
+    @Test
+    public void weakKeepsTheOpaqueTag() {
+        assertThat(ETag.strong("abc").weak(), equalTo(ETag.of("W/\"abc\"")));
+        assertThat(ETag.of("W/\"abc\"").weak(), equalTo(ETag.of("W/\"abc\"")));
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class IfModifiedSinceTest {
+
+    private static final Instant instant = Instant.parse("1994-11-06T08:49:37Z");
+    private static final String date = "Sun, 06 Nov 1994 08:49:37 GMT";
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(IfModifiedSince.of(instant).raw(), equalTo(RawHeader.of(IfModifiedSince.NAME, date)));
+    }
+
+    @Test
+    public void comparesAtTheResolutionOfASecond() {
+        IfModifiedSince header = IfModifiedSince.of(instant);
+        assertThat(header.isModified(instant.plusMillis(999)), equalTo(false));
+        assertThat(header.isModified(instant.minusSeconds(1)), equalTo(false));
+        assertThat(header.isModified(instant.plusSeconds(1)), equalTo(true));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalValues() {
+        assertThat(IfModifiedSince.of(RawHeader.of(IfModifiedSince.NAME, "-1")), equalTo(Optional.empty()));
+        // RFC 1123 dates that are not IMF-fixdates
+        for (String value : new String[]{"Sun, 6 Nov 1994 08:49:37 GMT", "Sun, 06 Nov 1994 10:49:37 +0200",
+                "06 Nov 1994 08:49:37 GMT", "Mon, 06 Nov 1994 08:49:37 GMT"}) {
+            assertThat(IfModifiedSince.of(RawHeader.of(IfModifiedSince.NAME, value)), equalTo(Optional.empty()));
+        }
+    }
+
+    @Test
+    public void factoryReturnsNonEmptyForCorrectValue() {
+        assertThat(IfModifiedSince.of(RawHeader.of("if-modified-since", date)),
+                equalTo(Optional.of(IfModifiedSince.of(instant))));
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class IfNoneMatchTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnEmptyCollection() {
+        IfNoneMatch.of(Collections.singletonList(" "));
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        IfNoneMatch header = IfNoneMatch.of(Arrays.asList("\"a\"", "W/\"b\""));
+        assertThat(header.raw(), equalTo(RawHeader.of(IfNoneMatch.NAME, "\"a\", W/\"b\"")));
+    }
+
+    @Test
+    public void matchesAnyOfTheTags() {
+        IfNoneMatch header = IfNoneMatch.of(Arrays.asList("\"a\"", "W/\"b\""));
+        assertThat(header.matches(ETag.strong("a")), equalTo(true));
+        assertThat(header.matches(ETag.strong("b")), equalTo(true));
+        assertThat(header.matches(ETag.strong("c")), equalTo(false));
+    }
+
+    @Test
+    public void wildcardMatchesAnyTag() {
+        assertThat(IfNoneMatch.of(Collections.singletonList("*")).matches(ETag.strong("c")), equalTo(true));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalName() {
+        assertThat(IfNoneMatch.of(RawHeader.of("If-Match", "\"a\"")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryParsesTagLists() {
+        assertThat(IfNoneMatch.of(RawHeader.of("if-none-match", " \"a\" ,W/\"b\"")),
+                equalTo(Optional.of(IfNoneMatch.of(Arrays.asList("\"a\"", "W/\"b\"")))));
+    }
+}
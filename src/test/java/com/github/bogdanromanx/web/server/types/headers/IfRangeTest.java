@@ -0,0 +1,48 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class IfRangeTest {
+
+    private static final String date = "Sun, 06 Nov 1994 08:49:37 GMT";
+    private static final String tag = "\"abc\"";
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnEmptyValues() {
+        IfRange.of("  ");
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(IfRange.of(tag).raw(), equalTo(RawHeader.of(IfRange.NAME, tag)));
+    }
+
+    @Test
+    public void distinguishesEntityTagsFromDates() {
+        assertThat(IfRange.of(tag).isEntityTag(), equalTo(true));
+        assertThat(IfRange.of(tag).date(), equalTo(Optional.empty()));
+        assertThat(IfRange.of(date).isEntityTag(), equalTo(false));
+        assertThat(IfRange.of(date).date(), equalTo(Optional.of(Instant.parse("1994-11-06T08:49:37Z"))));
+    }
+
+    @Test
+    public void returnsNoDateForMalformedDates() {
+        assertThat(IfRange.of("yesterday").date(), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalName() {
+        assertThat(IfRange.of(RawHeader.of("If-Ranges", tag)), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsNonEmptyForCorrectValue() {
+        assertThat(IfRange.of(RawHeader.of("if-range", date)), equalTo(Optional.of(IfRange.of(date))));
+    }
+}
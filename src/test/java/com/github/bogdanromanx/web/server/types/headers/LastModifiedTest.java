@@ -0,0 +1,46 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class LastModifiedTest {
+
+    private static final Instant instant = Instant.parse("1994-11-06T08:49:37.250Z");
+    private static final String date = "Sun, 06 Nov 1994 08:49:37 GMT";
+
+    @Test(expected = NullPointerException.class)
+    public void factoryThrowsOnNullValues() {
+        LastModified.of((Instant) null);
+    }
+
+    @Test
+    public void truncatesTheValueToSeconds() {
+        assertThat(LastModified.of(instant).value(), equalTo(Instant.parse("1994-11-06T08:49:37Z")));
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(LastModified.of(instant).raw(), equalTo(RawHeader.of(LastModified.NAME, date)));
+    }
+
+    @Test
+    public void formatsSingleDigitDaysWithTwoDigits() {
+        LastModified header = LastModified.of(Instant.parse("2016-05-01T00:00:00Z"));
+        assertThat(header.raw().value(), equalTo("Sun, 01 May 2016 00:00:00 GMT"));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalValues() {
+        assertThat(LastModified.of(RawHeader.of(LastModified.NAME, "yesterday")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsNonEmptyForCorrectValue() {
+        assertThat(LastModified.of(RawHeader.of("last-modified", date)), equalTo(Optional.of(LastModified.of(instant))));
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.bogdanromanx.web.server.types.headers;
+
+import com.github.bogdanromanx.web.server.types.headers.Range.ByteRange;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class RangeTest {
+
+    private static final List<ByteRange> ranges =
+            Arrays.asList(ByteRange.of(0, 499), ByteRange.fromOffset(1000), ByteRange.suffix(500));
+
+    @Test(expected = IllegalArgumentException.class)
+    public void factoryThrowsOnEmptyCollection() {
+        Range.of(Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void byteRangeThrowsOnUnorderedOffsets() {
+        ByteRange.of(10, 5);
+    }
+
+    @Test
+    public void headerEquality() {
+        Set<Range> set = new HashSet<>();
+        set.add(Range.of(ranges));
+        assertThat(set, contains(Range.of(ranges)));
+    }
+
+    @Test
+    public void rawReturnsAWellFormedRawHeader() {
+        assertThat(Range.of(ranges).raw(), equalTo(RawHeader.of(Range.NAME, "bytes=0-499,1000-,-500")));
+    }
+
+    @Test
+    public void lowerCasesTheName() {
+        assertThat(Range.of(ranges).lowerCaseName(), equalTo(Range.LOWERCASE_NAME));
+    }
+
+    @Test
+    public void factoryParsesWellFormedValues() {
+        RawHeader header = RawHeader.of("range", " bytes = 0-499 , 1000-,, -500");
+        assertThat(Range.of(header), equalTo(Optional.of(Range.of(ranges))));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForIllegalName() {
+        assertThat(Range.of(RawHeader.of("Ranges", "bytes=0-1")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForUnknownUnits() {
+        assertThat(Range.of(RawHeader.of(Range.NAME, "items=0-1")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void factoryReturnsEmptyForMalformedSpecs() {
+        for (String value : Arrays.asList("bytes=", "bytes=1", "bytes=-", "bytes=5-1", "bytes=0-1,a-", "bytes=+1-2")) {
+            assertThat(Range.of(RawHeader.of(Range.NAME, value)), equalTo(Optional.empty()));
+        }
+    }
+
+    @Test
+    public void byteRangesResolveAgainstTheSize() {
+        ByteRange bounded = ByteRange.of(10, 2000);
+        assertThat(bounded.isSatisfiable(100), equalTo(true));
+        assertThat(bounded.first(100), equalTo(10L));
+        assertThat(bounded.last(100), equalTo(99L));
+        ByteRange open = ByteRange.fromOffset(100);
+        assertThat(open.isSatisfiable(100), equalTo(false));
+        assertThat(open.isSatisfiable(101), equalTo(true));
+        assertThat(open.last(101), equalTo(100L));
+        ByteRange suffix = ByteRange.suffix(500);
+        assertThat(suffix.isSatisfiable(100), equalTo(true));
+        assertThat(suffix.first(100), equalTo(0L));
+        assertThat(suffix.first(1000), equalTo(500L));
+        assertThat(suffix.last(1000), equalTo(999L));
+        assertThat(ByteRange.suffix(0).isSatisfiable(100), equalTo(false));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.actor.ActorSystem;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import com.typesafe.config.ConfigFactory;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class AccessLogStageTest {
+
+    @Test
+    public void logsTheRequestsOfTheConnections() throws Exception {
+        Path file = Files.createTempFile("access", ".log");
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ActorSystem system = ActorSystem.create("access-log", ConfigFactory
+                .parseString("web.server.access-log { enabled = true, file = \"" + file + "\" }")
+                .withFallback(ConfigFactory.load()));
+        try {
+            VHostConfig config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+            AkkaTcpHandler handler = new AkkaTcpHandler(system, VHostConfig.of(config.host(), port, config.path(),
+                    config.dispatcher(), "akka", Collections.emptyList(), 2));
+            handler.start();
+            try (Socket socket = connect(config.host(), port)) {
+                socket.getOutputStream().write(("GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                        + "GET /missing-file?q=1 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                        .getBytes(StandardCharsets.ISO_8859_1));
+                assertThat(readAll(socket.getInputStream()), containsString("HTTP/1.1 404 Not Found"));
+            } finally {
+                handler.terminate();
+            }
+        } finally {
+            system.terminate();
+            Await.result(system.whenTerminated(), Duration.Inf());
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        Files.delete(file);
+        assertThat(lines.size(), equalTo(2));
+        assertThat(lines.get(0), allOf(startsWith("127.0.0.1:" + port + " 127.0.0.1 - - ["),
+                containsString("] \"GET /ping HTTP/1.1\" 200 4 ")));
+        assertThat(lines.get(1), containsString("] \"GET /missing-file HTTP/1.1\" 404 "));
+    }
+
+    private static Socket connect(String host, int port) throws Exception {
+        // the vhost is bound asynchronously
+        for (int i = 0; ; i++) {
+            try {
+                return new Socket(host, port);
+            } catch (IOException e) {
+                if (i == 50) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+/**
+ * Guards the allocation rate of the request processing: each scenario drives its requests through the processing flow
+ * of an in memory vhost and measures the bytes allocated per request by the threads of the actor system, failing when
+ * they exceed the budget of the scenario.  The budgets and the number of requests are read from
+ * 'allocation-budgets.conf' and can be overridden with system properties, i.e.: -Dallocation-budgets.ping=16384
+ */
+public class AllocationBudgetTest {
+
+    private static final String SYSTEM_NAME = "allocation-budget";
+    private static final String PING = "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final String STATIC = "GET /static.html HTTP/1.1\r\nHost: localhost\r\nAccept: text/html\r\n\r\n";
+    private static final String UPLOAD = "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1024\r\n\r\n"
+            + String.join("", Collections.nCopies(1024, "x"));
+    private static final int PIPELINED = 16;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Config budgets;
+    private static Path root;
+    private static ActorSystem system;
+    private static InMemoryHandler handler;
+    private static Flow<ByteString, ByteString, NotUsed> connection;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        budgets = ConfigFactory.systemProperties()
+                .withFallback(ConfigFactory.parseResources("allocation-budgets.conf"))
+                .resolve()
+                .getConfig("allocation-budgets");
+        root = Files.createTempDirectory("allocation-budget");
+        Files.write(root.resolve("static.html"), "<html><body>static</body></html>".getBytes("UTF-8"));
+        system = ActorSystem.create(SYSTEM_NAME);
+        VHostConfig config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+        handler = new InMemoryHandler(system, VHostConfig.of(config.host(), config.port(), root,
+                config.dispatcher(), "memory", Collections.emptyList(), 1));
+        handler.start();
+        connection = handler.connection();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (system == null) {
+            return;
+        }
+        handler.terminate();
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+        Files.deleteIfExists(root.resolve("static.html"));
+        Files.deleteIfExists(root);
+    }
+
+    /**
+     * @param request   the raw request
+     * @param batchSize the number of requests written at once
+     * @return the reads of a connection that issues the configured number of requests
+     */
+    private static List<ByteString> reads(String request, int batchSize) {
+        String requests = String.join("", Collections.nCopies(batchSize, request));
+        ByteString batch = ByteString.fromString(requests, "ISO-8859-1");
+        int batches = budgets.getInt("requests") / batchSize;
+        return new ArrayList<>(Collections.nCopies(batches, batch));
+    }
+
+    /**
+     * Writes the argument 'reads' on a new connection and waits for all the responses.
+     *
+     * @return the number of response bytes
+     */
+    private static long drive(List<ByteString> reads) throws Exception {
+        return Source.from(reads)
+                .via(connection)
+                .runFold(0L, (acc, bytes) -> acc + bytes.length(), handler.materializer)
+                .toCompletableFuture()
+                .get(1, TimeUnit.MINUTES);
+    }
+
+    private static Map<Long, Long> allocatedBytes() {
+        Map<Long, Long> allocated = new HashMap<>();
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith(SYSTEM_NAME + "-")) {
+                allocated.put(info.getThreadId(), threads.getThreadAllocatedBytes(info.getThreadId()));
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Warms up the scenario, then measures the bytes allocated by the threads of the actor system while driving it
+     * and compares them per request with the budget of the scenario.
+     */
+    private static void assertWithinBudget(String scenario, String request, int batchSize) throws Exception {
+        List<ByteString> reads = reads(request, batchSize);
+        int requests = reads.size() * batchSize;
+        for (int i = 0; i < budgets.getInt("warm-up-iterations"); i++) {
+            drive(reads);
+        }
+        long expectedBytes = drive(reads);
+        Map<Long, Long> before = allocatedBytes();
+        assertThat(drive(reads), equalTo(expectedBytes));
+        long allocated = 0;
+        for (Map.Entry<Long, Long> after : allocatedBytes().entrySet()) {
+            allocated += after.getValue() - before.getOrDefault(after.getKey(), 0L);
+        }
+        long perRequest = allocated / requests;
+        assertThat("Bytes allocated per request of scenario '" + scenario + "'", perRequest,
+                lessThanOrEqualTo(budgets.getBytes(scenario)));
+    }
+
+    @Test
+    public void ping() throws Exception {
+        assertWithinBudget("ping", PING, 1);
+    }
+
+    @Test
+    public void staticHit() throws Exception {
+        assertWithinBudget("static-hit", STATIC, 1);
+    }
+
+    @Test
+    public void pipelinedBatch() throws Exception {
+        assertWithinBudget("pipelined-batch", PING, PIPELINED);
+    }
+
+    @Test
+    public void postWithBody() throws Exception {
+        assertWithinBudget("post-with-body", UPLOAD, 1);
+    }
+}
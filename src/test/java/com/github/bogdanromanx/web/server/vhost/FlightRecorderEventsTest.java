@@ -0,0 +1,301 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.actor.ActorSystem;
+import com.github.bogdanromanx.web.server.FlightRecorder;
+import com.github.bogdanromanx.web.server.metrics.Counter;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class FlightRecorderEventsTest {
+
+    private static final String PREFIX = "com.github.bogdanromanx.web.server.";
+    private static final String[] EVENTS =
+            {"ConnectionAccepted", "ConnectionClosed", "RequestHead", "ParseFailure", "Handler", "EntityStream"};
+
+    private static ActorSystem system;
+    private static VHostConfig config;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+        config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    @Test
+    public void recordsTheConnectionAndRequestLifecycle() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        AkkaTcpHandler handler = new AkkaTcpHandler(system, VHostConfig.of(config.host(), port, config.path(),
+                config.dispatcher(), "akka", Collections.emptyList(), 1));
+        Path file = Files.createTempFile("web-server", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(PREFIX + event).withThreshold(java.time.Duration.ZERO);
+            }
+            recording.start();
+            handler.start();
+            try (Socket socket = connect(port)) {
+                socket.getOutputStream().write(("POST /upload HTTP/1.1\r\nContent-Length: 5\r\n\r\nhello"
+                        + "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                assertThat(readUntil(socket.getInputStream(), "pong"), containsString("HTTP/1.1 200 OK"));
+            }
+            try (Socket socket = connect(port)) {
+                socket.getOutputStream().write(" / HTTP/1.1\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                Counter parseErrors = handler.metrics.counter("web_server_parse_errors_total",
+                        "The number of requests rejected by the parser, by failure type",
+                        "vhost", handler.vhost, "type", "IllegalHttpMethod");
+                for (int i = 0; i < 100 && parseErrors.value() == 0; i++) {
+                    Thread.sleep(100);
+                }
+            }
+            for (int i = 0; i < 100 && handler.connectionsActive.value() > 0; i++) {
+                Thread.sleep(100);
+            }
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            handler.terminate();
+            Files.deleteIfExists(file);
+        }
+        String vhost = config.host() + ":" + port;
+
+        RecordedEvent ping = event(events, "Handler", "/ping");
+        assertThat(ping.getString("vhost"), equalTo(vhost));
+        assertThat(ping.getClass("handler").getName(), endsWith("PingHandler"));
+        assertThat(ping.getInt("status"), equalTo(200));
+        assertThat(ping.getString("method"), equalTo("GET"));
+
+        RecordedEvent head = event(events, "RequestHead", "/ping");
+        assertThat(head.getInt("headers"), equalTo(1));
+        assertThat(head.getString("protocol"), equalTo("HTTP/1.1"));
+
+        RecordedEvent entity = event(events, "EntityStream", "/upload");
+        assertThat(entity.getLong("contentLength"), equalTo(5L));
+        assertThat(entity.getLong("bytes"), equalTo(5L));
+
+        assertThat(named(events, "ParseFailure").get().getString("type"), equalTo("IllegalHttpMethod"));
+        assertThat(events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + "ConnectionAccepted"))
+                .filter(e -> e.getBoolean("admitted")).count(), equalTo(2L));
+        RecordedEvent closed = named(events, "ConnectionClosed").get();
+        assertThat(closed.getString("transport"), equalTo("akka"));
+        assertThat(closed.getLong("lifetime"), greaterThan(0L));
+    }
+
+    @Test
+    public void recordsTheFailureOfTheNioConnections() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        NioTcpHandler handler = new NioTcpHandler(system, VHostConfig.of(config.host(), port, config.path(),
+                config.dispatcher(), "nio", Collections.emptyList(), 1));
+        Path file = Files.createTempFile("web-server", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PREFIX + "ConnectionClosed").withThreshold(java.time.Duration.ZERO);
+            recording.start();
+            handler.start();
+            try (Socket socket = connect(port)) {
+                socket.getOutputStream().write("GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                        .getBytes(StandardCharsets.ISO_8859_1));
+                assertThat(readUntil(socket.getInputStream(), "pong"), containsString("HTTP/1.1 200 OK"));
+                // resets the connection on close
+                socket.setSoLinger(true, 0);
+            }
+            for (int i = 0; i < 100 && handler.connectionsActive.value() > 0; i++) {
+                Thread.sleep(100);
+            }
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            handler.terminate();
+            Files.deleteIfExists(file);
+        }
+        RecordedEvent closed = named(events, "ConnectionClosed").get();
+        assertThat(closed.getString("transport"), equalTo("nio"));
+        assertThat(closed.getString("failure"), containsString("Connection reset"));
+    }
+
+    @Test
+    public void servesTheRequestsWithoutTheFlightRecorderApi() throws Exception {
+        try (URLClassLoader loader = new WithoutFlightRecorder()) {
+            assertThat(loader.loadClass(FlightRecorder.class.getName()).getMethod("available").invoke(null),
+                    equalTo(false));
+            @SuppressWarnings("unchecked")
+            Callable<String> exchange =
+                    (Callable<String>) loader.loadClass(Exchange.class.getName()).getConstructor().newInstance();
+            assertThat(exchange.call(), allOf(containsString("HTTP/1.1 200 OK"), endsWith("pong")));
+        }
+    }
+
+    private static Optional<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + name)).findFirst();
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, String name, String uri) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(PREFIX + name))
+                .filter(e -> uri.equals(e.getString("uri")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event recorded for " + uri));
+    }
+
+    private static Socket connect(int port) throws Exception {
+        // the vhost is bound asynchronously
+        for (int i = 0; ; i++) {
+            try {
+                return new Socket(config.host(), port);
+            } catch (IOException e) {
+                if (i == 50) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static String readUntil(InputStream in, String suffix) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        byte[] buffer = new byte[1024];
+        int read;
+        while (!sb.toString().endsWith(suffix) && (read = in.read(buffer)) >= 0) {
+            sb.append(new String(buffer, 0, read, StandardCharsets.ISO_8859_1));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Loads the classes of the server (and of this test) by itself, and none of the 'jdk.jfr' package, as on a JVM
+     * without the flight recorder API.
+     */
+    private static final class WithoutFlightRecorder extends URLClassLoader {
+
+        private WithoutFlightRecorder() {
+            super(new URL[]{location(FlightRecorder.class), location(Exchange.class)},
+                    FlightRecorderEventsTest.class.getClassLoader());
+        }
+
+        private static URL location(Class<?> cls) {
+            return cls.getProtectionDomain().getCodeSource().getLocation();
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith("jdk.jfr.")) {
+                throw new ClassNotFoundException(name);
+            }
+            if (!name.startsWith(PREFIX)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null) {
+                    cls = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(cls);
+                }
+                return cls;
+            }
+        }
+    }
+
+    /**
+     * Exchanges an entity, a request and a malformed request with a vhost of its own, through every flight recorder
+     * emission site; loaded by {@link WithoutFlightRecorder}, it must not use the other members of the test.
+     */
+    public static final class Exchange implements Callable<String> {
+
+        @Override
+        public String call() throws Exception {
+            ActorSystem system = ActorSystem.create();
+            VHostConfig config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            AkkaTcpHandler handler = new AkkaTcpHandler(system, VHostConfig.of(config.host(), port, config.path(),
+                    config.dispatcher(), "akka", Collections.emptyList(), 1));
+            try {
+                handler.start();
+                StringBuilder response = new StringBuilder();
+                try (Socket socket = connect(config.host(), port)) {
+                    socket.getOutputStream().write(("POST /upload HTTP/1.1\r\nContent-Length: 5\r\n\r\nhello"
+                            + "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    InputStream in = socket.getInputStream();
+                    byte[] buffer = new byte[1024];
+                    int read;
+                    while (!response.toString().endsWith("pong") && (read = in.read(buffer)) >= 0) {
+                        response.append(new String(buffer, 0, read, StandardCharsets.ISO_8859_1));
+                    }
+                }
+                try (Socket socket = connect(config.host(), port)) {
+                    socket.getOutputStream().write(" / HTTP/1.1\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                    Counter parseErrors = handler.metrics.counter("web_server_parse_errors_total",
+                            "The number of requests rejected by the parser, by failure type",
+                            "vhost", handler.vhost, "type", "IllegalHttpMethod");
+                    for (int i = 0; i < 100 && parseErrors.value() == 0; i++) {
+                        Thread.sleep(100);
+                    }
+                }
+                for (int i = 0; i < 100 && handler.connectionsActive.value() > 0; i++) {
+                    Thread.sleep(100);
+                }
+                return response.toString();
+            } finally {
+                handler.terminate();
+                system.terminate();
+                Await.result(system.whenTerminated(), Duration.Inf());
+            }
+        }
+
+        private static Socket connect(String host, int port) throws Exception {
+            for (int i = 0; ; i++) {
+                try {
+                    return new Socket(host, port);
+                } catch (IOException e) {
+                    if (i == 50) {
+                        throw e;
+                    }
+                    Thread.sleep(100);
+                }
+            }
+        }
+    }
+}
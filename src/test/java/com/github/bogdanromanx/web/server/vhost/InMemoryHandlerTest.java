@@ -0,0 +1,235 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.actor.ActorSystem;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.handling.RequestHandler;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import com.github.bogdanromanx.web.server.types.HttpEntity;
+import com.github.bogdanromanx.web.server.types.HttpRequest;
+import com.github.bogdanromanx.web.server.types.HttpResponse;
+import com.github.bogdanromanx.web.server.types.StatusCode;
+import com.github.bogdanromanx.web.server.types.headers.ContentLength;
+import com.typesafe.config.ConfigFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class InMemoryHandlerTest {
+
+    private static final String PING = "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private static ActorSystem system;
+    private static InMemoryHandler handler;
+    private static InMemoryClient client;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create("in-memory", ConfigFactory.parseString("web.server.metrics.enabled = true")
+                .withFallback(ConfigFactory.load()));
+        VHostConfig config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+        handler = new InMemoryHandler(system, VHostConfig.of(config.host(), config.port(), config.path(),
+                config.dispatcher(), "memory", Collections.emptyList(), 1));
+        handler.start();
+        client = handler.client();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        handler.terminate();
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    @Test
+    public void answersPipelinedRequestsInOrder() throws Exception {
+        List<ByteString> responses = client.pipeline(PING, "GET /missing-file HTTP/1.1\r\nHost: localhost\r\n\r\n", PING)
+                .toCompletableFuture()
+                .get();
+        assertThat(responses.size(), equalTo(3));
+        assertThat(InMemoryClient.asString(responses.get(0)), startsWith("HTTP/1.1 200 OK\r\n"));
+        assertThat(InMemoryClient.asString(responses.get(0)), endsWith("\r\n\r\npong"));
+        assertThat(InMemoryClient.asString(responses.get(1)), startsWith("HTTP/1.1 404 Not Found\r\n"));
+        assertThat(responses.get(2), equalTo(responses.get(0)));
+    }
+
+    @Test
+    public void framesRequestsWrittenOneByteAtATime() throws Exception {
+        List<ByteString> responses = client.pipeline(Arrays.asList(PING, PING), 1).toCompletableFuture().get();
+        assertThat(responses.size(), equalTo(2));
+        assertThat(InMemoryClient.asString(responses.get(1)), endsWith("pong"));
+    }
+
+    @Test
+    public void closesTheConnectionWhenRequested() throws Exception {
+        List<ByteString> responses = client
+                .pipeline("GET /ping HTTP/1.1\r\nConnection: close\r\n\r\n", PING)
+                .toCompletableFuture()
+                .get();
+        assertThat(responses.size(), equalTo(1));
+    }
+
+    @Test
+    public void discardsTheUnreadEntityBeforeTheNextRequest() throws Exception {
+        String upload = "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 2048\r\n\r\n"
+                + String.join("", Collections.nCopies(2048, "x"));
+        for (int chunkSize : Arrays.asList(100, 1460, Integer.MAX_VALUE)) {
+            List<ByteString> responses = client.pipeline(Arrays.asList(upload, PING), chunkSize)
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(responses.size(), equalTo(2));
+            assertThat(InMemoryClient.asString(responses.get(0)), startsWith("HTTP/1.1 404 Not Found\r\n"));
+            assertThat(InMemoryClient.asString(responses.get(1)), endsWith("pong"));
+        }
+    }
+
+    @Test
+    public void leavesTheEntityReadByTheHandlerAlone() throws Exception {
+        RequestHandler reading = new RequestHandler() {
+            @Override
+            public boolean matches(HttpRequest request) {
+                return true;
+            }
+
+            @Override
+            public CompletionStage<HttpResponse> apply(HttpRequest request) {
+                if (!(request.entity() instanceof HttpEntity.Streaming)) {
+                    return CompletableFuture.completedFuture(ok("none"));
+                }
+                return ((HttpEntity.Streaming) request.entity()).source()
+                        .runFold(0L, (length, bytes) -> length + bytes.length(), handler.materializer)
+                        .thenApply(length -> ok("read " + length));
+            }
+
+            private HttpResponse ok(String body) {
+                return HttpResponse.of(StatusCode.OK, Collections.singletonList(ContentLength.of(body.length()).raw()),
+                        HttpEntity.strict(ByteString.fromString(body)));
+            }
+        };
+        String upload = "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 2048\r\n\r\n"
+                + String.join("", Collections.nCopies(2048, "x"));
+        List<ByteString> responses = new InMemoryClient(handler.processingFlow(reading), handler.materializer)
+                .pipeline(Arrays.asList(upload, PING), 100)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        assertThat(responses.size(), equalTo(2));
+        assertThat(InMemoryClient.asString(responses.get(0)), endsWith("read 2048"));
+        assertThat(InMemoryClient.asString(responses.get(1)), endsWith("none"));
+    }
+
+    @Test
+    public void splitsResponsesByContentLength() throws Exception {
+        ByteString raw = ByteString.fromString("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nokHTTP/1.1 304 Not Modified"
+                + "\r\n\r\nHTTP/1.1 200 OK\r\ncontent-length: 10\r\n\r\ntrunc");
+        List<ByteString> responses = InMemoryClient.split(raw);
+        assertThat(responses.size(), equalTo(3));
+        assertThat(InMemoryClient.asString(responses.get(0)), endsWith("ok"));
+        assertThat(InMemoryClient.asString(responses.get(1)), equalTo("HTTP/1.1 304 Not Modified\r\n\r\n"));
+        assertThat(InMemoryClient.asString(responses.get(2)), endsWith("trunc"));
+    }
+
+    @Test
+    public void rendersTheMetrics() throws Exception {
+        List<ByteString> responses = client
+                .pipeline(PING, "GET /metrics HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        String metrics = InMemoryClient.asString(responses.get(1));
+        assertThat(metrics, startsWith("HTTP/1.1 200 OK\r\n"));
+        assertThat(metrics, containsString("Content-Type:text/plain; version=0.0.4\r\n"));
+        assertThat(metrics, containsString("# TYPE web_server_request_duration_seconds histogram\n"));
+        assertThat(metrics, containsString("web_server_request_duration_seconds_count{vhost=\"127.0.0.1:8080\","
+                + "handler=\"PingHandler\",status=\"200\"}"));
+        assertThat(metrics, containsString("web_server_parse_errors_total{vhost=\"127.0.0.1:8080\","
+                + "type=\"IllegalHttpMethod\"}"));
+        assertThat(metrics, containsString("web_server_bytes_in_total{vhost=\"127.0.0.1:8080\"}"));
+    }
+
+    @Test
+    public void answersTheHandlersThatThrowWithAnError() throws Exception {
+        RequestHandler throwing = new RequestHandler() {
+            @Override
+            public boolean matches(HttpRequest request) {
+                return true;
+            }
+
+            @Override
+            public CompletionStage<HttpResponse> apply(HttpRequest request) {
+                throw new IllegalStateException("thrown by the handler");
+            }
+        };
+        List<ByteString> responses = new InMemoryClient(handler.processingFlow(throwing), handler.materializer)
+                .pipeline(PING, PING)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        assertThat(responses.size(), equalTo(2));
+        assertThat(InMemoryClient.asString(responses.get(1)), startsWith("HTTP/1.1 500 Internal Server Error\r\n"));
+        assertThat(handler.requestsInFlight.value(), equalTo(0L));
+    }
+
+    @Test
+    public void recordsTheLatenciesOfTheNonStandardStatusesUnderOneLabel() throws Exception {
+        AtomicInteger names = new AtomicInteger();
+        AtomicInteger statuses = new AtomicInteger(700);
+        RequestHandler custom = new RequestHandler() {
+            @Override
+            public boolean matches(HttpRequest request) {
+                return true;
+            }
+
+            @Override
+            public String name() {
+                names.incrementAndGet();
+                return "CustomHandler";
+            }
+
+            @Override
+            public CompletionStage<HttpResponse> apply(HttpRequest request) {
+                return CompletableFuture.completedFuture(HttpResponse.of(
+                        StatusCode.of("Custom", statuses.getAndAdd(100)),
+                        Collections.singletonList(ContentLength.of(0).raw()), HttpEntity.empty()));
+            }
+        };
+        List<ByteString> responses = new InMemoryClient(handler.processingFlow(custom), handler.materializer)
+                .pipeline(PING, PING, PING)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        assertThat(responses.size(), equalTo(3));
+        assertThat(names.get(), equalTo(1));
+        String metrics = handler.metrics.render();
+        assertThat(metrics, containsString("web_server_request_duration_seconds_count{vhost=\"127.0.0.1:8080\","
+                + "handler=\"CustomHandler\",status=\"other\"} 3"));
+        assertThat(metrics, not(containsString("status=\"700\"")));
+    }
+
+    @Test
+    public void addsTheServerTimingHeaderForTheClientsThatOptIn() throws Exception {
+        List<ByteString> responses = client
+                .pipeline(PING, "GET /ping HTTP/1.1\r\nHost: localhost\r\nX-Server-Timing: 1\r\n\r\n")
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        assertThat(InMemoryClient.asString(responses.get(0)), not(containsString("Server-Timing")));
+        String timed = InMemoryClient.asString(responses.get(1));
+        assertThat(timed, containsString("\r\nServer-Timing:queue;dur="));
+        assertThat(timed, containsString(", handler;dur="));
+        assertThat(timed, endsWith("\r\n\r\npong"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsConnectionsBeforeStart() throws Exception {
+        new InMemoryHandler(system, handler.vHostConfig).connection();
+    }
+}
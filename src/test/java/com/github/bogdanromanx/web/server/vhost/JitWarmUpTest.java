@@ -0,0 +1,108 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.handling.PingHandler;
+import com.github.bogdanromanx.web.server.settings.JitWarmUpConfig;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.typesafe.config.ConfigFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class JitWarmUpTest {
+
+    private static final String PING = "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private static ActorSystem system;
+    private static AkkaTcpHandler handler;
+    private static Flow<ByteString, ByteString, NotUsed> flow;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+        handler = new AkkaTcpHandler(system,
+                SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0));
+        flow = handler.processingFlow(new PingHandler());
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        handler.terminate();
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static JitWarmUp run(int iterations, java.time.Duration timeBudget, String... requests) {
+        JitWarmUp warmUp = new JitWarmUp(JitWarmUpConfig.of(true, iterations, timeBudget, Arrays.asList(requests)));
+        warmUp.run(flow, handler.materializer);
+        return warmUp;
+    }
+
+    @Test
+    public void replaysTheCorpusForTheConfiguredIterations() throws Exception {
+        JitWarmUp warmUp = run(20, java.time.Duration.ofSeconds(30), PING, PING, PING);
+        assertThat(warmUp.iterations(), equalTo(20));
+        assertThat(warmUp.failure().isPresent(), equalTo(false));
+        long responseLength = Source.single(ByteString.fromString(PING))
+                .via(flow)
+                .runFold(0L, (acc, bytes) -> acc + bytes.length(), handler.materializer)
+                .toCompletableFuture()
+                .get();
+        assertThat(warmUp.responseBytes(), equalTo(20 * 3 * responseLength));
+    }
+
+    @Test
+    public void stopsWhenTheTimeBudgetIsExceeded() throws Exception {
+        JitWarmUp warmUp = run(1000, java.time.Duration.ZERO, PING);
+        assertThat(warmUp.iterations(), equalTo(0));
+        assertThat(warmUp.failure().isPresent(), equalTo(false));
+    }
+
+    @Test
+    public void leavesTheMetricsOfTheVHostUntouched() throws Exception {
+        ActorSystem warmed = ActorSystem.create("jit-warm-up", ConfigFactory.parseString(
+                "web.server.jit-warm-up { enabled = true, iterations = 5, requests = [\"" + escaped(PING) + "\", "
+                        + "\"BREW / HTTP/1.1\\r\\n\\r\\n\"] }")
+                .withFallback(ConfigFactory.load()));
+        try {
+            InMemoryHandler vhost = new InMemoryHandler(warmed,
+                    SettingsExtension.SettingsExtensionProvider.get(warmed).vHostConfigs().get(0));
+            vhost.start();
+            assertThat(vhost.jitWarmUp().map(JitWarmUp::iterations), equalTo(Optional.of(5)));
+            assertThat(vhost.requests(), equalTo(0L));
+            assertThat(vhost.requestsInFlight.value(), equalTo(0L));
+            assertThat(vhost.bytesOut.value(), equalTo(0L));
+            assertThat(vhost.metrics.counter("web_server_bytes_in_total",
+                    "The number of bytes read from the connections", "vhost", vhost.vhost).value(), equalTo(0L));
+            assertThat(vhost.metrics.counter("web_server_parse_errors_total",
+                    "The number of requests rejected by the parser, by failure type",
+                    "vhost", vhost.vhost, "type", "IllegalHttpMethod").value(), equalTo(0L));
+            vhost.terminate();
+        } finally {
+            warmed.terminate();
+            Await.result(warmed.whenTerminated(), Duration.Inf());
+        }
+    }
+
+    private static String escaped(String request) {
+        return request.replace("\r", "\\r").replace("\n", "\\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyCorpus() throws Exception {
+        JitWarmUpConfig.of(true, 1, java.time.Duration.ofSeconds(1), Collections.emptyList());
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.bogdanromanx.web.server.vhost;
+
+import akka.actor.ActorSystem;
+import akka.util.ByteString;
+import com.github.bogdanromanx.web.server.settings.SettingsExtension;
+import com.github.bogdanromanx.web.server.settings.VHostConfig;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.RuntimeMBeanException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+public class VHostManagementTest {
+
+    private static final String PING = "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+
+    private static ActorSystem system;
+    private static VHostConfig config;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+        config = SettingsExtension.SettingsExtensionProvider.get(system).vHostConfigs().get(0);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        system.terminate();
+        Await.result(system.whenTerminated(), Duration.Inf());
+    }
+
+    private static VHostConfig vHostConfig(int port, String transport) {
+        return VHostConfig.of(config.host(), port, config.path(), config.dispatcher(), transport,
+                Collections.emptyList(), 1);
+    }
+
+    private static ObjectName name(int port) throws Exception {
+        return new ObjectName("com.github.bogdanromanx.web.server:type=VHost,name="
+                + ObjectName.quote(config.host() + ":" + port));
+    }
+
+    @Test
+    public void exposesTheStatisticsOfTheVHost() throws Exception {
+        InMemoryHandler handler = new InMemoryHandler(system, vHostConfig(18081, "memory"));
+        handler.start();
+        try {
+            ObjectName name = name(18081);
+            handler.client().pipeline(PING, PING).toCompletableFuture().get(10, TimeUnit.SECONDS);
+            assertThat(SERVER.getAttribute(name, "Address"), equalTo(config.host() + ":18081"));
+            assertThat(SERVER.getAttribute(name, "Transport"), equalTo("memory"));
+            assertThat(SERVER.getAttribute(name, "Requests"), equalTo(2L));
+            assertThat(SERVER.getAttribute(name, "InFlightRequests"), equalTo(0L));
+            assertThat(SERVER.getAttribute(name, "ActiveConnections"), equalTo(0L));
+            assertThat((Long) SERVER.getAttribute(name, "DispatcherQueueDepth"), greaterThanOrEqualTo(0L));
+            assertThat((Double) SERVER.getAttribute(name, "FileCacheHitRatio"), equalTo(0.0));
+            assertThat(SERVER.getAttribute(name, "MaxConnections"), equalTo(0));
+            assertThat(SERVER.getAttribute(name, "Pipelining"), equalTo(1));
+        } finally {
+            handler.terminate();
+        }
+        assertThat(SERVER.isRegistered(name(18081)), equalTo(false));
+    }
+
+    @Test
+    public void changesTheLimitsAtRuntime() throws Exception {
+        InMemoryHandler handler = new InMemoryHandler(system, vHostConfig(18082, "memory"));
+        handler.start();
+        try {
+            ObjectName name = name(18082);
+            SERVER.setAttribute(name, new Attribute("Pipelining", 4));
+            SERVER.setAttribute(name, new Attribute("FileCacheMaxBytes", 1024L));
+            SERVER.setAttribute(name, new Attribute("CompressionCacheMaxBytes", 0L));
+            assertThat(handler.pipelining, equalTo(4));
+            assertThat(SERVER.getAttribute(name, "FileCacheMaxBytes"), equalTo(1024L));
+            assertThat(SERVER.getAttribute(name, "CompressionCacheMaxBytes"), equalTo(0L));
+            List<ByteString> responses = handler.client()
+                    .pipeline(PING, "GET /missing-file HTTP/1.1\r\nHost: localhost\r\n\r\n", PING, PING)
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(responses.size(), equalTo(4));
+            assertThat(InMemoryClient.asString(responses.get(1)), startsWith("HTTP/1.1 404 Not Found\r\n"));
+            assertThat(InMemoryClient.asString(responses.get(3)), endsWith("pong"));
+        } finally {
+            handler.terminate();
+        }
+    }
+
+    @Test(expected = RuntimeMBeanException.class)
+    public void rejectsInvalidLimits() throws Exception {
+        InMemoryHandler handler = new InMemoryHandler(system, vHostConfig(18083, "memory"));
+        handler.start();
+        try {
+            SERVER.setAttribute(name(18083), new Attribute("Pipelining", 0));
+        } finally {
+            handler.terminate();
+        }
+    }
+
+    @Test
+    public void closesTheConnectionsOverTheLimit() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        AkkaTcpHandler handler = new AkkaTcpHandler(system, vHostConfig(port, "akka"));
+        handler.start();
+        try {
+            SERVER.setAttribute(name(port), new Attribute("MaxConnections", 1));
+            try (Socket first = connect(port)) {
+                first.getOutputStream().write(PING.getBytes(StandardCharsets.ISO_8859_1));
+                assertThat(read(first.getInputStream()), startsWith("HTTP/1.1 200 OK"));
+                try (Socket second = connect(port)) {
+                    second.setSoTimeout(10000);
+                    assertThat(second.getInputStream().read(), equalTo(-1));
+                }
+            }
+            assertThat(SERVER.getAttribute(name(port), "AcceptedConnections"), equalTo(1L));
+            assertThat(SERVER.getAttribute(name(port), "RejectedConnections"), equalTo(1L));
+        } finally {
+            handler.terminate();
+        }
+    }
+
+    private static Socket connect(int port) throws Exception {
+        // the vhost is bound asynchronously
+        for (int i = 0; ; i++) {
+            try {
+                return new Socket(config.host(), port);
+            } catch (IOException e) {
+                if (i == 50) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        int read = in.read(buffer);
+        return new String(buffer, 0, Math.max(0, read), StandardCharsets.ISO_8859_1);
+    }
+}